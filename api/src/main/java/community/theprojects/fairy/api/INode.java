@@ -3,6 +3,7 @@ package community.theprojects.fairy.api;
 import community.theprojects.fairy.api.command.ICommandHandler;
 import community.theprojects.fairy.api.config.IConfig;
 import community.theprojects.fairy.api.console.IConsole;
+import community.theprojects.fairy.api.group.IGroupManager;
 
 import java.util.UUID;
 
@@ -19,5 +20,6 @@ public interface INode {
     String getVersion();
     IConsole getConsole();
     ICommandHandler getCommandHandler();
+    IGroupManager getGroupManager();
 
 }
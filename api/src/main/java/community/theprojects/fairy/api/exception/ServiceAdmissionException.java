@@ -0,0 +1,8 @@
+package community.theprojects.fairy.api.exception;
+
+public class ServiceAdmissionException extends RuntimeException {
+
+    public ServiceAdmissionException(String message) {
+        super(message);
+    }
+}
@@ -7,7 +7,7 @@ import java.util.List;
 public interface IGroupManager {
 
     IService startService(String groupName);
-    IService startServices(String groupName, int count);
+    List<IService> startServices(String groupName, int count);
     void stopService(String groupName, int number);
     void stopServices(String groupName, int... number);
     void shutdownGroup(String groupName);
@@ -3,6 +3,7 @@ package community.theprojects.fairy.api.service;
 public enum ServiceStatus {
 
     STOPPED,
+    STANDBY,
     STARTING,
     STARTED,
     STOPPING
@@ -0,0 +1,195 @@
+package community.theprojects.fairy.bench.cluster;
+
+import community.theprojects.fairy.node.cluster.TemplateReceiver;
+import community.theprojects.fairy.node.cluster.TemplateSync;
+import community.theprojects.fairy.node.service.ServiceFiles;
+import community.theprojects.fairy.util.network.PacketAuth;
+import community.theprojects.fairy.util.network.PacketConnection;
+import community.theprojects.fairy.util.network.PacketServer;
+import community.theprojects.fairy.util.network.packet.Packets;
+import community.theprojects.fairy.util.network.packet.template.TemplateChunkPacket;
+import community.theprojects.fairy.util.network.packet.template.TemplateManifestPacket;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
+
+// Template-Sync zwischen zwei Prozessen: der Harness ist Master, ein zweiter JVM-Prozess spielt den Worker mit
+// TemplateReceiver. Gemessen werden erster Sync (leerer Cache), erneuter Sync ohne Änderung, Sync mit neuem Master-Prozessstand
+// (Worker hat alle Chunks) und ein Sync nach einer Einfügung mitten in einer großen Datei. Zum Schluss wird der Inhalt verglichen
+// Größe über -Dfairy.bench.syncMegabytes (Standard 256)
+// java -cp bench/target/benchmarks.jar community.theprojects.fairy.bench.cluster.TemplateSyncHarness
+public final class TemplateSyncHarness {
+    private static final int MEGABYTE = 1024 * 1024;
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+    private static final String TEMPLATE = "sync-harness/templates/lobby";
+
+    private TemplateSyncHarness() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 2 && "worker".equals(args[0])) {
+            worker(args[1]);
+            return;
+        }
+        int megabytes = Integer.getInteger("fairy.bench.syncMegabytes", 256);
+        String secret = UUID.randomUUID().toString();
+        Path template = Path.of(TEMPLATE);
+        Path workerRoot = Files.createTempDirectory("fairy-sync-worker");
+        ServiceFiles.deleteDirectory(Path.of("sync-harness"));
+        createTemplate(template, megabytes);
+        Process worker = new ProcessBuilder(ProcessHandle.current().info().command().orElse("java"),
+                "-cp", System.getProperty("java.class.path"), TemplateSyncHarness.class.getName(), "worker", secret)
+                .directory(workerRoot.toFile())
+                .redirectErrorStream(true)
+                .start();
+        try {
+            int port = awaitPort(worker.getInputStream());
+            PacketAuth auth = PacketAuth.of(secret);
+            InetSocketAddress address = new InetSocketAddress("127.0.0.1", port);
+            System.out.printf("Template: %d MB in %d files, worker pid %d%n", megabytes, count(template), worker.pid());
+            try (PacketConnection connection = PacketConnection.connect(address, TIMEOUT, Packets.registry(), null, auth)) {
+                TemplateSync sync = new TemplateSync();
+                print("cold", sync.push(connection, TEMPLATE).get());
+                print("unchanged", sync.push(connection, TEMPLATE).get());
+                sync.close();
+            }
+            // Neuer Master-Prozessstand: das Manifest geht erneut raus, der Worker meldet keine fehlenden Chunks
+            try (PacketConnection connection = PacketConnection.connect(address, TIMEOUT, Packets.registry(), null, auth)) {
+                TemplateSync sync = new TemplateSync();
+                print("reconnect", sync.push(connection, TEMPLATE).get());
+                insert(template.resolve("server.jar"), 4096);
+                Files.writeString(template.resolve("server.properties"), "server-port=25566\nmotd=sync\n");
+                print("edited", sync.push(connection, TEMPLATE).get());
+                sync.close();
+            }
+            Path copy = workerRoot.resolve(TEMPLATE);
+            System.out.println(digest(template).equals(digest(copy)) ? "Worker copy verified" : "Worker copy DIFFERS from template");
+        } finally {
+            worker.destroy();
+            worker.waitFor();
+            ServiceFiles.deleteDirectory(workerRoot);
+            ServiceFiles.deleteDirectory(Path.of("sync-harness"));
+        }
+    }
+
+    // Worker-Prozess: nimmt genau die Pakete an, die auch WorkerAgent an den TemplateReceiver weiterreicht
+    private static void worker(String secret) throws Exception {
+        TemplateReceiver receiver = new TemplateReceiver(Path.of(""), Path.of("cache"));
+        PacketServer server = new PacketServer(PacketServer.bindAddress(0), Packets.registry(), (connection, packet) -> {
+            if (packet instanceof TemplateManifestPacket manifest) {
+                return CompletableFuture.completedFuture(receiver.handle(manifest));
+            }
+            if (packet instanceof TemplateChunkPacket chunks) {
+                return CompletableFuture.completedFuture(receiver.handle(chunks));
+            }
+            return null;
+        }, PacketAuth.of(secret));
+        System.out.println("PORT " + server.getPort());
+        System.out.flush();
+        Thread.currentThread().join();
+    }
+
+    private static int awaitPort(InputStream output) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(output, StandardCharsets.UTF_8));
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.startsWith("PORT ")) {
+                // Weitere Ausgaben des Workers durchreichen
+                Thread.ofVirtual().start(() -> reader.lines().forEach(rest -> System.out.println("[worker] " + rest)));
+                return Integer.parseInt(line.substring(5).trim());
+            }
+            System.out.println("[worker] " + line);
+        }
+        throw new IOException("Worker exited before listening");
+    }
+
+    private static void print(String phase, TemplateSync.Result result) {
+        double seconds = Math.max(1, result.duration().toNanos()) / 1e9;
+        System.out.printf("%-10s %6d ms  %6d chunks  %10d KB raw  %10d KB sent  %8.1f MB/s%n", phase, result.duration().toMillis(),
+                result.chunks(), result.rawBytes() / 1024, result.sentBytes() / 1024, result.rawBytes() / (double) MEGABYTE / seconds);
+    }
+
+    // Grob wie ein Paper-Server: nicht komprimierbare Jars und Regionen, dazu komprimierbare Konfiguration
+    private static void createTemplate(Path template, int megabytes) throws IOException {
+        SplittableRandom random = new SplittableRandom(42);
+        long budget = (long) megabytes * MEGABYTE;
+        write(template.resolve("server.jar"), 48L * MEGABYTE, random);
+        budget -= 48L * MEGABYTE;
+        for (int i = 0; budget > 0; i++) {
+            long size = Math.min(budget, 4L * MEGABYTE);
+            write(template.resolve(i % 2 == 0 ? "libraries/lib-" + i + ".jar" : "world/region/r." + i + ".mca"), size, random);
+            budget -= size;
+        }
+        Files.createDirectories(template.resolve("config"));
+        for (int i = 0; i < 200; i++) {
+            Files.writeString(template.resolve("config/settings-" + i + ".yml"), ("key-" + i + ": value\n").repeat(400));
+        }
+        Files.writeString(template.resolve("server.properties"), "server-port=25565\n");
+    }
+
+    private static void write(Path file, long size, SplittableRandom random) throws IOException {
+        Files.createDirectories(file.getParent());
+        byte[] buffer = new byte[MEGABYTE];
+        try (OutputStream out = Files.newOutputStream(file)) {
+            for (long written = 0; written < size; written += buffer.length) {
+                random.nextBytes(buffer);
+                out.write(buffer, 0, (int) Math.min(buffer.length, size - written));
+            }
+        }
+    }
+
+    // Einfügen verschiebt alle folgenden Bytes; inhaltsdefinierte Chunks halten die Übertragung trotzdem klein
+    private static void insert(Path file, int bytes) throws IOException {
+        byte[] content = Files.readAllBytes(file);
+        byte[] inserted = new byte[bytes];
+        new SplittableRandom(7).nextBytes(inserted);
+        int middle = content.length / 2;
+        try (OutputStream out = Files.newOutputStream(file)) {
+            out.write(content, 0, middle);
+            out.write(inserted);
+            out.write(content, middle, content.length - middle);
+        }
+    }
+
+    private static long count(Path root) throws IOException {
+        try (Stream<Path> files = Files.walk(root)) {
+            return files.filter(Files::isRegularFile).count();
+        }
+    }
+
+    private static Map<String, String> digest(Path root) throws IOException {
+        Map<String, String> digests = new TreeMap<>();
+        try (Stream<Path> files = Files.walk(root)) {
+            for (Path file : files.filter(Files::isRegularFile).toList()) {
+                MessageDigest digest;
+                try {
+                    digest = MessageDigest.getInstance("SHA-256");
+                } catch (NoSuchAlgorithmException e) {
+                    throw new IllegalStateException(e);
+                }
+                try (InputStream in = Files.newInputStream(file)) {
+                    byte[] buffer = new byte[MEGABYTE];
+                    int read;
+                    while ((read = in.read(buffer)) != -1) {
+                        digest.update(buffer, 0, read);
+                    }
+                }
+                digests.put(root.relativize(file).toString(), HexFormat.of().formatHex(digest.digest()));
+            }
+        }
+        return digests;
+    }
+}
@@ -0,0 +1,122 @@
+package community.theprojects.fairy.bench.database;
+
+import community.theprojects.fairy.api.service.ServiceStatus;
+import community.theprojects.fairy.node.database.DatabaseProcessor;
+import community.theprojects.fairy.node.database.EntityMetadata;
+import community.theprojects.fairy.node.database.SQLConnection;
+import community.theprojects.fairy.node.database.dialect.DialectType;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// Kosten pro Feld ohne JDBC: reflective bildet den früheren Weg in DatabaseProcessor nach (Substring, getDeclaredField, setAccessible, Typverzweigung)
+// java -jar bench/target/benchmarks.jar EntityMetadataBenchmark
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class EntityMetadataBenchmark {
+    private BenchEntity entity;
+    private Method setter;
+    private Path value;
+    private DatabaseProcessor processor;
+
+    @Setup
+    public void setup() throws Exception {
+        entity = new BenchEntity(UUID.randomUUID(), "Lobby-1", Path.of("running/Lobby-1"), ServiceStatus.STARTED);
+        setter = BenchEntity.class.getMethod("setPath", Path.class);
+        value = Path.of("running/Lobby-2");
+        processor = new DatabaseProcessor(BenchEntity.class);
+        processor.save(entity);
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        processor.close();
+    }
+
+    @Benchmark
+    public void reflectiveSave(Blackhole blackhole) throws Exception {
+        String fieldName = setter.getName().substring(3);
+        fieldName = fieldName.substring(0, 1).toLowerCase() + fieldName.substring(1);
+        Field idField = entity.getClass().getDeclaredField("id");
+        idField.setAccessible(true);
+        blackhole.consume(idField.get(entity));
+        blackhole.consume(toDbValue(entity.getClass().getDeclaredField(fieldName), value));
+    }
+
+    @Benchmark
+    public void metadataSave(Blackhole blackhole) {
+        EntityMetadata metadata = EntityMetadata.of(entity.getClass());
+        EntityMetadata.Column column = metadata.getColumnByAccessor(setter.getName());
+        blackhole.consume(metadata.getId(entity));
+        blackhole.consume(column.toDb(value));
+    }
+
+    @Benchmark
+    public void reflectiveLoad() throws Exception {
+        Field field = entity.getClass().getDeclaredField("status");
+        field.setAccessible(true);
+        field.set(entity, fromDbValue(field, "STOPPING"));
+    }
+
+    @Benchmark
+    public void metadataLoad() {
+        EntityMetadata.Column column = EntityMetadata.of(entity.getClass()).getColumn("status");
+        column.set(entity, ServiceStatus.STOPPING);
+    }
+
+    // Vollständiger Weg inklusive JDBC gegen eine In-Memory-H2
+    @Benchmark
+    public void h2SaveField() throws SQLException {
+        processor.saveField(entity, "path", value);
+    }
+
+    private static Object toDbValue(Field field, Object value) {
+        if (value == null) return null;
+        Class<?> type = field.getType();
+        if (type == Path.class) return value.toString();
+        if (type.isEnum()) return ((Enum<?>) value).name();
+        if (type == Process.class) return ((Process) value).pid();
+        return value;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Object fromDbValue(Field field, String value) {
+        Class<?> type = field.getType();
+        if (type == Path.class) return Path.of(value);
+        if (type.isEnum()) return Enum.valueOf((Class<Enum>) type, value);
+        return value;
+    }
+
+    @SQLConnection(host = "", port = 0, database = "mem:fairy-bench", username = "sa", password = "", dialect = DialectType.H2)
+    public static class BenchEntity {
+        private UUID id;
+        private String name;
+        private Path path;
+        private ServiceStatus status;
+
+        public BenchEntity(UUID id, String name, Path path, ServiceStatus status) {
+            this.id = id;
+            this.name = name;
+            this.path = path;
+            this.status = status;
+        }
+
+        public void setPath(Path path) {
+            this.path = path;
+        }
+
+        public Path getPath() {
+            return path;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package community.theprojects.fairy.bench.database;
+
+import community.theprojects.fairy.api.service.ServiceStatus;
+import community.theprojects.fairy.node.database.DatabaseProcessor;
+import community.theprojects.fairy.node.database.EntityStore;
+import community.theprojects.fairy.node.database.LocalEntityStore;
+import community.theprojects.fairy.node.database.SQLConnection;
+import community.theprojects.fairy.node.database.dialect.DialectType;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// Local-Backend (mmap-Log + Index) gegen den JDBC-Weg (In-Memory-H2), jeweils so wie ServiceModel den Store nutzt: open, Operation, close
+// Das Local-Backend legt seine Dateien unter storage/local im Arbeitsverzeichnis an
+// java -jar bench/target/benchmarks.jar EntityStoreBenchmark
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class EntityStoreBenchmark {
+    @Param({"local", "h2"})
+    public String backend;
+
+    private StoreEntity entity;
+    private Path[] paths;
+    private int next;
+
+    @Setup
+    public void setup() throws SQLException {
+        entity = new StoreEntity(UUID.randomUUID(), "Lobby-1", Path.of("running/Lobby-1"), ServiceStatus.STARTED);
+        paths = new Path[]{Path.of("running/Lobby-1"), Path.of("running/Lobby-2")};
+        try (EntityStore store = open()) {
+            store.save(entity);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        LocalEntityStore.shutdownAll();
+    }
+
+    @Benchmark
+    public void saveField() throws SQLException {
+        try (EntityStore store = open()) {
+            store.saveField(entity, "path", paths[next++ & 1]);
+        }
+    }
+
+    @Benchmark
+    public void save() throws SQLException {
+        entity.setPath(paths[next++ & 1]);
+        try (EntityStore store = open()) {
+            store.save(entity);
+        }
+    }
+
+    @Benchmark
+    public boolean load() throws SQLException {
+        try (EntityStore store = open()) {
+            return store.load(entity);
+        }
+    }
+
+    private EntityStore open() {
+        return "local".equals(backend) ? LocalEntityStore.open(StoreEntity.class) : new DatabaseProcessor(StoreEntity.class);
+    }
+
+    @SQLConnection(host = "", port = 0, database = "mem:fairy-store-bench", username = "sa", password = "", dialect = DialectType.H2)
+    public static class StoreEntity {
+        private UUID id;
+        private String name;
+        private Path path;
+        private ServiceStatus status;
+
+        public StoreEntity(UUID id, String name, Path path, ServiceStatus status) {
+            this.id = id;
+            this.name = name;
+            this.path = path;
+            this.status = status;
+        }
+
+        public void setPath(Path path) {
+            this.path = path;
+        }
+
+        public Path getPath() {
+            return path;
+        }
+    }
+}
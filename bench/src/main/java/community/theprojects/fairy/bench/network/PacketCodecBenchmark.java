@@ -0,0 +1,95 @@
+package community.theprojects.fairy.bench.network;
+
+import com.nexoscript.nexonet.api.packet.Packet;
+import community.theprojects.fairy.util.network.BufferPool;
+import community.theprojects.fairy.util.network.PacketBuffer;
+import community.theprojects.fairy.util.network.PacketRegistry;
+import community.theprojects.fairy.util.network.packet.Packets;
+import community.theprojects.fairy.util.network.packet.cluster.WorkerHeartbeatPacket;
+import community.theprojects.fairy.util.network.packet.replication.AppendEntriesPacket;
+import community.theprojects.fairy.util.network.packet.replication.LogEntry;
+import community.theprojects.fairy.util.network.packet.replication.StateOperation;
+import community.theprojects.fairy.util.network.packet.service.ServiceStartPacket;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Kodieren und Dekodieren einzelner Pakete im gepoolten Buffer, ohne Netzwerk. decode kopiert die fertigen Bytes
+// zuerst in einen Pool-Buffer, so wie der Leser sie vom Kanal erhält
+// java -jar bench/target/benchmarks.jar PacketCodecBenchmark
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PacketCodecBenchmark {
+    @Param({"start", "heartbeat", "append"})
+    public String packet;
+
+    private PacketRegistry registry;
+    private BufferPool pool;
+    private Packet value;
+    private ByteBuffer encoded;
+
+    @Setup
+    public void setup() throws IOException {
+        registry = Packets.registry();
+        pool = BufferPool.shared();
+        value = switch (packet) {
+            case "start" -> new ServiceStartPacket("Lobby", "templates/lobby");
+            case "heartbeat" -> {
+                Map<String, Integer> services = new LinkedHashMap<>();
+                for (int i = 1; i <= 20; i++) {
+                    services.put("Lobby-" + i, 25 + i);
+                }
+                yield new WorkerHeartbeatPacket("worker-1", 42L, WorkerHeartbeatPacket.FULL, 12L << 30, 350, 2, services);
+            }
+            case "append" -> {
+                List<LogEntry> entries = new ArrayList<>();
+                for (int i = 0; i < 64; i++) {
+                    entries.add(new LogEntry(3L, 1000L + i, StateOperation.put("services", "Lobby-" + i,
+                            "{\"group\":\"Lobby\",\"node\":\"10.0.0.1:7000\",\"port\":" + (30000 + i) + "}")));
+                }
+                yield new AppendEntriesPacket(3L, "10.0.0.1:7000", 999L, 3L, 999L, entries);
+            }
+            default -> throw new IllegalArgumentException("Unknown packet " + packet);
+        };
+        PacketBuffer buffer = new PacketBuffer(pool, 4096);
+        try {
+            registry.encode(value, buffer);
+            ByteBuffer written = buffer.buffer().flip();
+            encoded = ByteBuffer.allocateDirect(written.remaining()).put(written).flip();
+        } finally {
+            buffer.release();
+        }
+    }
+
+    @Benchmark
+    public int encode() throws IOException {
+        PacketBuffer buffer = new PacketBuffer(pool, 4096);
+        try {
+            registry.encode(value, buffer);
+            return buffer.buffer().position();
+        } finally {
+            buffer.release();
+        }
+    }
+
+    @Benchmark
+    public Packet decode() throws IOException {
+        PacketBuffer buffer = new PacketBuffer(pool, encoded.remaining());
+        try {
+            buffer.buffer().put(encoded.duplicate()).flip();
+            return registry.decode(buffer);
+        } finally {
+            buffer.release();
+        }
+    }
+}
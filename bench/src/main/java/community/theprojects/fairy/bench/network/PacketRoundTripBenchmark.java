@@ -0,0 +1,66 @@
+package community.theprojects.fairy.bench.network;
+
+import com.nexoscript.nexonet.api.packet.Packet;
+import community.theprojects.fairy.util.network.PacketAuth;
+import community.theprojects.fairy.util.network.PacketConnection;
+import community.theprojects.fairy.util.network.PacketServer;
+import community.theprojects.fairy.util.network.packet.Packets;
+import community.theprojects.fairy.util.network.packet.service.ServiceStartPacket;
+import community.theprojects.fairy.util.network.packet.service.ServiceStartedPacket;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+// Anfrage und Antwort über eine echte Verbindung auf Loopback; der Handshake läuft nur einmal im Setup.
+// single wartet jede Antwort ab, pipelined hält WINDOW Anfragen gleichzeitig offen und zeigt die Bündelung je Frame
+// java -jar bench/target/benchmarks.jar PacketRoundTripBenchmark
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PacketRoundTripBenchmark {
+    private static final int WINDOW = 64;
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    private PacketServer server;
+    private PacketConnection connection;
+    private ServiceStartPacket request;
+    private CompletableFuture<?>[] window;
+
+    @Setup
+    public void setup() throws IOException {
+        PacketAuth auth = PacketAuth.of("bench-secret");
+        ServiceStartedPacket response = new ServiceStartedPacket("Lobby-1", true, null);
+        server = new PacketServer(new InetSocketAddress("127.0.0.1", 0), Packets.registry(),
+                (ignored, packet) -> CompletableFuture.completedFuture(response), auth);
+        connection = PacketConnection.connect(new InetSocketAddress("127.0.0.1", server.getPort()), TIMEOUT, Packets.registry(), null, auth);
+        request = new ServiceStartPacket("Lobby", "templates/lobby");
+        window = new CompletableFuture<?>[WINDOW];
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        connection.close();
+        server.close();
+    }
+
+    @Benchmark
+    public Packet single() {
+        return connection.request(request, TIMEOUT).join();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(WINDOW)
+    public void pipelined() {
+        for (int i = 0; i < WINDOW; i++) {
+            window[i] = connection.request(request, TIMEOUT);
+        }
+        CompletableFuture.allOf(window).join();
+    }
+}
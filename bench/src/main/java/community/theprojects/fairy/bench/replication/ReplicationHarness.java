@@ -0,0 +1,187 @@
+package community.theprojects.fairy.bench.replication;
+
+import community.theprojects.fairy.node.replication.ClusterState;
+import community.theprojects.fairy.node.replication.ReplicationNode;
+import community.theprojects.fairy.node.replication.ReplicationSettings;
+import community.theprojects.fairy.node.service.ServiceFiles;
+import community.theprojects.fairy.util.network.PacketAuth;
+import community.theprojects.fairy.util.network.packet.replication.StateOperation;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+// Drei Replikations-Nodes in einem Prozess auf Loopback. Gemessen werden Wahl, Latenz über Leader und Follower,
+// Durchsatz mit vielen offenen Vorschlägen und die Übernahme nach Ausfall des Leaders. Danach startet der alte Leader
+// mit abgeschnittenem Log-Ende neu und muss aufholen; zum Schluss wird der Zustand aller Nodes verglichen
+// Umfang über -Dfairy.bench.replicationOps (Standard 20000), fsync wie im Betrieb über -Dfairy.replication.fsync
+// java -cp bench/target/benchmarks.jar community.theprojects.fairy.bench.replication.ReplicationHarness
+public final class ReplicationHarness {
+    private static final int NODES = 3;
+    private static final int LATENCY_SAMPLES = 1000;
+    private static final int WINDOW = 256;
+    private static final long TIMEOUT_MILLIS = 30_000L;
+    private static final String NAMESPACE = "bench";
+
+    private ReplicationHarness() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int operations = Integer.getInteger("fairy.bench.replicationOps", 20000);
+        PacketAuth auth = PacketAuth.of(UUID.randomUUID().toString());
+        List<String> addresses = new ArrayList<>();
+        List<Path> directories = new ArrayList<>();
+        for (int i = 0; i < NODES; i++) {
+            addresses.add("127.0.0.1:" + freePort());
+            directories.add(Files.createTempDirectory("fairy-replication-" + i));
+        }
+        ReplicationNode[] nodes = new ReplicationNode[NODES];
+        try {
+            long started = System.nanoTime();
+            for (int i = 0; i < NODES; i++) {
+                nodes[i] = start(addresses, directories, i, auth);
+            }
+            ReplicationNode leader = awaitLeader(Arrays.asList(nodes));
+            System.out.printf("election   %6d ms  leader %s%n", millisSince(started), leader.getId());
+
+            ReplicationNode follower = Arrays.stream(nodes).filter(node -> node != leader).findFirst().orElseThrow();
+            latency("leader", leader, 0);
+            latency("follower", follower, LATENCY_SAMPLES);
+            throughput(leader, operations);
+
+            // Leader fällt aus: Zeit bis zur neuen Wahl und bis der erste Vorschlag wieder durchgeht
+            int failed = Arrays.asList(nodes).indexOf(leader);
+            long failedAt = System.nanoTime();
+            leader.close();
+            List<ReplicationNode> survivors = new ArrayList<>();
+            for (int i = 0; i < NODES; i++) {
+                if (i != failed) {
+                    survivors.add(nodes[i]);
+                }
+            }
+            ReplicationNode successor = awaitLeader(survivors);
+            long elected = millisSince(failedAt);
+            successor.propose(put("failover")).get(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+            System.out.printf("failover   %6d ms  elected, %d ms until writable, leader %s%n", elected, millisSince(failedAt), successor.getId());
+
+            // Halb geschriebener Eintrag am Log-Ende, wie nach einem Absturz mitten im Schreiben
+            Files.write(directories.get(failed).resolve("log"), new byte[]{0, 0, 1, 0, 0x12, 0x34, 0x56, 0x78, 1, 2, 3}, StandardOpenOption.APPEND);
+            long restarted = System.nanoTime();
+            nodes[failed] = start(addresses, directories, failed, auth);
+            long target = successor.propose(put("rejoin")).get(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+            nodes[failed].getState().awaitApplied(target).get(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+            System.out.printf("rejoin     %6d ms  caught up to index %d%n", millisSince(restarted), target);
+
+            verify(nodes, target, operations);
+        } finally {
+            for (ReplicationNode node : nodes) {
+                if (node != null) {
+                    node.close();
+                }
+            }
+            for (Path directory : directories) {
+                ServiceFiles.deleteDirectory(directory);
+            }
+        }
+    }
+
+    private static ReplicationNode start(List<String> addresses, List<Path> directories, int index, PacketAuth auth) {
+        List<String> peers = new ArrayList<>(addresses);
+        String address = peers.remove(index);
+        ReplicationNode node = new ReplicationNode(new ReplicationSettings(true, address, List.copyOf(peers), directories.get(index)), auth);
+        node.start();
+        return node;
+    }
+
+    private static ReplicationNode awaitLeader(List<ReplicationNode> nodes) throws InterruptedException, TimeoutException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(TIMEOUT_MILLIS);
+        while (System.nanoTime() < deadline) {
+            for (ReplicationNode node : nodes) {
+                if (node.isLeader()) {
+                    return node;
+                }
+            }
+            Thread.sleep(5L);
+        }
+        throw new TimeoutException("No leader elected within " + TIMEOUT_MILLIS + " ms");
+    }
+
+    // Einzelne Vorschläge nacheinander; über einen Follower kommt die Weiterleitung an den Leader hinzu
+    private static void latency(String phase, ReplicationNode node, int offset) throws Exception {
+        long[] samples = new long[LATENCY_SAMPLES];
+        for (int i = 0; i < LATENCY_SAMPLES; i++) {
+            long begin = System.nanoTime();
+            node.propose(put("latency-" + (offset + i))).get(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+            samples[i] = System.nanoTime() - begin;
+        }
+        Arrays.sort(samples);
+        System.out.printf("%-10s %6d ops  p50 %8.2f ms  p99 %8.2f ms  max %8.2f ms%n", phase, LATENCY_SAMPLES,
+                percentile(samples, 0.50), percentile(samples, 0.99), samples[samples.length - 1] / 1e6);
+    }
+
+    // Viele offene Vorschläge landen gemeinsam in einem Append und einem fsync
+    private static void throughput(ReplicationNode leader, int operations) throws Exception {
+        Semaphore window = new Semaphore(WINDOW);
+        List<CompletableFuture<Long>> pending = new ArrayList<>(operations);
+        long begin = System.nanoTime();
+        for (int i = 0; i < operations; i++) {
+            window.acquire();
+            pending.add(leader.propose(put("key-" + i)).whenComplete((index, failure) -> window.release()));
+        }
+        CompletableFuture.allOf(pending.toArray(CompletableFuture[]::new)).get(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        double seconds = (System.nanoTime() - begin) / 1e9;
+        System.out.printf("throughput %6d ops  %8.0f ops/s  window %d%n", operations, operations / seconds, WINDOW);
+    }
+
+    private static void verify(ReplicationNode[] nodes, long index, int operations) throws Exception {
+        Map<String, String> expected = null;
+        boolean equal = true;
+        for (ReplicationNode node : nodes) {
+            ClusterState state = node.getState();
+            state.awaitApplied(index).get(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+            Map<String, String> entries = new TreeMap<>(state.entries(NAMESPACE));
+            if (expected == null) {
+                expected = entries;
+            } else if (!expected.equals(entries)) {
+                equal = false;
+            }
+        }
+        boolean complete = expected != null && expected.keySet().containsAll(keys(operations));
+        System.out.println(equal && complete ? "State verified on " + nodes.length + " nodes (" + expected.size() + " entries)"
+                : "State DIFFERS between nodes or misses entries");
+    }
+
+    private static List<String> keys(int operations) {
+        List<String> keys = new ArrayList<>(operations);
+        for (int i = 0; i < operations; i++) {
+            keys.add("key-" + i);
+        }
+        return keys;
+    }
+
+    private static StateOperation put(String key) {
+        return StateOperation.put(NAMESPACE, key, "{\"group\":\"Lobby\",\"node\":\"127.0.0.1\",\"port\":25565}");
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(percentile * sorted.length) - 1)] / 1e6;
+    }
+
+    private static long millisSince(long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - nanos);
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package community.theprojects.fairy.bench.rest;
+
+import community.theprojects.fairy.api.service.ServiceStatus;
+import community.theprojects.fairy.restclient.BulkResult;
+import community.theprojects.fairy.restclient.ClientSettings;
+import community.theprojects.fairy.restclient.FairyRestClient;
+import community.theprojects.fairy.restclient.model.ServiceInfo;
+import community.theprojects.fairy.restclient.model.StartResult;
+import community.theprojects.fairy.restclient.model.StopResult;
+import community.theprojects.fairy.restserver.Router;
+import community.theprojects.fairy.restserver.RestServer;
+import community.theprojects.fairy.restserver.SnapshotCache;
+import community.theprojects.fairy.restserver.TokenAuth;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// FairyRestClient gegen einen Stub-Server auf Loopback: RestServer mit festen Antworten in der Form von NodeApi.
+// services liest die Liste komplett, stream dekodiert sie Element für Element, bulk schickt BULK Stopps mit maxInFlight
+// gleichzeitig offenen Anfragen. Gemessen wird der Client samt HTTP-Stack, nicht der Node
+// java -jar bench/target/benchmarks.jar RestClientBenchmark
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RestClientBenchmark {
+    private static final int BULK = 64;
+
+    @Param({"10", "500"})
+    public int services;
+
+    private Path secret;
+    private RestServer server;
+    private FairyRestClient client;
+    private List<String> names;
+
+    @Setup
+    public void setup() throws IOException {
+        secret = Files.createTempFile("fairy-client-bench", ".secret");
+        Files.delete(secret);
+        TokenAuth auth = TokenAuth.load(secret);
+        List<ServiceView> views = new ArrayList<>(services);
+        for (int i = 1; i <= services; i++) {
+            views.add(new ServiceView(UUID.randomUUID().toString(), "Lobby-" + i, "Lobby", i, 30000 + i, ServiceStatus.STARTED, Instant.now()));
+        }
+        SnapshotCache cache = new SnapshotCache();
+        Router router = Router.builder()
+                .get("/api/services", (request, response) -> cache.json(request, response, "services", 1L, () -> views))
+                .post("/api/groups/{group}/services", (request, response) -> response.json(201,
+                        new StartView(request.param("group"), 1, List.of(views.getFirst()), Map.of(), 0L)))
+                .post("/api/services/{service}/stop", (request, response) -> response.json(200,
+                        new StopView(request.param("service"), 1, Map.of("STOPPED", 1), 0L)))
+                .build();
+        server = new RestServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), router, auth);
+        client = new FairyRestClient(ClientSettings.of("http://127.0.0.1:" + server.getPort(), auth.getToken()));
+        names = new ArrayList<>(BULK);
+        for (int i = 0; i < BULK; i++) {
+            names.add(views.get(i % views.size()).name() + "-" + i);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        client.close();
+        server.close();
+        Files.deleteIfExists(secret);
+    }
+
+    @Benchmark
+    public List<ServiceInfo> list() {
+        return client.services().join();
+    }
+
+    @Benchmark
+    public long stream() {
+        LongAdder count = new LongAdder();
+        client.streamServices(null, service -> count.increment()).join();
+        return count.sum();
+    }
+
+    @Benchmark
+    public StartResult start() {
+        return client.start("Lobby", 1).join();
+    }
+
+    @Benchmark
+    public StopResult stop() {
+        return client.stop(names.getFirst()).join();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BULK)
+    public BulkResult<StopResult> bulk() {
+        return client.stopAll(names).join();
+    }
+
+    record ServiceView(String id, String name, String group, int number, int port, ServiceStatus status, Instant startedAt) {
+    }
+
+    record StartView(String group, int requested, List<ServiceView> started, Map<String, String> failures, long durationMillis) {
+    }
+
+    record StopView(String service, int services, Map<String, Integer> outcomes, long durationMillis) {
+    }
+}
@@ -0,0 +1,225 @@
+package community.theprojects.fairy.bench.rest;
+
+import community.theprojects.fairy.restserver.*;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntFunction;
+
+// Last auf den REST-Server über Loopback mit Keep-Alive-Verbindungen; gemessen werden req/s und Latenz-Perzentile
+// für Service-Liste, Start und Stopp. Die Routen entsprechen denen aus NodeApi, arbeiten aber auf einer Registry im
+// Speicher, damit nur Server, Routing, Token-Prüfung, Snapshot-Cache und JSON gemessen werden und keine Prozessstarts
+// Umfang über -Dfairy.bench.apiConnections (Standard 64), -Dfairy.bench.apiRequests (Standard 100000) und
+// -Dfairy.bench.apiServices (Standard 200 vorhandene Services für die Liste)
+// java -cp bench/target/benchmarks.jar community.theprojects.fairy.bench.rest.RestLoadHarness
+public final class RestLoadHarness {
+    private static final String GROUP = "Lobby";
+
+    private RestLoadHarness() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int connections = Integer.getInteger("fairy.bench.apiConnections", 64);
+        int requests = Integer.getInteger("fairy.bench.apiRequests", 100000);
+        int existing = Integer.getInteger("fairy.bench.apiServices", 200);
+        Path secret = Files.createTempFile("fairy-api", ".secret");
+        Files.delete(secret);
+        TokenAuth auth = TokenAuth.load(secret);
+        Registry registry = new Registry();
+        for (int i = 0; i < existing; i++) {
+            registry.start(GROUP);
+        }
+        try (RestServer server = new RestServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), registry.routes(), auth)) {
+            InetSocketAddress address = new InetSocketAddress(InetAddress.getLoopbackAddress(), server.getPort());
+            String token = auth.getToken();
+            System.out.printf("%d connections, %d services listed%n", connections, existing);
+
+            // Erster Durchlauf wärmt JIT und Cache auf
+            run("warmup", address, token, connections, requests, i -> "GET /api/services");
+            run("list", address, token, connections, requests, i -> "GET /api/services");
+            // Start und Stopp ändern die Registry-Version, die Liste wird danach einmal neu serialisiert
+            int changes = Math.max(connections, requests / 5);
+            run("start", address, token, connections, changes, i -> "POST /api/groups/" + GROUP + "/services?count=1");
+            List<String> started = new ArrayList<>(registry.names());
+            started.subList(0, existing).clear();
+            run("stop", address, token, connections, started.size(), i -> "POST /api/services/" + started.get(i) + "/stop");
+            run("list", address, token, connections, requests, i -> "GET /api/services");
+
+            RestServer.Stats stats = server.getStats();
+            System.out.printf("server: %d requests, %d errors, %d unauthorized%n", stats.requests(), stats.errors(), stats.unauthorized());
+        } finally {
+            Files.deleteIfExists(secret);
+        }
+    }
+
+    // Jede Verbindung arbeitet ihren Anteil der Anfragen nacheinander ab
+    private static void run(String phase, InetSocketAddress address, String token, int connections, int requests, IntFunction<String> target) throws Exception {
+        long[] latencies = new long[requests];
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger failures = new AtomicInteger();
+        List<Thread> threads = new ArrayList<>(connections);
+        long begin = System.nanoTime();
+        for (int c = 0; c < connections; c++) {
+            threads.add(Thread.ofVirtual().name("fairy-bench-api-", c).start(() -> {
+                try (Client client = new Client(address, token)) {
+                    int i;
+                    while ((i = next.getAndIncrement()) < requests) {
+                        String line = target.apply(i);
+                        long start = System.nanoTime();
+                        int status = client.send(line);
+                        latencies[i] = System.nanoTime() - start;
+                        if (status >= 400) {
+                            failures.incrementAndGet();
+                        }
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        double seconds = (System.nanoTime() - begin) / 1e9;
+        Arrays.sort(latencies);
+        System.out.printf("%-7s %8d req  %10.0f req/s  p50 %7.3f ms  p99 %7.3f ms  max %7.3f ms  %d failed%n", phase, requests,
+                requests / seconds, percentile(latencies, 0.50), percentile(latencies, 0.99), latencies[latencies.length - 1] / 1e6, failures.get());
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(percentile * sorted.length) - 1)] / 1e6;
+    }
+
+    // Minimaler HTTP/1.1-Client: eine Anfrage nach der anderen auf derselben Verbindung, Body wird nur überlesen
+    private static final class Client implements Closeable {
+        private final Socket socket;
+        private final InputStream in;
+        private final OutputStream out;
+        private final String token;
+
+        private Client(InetSocketAddress address, String token) throws IOException {
+            this.socket = new Socket();
+            this.socket.setTcpNoDelay(true);
+            this.socket.connect(address);
+            this.in = new BufferedInputStream(socket.getInputStream(), 16 * 1024);
+            this.out = new BufferedOutputStream(socket.getOutputStream(), 1024);
+            this.token = token;
+        }
+
+        private int send(String line) throws IOException {
+            String[] parts = line.split(" ", 2);
+            String request = parts[0] + " " + parts[1] + " HTTP/1.1\r\nHost: localhost\r\nAuthorization: Bearer " + token
+                    + (parts[0].equals("POST") ? "\r\nContent-Length: 0" : "") + "\r\n\r\n";
+            out.write(request.getBytes(StandardCharsets.ISO_8859_1));
+            out.flush();
+            String status = readLine();
+            if (status == null || status.length() < 12) {
+                throw new EOFException("Connection closed by server");
+            }
+            long length = 0;
+            boolean chunked = false;
+            String header;
+            while ((header = readLine()) != null && !header.isEmpty()) {
+                int colon = header.indexOf(':');
+                String name = header.substring(0, colon).trim();
+                if (name.equalsIgnoreCase("Content-Length")) {
+                    length = Long.parseLong(header.substring(colon + 1).trim());
+                } else if (name.equalsIgnoreCase("Transfer-Encoding")) {
+                    chunked = true;
+                }
+            }
+            if (chunked) {
+                long size;
+                while ((size = Long.parseLong(readLine().trim(), 16)) > 0) {
+                    in.skipNBytes(size);
+                    readLine();
+                }
+                readLine();
+            } else {
+                in.skipNBytes(length);
+            }
+            return Integer.parseInt(status.substring(9, 12));
+        }
+
+        private String readLine() throws IOException {
+            StringBuilder line = new StringBuilder(64);
+            int b;
+            while ((b = in.read()) >= 0 && b != '\n') {
+                if (b != '\r') {
+                    line.append((char) b);
+                }
+            }
+            return b < 0 && line.isEmpty() ? null : line.toString();
+        }
+
+        @Override
+        public void close() throws IOException {
+            socket.close();
+        }
+    }
+
+    // Gleiche Routen und Antwortformen wie NodeApi, nur ohne Prozesse dahinter
+    private static final class Registry {
+        private final Map<String, ServiceView> services = new ConcurrentSkipListMap<>();
+        private final AtomicInteger numbers = new AtomicInteger();
+        private final AtomicLong version = new AtomicLong();
+        private final SnapshotCache cache = new SnapshotCache();
+
+        private Router routes() {
+            return Router.builder()
+                    .get("/api/services", (request, response) -> cache.json(request, response, "services", version.get(),
+                            () -> List.copyOf(services.values())))
+                    .post("/api/groups/{group}/services", (request, response) -> {
+                        int count = request.queryInt("count", 1);
+                        List<ServiceView> started = new ArrayList<>(count);
+                        long begin = System.nanoTime();
+                        for (int i = 0; i < count; i++) {
+                            started.add(start(request.param("group")));
+                        }
+                        response.json(201, new StartView(request.param("group"), count, started, Map.of(), (System.nanoTime() - begin) / 1_000_000L));
+                    })
+                    .post("/api/services/{service}/stop", (request, response) -> {
+                        ServiceView service = services.remove(request.param("service"));
+                        if (service == null) {
+                            throw new HttpException(404, "Unknown service '" + request.param("service") + "'");
+                        }
+                        version.incrementAndGet();
+                        response.json(200, new StopView(service.name(), 1, Map.of("STOPPED", 1), 0L));
+                    })
+                    .build();
+        }
+
+        private ServiceView start(String group) {
+            int number = numbers.incrementAndGet();
+            ServiceView service = new ServiceView(UUID.randomUUID().toString(), group + "-" + number, group, number, 30000 + number,
+                    "STARTED", Instant.now());
+            services.put(service.name(), service);
+            version.incrementAndGet();
+            return service;
+        }
+
+        // In Startreihenfolge, nicht alphabetisch
+        private List<String> names() {
+            return services.values().stream().sorted(Comparator.comparingInt(ServiceView::number)).map(ServiceView::name).toList();
+        }
+    }
+
+    record ServiceView(String id, String name, String group, int number, int port, String status, Instant startedAt) {
+    }
+
+    record StartView(String group, int requested, List<ServiceView> started, Map<String, String> failures, long durationMillis) {
+    }
+
+    record StopView(String service, int services, Map<String, Integer> outcomes, long durationMillis) {
+    }
+}
@@ -0,0 +1,75 @@
+package community.theprojects.fairy.bench.service;
+
+import community.theprojects.fairy.grouprunner.ArchiveCache;
+import community.theprojects.fairy.node.service.ServiceFiles;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// JVM-Start bis Prozessende mit und ohne Klassen-Archiv aus dem ArchiveCache (AppCDS bis JDK 24, AOT-Cache ab 25)
+// Gestartet wird StartupProbe aus benchmarks.jar mit dem JDK, das auch JMH ausführt
+// java -jar bench/target/benchmarks.jar LaunchBenchmark
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 15)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LaunchBenchmark {
+    @Param({"off", "archive"})
+    public String mode;
+
+    private Path cache;
+    private List<String> command;
+
+    @Setup(Level.Trial)
+    public void train() throws Exception {
+        Path jar = Path.of(StartupProbe.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+        String java = ProcessHandle.current().info().command().orElse("java");
+        int major = Runtime.version().feature();
+        cache = Files.createTempDirectory("fairy-archives");
+        ArchiveCache archives = new ArchiveCache(cache);
+        List<String> flags = List.of();
+        if ("archive".equals(mode)) {
+            // Ein Trainingslauf schreibt das Archiv, danach liefert prepare() nur noch die Flags zum Verwenden
+            ArchiveCache.Launch training = archives.prepare(jar, "bench", major);
+            Process process = start(java, training.flags(), jar);
+            training.started(process).get();
+            flags = archives.prepare(jar, "bench", major).flags();
+            if (flags.isEmpty()) {
+                throw new IllegalStateException("Training run did not produce an archive in " + cache);
+            }
+        }
+        command = new ArrayList<>();
+        command.add(java);
+        command.addAll(flags);
+        command.add("-cp");
+        command.add(jar.toString());
+        command.add(StartupProbe.class.getName());
+    }
+
+    @TearDown(Level.Trial)
+    public void cleanup() throws IOException {
+        ServiceFiles.deleteDirectory(cache);
+    }
+
+    @Benchmark
+    public int launch() throws Exception {
+        return new ProcessBuilder(command).redirectErrorStream(true).redirectOutput(ProcessBuilder.Redirect.DISCARD).start().waitFor();
+    }
+
+    private static Process start(String java, List<String> flags, Path jar) throws IOException {
+        List<String> command = new ArrayList<>();
+        command.add(java);
+        command.addAll(flags);
+        command.add("-cp");
+        command.add(jar.toString());
+        command.add(StartupProbe.class.getName());
+        return new ProcessBuilder(command).redirectErrorStream(true).redirectOutput(ProcessBuilder.Redirect.DISCARD).start();
+    }
+}
@@ -0,0 +1,111 @@
+package community.theprojects.fairy.bench.service;
+
+import community.theprojects.fairy.node.service.ServiceFiles;
+import community.theprojects.fairy.node.service.TemplateProvisioner;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// Bereitstellen eines Service-Verzeichnisses aus einem 2-GB-Template: vollständig (leeres Ziel) und inkrementell (nichts geändert)
+// copy: Files.copy (Reflink auf btrfs/XFS), link: Hardlinks nur für Jars und libraries/
+// Template und Ziel liegen unter java.io.tmpdir, für aussagekräftige Werte -Djava.io.tmpdir auf das Service-Dateisystem setzen
+// java -jar bench/target/benchmarks.jar ProvisioningBenchmark
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ProvisioningBenchmark {
+    private static final int MEGABYTE = 1024 * 1024;
+
+    @Param({"2048"})
+    public int templateMegabytes;
+
+    @Param({"copy", "link"})
+    public String mode;
+
+    private Path root;
+    private Path template;
+    private Path target;
+    private TemplateProvisioner provisioner;
+
+    @Setup(Level.Trial)
+    public void createTemplate() throws IOException {
+        root = Files.createTempDirectory("fairy-provision");
+        template = root.resolve("template");
+        target = root.resolve("service");
+        provisioner = "link".equals(mode)
+                ? new TemplateProvisioner(true, List.of("**.jar", "libraries/**"))
+                : new TemplateProvisioner(false, List.of());
+        // Grob wie ein Paper-Server: Server-Jar, Bibliotheken, Plugins, Welt mit Region-Dateien
+        SplittableRandom random = new SplittableRandom(42);
+        long budget = (long) templateMegabytes * MEGABYTE;
+        write(template.resolve("server.jar"), 48L * MEGABYTE, random);
+        budget -= 48L * MEGABYTE;
+        budget -= fill(template.resolve("libraries"), "lib-", ".jar", budget / 5, 2 * MEGABYTE, random);
+        budget -= fill(template.resolve("plugins"), "plugin-", ".jar", budget / 10, 4 * MEGABYTE, random);
+        fill(template.resolve("world/region"), "r.", ".mca", budget, 8 * MEGABYTE, random);
+        Files.writeString(template.resolve("server.properties"), "server-port=25565\n");
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteTemplate() throws IOException {
+        ServiceFiles.deleteDirectory(root);
+    }
+
+    @State(Scope.Thread)
+    public static class Empty {
+        @Setup(Level.Invocation)
+        public void clear(ProvisioningBenchmark benchmark) throws IOException {
+            ServiceFiles.deleteDirectory(benchmark.target);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Provisioned {
+        @Setup(Level.Invocation)
+        public void prepare(ProvisioningBenchmark benchmark) throws IOException {
+            if (!Files.isDirectory(benchmark.target)) {
+                benchmark.provisioner.provision(benchmark.template, benchmark.target);
+            }
+        }
+    }
+
+    @Benchmark
+    public TemplateProvisioner.Result full(Empty empty) throws IOException {
+        return provisioner.provision(template, target);
+    }
+
+    @Benchmark
+    public TemplateProvisioner.Result incremental(Provisioned provisioned) throws IOException {
+        return provisioner.provision(template, target);
+    }
+
+    private static long fill(Path directory, String prefix, String suffix, long bytes, int fileSize, SplittableRandom random) throws IOException {
+        long written = 0;
+        for (int i = 0; written < bytes; i++) {
+            long size = Math.min(fileSize, bytes - written);
+            write(directory.resolve(prefix + i + suffix), size, random);
+            written += size;
+        }
+        return written;
+    }
+
+    private static void write(Path file, long size, SplittableRandom random) throws IOException {
+        Files.createDirectories(file.getParent());
+        byte[] buffer = new byte[64 * 1024];
+        try (OutputStream out = Files.newOutputStream(file)) {
+            for (long left = size; left > 0; left -= buffer.length) {
+                random.nextBytes(buffer);
+                out.write(buffer, 0, (int) Math.min(buffer.length, left));
+            }
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package community.theprojects.fairy.bench.service;
+
+import community.theprojects.fairy.grouprunner.GroupRunnerClient;
+import community.theprojects.fairy.node.service.GroupRunners;
+import community.theprojects.fairy.node.service.ProcessStats;
+import community.theprojects.fairy.node.service.ServiceFiles;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+// Startet GroupRunnerDaemon mit demselben Befehl wie die Node und prüft Startzeit und RSS gegen das Budget
+// (fairy.runner.startupBudget, Standard 1000 ms, und fairy.runner.rssBudget, Standard 64 MB). Der erste Lauf legt das
+// CDS-Archiv an und wird nur angezeigt, geprüft werden die folgenden. Bei Überschreitung endet der Prozess mit Code 1
+// Anzahl der Läufe über -Dfairy.bench.runnerRuns (Standard 5)
+// java -cp bench/target/benchmarks.jar community.theprojects.fairy.bench.service.RunnerBudgetHarness
+public final class RunnerBudgetHarness {
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    private RunnerBudgetHarness() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int runs = Integer.getInteger("fairy.bench.runnerRuns", 5);
+        Path directory = Files.createTempDirectory("fairy-runner-budget");
+        Path archive = directory.resolve("group-runner.jsa");
+        boolean within = true;
+        try {
+            for (int run = 0; run <= runs; run++) {
+                Path socket = directory.resolve("runner-" + run + ".sock");
+                long begin = System.nanoTime();
+                new ProcessBuilder(GroupRunners.command("Budget", socket, archive))
+                        .redirectErrorStream(true)
+                        .redirectOutput(ProcessBuilder.Redirect.appendTo(directory.resolve("runner.log").toFile()))
+                        .start();
+                GroupRunnerClient client = GroupRunnerClient.connect(socket, TIMEOUT);
+                GroupRunnerClient.Hello hello = client.getHello(TIMEOUT);
+                long connected = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - begin);
+                // Der Runner misst beim Hello selbst, danach zählt der Stand im Leerlauf
+                Thread.sleep(200L);
+                long rss = Math.max(hello.rssBytes(), ProcessStats.rssBytes(hello.pid()));
+                boolean ok = GroupRunners.withinBudget(hello.startupMillis(), rss);
+                System.out.printf("%-6s startup %5d ms  connected %5d ms  rss %5.1f MB  %s%n", run == 0 ? "cold" : "run " + run,
+                        hello.startupMillis(), connected, rss / (1024.0 * 1024.0), ok ? "ok" : "OVER BUDGET");
+                if (run > 0) {
+                    within &= ok;
+                }
+                // Sauber beenden, damit das CDS-Archiv beim ersten Lauf geschrieben wird
+                client.shutdown(Duration.ofSeconds(5));
+                ProcessHandle.of(hello.pid()).ifPresent(process -> process.onExit().orTimeout(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS).join());
+                client.close();
+            }
+        } finally {
+            ServiceFiles.deleteDirectory(directory);
+        }
+        System.out.printf("Budget %d ms / %d MB: %s%n", GroupRunners.STARTUP_BUDGET, GroupRunners.RSS_BUDGET >> 20, within ? "met" : "EXCEEDED");
+        if (!within) {
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package community.theprojects.fairy.bench.service;
+
+import community.theprojects.fairy.util.json.JsonSerializer;
+
+import java.net.http.HttpClient;
+import java.util.List;
+
+// Startziel für LaunchBenchmark: lädt und initialisiert einen Teil der Node (Gruppen, Services, REST, JSON) und beendet sich
+public final class StartupProbe {
+    private static final List<String> CLASSES = List.of(
+            "community.theprojects.fairy.node.group.GroupManager",
+            "community.theprojects.fairy.node.service.ServiceStartEngine",
+            "community.theprojects.fairy.node.rest.NodeApi",
+            "community.theprojects.fairy.node.replication.ReplicationNode",
+            "community.theprojects.fairy.node.database.DatabaseProcessor");
+
+    private StartupProbe() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        for (String name : CLASSES) {
+            Class.forName(name, true, StartupProbe.class.getClassLoader());
+        }
+        JsonSerializer.serialize(new Probe("probe", CLASSES.size()));
+        HttpClient.newHttpClient().close();
+    }
+
+    public record Probe(String name, int classes) {
+    }
+}
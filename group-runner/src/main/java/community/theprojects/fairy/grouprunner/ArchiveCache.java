@@ -0,0 +1,134 @@
+package community.theprojects.fairy.grouprunner;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+public final class ArchiveCache {
+    private final Path directory;
+    private final Map<String, String> hashes;
+    private final Set<String> training;
+    private final AtomicLong runs;
+
+    public ArchiveCache(Path directory) {
+        this.directory = directory;
+        this.hashes = new ConcurrentHashMap<>();
+        this.training = ConcurrentHashMap.newKeySet();
+        this.runs = new AtomicLong();
+    }
+
+    // Die Jar wird im Service-Verzeichnis gestartet, damit relative Class-Path-Einträge (libraries/) auflösbar bleiben.
+    // CDS akzeptiert das, solange der Klassenpfad relativ gleich ist und Größe und Änderungszeit der Jar übereinstimmen.
+    public Launch prepare(Path jar, String type, int javaMajor) throws IOException {
+        if (javaMajor < 13) {
+            return new Launch(List.of(), null);
+        }
+        String key = type.toLowerCase(Locale.ROOT) + "-" + javaMajor + "-" + hash(jar);
+        String extension = javaMajor >= 25 ? ".aot" : ".jsa";
+        Path archives = Files.createDirectories(directory.resolve("archives"));
+        Path archive = archives.resolve(key + extension).toAbsolutePath();
+        if (Files.exists(archive)) {
+            return new Launch(List.of(javaMajor >= 25 ? "-XX:AOTCache=" + archive : "-XX:SharedArchiveFile=" + archive), null);
+        }
+        // Nur ein Trainingslauf je Archiv; gleichzeitig startende Services laufen so lange ohne Archiv
+        if (!training.add(key)) {
+            return new Launch(List.of(), null);
+        }
+        Path temp = archives.resolve(key + "-" + ProcessHandle.current().pid() + "-" + runs.incrementAndGet() + ".training" + extension).toAbsolutePath();
+        // JDK 25 (JEP 514) schreibt den AOT-Cache in einem Schritt, davor dynamisches AppCDS beim Beenden
+        String flag = javaMajor >= 25 ? "-XX:AOTCacheOutput=" + temp : "-XX:ArchiveClassesAtExit=" + temp;
+        return new Launch(List.of(flag), new Training(key, temp, archive));
+    }
+
+    // Inhalts-Hash der Jar; Hardlinks teilen sich den fileKey und werden nur einmal gehasht
+    private String hash(Path jar) throws IOException {
+        BasicFileAttributes attributes = Files.readAttributes(jar, BasicFileAttributes.class);
+        Object identity = attributes.fileKey() != null ? attributes.fileKey() : jar.toAbsolutePath().normalize();
+        String memo = identity + ":" + attributes.size() + ":" + attributes.lastModifiedTime().toMillis();
+        String cached = hashes.get(memo);
+        if (cached != null) {
+            return cached;
+        }
+        try (InputStream in = Files.newInputStream(jar)) {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] buffer = new byte[64 * 1024];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+            String hash = HexFormat.of().formatHex(digest.digest(), 0, 8);
+            hashes.put(memo, hash);
+            return hash;
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public record Launch(List<String> flags, Training training) {
+
+        public boolean isTraining() {
+            return training != null;
+        }
+
+        // Ein Trainingslauf übernimmt sein Archiv erst, wenn der Prozess sauber beendet wurde
+        public CompletableFuture<Void> started(Process process) {
+            if (training == null) {
+                return CompletableFuture.completedFuture(null);
+            }
+            return process.onExit().thenAccept(exited -> training.complete(exited.exitValue() == 0));
+        }
+
+        public void failed() {
+            if (training != null) {
+                training.complete(false);
+            }
+        }
+    }
+
+    public final class Training {
+        private final String key;
+        private final Path temp;
+        private final Path archive;
+        private final AtomicBoolean completed;
+
+        private Training(String key, Path temp, Path archive) {
+            this.key = key;
+            this.temp = temp;
+            this.archive = archive;
+            this.completed = new AtomicBoolean();
+        }
+
+        public void complete(boolean clean) {
+            if (!completed.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                // Atomar umbenennen: Services sehen entweder kein Archiv oder ein vollständig geschriebenes
+                if (clean && Files.size(temp) > 0) {
+                    Files.move(temp, archive, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                } else {
+                    Files.deleteIfExists(temp);
+                }
+            } catch (IOException ignored) {
+                try {
+                    Files.deleteIfExists(temp);
+                } catch (IOException ignoredAgain) {
+                }
+            } finally {
+                training.remove(key);
+            }
+        }
+    }
+}
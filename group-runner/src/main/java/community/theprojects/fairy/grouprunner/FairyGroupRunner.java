@@ -1,10 +1,76 @@
 package community.theprojects.fairy.grouprunner;
 
 import community.theprojects.fairy.api.group.IGroup;
+import community.theprojects.fairy.api.group.ServerType;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 
 public class FairyGroupRunner {
+    private final IGroup group;
+    private final LaunchProfile profile;
+    private final JavaRuntimes runtimes;
+    private final ArchiveCache archiveCache;
 
     public FairyGroupRunner(IGroup group) {
+        this(group, LaunchProfile.defaults(), new JavaRuntimes(Map.of()), new ArchiveCache(Path.of("storage", "cache")));
+    }
+
+    public FairyGroupRunner(IGroup group, LaunchProfile profile, JavaRuntimes runtimes, ArchiveCache archiveCache) {
+        this.group = group;
+        this.profile = profile;
+        this.runtimes = runtimes;
+        this.archiveCache = archiveCache;
+    }
+
+    // Der Befehl wird im workingDirectory gestartet; die Jar bleibt dort, damit ihr Manifest-Class-Path gilt
+    public Command buildCommand(Path workingDirectory, String jar) throws IOException {
+        Path jarFile = workingDirectory.resolve(jar);
+        if (!Files.isRegularFile(jarFile)) {
+            throw new IOException("Missing " + jar + " in " + workingDirectory);
+        }
+        JavaRuntimes.Installation runtime = runtimes.resolve(group.getJavaVersion());
+        List<String> command = new ArrayList<>();
+        command.add(runtime.executable());
+        command.add("-Xms" + group.getMinimumMemory() + "M");
+        command.add("-Xmx" + group.getMaximumMemory() + "M");
+        command.addAll(profile.garbageCollector().flags(group.getMaximumMemory(), runtime.major()));
+        ArchiveCache.Launch launch = profile.archives()
+                ? archiveCache.prepare(jarFile, String.valueOf(group.getType()), runtime.major())
+                : new ArchiveCache.Launch(List.of(), null);
+        command.addAll(launch.flags());
+        command.addAll(profile.jvmArgs());
+        command.add("-jar");
+        command.add(jar);
+        if (profile.programArgs().isEmpty() && group.getType() instanceof ServerType) {
+            command.add("nogui");
+        } else {
+            command.addAll(profile.programArgs());
+        }
+        return new Command(command, launch);
+    }
+
+    public IGroup getGroup() {
+        return group;
+    }
+
+    public LaunchProfile getProfile() {
+        return profile;
+    }
+
+    // started/failed müssen nach dem Start aufgerufen werden, sonst bleibt ein Trainingslauf für das Archiv offen
+    public record Command(List<String> arguments, ArchiveCache.Launch launch) {
+
+        public void started(Process process) {
+            launch.started(process);
+        }
 
+        public void failed() {
+            launch.failed();
+        }
     }
 }
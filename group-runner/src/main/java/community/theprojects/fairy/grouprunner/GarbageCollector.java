@@ -0,0 +1,49 @@
+package community.theprojects.fairy.grouprunner;
+
+import java.util.List;
+
+public enum GarbageCollector {
+    AUTO,
+    G1,
+    ZGC,
+    SHENANDOAH,
+    PARALLEL,
+    SERIAL;
+
+    public List<String> flags(int heapMegabytes, int javaMajor) {
+        return switch (this) {
+            // Kleine Heaps (Proxies, Limbo) mit Serial, sonst G1 mit den üblichen Minecraft-Einstellungen
+            case AUTO -> heapMegabytes < 1024 ? SERIAL.flags(heapMegabytes, javaMajor) : G1.flags(heapMegabytes, javaMajor);
+            case G1 -> g1(heapMegabytes);
+            case ZGC -> javaMajor >= 21 && javaMajor < 23
+                    ? List.of("-XX:+UseZGC", "-XX:+ZGenerational", "-XX:+AlwaysPreTouch", "-XX:+DisableExplicitGC")
+                    : List.of("-XX:+UseZGC", "-XX:+AlwaysPreTouch", "-XX:+DisableExplicitGC");
+            case SHENANDOAH -> List.of("-XX:+UseShenandoahGC", "-XX:+AlwaysPreTouch", "-XX:+DisableExplicitGC");
+            case PARALLEL -> List.of("-XX:+UseParallelGC", "-XX:+DisableExplicitGC");
+            case SERIAL -> List.of("-XX:+UseSerialGC", "-XX:+DisableExplicitGC");
+        };
+    }
+
+    private static List<String> g1(int heapMegabytes) {
+        boolean large = heapMegabytes >= 12 * 1024;
+        return List.of(
+                "-XX:+UseG1GC",
+                "-XX:+ParallelRefProcEnabled",
+                "-XX:MaxGCPauseMillis=200",
+                "-XX:+UnlockExperimentalVMOptions",
+                "-XX:+DisableExplicitGC",
+                "-XX:+AlwaysPreTouch",
+                "-XX:G1NewSizePercent=" + (large ? 40 : 30),
+                "-XX:G1MaxNewSizePercent=" + (large ? 50 : 40),
+                "-XX:G1HeapRegionSize=" + (large ? "16M" : "8M"),
+                "-XX:G1ReservePercent=" + (large ? 15 : 20),
+                "-XX:G1HeapWastePercent=5",
+                "-XX:G1MixedGCCountTarget=4",
+                "-XX:InitiatingHeapOccupancyPercent=" + (large ? 20 : 15),
+                "-XX:G1MixedGCLiveThresholdPercent=90",
+                "-XX:G1RSetUpdatingPauseTimePercent=5",
+                "-XX:SurvivorRatio=32",
+                "-XX:+PerfDisableSharedMem",
+                "-XX:MaxTenuringThreshold=1");
+    }
+}
@@ -0,0 +1,217 @@
+package community.theprojects.fairy.grouprunner;
+
+import java.io.*;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+public final class GroupRunnerClient implements AutoCloseable {
+    private final SocketChannel channel;
+    private final DataOutputStream out;
+    private final DataInputStream in;
+    private final Map<Long, CompletableFuture<RunnerStatus>> launches;
+    private final AtomicLong requests;
+    private final Map<String, RunnerStatus> services;
+    private final List<Consumer<RunnerStatus>> listeners;
+    private final CompletableFuture<Hello> hello;
+    private final ReentrantLock writeLock;
+    private volatile boolean connected;
+
+    private GroupRunnerClient(SocketChannel channel) {
+        this.channel = channel;
+        this.out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)));
+        this.in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel)));
+        this.launches = new ConcurrentHashMap<>();
+        this.requests = new AtomicLong();
+        this.services = new ConcurrentHashMap<>();
+        this.listeners = new CopyOnWriteArrayList<>();
+        this.hello = new CompletableFuture<>();
+        this.writeLock = new ReentrantLock();
+        this.connected = true;
+        Thread.ofVirtual().name("fairy-runner-client").start(this::read);
+    }
+
+    public static GroupRunnerClient connect(Path socket, Duration timeout) throws IOException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (true) {
+            try {
+                SocketChannel channel = SocketChannel.open(StandardProtocolFamily.UNIX);
+                try {
+                    channel.connect(UnixDomainSocketAddress.of(socket));
+                } catch (IOException e) {
+                    channel.close();
+                    throw e;
+                }
+                return new GroupRunnerClient(channel);
+            } catch (IOException e) {
+                if (System.nanoTime() - deadline >= 0) {
+                    throw e;
+                }
+                try {
+                    Thread.sleep(25);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Interrupted while connecting to " + socket);
+                }
+            }
+        }
+    }
+
+    public CompletableFuture<RunnerStatus> launch(String service, Path directory, List<String> command) throws IOException {
+        // Antworten werden über die Auftragskennung zugeordnet; ein alter Exit desselben Namens beendet den Start so nicht
+        long request = requests.incrementAndGet();
+        CompletableFuture<RunnerStatus> future = new CompletableFuture<>();
+        launches.put(request, future);
+        writeLock.lock();
+        try {
+            out.writeByte(RunnerProtocol.LAUNCH);
+            out.writeLong(request);
+            out.writeUTF(service);
+            out.writeUTF(directory.toAbsolutePath().toString());
+            out.writeInt(command.size());
+            for (String argument : command) {
+                out.writeUTF(argument);
+            }
+            out.flush();
+        } catch (IOException e) {
+            launches.remove(request);
+            throw e;
+        } finally {
+            writeLock.unlock();
+        }
+        return future;
+    }
+
+    public void stop(String service) throws IOException {
+        send(RunnerProtocol.STOP, service);
+    }
+
+    public void kill(String service) throws IOException {
+        send(RunnerProtocol.KILL, service);
+    }
+
+    public void input(String service, byte[] data) throws IOException {
+        writeLock.lock();
+        try {
+            out.writeByte(RunnerProtocol.INPUT);
+            out.writeUTF(service);
+            out.writeInt(data.length);
+            out.write(data);
+            out.flush();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public void shutdown(Duration timeout) throws IOException {
+        writeLock.lock();
+        try {
+            out.writeByte(RunnerProtocol.SHUTDOWN);
+            out.writeLong(timeout.toMillis());
+            out.flush();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public void addListener(Consumer<RunnerStatus> listener) {
+        listeners.add(listener);
+    }
+
+    public Hello getHello(Duration timeout) throws IOException {
+        try {
+            return hello.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (Exception e) {
+            throw new IOException("No hello from group runner", e);
+        }
+    }
+
+    public Map<String, RunnerStatus> getServices() {
+        return Map.copyOf(services);
+    }
+
+    public boolean isConnected() {
+        return connected;
+    }
+
+    private void send(byte opcode, String service) throws IOException {
+        writeLock.lock();
+        try {
+            out.writeByte(opcode);
+            out.writeUTF(service);
+            out.flush();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void read() {
+        try {
+            while (true) {
+                byte opcode = in.readByte();
+                if (opcode == RunnerProtocol.HELLO) {
+                    Hello received = new Hello(in.readUTF(), in.readLong(), in.readLong(), in.readLong());
+                    // Laufende Services stehen vor dem Abschluss des Hellos fest, damit die Node sie übernehmen kann
+                    int count = in.readInt();
+                    for (int i = 0; i < count; i++) {
+                        String service = in.readUTF();
+                        services.put(service, new RunnerStatus(service, RunnerStatus.State.STARTED, in.readLong(), 0, "", 0));
+                    }
+                    hello.complete(received);
+                } else if (opcode == RunnerProtocol.STATUS) {
+                    int count = in.readInt();
+                    for (int i = 0; i < count; i++) {
+                        dispatch(RunnerStatus.read(in));
+                    }
+                } else {
+                    throw new IOException("Unknown opcode " + opcode);
+                }
+            }
+        } catch (IOException e) {
+            connected = false;
+            IOException failure = new IOException("Group runner connection lost", e);
+            hello.completeExceptionally(failure);
+            launches.values().forEach(future -> future.completeExceptionally(failure));
+            launches.clear();
+        }
+    }
+
+    private void dispatch(RunnerStatus status) {
+        if (status.state() == RunnerStatus.State.STARTED) {
+            services.put(status.service(), status);
+        } else {
+            // Nur den Eintrag desselben Prozesses entfernen, ein inzwischen neu gestarteter bleibt bestehen
+            services.computeIfPresent(status.service(), (name, current) -> current.pid() == status.pid() ? null : current);
+        }
+        if (status.request() != 0) {
+            CompletableFuture<RunnerStatus> launch = launches.remove(status.request());
+            if (launch != null) {
+                launch.complete(status);
+            }
+        }
+        for (Consumer<RunnerStatus> listener : listeners) {
+            listener.accept(status);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        connected = false;
+        channel.close();
+    }
+
+    public record Hello(String group, long pid, long startupMillis, long rssBytes) {
+    }
+}
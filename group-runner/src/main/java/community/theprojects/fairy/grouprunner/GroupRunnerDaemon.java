@@ -0,0 +1,298 @@
+package community.theprojects.fairy.grouprunner;
+
+import java.io.*;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+// Eigenständiger Prozess pro Gruppe: Services überleben Abstürze und GC-Pausen der Node
+public final class GroupRunnerDaemon {
+    private static final long BATCH_MILLIS = Long.getLong("fairy.runner.batchMillis", 50L);
+    private static final int BATCH_SIZE = Integer.getInteger("fairy.runner.batchSize", 64);
+    private static final long CONSOLE_LIMIT = Long.getLong("fairy.runner.consoleLimit", 16L) << 20;
+    private static final long ROTATE_MILLIS = Long.getLong("fairy.runner.rotateMillis", 5000L);
+    private final String group;
+    private final Path socket;
+    private final Map<String, Process> services;
+    private final Map<String, Path> directories;
+    private final Map<String, RunnerStatus> pending;
+    private final Object writeLock;
+    private volatile DataOutputStream out;
+    private long startupMillis;
+    private volatile boolean running;
+
+    public GroupRunnerDaemon(String group, Path socket) {
+        this.group = group;
+        this.socket = socket;
+        this.services = new ConcurrentHashMap<>();
+        this.directories = new ConcurrentHashMap<>();
+        this.pending = new LinkedHashMap<>();
+        this.writeLock = new Object();
+        this.running = true;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: GroupRunnerDaemon <group> <socket>");
+            System.exit(2);
+        }
+        new GroupRunnerDaemon(args[0], Path.of(args[1])).run();
+    }
+
+    public void run() throws IOException {
+        Files.createDirectories(socket.getParent());
+        Files.deleteIfExists(socket);
+        try (ServerSocketChannel server = ServerSocketChannel.open(StandardProtocolFamily.UNIX)) {
+            server.bind(UnixDomainSocketAddress.of(socket));
+            Thread reporter = new Thread(this::report, "fairy-runner-report");
+            reporter.setDaemon(true);
+            reporter.start();
+            // Startzeit bis zur Annahmebereitschaft, die Node prüft sie gegen ihr Budget. Die Node übergibt den Zeitpunkt
+            // des Starts; startInstant aus /proc ist nur auf Jiffies seit dem Boot genau und liegt oft Hunderte ms daneben
+            long spawnedAt = Long.getLong("fairy.runner.spawnedAt", -1L);
+            startupMillis = spawnedAt > 0 ? System.currentTimeMillis() - spawnedAt : ProcessHandle.current().info().startInstant()
+                    .map(start -> Duration.between(start, Instant.now()).toMillis())
+                    .orElse(-1L);
+            System.out.println("Runner for " + group + " listening on " + socket + " after " + startupMillis + " ms, " + RunnerProtocol.rssBytes() / 1024 + " KB RSS");
+            // Es ist immer genau eine Node verbunden, nach einem Abbruch wird auf die nächste gewartet
+            while (running) {
+                try (SocketChannel channel = server.accept()) {
+                    serve(channel);
+                } catch (IOException e) {
+                    System.err.println("Connection lost: " + e.getMessage());
+                } finally {
+                    out = null;
+                }
+            }
+        } finally {
+            Files.deleteIfExists(socket);
+        }
+    }
+
+    private void serve(SocketChannel channel) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel)));
+        DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)));
+        synchronized (writeLock) {
+            output.writeByte(RunnerProtocol.HELLO);
+            output.writeUTF(group);
+            output.writeLong(ProcessHandle.current().pid());
+            output.writeLong(startupMillis);
+            output.writeLong(RunnerProtocol.rssBytes());
+            // Die laufenden Services gehören zum Hello, damit die Node vor dem Bereitstellen abgleichen kann
+            List<Map.Entry<String, Process>> live = new ArrayList<>(services.entrySet());
+            output.writeInt(live.size());
+            for (Map.Entry<String, Process> entry : live) {
+                output.writeUTF(entry.getKey());
+                output.writeLong(entry.getValue().pid());
+            }
+            output.flush();
+            out = output;
+        }
+        // Zusätzlich als Status, falls ein Service zwischen Hello und Verbinden gestartet wurde
+        services.forEach((name, process) -> queue(new RunnerStatus(name, RunnerStatus.State.STARTED, process.pid(), 0, "", 0)));
+        while (running) {
+            byte opcode;
+            try {
+                opcode = in.readByte();
+            } catch (EOFException e) {
+                return;
+            }
+            switch (opcode) {
+                case RunnerProtocol.LAUNCH -> {
+                    long request = in.readLong();
+                    String name = in.readUTF();
+                    Path directory = Path.of(in.readUTF());
+                    int count = in.readInt();
+                    List<String> command = new ArrayList<>(count);
+                    for (int i = 0; i < count; i++) {
+                        command.add(in.readUTF());
+                    }
+                    launch(request, name, directory, command);
+                }
+                case RunnerProtocol.STOP -> signal(in.readUTF(), false);
+                case RunnerProtocol.KILL -> signal(in.readUTF(), true);
+                case RunnerProtocol.INPUT -> {
+                    String name = in.readUTF();
+                    byte[] data = new byte[in.readInt()];
+                    in.readFully(data);
+                    input(name, data);
+                }
+                case RunnerProtocol.SHUTDOWN -> shutdown(Duration.ofMillis(in.readLong()));
+                default -> throw new IOException("Unknown opcode " + opcode);
+            }
+        }
+    }
+
+    private void launch(long request, String name, Path directory, List<String> command) {
+        Process existing = services.get(name);
+        if (existing != null && existing.isAlive()) {
+            // Nach einem Neustart der Node wird der laufende Service übernommen statt doppelt gestartet
+            queue(new RunnerStatus(name, RunnerStatus.State.STARTED, existing.pid(), 0, "adopted", request));
+            return;
+        }
+        try {
+            // Ausgabe direkt in eine Datei, ein hängender Leser kann den Server so nie blockieren.
+            // O_APPEND, damit nach dem Kürzen durch rotate() am Dateianfang weitergeschrieben wird
+            Path console = directory.resolve(RunnerProtocol.CONSOLE_FILE);
+            Files.deleteIfExists(console);
+            Process process = new ProcessBuilder(command)
+                    .directory(directory.toFile())
+                    .redirectErrorStream(true)
+                    .redirectOutput(ProcessBuilder.Redirect.appendTo(console.toFile()))
+                    .start();
+            services.put(name, process);
+            directories.put(name, directory);
+            // STARTED vor dem Exit-Callback einreihen, sonst könnte ein schneller Exit überschrieben werden
+            queue(new RunnerStatus(name, RunnerStatus.State.STARTED, process.pid(), 0, "", request));
+            process.onExit().thenAccept(exited -> {
+                if (services.remove(name, exited)) {
+                    directories.remove(name);
+                }
+                queue(new RunnerStatus(name, RunnerStatus.State.EXITED, exited.pid(), exited.exitValue(), "", 0));
+            });
+        } catch (IOException | RuntimeException e) {
+            queue(new RunnerStatus(name, RunnerStatus.State.FAILED, -1, -1, String.valueOf(e.getMessage()), request));
+        }
+    }
+
+    // copytruncate: die Konsole wird nach console.log.1 kopiert und gekürzt, der Server schreibt ungestört weiter
+    private void rotate() {
+        directories.forEach((name, directory) -> {
+            Path console = directory.resolve(RunnerProtocol.CONSOLE_FILE);
+            try {
+                if (Files.size(console) <= CONSOLE_LIMIT) {
+                    return;
+                }
+                Files.copy(console, directory.resolve(RunnerProtocol.ROTATED_CONSOLE_FILE), StandardCopyOption.REPLACE_EXISTING);
+                try (FileChannel channel = FileChannel.open(console, StandardOpenOption.WRITE)) {
+                    channel.truncate(0);
+                }
+            } catch (IOException ignored) {
+            }
+        });
+    }
+
+    private void signal(String name, boolean force) {
+        Process process = services.get(name);
+        if (process != null) {
+            if (force) {
+                process.destroyForcibly();
+            } else {
+                process.destroy();
+            }
+        }
+    }
+
+    private void input(String name, byte[] data) {
+        Process process = services.get(name);
+        if (process == null) {
+            return;
+        }
+        try {
+            OutputStream stdin = process.getOutputStream();
+            stdin.write(data);
+            stdin.flush();
+        } catch (IOException ignored) {
+        }
+    }
+
+    private void shutdown(Duration timeout) {
+        running = false;
+        List<Process> processes = List.copyOf(services.values());
+        processes.forEach(Process::destroy);
+        long deadline = System.nanoTime() + timeout.toNanos();
+        for (Process process : processes) {
+            try {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0 || !process.waitFor(remaining, TimeUnit.NANOSECONDS)) {
+                    process.destroyForcibly();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                process.destroyForcibly();
+            }
+        }
+        flush();
+    }
+
+    // Statusänderungen desselben Prozesses werden zusammengefasst. Ein Ende wird dabei nie von einem
+    // nachgereichten STARTED überschrieben, und die Auftragskennung des Starts bleibt erhalten
+    private void queue(RunnerStatus status) {
+        synchronized (pending) {
+            pending.merge(status.service() + ":" + status.pid(), status, GroupRunnerDaemon::merge);
+            if (pending.size() >= BATCH_SIZE) {
+                pending.notifyAll();
+            }
+        }
+    }
+
+    private static RunnerStatus merge(RunnerStatus previous, RunnerStatus next) {
+        RunnerStatus kept = previous.state() != RunnerStatus.State.STARTED && next.state() == RunnerStatus.State.STARTED ? previous : next;
+        long request = next.request() != 0 ? next.request() : previous.request();
+        return kept.request() == request ? kept
+                : new RunnerStatus(kept.service(), kept.state(), kept.pid(), kept.exitCode(), kept.message(), request);
+    }
+
+    private void report() {
+        long lastRotation = System.nanoTime();
+        while (true) {
+            synchronized (pending) {
+                try {
+                    pending.wait(BATCH_MILLIS);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+            flush();
+            if (System.nanoTime() - lastRotation >= TimeUnit.MILLISECONDS.toNanos(ROTATE_MILLIS)) {
+                rotate();
+                lastRotation = System.nanoTime();
+            }
+        }
+    }
+
+    private void flush() {
+        List<RunnerStatus> batch;
+        synchronized (pending) {
+            // Ohne verbundene Node bleibt alles liegen und wird nach dem Verbinden gesendet
+            if (pending.isEmpty() || out == null) {
+                return;
+            }
+            batch = new ArrayList<>(pending.values());
+            pending.clear();
+        }
+        synchronized (writeLock) {
+            DataOutputStream output = out;
+            try {
+                if (output == null) {
+                    throw new IOException("Not connected");
+                }
+                output.writeByte(RunnerProtocol.STATUS);
+                output.writeInt(batch.size());
+                for (RunnerStatus status : batch) {
+                    status.write(output);
+                }
+                output.flush();
+            } catch (IOException e) {
+                synchronized (pending) {
+                    batch.forEach(status -> pending.merge(status.service() + ":" + status.pid(), status, (newer, older) -> merge(older, newer)));
+                }
+            }
+        }
+    }
+}
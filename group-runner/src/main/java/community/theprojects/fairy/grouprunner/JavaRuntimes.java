@@ -0,0 +1,101 @@
+package community.theprojects.fairy.grouprunner;
+
+import community.theprojects.fairy.api.util.JavaVersion;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.stream.Stream;
+
+public final class JavaRuntimes {
+    private final Map<String, Object> overrides;
+    private volatile NavigableMap<Integer, Path> installed;
+
+    public JavaRuntimes(Map<String, Object> overrides) {
+        this.overrides = overrides != null ? overrides : Map.of();
+    }
+
+    public static int major(JavaVersion version) {
+        return Integer.parseInt(version.name().substring(1));
+    }
+
+    // Exakte Version, sonst die kleinste neuere; ein älteres JDK kann die Server-Jar nicht laden, daher dann ein Fehler
+    public Installation resolve(JavaVersion version) {
+        int major = major(version);
+        Object override = overrides.get(version.name());
+        if (override != null) {
+            return new Installation(override.toString(), major);
+        }
+        Map.Entry<Integer, Path> match = installed().ceilingEntry(major);
+        if (match == null) {
+            throw new IllegalStateException("No Java runtime >= " + major + " found, installed: " + installed().keySet()
+                    + " (set services.runtimes." + version.name() + " to a java executable)");
+        }
+        return new Installation(match.getValue().toString(), match.getKey());
+    }
+
+    public NavigableMap<Integer, Path> installed() {
+        NavigableMap<Integer, Path> current = installed;
+        if (current == null) {
+            current = detect();
+            installed = current;
+        }
+        return current;
+    }
+
+    private static NavigableMap<Integer, Path> detect() {
+        NavigableMap<Integer, Path> runtimes = new TreeMap<>();
+        List<Path> homes = new ArrayList<>();
+        homes.add(Path.of(System.getProperty("java.home")));
+        String javaHome = System.getenv("JAVA_HOME");
+        if (javaHome != null) {
+            homes.add(Path.of(javaHome));
+        }
+        String userHome = System.getProperty("user.home");
+        for (Path root : List.of(Path.of("/usr/lib/jvm"), Path.of("/usr/java"), Path.of("/opt/java"),
+                Path.of(userHome, ".sdkman", "candidates", "java"), Path.of(userHome, ".jdks"),
+                Path.of("/Library/Java/JavaVirtualMachines"))) {
+            if (!Files.isDirectory(root)) {
+                continue;
+            }
+            try (Stream<Path> children = Files.list(root)) {
+                children.sorted().forEach(child -> {
+                    homes.add(child);
+                    homes.add(child.resolve("Contents").resolve("Home"));
+                });
+            } catch (IOException ignored) {
+            }
+        }
+        for (Path home : homes) {
+            int major = readMajor(home.resolve("release"));
+            Path java = home.resolve("bin").resolve(isWindows() ? "java.exe" : "java");
+            if (major > 0 && Files.isExecutable(java)) {
+                runtimes.putIfAbsent(major, java);
+            }
+        }
+        return runtimes;
+    }
+
+    // JAVA_VERSION="21.0.1" bzw. "1.8.0_382" aus der release-Datei des JDK
+    private static int readMajor(Path release) {
+        try {
+            for (String line : Files.readAllLines(release)) {
+                if (line.startsWith("JAVA_VERSION=")) {
+                    String[] parts = line.substring("JAVA_VERSION=".length()).replace("\"", "").split("[._-]");
+                    int major = Integer.parseInt(parts[0]);
+                    return major == 1 && parts.length > 1 ? Integer.parseInt(parts[1]) : major;
+                }
+            }
+        } catch (IOException | RuntimeException ignored) {
+        }
+        return -1;
+    }
+
+    private static boolean isWindows() {
+        return System.getProperty("os.name", "").toLowerCase(Locale.ROOT).contains("win");
+    }
+
+    public record Installation(String executable, int major) {
+    }
+}
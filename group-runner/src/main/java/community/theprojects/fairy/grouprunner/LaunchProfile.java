@@ -0,0 +1,25 @@
+package community.theprojects.fairy.grouprunner;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+public record LaunchProfile(GarbageCollector garbageCollector, List<String> jvmArgs, List<String> programArgs, boolean archives) {
+
+    public static LaunchProfile defaults() {
+        return new LaunchProfile(GarbageCollector.AUTO, List.of(), List.of(), true);
+    }
+
+    public LaunchProfile override(Map<?, ?> values) {
+        if (values == null || values.isEmpty()) {
+            return this;
+        }
+        return new LaunchProfile(
+                values.containsKey("gc") ? GarbageCollector.valueOf(values.get("gc").toString().toUpperCase(Locale.ROOT)) : garbageCollector,
+                values.get("jvmArgs") instanceof Collection<?> args ? args.stream().map(String::valueOf).toList() : jvmArgs,
+                values.get("programArgs") instanceof Collection<?> args ? args.stream().map(String::valueOf).toList() : programArgs,
+                values.containsKey("archives") ? Boolean.parseBoolean(values.get("archives").toString()) : archives
+        );
+    }
+}
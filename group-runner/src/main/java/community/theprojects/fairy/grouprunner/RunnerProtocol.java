@@ -0,0 +1,39 @@
+package community.theprojects.fairy.grouprunner;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+
+public final class RunnerProtocol {
+    public static final byte LAUNCH = 1;
+    public static final byte STOP = 2;
+    public static final byte KILL = 3;
+    public static final byte INPUT = 4;
+    public static final byte SHUTDOWN = 5;
+    public static final byte HELLO = 10;
+    public static final byte STATUS = 11;
+    public static final String CONSOLE_FILE = "console.log";
+    public static final String ROTATED_CONSOLE_FILE = "console.log.1";
+
+    private RunnerProtocol() {
+    }
+
+    public static Path socketPath(Path directory, String group) {
+        return directory.resolve(group.toLowerCase(Locale.ROOT) + ".sock").toAbsolutePath();
+    }
+
+    public static long rssBytes() {
+        try {
+            for (String line : Files.readAllLines(Path.of("/proc/self/status"))) {
+                if (line.startsWith("VmRSS:")) {
+                    return Long.parseLong(line.replaceAll("[^0-9]", "")) * 1024L;
+                }
+            }
+        } catch (IOException | RuntimeException ignored) {
+        }
+        // Ohne procfs nur der belegte Heap als grobe Näherung
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+}
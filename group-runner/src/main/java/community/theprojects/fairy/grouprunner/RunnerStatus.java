@@ -0,0 +1,28 @@
+package community.theprojects.fairy.grouprunner;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+// request ist die Kennung des LAUNCH-Aufrufs, auf den der Status antwortet; 0 bei Meldungen ohne Auftrag
+public record RunnerStatus(String service, State state, long pid, int exitCode, String message, long request) {
+
+    public void write(DataOutput out) throws IOException {
+        out.writeUTF(service);
+        out.writeByte(state.ordinal());
+        out.writeLong(pid);
+        out.writeInt(exitCode);
+        out.writeUTF(message != null ? message : "");
+        out.writeLong(request);
+    }
+
+    public static RunnerStatus read(DataInput in) throws IOException {
+        return new RunnerStatus(in.readUTF(), State.values()[in.readByte()], in.readLong(), in.readInt(), in.readUTF(), in.readLong());
+    }
+
+    public enum State {
+        STARTED,
+        EXITED,
+        FAILED
+    }
+}
@@ -4,20 +4,45 @@ import community.theprojects.fairy.api.INode;
 import community.theprojects.fairy.api.command.ICommandHandler;
 import community.theprojects.fairy.api.config.IConfig;
 import community.theprojects.fairy.api.console.IConsole;
+import community.theprojects.fairy.node.autoscale.Autoscaler;
+import community.theprojects.fairy.node.autoscale.ScalingPolicy;
+import community.theprojects.fairy.node.cluster.ClusterManager;
+import community.theprojects.fairy.node.cluster.WorkerAgent;
 import community.theprojects.fairy.node.command.*;
+import community.theprojects.fairy.node.config.GroupsConfig;
 import community.theprojects.fairy.node.config.NodeConfig;
 import community.theprojects.fairy.node.config.TemplatesConfig;
 import community.theprojects.fairy.node.console.Console;
+import community.theprojects.fairy.node.console.HexColor;
+import community.theprojects.fairy.node.database.DatabaseExecutor;
+import community.theprojects.fairy.node.database.LocalEntityStore;
+import community.theprojects.fairy.node.group.GroupManager;
+import community.theprojects.fairy.node.group.GroupTemplate;
+import community.theprojects.fairy.node.replication.ClusterState;
+import community.theprojects.fairy.node.replication.ReplicationNode;
+import community.theprojects.fairy.node.replication.ReplicationSettings;
+import community.theprojects.fairy.node.rest.NodeApi;
+import community.theprojects.fairy.restserver.TokenAuth;
 import community.theprojects.fairy.util.json.JsonFileHandler;
+import community.theprojects.fairy.util.network.PacketAuth;
+import community.theprojects.fairy.util.network.packet.replication.StateOperation;
 import community.theprojects.fairy.webinterface.FairyWebinterface;
 
+import org.json.JSONObject;
+
 import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 public final class FairyNode implements INode {
     private static FairyNode instance;
     private IConfig nodeConfig;
     private IConfig templatesConfig;
+    private IConfig groupsConfig;
     private final UUID id;
     private final String name;
     private final String description;
@@ -25,6 +50,14 @@ public final class FairyNode implements INode {
     private FairyWebinterface webinterface;
     private IConsole console;
     private ICommandHandler commandHandler;
+    private DatabaseExecutor databaseExecutor;
+    private GroupManager groupManager;
+    private Autoscaler autoscaler;
+    private ClusterManager clusterManager;
+    private WorkerAgent workerAgent;
+    private ReplicationNode replication;
+    private NodeApi api;
+    private final AtomicBoolean stopping = new AtomicBoolean(false);
 
     public FairyNode(String name, String description) {
         instance = this;
@@ -48,6 +81,16 @@ public final class FairyNode implements INode {
                 throw new RuntimeException(ex);
             }
         }
+        try {
+            this.groupsConfig = JsonFileHandler.readFromFile("storage/groups.json", GroupsConfig.class);
+        } catch (IOException e) {
+            try {
+                this.groupsConfig = new GroupsConfig();
+                JsonFileHandler.writeToFile(this.groupsConfig, "storage/groups.json", true);
+            } catch (IOException ex) {
+                throw new RuntimeException(ex);
+            }
+        }
         this.id = UUID.fromString(((NodeConfig) nodeConfig).getId());
         this.name = name;
         this.description = description;
@@ -56,30 +99,158 @@ public final class FairyNode implements INode {
 
     @Override
     public void init() {
-        this.webinterface = new FairyWebinterface(8080);
+        // 8080 gehört der REST-API, das Webinterface weicht auf einen eigenen Port aus
+        this.webinterface = new FairyWebinterface(Integer.getInteger("fairy.web.port", 8081));
+        this.databaseExecutor = new DatabaseExecutor(
+                Integer.getInteger("fairy.database.threads", 4),
+                Integer.getInteger("fairy.database.queue", 1024),
+                Duration.ofMillis(Long.getLong("fairy.database.offerTimeout", 5000L)));
+        this.groupManager = new GroupManager();
+        ((GroupsConfig) this.groupsConfig).createGroups((TemplatesConfig) this.templatesConfig).forEach(this.groupManager::registerGroup);
+        this.autoscaler = new Autoscaler(this.groupManager, ScalingPolicy.Settings.parse(((NodeConfig) nodeConfig).getServices().get("autoscale")));
+        NodeConfig config = (NodeConfig) nodeConfig;
+        boolean master = Boolean.parseBoolean(String.valueOf(config.getCluster().get("enabled")));
+        ReplicationSettings replicationSettings = ReplicationSettings.parse(config.getCluster().get("replication"));
+        // Mit gesetztem Port nimmt die Node zusätzlich Startbefehle eines Masters an
+        int workerPort = Integer.parseInt(String.valueOf(config.getCluster().getOrDefault("workerPort", 0)));
+        // Alle Cluster-Verbindungen authentifizieren sich mit demselben Geheimnis; die Datei muss auf alle Nodes kopiert werden.
+        // Eine Node ohne Cluster legt keine an
+        PacketAuth clusterAuth = null;
+        if (master || replicationSettings.enabled() || workerPort > 0) {
+            try {
+                clusterAuth = PacketAuth.load(Path.of("storage", "cluster.secret"));
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        }
+        if (master) {
+            this.clusterManager = new ClusterManager(config.getCluster(), clusterAuth);
+        }
+        if (replicationSettings.enabled()) {
+            this.replication = new ReplicationNode(replicationSettings, clusterAuth);
+            this.replication.getState().addListener(this::applyReplicated);
+        }
+        if (workerPort > 0) {
+            this.workerAgent = new WorkerAgent(config, this.groupManager, this.id, this.name, this.version, workerPort, clusterAuth);
+            this.workerAgent.init();
+        }
+        try {
+            this.api = new NodeApi(this.groupManager, (TemplatesConfig) this.templatesConfig, TokenAuth.load(Path.of(".secret")), this.name, this.version);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
         this.console = new Console();
         this.commandHandler = new CommandHandler();
         this.commandHandler.addCommand("exit", new ExitCommand("Shutting down node."));
         this.commandHandler.addCommand("info", new InfoCommand("Information about this node."));
         this.commandHandler.addCommand("help", new HelpCommand("Shows this help menu."));
         this.commandHandler.addCommand("template", new TemplateCommand("Create and delete templates."));
+        this.commandHandler.addCommand("process", new ProcessCommand("List services and attach to their console."));
+        this.commandHandler.addCommand("api", new ApiCommand("Start, stop and inspect the REST API."));
     }
 
     @Override
     public void start() {
+        if (this.replication != null) {
+            this.replication.start();
+            this.groupManager.setReplication(this.replication);
+        }
         this.webinterface.start();
         this.console.start();
+        if (Boolean.parseBoolean(System.getProperty("fairy.api.autostart", "true"))) {
+            startApi(Integer.getInteger("fairy.api.port", 8080));
+        }
+        this.autoscaler.start();
+        if (this.clusterManager != null) {
+            this.clusterManager.start();
+            this.groupManager.setCluster(this.clusterManager);
+        }
+        if (this.workerAgent != null) {
+            this.workerAgent.start();
+        }
+        // Auch bei SIGTERM an die Node sollen die Services ihre Welten speichern können
+        Runtime.getRuntime().addShutdownHook(new Thread(this::shutdownServices, "fairy-shutdown"));
     }
 
     @Override
     public void stop() {
-        this.webinterface.stop();
+        shutdownServices();
         this.commandHandler = null;
         this.console.stop();
         this.console = null;
         System.exit(0);
     }
 
+    private void shutdownServices() {
+        if (!this.stopping.compareAndSet(false, true)) {
+            return;
+        }
+        this.api.close();
+        this.webinterface.stop();
+        this.autoscaler.close();
+        if (this.clusterManager != null) {
+            this.clusterManager.close();
+        }
+        if (this.workerAgent != null) {
+            this.workerAgent.stop();
+        }
+        this.groupManager.close();
+        if (this.replication != null) {
+            this.replication.close();
+        }
+        // Erst nach den Services: ausstehende Schreibvorgänge abarbeiten und die lokalen Stores auf Platte bringen
+        this.databaseExecutor.shutdown(Duration.ofSeconds(10));
+        LocalEntityStore.shutdownAll();
+    }
+
+    public boolean startApi(int port) {
+        try {
+            this.api.start(port);
+        } catch (IOException e) {
+            this.console.getPrinter().println(HexColor.colorText("Failed to start API on port " + port + ": " + e.getMessage(), HexColor.Colors.RED), true);
+            return false;
+        }
+        this.console.getPrinter().println(HexColor.colorText("API on port " + this.api.getServer().getPort() + ": http://localhost:"
+                + this.api.getServer().getPort() + "/api", HexColor.Colors.YELLOW), true);
+        this.console.getPrinter().println(HexColor.colorText("API token: " + this.api.getAuth().getToken(), HexColor.Colors.YELLOW), true);
+        return true;
+    }
+
+    // Templates aus dem Cluster-Zustand in die lokale templates.json übernehmen
+    private void applyReplicated(StateOperation operation) {
+        if (!ClusterState.TEMPLATES.equals(operation.namespace())) {
+            return;
+        }
+        TemplatesConfig templates = (TemplatesConfig) this.templatesConfig;
+        synchronized (templates) {
+            boolean existing = templates.isTemplateExisting(operation.key());
+            if (operation.type() == StateOperation.Type.PUT) {
+                JSONObject json = new JSONObject(operation.value());
+                List<String> groups = new ArrayList<>();
+                json.getJSONArray("groups").forEach(group -> groups.add(String.valueOf(group)));
+                // Eigene Änderungen kommen unverändert zurück und müssen nicht erneut geschrieben werden
+                if (existing && isUnchanged(templates, operation.key(), json.getString("path"), groups)) {
+                    return;
+                }
+                if (existing) {
+                    templates.removeTemplate(operation.key());
+                }
+                templates.addTemplate(new GroupTemplate(operation.key(), json.getString("path"), groups));
+            } else if (operation.type() == StateOperation.Type.DELETE && existing) {
+                templates.removeTemplate(operation.key());
+            }
+        }
+    }
+
+    private static boolean isUnchanged(TemplatesConfig templates, String name, String path, List<String> groups) {
+        for (JSONObject template : templates.getTemplates()) {
+            if (template.getString("name").equalsIgnoreCase(name)) {
+                return path.equals(template.optString("path")) && groups.equals(template.getJSONArray("groups").toList());
+            }
+        }
+        return false;
+    }
+
     @Override
     public IConfig getConfig() {
         return this.nodeConfig;
@@ -120,6 +291,35 @@ public final class FairyNode implements INode {
         return this.commandHandler;
     }
 
+    @Override
+    public GroupManager getGroupManager() {
+        return this.groupManager;
+    }
+
+    public Autoscaler getAutoscaler() {
+        return this.autoscaler;
+    }
+
+    public ClusterManager getClusterManager() {
+        return this.clusterManager;
+    }
+
+    public WorkerAgent getWorkerAgent() {
+        return this.workerAgent;
+    }
+
+    public ReplicationNode getReplication() {
+        return this.replication;
+    }
+
+    public NodeApi getApi() {
+        return this.api;
+    }
+
+    public DatabaseExecutor getDatabaseExecutor() {
+        return this.databaseExecutor;
+    }
+
     public static INode getInstance() {
         return instance;
     }
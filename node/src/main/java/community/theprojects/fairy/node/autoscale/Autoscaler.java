@@ -0,0 +1,195 @@
+package community.theprojects.fairy.node.autoscale;
+
+import community.theprojects.fairy.api.group.IGroup;
+import community.theprojects.fairy.api.service.IService;
+import community.theprojects.fairy.api.service.ServiceStatus;
+import community.theprojects.fairy.node.cluster.RemoteService;
+import community.theprojects.fairy.node.group.GroupManager;
+import community.theprojects.fairy.node.service.ProcessStats;
+import community.theprojects.fairy.node.service.Service;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+
+public final class Autoscaler implements AutoCloseable {
+    private static final Duration PING_TIMEOUT = Duration.ofMillis(Long.getLong("fairy.autoscale.pingTimeout", 1000L));
+
+    private final GroupManager groupManager;
+    private final Map<String, ScalingPolicy.Settings> settings;
+    private final Map<String, ScalingPolicy.State> states;
+    private final Map<String, AutoscalerMetrics> metrics;
+    private final Set<String> busy;
+    private final ScheduledExecutorService ticker;
+    private final ExecutorService workers;
+
+    public Autoscaler(GroupManager groupManager, Map<String, ScalingPolicy.Settings> settings) {
+        this.groupManager = groupManager;
+        this.settings = settings;
+        this.states = new ConcurrentHashMap<>();
+        this.metrics = new ConcurrentHashMap<>();
+        this.busy = ConcurrentHashMap.newKeySet();
+        this.workers = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("fairy-autoscaler-", 0).factory());
+        this.ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "fairy-autoscaler");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public void start() {
+        if (settings.isEmpty()) {
+            return;
+        }
+        long interval = Long.getLong("fairy.autoscale.interval", 10L);
+        this.ticker.scheduleWithFixedDelay(this::tick, interval, interval, TimeUnit.SECONDS);
+    }
+
+    public Map<String, AutoscalerMetrics> getMetrics() {
+        return Collections.unmodifiableMap(metrics);
+    }
+
+    private void tick() {
+        for (IGroup group : groupManager.getGroups()) {
+            String key = group.getName().toLowerCase(Locale.ROOT);
+            ScalingPolicy.Settings groupSettings = settings.get(key);
+            // Statische Gruppen werden nie automatisch skaliert
+            if (groupSettings == null || group.hasStaticServices()) {
+                continue;
+            }
+            // Solange eine Aktion läuft, wird die Gruppe nicht erneut bewertet
+            if (!busy.add(key)) {
+                continue;
+            }
+            try {
+                evaluate(group, key, groupSettings);
+            } catch (RuntimeException e) {
+                busy.remove(key);
+                metrics(key).recordFailure();
+            }
+        }
+    }
+
+    private void evaluate(IGroup group, String key, ScalingPolicy.Settings groupSettings) {
+        AutoscalerMetrics groupMetrics = metrics(key);
+        long begin = System.nanoTime();
+        GroupSample sample = sample(group, groupSettings);
+        groupMetrics.sampling().record(System.nanoTime() - begin, true);
+
+        ScalingPolicy.Evaluation evaluation = ScalingPolicy.evaluate(groupSettings,
+                states.getOrDefault(key, ScalingPolicy.State.initial()), sample, System.currentTimeMillis());
+        states.put(key, evaluation.state());
+        ScalingDecision decision = evaluation.decision();
+        groupMetrics.record(sample, decision);
+
+        switch (decision.action()) {
+            case UP -> workers.execute(() -> {
+                try {
+                    groupMetrics.recordStarted(groupManager.startServices(group.getName(), decision.count()).size());
+                } catch (RuntimeException e) {
+                    groupMetrics.recordFailure();
+                } finally {
+                    busy.remove(key);
+                }
+            });
+            case DOWN -> {
+                int[] numbers = sample.leastLoaded(decision.count()).stream().mapToInt(ServiceLoad::number).toArray();
+                workers.execute(() -> {
+                    try {
+                        groupManager.stopServices(group.getName(), numbers);
+                        groupMetrics.recordStopped(numbers.length);
+                    } catch (RuntimeException e) {
+                        groupMetrics.recordFailure();
+                    } finally {
+                        busy.remove(key);
+                    }
+                });
+            }
+            case HOLD -> busy.remove(key);
+        }
+    }
+
+    private GroupSample sample(IGroup group, ScalingPolicy.Settings groupSettings) {
+        List<Service> services = new ArrayList<>();
+        for (IService service : groupManager.getServices(group.getName())) {
+            if (service instanceof Service handle
+                    && (handle.getStatus() == ServiceStatus.STARTING || handle.getStatus() == ServiceStatus.STARTED)) {
+                services.add(handle);
+            }
+        }
+        // Alle Services parallel anpingen, ein hängender Server verzögert den Tick höchstens um das Timeout
+        long rssBudget = groupSettings.rssBudgetBytes(group.getMaximumMemory());
+        List<Future<ServiceLoad>> futures = new ArrayList<>(services.size());
+        for (Service service : services) {
+            futures.add(workers.submit(() -> load(group, service, rssBudget)));
+        }
+        // Starts landen mit Cluster auf Workern; ohne sie im Sample würde bei jedem Tick erneut hochskaliert
+        List<RemoteService> remote = groupManager.getRemoteServices(group.getName());
+        List<Future<ServiceLoad>> remoteFutures = new ArrayList<>(remote.size());
+        for (RemoteService service : remote) {
+            remoteFutures.add(workers.submit(() -> load(group, service)));
+        }
+        List<ServiceLoad> loads = new ArrayList<>(services.size() + remote.size());
+        for (int i = 0; i < futures.size(); i++) {
+            try {
+                loads.add(futures.get(i).get());
+            } catch (ExecutionException | InterruptedException e) {
+                if (e instanceof InterruptedException) {
+                    Thread.currentThread().interrupt();
+                }
+                loads.add(new ServiceLoad(services.get(i).getNumber(), false, 0, group.getMaxPlayers(), 0, 0));
+            }
+        }
+        for (int i = 0; i < remoteFutures.size(); i++) {
+            try {
+                loads.add(remoteFutures.get(i).get());
+            } catch (ExecutionException | InterruptedException e) {
+                if (e instanceof InterruptedException) {
+                    Thread.currentThread().interrupt();
+                }
+                loads.add(new ServiceLoad(remote.get(i).getNumber(), false, 0, group.getMaxPlayers(), 0, 0));
+            }
+        }
+        return new GroupSample(loads);
+    }
+
+    // Services auf Workern zählen mit Spielern und Kapazität, werden aber nie zum Stoppen vorgeschlagen (ready bleibt
+    // false): ihre Nummern gehören zum Worker, stopServices würde einen gleichnamigen lokalen Service treffen
+    private ServiceLoad load(IGroup group, RemoteService service) {
+        try {
+            ServerListPing.Result ping = ServerListPing.ping(service.getAddress(), PING_TIMEOUT);
+            int maxPlayers = ping.max() > 0 ? Math.min(ping.max(), group.getMaxPlayers()) : group.getMaxPlayers();
+            return new ServiceLoad(service.getNumber(), false, ping.online(), maxPlayers, 0, 0);
+        } catch (IOException e) {
+            return new ServiceLoad(service.getNumber(), false, 0, group.getMaxPlayers(), 0, 0);
+        }
+    }
+
+    private ServiceLoad load(IGroup group, Service service, long rssBudget) {
+        Process process = service.getProcess();
+        long rss = process != null ? ProcessStats.rssBytes(process.pid()) : 0L;
+        if (service.getStatus() != ServiceStatus.STARTED) {
+            return new ServiceLoad(service.getNumber(), false, 0, group.getMaxPlayers(), rss, rssBudget);
+        }
+        try {
+            ServerListPing.Result ping = ServerListPing.ping(new InetSocketAddress("127.0.0.1", service.getPort()), PING_TIMEOUT);
+            int maxPlayers = ping.max() > 0 ? Math.min(ping.max(), group.getMaxPlayers()) : group.getMaxPlayers();
+            return new ServiceLoad(service.getNumber(), true, ping.online(), maxPlayers, rss, rssBudget);
+        } catch (IOException e) {
+            // Noch nicht erreichbar (z. B. beim Hochfahren): Kapazität zählen, aber nicht zum Stoppen vorschlagen
+            return new ServiceLoad(service.getNumber(), false, 0, group.getMaxPlayers(), rss, rssBudget);
+        }
+    }
+
+    private AutoscalerMetrics metrics(String key) {
+        return metrics.computeIfAbsent(key, ignored -> new AutoscalerMetrics());
+    }
+
+    @Override
+    public void close() {
+        ticker.shutdownNow();
+        workers.shutdownNow();
+    }
+}
@@ -0,0 +1,79 @@
+package community.theprojects.fairy.node.autoscale;
+
+import community.theprojects.fairy.node.service.StageMetrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+public final class AutoscalerMetrics {
+    private final LongAdder scaleUps = new LongAdder();
+    private final LongAdder scaleDowns = new LongAdder();
+    private final LongAdder holds = new LongAdder();
+    private final LongAdder servicesStarted = new LongAdder();
+    private final LongAdder servicesStopped = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final StageMetrics sampling = new StageMetrics();
+    private volatile ScalingDecision lastDecision;
+    private volatile GroupSample lastSample;
+
+    void record(GroupSample sample, ScalingDecision decision) {
+        this.lastSample = sample;
+        this.lastDecision = decision;
+        switch (decision.action()) {
+            case UP -> scaleUps.increment();
+            case DOWN -> scaleDowns.increment();
+            case HOLD -> holds.increment();
+        }
+    }
+
+    void recordStarted(int count) {
+        servicesStarted.add(count);
+    }
+
+    void recordStopped(int count) {
+        servicesStopped.add(count);
+    }
+
+    void recordFailure() {
+        failures.increment();
+    }
+
+    StageMetrics sampling() {
+        return sampling;
+    }
+
+    public long getScaleUps() {
+        return scaleUps.sum();
+    }
+
+    public long getScaleDowns() {
+        return scaleDowns.sum();
+    }
+
+    public long getHolds() {
+        return holds.sum();
+    }
+
+    public long getServicesStarted() {
+        return servicesStarted.sum();
+    }
+
+    public long getServicesStopped() {
+        return servicesStopped.sum();
+    }
+
+    public long getFailures() {
+        return failures.sum();
+    }
+
+    public StageMetrics getSampling() {
+        return sampling;
+    }
+
+    public ScalingDecision getLastDecision() {
+        return lastDecision;
+    }
+
+    public GroupSample getLastSample() {
+        return lastSample;
+    }
+}
@@ -0,0 +1,50 @@
+package community.theprojects.fairy.node.autoscale;
+
+import java.util.Comparator;
+import java.util.List;
+
+public record GroupSample(List<ServiceLoad> services) {
+
+    public int size() {
+        return services.size();
+    }
+
+    public int players() {
+        int players = 0;
+        for (ServiceLoad service : services) {
+            players += service.players();
+        }
+        return players;
+    }
+
+    // Startende Services zählen schon zur Kapazität, sonst würde mehrfach hochskaliert
+    public int capacity() {
+        int capacity = 0;
+        for (ServiceLoad service : services) {
+            capacity += service.maxPlayers();
+        }
+        return capacity;
+    }
+
+    public double utilization() {
+        int capacity = capacity();
+        return capacity == 0 ? 0.0 : (double) players() / capacity;
+    }
+
+    public double peakMemoryUtilization() {
+        double peak = 0.0;
+        for (ServiceLoad service : services) {
+            peak = Math.max(peak, service.memoryUtilization());
+        }
+        return peak;
+    }
+
+    // Kandidaten zum Stoppen: fertig gestartete Services mit den wenigsten Spielern zuerst
+    public List<ServiceLoad> leastLoaded(int count) {
+        return services.stream()
+                .filter(ServiceLoad::ready)
+                .sorted(Comparator.comparingInt(ServiceLoad::players).thenComparing(Comparator.comparingInt(ServiceLoad::number).reversed()))
+                .limit(count)
+                .toList();
+    }
+}
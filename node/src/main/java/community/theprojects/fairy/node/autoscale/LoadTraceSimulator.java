@@ -0,0 +1,131 @@
+package community.theprojects.fairy.node.autoscale;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+// Spielt aufgezeichnete Spielerzahlen offline gegen die ScalingPolicy ab.
+// Aufruf: LoadTraceSimulator <trace.csv> [key=value ...], Trace-Zeilen im Format "sekunde,spieler"
+public final class LoadTraceSimulator {
+    private final ScalingPolicy.Settings settings;
+    private final int tickSeconds;
+    private final int startSeconds;
+    private final int maxPlayers;
+
+    public LoadTraceSimulator(ScalingPolicy.Settings settings, int tickSeconds, int startSeconds, int maxPlayers) {
+        this.settings = settings;
+        this.tickSeconds = tickSeconds;
+        this.startSeconds = startSeconds;
+        this.maxPlayers = maxPlayers;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.out.println("Usage: LoadTraceSimulator <trace.csv> [tick=10] [startDelay=20] [maxPlayers=50] [min=1] [max=10] [low=0.3] [high=0.75] ...");
+            return;
+        }
+        Map<String, String> options = new HashMap<>();
+        for (int i = 1; i < args.length; i++) {
+            String[] option = args[i].split("=", 2);
+            if (option.length == 2) {
+                options.put(option[0], option[1]);
+            }
+        }
+        LoadTraceSimulator simulator = new LoadTraceSimulator(ScalingPolicy.Settings.defaults().override(options),
+                Integer.parseInt(options.getOrDefault("tick", "10")),
+                Integer.parseInt(options.getOrDefault("startDelay", "20")),
+                Integer.parseInt(options.getOrDefault("maxPlayers", "50")));
+        Result result = simulator.run(readTrace(Path.of(args[0])), decision -> System.out.println(decision));
+        System.out.println(result);
+    }
+
+    public static NavigableMap<Integer, Integer> readTrace(Path file) throws IOException {
+        NavigableMap<Integer, Integer> trace = new TreeMap<>();
+        for (String line : Files.readAllLines(file)) {
+            String[] parts = line.trim().split("[,;\\s]+");
+            if (parts.length < 2 || parts[0].startsWith("#") || !Character.isDigit(parts[0].charAt(0))) {
+                continue;
+            }
+            trace.put(Integer.parseInt(parts[0]), Integer.parseInt(parts[1]));
+        }
+        return trace;
+    }
+
+    public Result run(NavigableMap<Integer, Integer> trace, java.util.function.Consumer<String> log) {
+        if (trace.isEmpty()) {
+            return new Result(0, 0, 0, 0, 0, 0, 0);
+        }
+        // Bereitschaftszeitpunkt je simuliertem Service; noch nicht bereite Services zählen wie im Live-Betrieb zur Kapazität
+        List<Integer> readyAt = new ArrayList<>();
+        ScalingPolicy.State state = ScalingPolicy.State.initial();
+        int ticks = 0, inBand = 0, ups = 0, downs = 0, peak = 0;
+        long serviceTicks = 0, unservedPlayerSeconds = 0;
+
+        for (int second = trace.firstKey(); second <= trace.lastKey(); second += tickSeconds) {
+            int players = interpolate(trace, second);
+            int ready = 0;
+            for (int at : readyAt) {
+                if (at <= second) {
+                    ready++;
+                }
+            }
+            int served = Math.min(players, ready * maxPlayers);
+            unservedPlayerSeconds += (long) (players - served) * tickSeconds;
+
+            List<ServiceLoad> loads = new ArrayList<>(readyAt.size());
+            int remaining = served;
+            for (int i = 0; i < readyAt.size(); i++) {
+                boolean isReady = readyAt.get(i) <= second;
+                int share = isReady ? Math.min(maxPlayers, remaining) : 0;
+                remaining -= share;
+                loads.add(new ServiceLoad(i + 1, isReady, share, maxPlayers, 0, 0));
+            }
+            GroupSample sample = new GroupSample(loads);
+            ScalingPolicy.Evaluation evaluation = ScalingPolicy.evaluate(settings, state, sample, second * 1000L);
+            state = evaluation.state();
+            ScalingDecision decision = evaluation.decision();
+
+            switch (decision.action()) {
+                case UP -> {
+                    ups++;
+                    for (int i = 0; i < decision.count(); i++) {
+                        readyAt.add(second + startSeconds);
+                    }
+                    log.accept("t=" + second + "s players=" + players + " services=" + sample.size() + " " + decision);
+                }
+                case DOWN -> {
+                    downs++;
+                    // Zuletzt gestartete Services zuerst entfernen
+                    for (int i = 0; i < decision.count() && !readyAt.isEmpty(); i++) {
+                        readyAt.removeLast();
+                    }
+                    log.accept("t=" + second + "s players=" + players + " services=" + sample.size() + " " + decision);
+                }
+                case HOLD -> {
+                }
+            }
+            double utilization = sample.utilization();
+            if (utilization >= settings.low() && utilization <= settings.high()) {
+                inBand++;
+            }
+            ticks++;
+            serviceTicks += readyAt.size();
+            peak = Math.max(peak, readyAt.size());
+        }
+        return new Result(ticks, ups, downs, (double) serviceTicks / ticks, peak, (double) inBand / ticks, unservedPlayerSeconds);
+    }
+
+    private static int interpolate(NavigableMap<Integer, Integer> trace, int second) {
+        Map.Entry<Integer, Integer> floor = trace.floorEntry(second);
+        Map.Entry<Integer, Integer> ceiling = trace.ceilingEntry(second);
+        if (floor == null) return ceiling.getValue();
+        if (ceiling == null || ceiling.getKey().equals(floor.getKey())) return floor.getValue();
+        double fraction = (double) (second - floor.getKey()) / (ceiling.getKey() - floor.getKey());
+        return (int) Math.round(floor.getValue() + fraction * (ceiling.getValue() - floor.getValue()));
+    }
+
+    public record Result(int ticks, int scaleUps, int scaleDowns, double averageServices, int peakServices,
+                         double timeInBand, long unservedPlayerSeconds) {
+    }
+}
@@ -0,0 +1,14 @@
+package community.theprojects.fairy.node.autoscale;
+
+public record ScalingDecision(Action action, int count, double utilization, String reason) {
+
+    public static ScalingDecision hold(double utilization, String reason) {
+        return new ScalingDecision(Action.HOLD, 0, utilization, reason);
+    }
+
+    public enum Action {
+        UP,
+        DOWN,
+        HOLD
+    }
+}
@@ -0,0 +1,141 @@
+package community.theprojects.fairy.node.autoscale;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+public final class ScalingPolicy {
+
+    private ScalingPolicy() {
+    }
+
+    // Reine Funktion ohne Seiteneffekte, damit Live-Betrieb und Simulation dieselben Entscheidungen treffen
+    public static Evaluation evaluate(Settings settings, State state, GroupSample sample, long nowMillis) {
+        int current = sample.size();
+        double utilization = sample.utilization();
+        if (current < settings.min()) {
+            return new Evaluation(new ScalingDecision(ScalingDecision.Action.UP, settings.min() - current, utilization, "below minimum"),
+                    new State(0, 0, nowMillis, state.lastScaleDown()));
+        }
+        if (current > settings.max()) {
+            return new Evaluation(new ScalingDecision(ScalingDecision.Action.DOWN, current - settings.max(), utilization, "above maximum"),
+                    new State(0, 0, state.lastScaleUp(), nowMillis));
+        }
+
+        boolean overloaded = utilization > settings.high() || sample.peakMemoryUtilization() > settings.memoryHigh();
+        boolean underloaded = !overloaded && utilization < settings.low();
+        State counted = new State(overloaded ? state.aboveTicks() + 1 : 0, underloaded ? state.belowTicks() + 1 : 0,
+                state.lastScaleUp(), state.lastScaleDown());
+        int desired = desiredServices(settings, sample);
+
+        if (counted.aboveTicks() >= settings.upTicks()) {
+            if (current >= settings.max()) {
+                return new Evaluation(ScalingDecision.hold(utilization, "at maximum"), counted);
+            }
+            if (!elapsed(state.lastScaleUp(), nowMillis, settings.upCooldown())) {
+                return new Evaluation(ScalingDecision.hold(utilization, "scale-up cooldown"), counted);
+            }
+            int count = Math.clamp(desired - current, 1, settings.max() - current);
+            return new Evaluation(new ScalingDecision(ScalingDecision.Action.UP, count, utilization,
+                    String.format(Locale.ROOT, "utilization %.2f above %.2f", utilization, settings.high())),
+                    new State(0, 0, nowMillis, state.lastScaleDown()));
+        }
+        if (counted.belowTicks() >= settings.downTicks()) {
+            if (current <= settings.min()) {
+                return new Evaluation(ScalingDecision.hold(utilization, "at minimum"), counted);
+            }
+            // Nach einem Hochskalieren ebenfalls die Abkühlzeit abwarten, sonst schwingt die Gruppe
+            if (!elapsed(state.lastScaleDown(), nowMillis, settings.downCooldown())
+                    || !elapsed(state.lastScaleUp(), nowMillis, settings.downCooldown())) {
+                return new Evaluation(ScalingDecision.hold(utilization, "scale-down cooldown"), counted);
+            }
+            int count = Math.clamp(current - Math.max(desired, settings.min()), 1, current - settings.min());
+            return new Evaluation(new ScalingDecision(ScalingDecision.Action.DOWN, count, utilization,
+                    String.format(Locale.ROOT, "utilization %.2f below %.2f", utilization, settings.low())),
+                    new State(0, 0, state.lastScaleUp(), nowMillis));
+        }
+        return new Evaluation(ScalingDecision.hold(utilization, "within band"), counted);
+    }
+
+    // Anzahl Services, bei der die Auslastung in der Mitte des Zielbands liegt
+    private static int desiredServices(Settings settings, GroupSample sample) {
+        if (sample.size() == 0) {
+            return settings.min();
+        }
+        double perService = (double) sample.capacity() / sample.size();
+        double target = (settings.low() + settings.high()) / 2;
+        if (perService <= 0 || target <= 0) {
+            return sample.size();
+        }
+        return (int) Math.ceil(sample.players() / (perService * target));
+    }
+
+    private static boolean elapsed(long since, long nowMillis, Duration cooldown) {
+        return since == Long.MIN_VALUE || nowMillis - since >= cooldown.toMillis();
+    }
+
+    // memoryHigh bezieht sich auf das RSS-Budget: maximumMemory der Gruppe plus nonHeapMemory (Metaspace, Code-Cache, Threads, Direct Buffer)
+    public record Settings(int min, int max, double low, double high, double memoryHigh, int nonHeapMemory,
+                           Duration upCooldown, Duration downCooldown, int upTicks, int downTicks) {
+
+        public static Settings defaults() {
+            return new Settings(1, 10, 0.3, 0.75, 0.9, 512, Duration.ofSeconds(30), Duration.ofSeconds(120), 2, 6);
+        }
+
+        public static Map<String, Settings> parse(Object value) {
+            Map<String, Settings> settings = new HashMap<>();
+            if (value instanceof Map<?, ?> groups) {
+                groups.forEach((group, entry) -> {
+                    if (entry instanceof Map<?, ?> values) {
+                        settings.put(String.valueOf(group).toLowerCase(Locale.ROOT), defaults().override(values));
+                    }
+                });
+            }
+            return settings;
+        }
+
+        public Settings override(Map<?, ?> values) {
+            return new Settings(
+                    intValue(values.get("min"), min),
+                    intValue(values.get("max"), max),
+                    doubleValue(values.get("low"), low),
+                    doubleValue(values.get("high"), high),
+                    doubleValue(values.get("memoryHigh"), memoryHigh),
+                    intValue(values.get("nonHeapMemory"), nonHeapMemory),
+                    values.containsKey("upCooldown") ? Duration.ofSeconds(intValue(values.get("upCooldown"), 0)) : upCooldown,
+                    values.containsKey("downCooldown") ? Duration.ofSeconds(intValue(values.get("downCooldown"), 0)) : downCooldown,
+                    intValue(values.get("upTicks"), upTicks),
+                    intValue(values.get("downTicks"), downTicks)
+            );
+        }
+
+        public long rssBudgetBytes(int maximumMemory) {
+            return (maximumMemory + (long) nonHeapMemory) * 1024L * 1024L;
+        }
+
+        private static int intValue(Object value, int fallback) {
+            if (value instanceof Number number) {
+                return number.intValue();
+            }
+            return value != null ? Integer.parseInt(value.toString()) : fallback;
+        }
+
+        private static double doubleValue(Object value, double fallback) {
+            if (value instanceof Number number) {
+                return number.doubleValue();
+            }
+            return value != null ? Double.parseDouble(value.toString()) : fallback;
+        }
+    }
+
+    public record State(int aboveTicks, int belowTicks, long lastScaleUp, long lastScaleDown) {
+
+        public static State initial() {
+            return new State(0, 0, Long.MIN_VALUE, Long.MIN_VALUE);
+        }
+    }
+
+    public record Evaluation(ScalingDecision decision, State state) {
+    }
+}
@@ -0,0 +1,81 @@
+package community.theprojects.fairy.node.autoscale;
+
+import org.json.JSONObject;
+
+import java.io.*;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+public final class ServerListPing {
+    private static final int MAX_RESPONSE = 1 << 20;
+
+    private ServerListPing() {
+    }
+
+    // Minecraft Server List Ping (Handshake + Status Request), funktioniert für Server und Proxies
+    public static Result ping(InetSocketAddress address, Duration timeout) throws IOException {
+        long begin = System.nanoTime();
+        try (Socket socket = new Socket()) {
+            socket.connect(address, (int) timeout.toMillis());
+            socket.setSoTimeout((int) timeout.toMillis());
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+
+            ByteArrayOutputStream handshake = new ByteArrayOutputStream();
+            DataOutputStream packet = new DataOutputStream(handshake);
+            writeVarInt(packet, 0x00);
+            writeVarInt(packet, -1);
+            byte[] host = address.getHostString().getBytes(StandardCharsets.UTF_8);
+            writeVarInt(packet, host.length);
+            packet.write(host);
+            packet.writeShort(address.getPort());
+            writeVarInt(packet, 1);
+
+            writeVarInt(out, handshake.size());
+            handshake.writeTo(out);
+            writeVarInt(out, 1);
+            writeVarInt(out, 0x00);
+            out.flush();
+
+            readVarInt(in);
+            if (readVarInt(in) != 0x00) {
+                throw new IOException("Unexpected status response from " + address);
+            }
+            int length = readVarInt(in);
+            if (length < 0 || length > MAX_RESPONSE) {
+                throw new IOException("Invalid status length " + length + " from " + address);
+            }
+            byte[] json = new byte[length];
+            in.readFully(json);
+            JSONObject players = new JSONObject(new String(json, StandardCharsets.UTF_8)).optJSONObject("players");
+            int online = players != null ? players.optInt("online", 0) : 0;
+            int max = players != null ? players.optInt("max", 0) : 0;
+            return new Result(online, max, System.nanoTime() - begin);
+        }
+    }
+
+    private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    private static int readVarInt(DataInputStream in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            byte current = in.readByte();
+            value |= (current & 0x7F) << shift;
+            if ((current & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("VarInt too big");
+    }
+
+    public record Result(int online, int max, long latencyNanos) {
+    }
+}
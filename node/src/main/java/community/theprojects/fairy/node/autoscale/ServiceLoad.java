@@ -0,0 +1,9 @@
+package community.theprojects.fairy.node.autoscale;
+
+public record ServiceLoad(int number, boolean ready, int players, int maxPlayers, long rssBytes, long rssBudgetBytes) {
+
+    // RSS im Verhältnis zum RSS-Budget (Xmx plus Nicht-Heap-Anteil), nicht zum Heap allein
+    public double memoryUtilization() {
+        return rssBudgetBytes <= 0 ? 0.0 : (double) rssBytes / rssBudgetBytes;
+    }
+}
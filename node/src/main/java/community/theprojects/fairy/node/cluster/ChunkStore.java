@@ -0,0 +1,92 @@
+package community.theprojects.fairy.node.cluster;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.*;
+import java.security.MessageDigest;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.Set;
+import java.util.stream.Stream;
+
+// Chunks liegen unter ihrem Hash, gleiche Inhalte aus verschiedenen Templates werden nur einmal gespeichert
+public final class ChunkStore {
+    private static final HexFormat HEX = HexFormat.of();
+    private final Path root;
+
+    public ChunkStore(Path root) {
+        this.root = root;
+    }
+
+    // Chunk-Namen kommen vom Master und werden zu Pfaden; nur exakt 64 kleine Hex-Zeichen (SHA-256) sind zulässig
+    public static boolean isValid(String hash) {
+        if (hash == null || hash.length() != 64) {
+            return false;
+        }
+        for (int i = 0; i < hash.length(); i++) {
+            char c = hash.charAt(i);
+            if ((c < '0' || c > '9') && (c < 'a' || c > 'f')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public boolean has(String hash) {
+        return Files.isRegularFile(path(hash));
+    }
+
+    public void write(String hash, byte[] data, int length) throws IOException {
+        if (!isValid(hash)) {
+            throw new IOException("Invalid chunk hash '" + hash + "'");
+        }
+        MessageDigest digest = TemplateChunker.sha256();
+        digest.update(data, 0, length);
+        String actual = HEX.formatHex(digest.digest());
+        if (!actual.equals(hash)) {
+            throw new IOException("Chunk " + hash + " arrived corrupted");
+        }
+        Path target = path(hash);
+        Files.createDirectories(target.getParent());
+        Path tmp = Files.createTempFile(target.getParent(), hash, ".tmp");
+        try {
+            try (OutputStream out = Files.newOutputStream(tmp)) {
+                out.write(data, 0, length);
+            }
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    public void copyTo(String hash, OutputStream out) throws IOException {
+        if (!isValid(hash)) {
+            throw new IOException("Invalid chunk hash '" + hash + "'");
+        }
+        Files.copy(path(hash), out);
+    }
+
+    // Entfernt alle Chunks, die von keinem bekannten Template mehr referenziert werden
+    public int retain(Collection<String> referenced) throws IOException {
+        if (!Files.isDirectory(root)) {
+            return 0;
+        }
+        Set<String> keep = Set.copyOf(referenced);
+        int removed = 0;
+        try (Stream<Path> files = Files.walk(root, 2)) {
+            for (Path file : files.filter(Files::isRegularFile).toList()) {
+                if (!keep.contains(file.getFileName().toString()) && Files.deleteIfExists(file)) {
+                    removed++;
+                }
+            }
+        }
+        return removed;
+    }
+
+    private Path path(String hash) {
+        if (!isValid(hash)) {
+            throw new IllegalArgumentException("Invalid chunk hash '" + hash + "'");
+        }
+        return root.resolve(hash.substring(0, 2)).resolve(hash);
+    }
+}
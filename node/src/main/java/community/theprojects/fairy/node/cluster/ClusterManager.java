@@ -0,0 +1,314 @@
+package community.theprojects.fairy.node.cluster;
+
+import com.nexoscript.nexonet.api.packet.Packet;
+import community.theprojects.fairy.api.group.IGroup;
+import community.theprojects.fairy.api.service.IService;
+import community.theprojects.fairy.node.service.StartReport;
+import community.theprojects.fairy.util.network.PacketAuth;
+import community.theprojects.fairy.util.network.PacketCodec;
+import community.theprojects.fairy.util.network.PacketConnection;
+import community.theprojects.fairy.util.network.cluster.HeartbeatDecoder;
+import community.theprojects.fairy.util.network.cluster.WorkerLoad;
+import community.theprojects.fairy.util.network.packet.Packets;
+import community.theprojects.fairy.util.network.packet.cluster.WorkerHeartbeatPacket;
+import community.theprojects.fairy.util.network.packet.service.ServiceStartPacket;
+import community.theprojects.fairy.util.network.packet.service.ServiceStartedPacket;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.BiConsumer;
+
+// Hält je Worker eine persistente Verbindung; Startbefehle werden gepipelined statt einzeln abgewartet
+public final class ClusterManager implements AutoCloseable {
+    private static final Duration CONNECT_TIMEOUT = Duration.ofMillis(Long.getLong("fairy.cluster.connectTimeout", 5000L));
+    private static final Duration REQUEST_TIMEOUT = Duration.ofMillis(Long.getLong("fairy.cluster.requestTimeout", 30000L));
+    private static final long RECONNECT_MIN = Long.getLong("fairy.cluster.reconnectMin", 1000L);
+    private static final long RECONNECT_MAX = Long.getLong("fairy.cluster.reconnectMax", 30000L);
+    private static final long HEARTBEAT_TIMEOUT = Long.getLong("fairy.cluster.heartbeatTimeout", 10000L);
+    private static final long OVERHEAD_PERCENT = 115L;
+    private final Map<String, InetSocketAddress> workers;
+    private final Map<String, PacketConnection> connections;
+    private final Map<String, HeartbeatDecoder> decoders;
+    private final Map<String, WorkerLoad> loads;
+    private final Map<String, InFlight> inFlight;
+    private final Map<String, List<RemoteService>> services;
+    private final PlacementPolicy placement;
+    private final TemplateSync templates;
+    private final PacketCodec codec;
+    private final PacketAuth auth;
+    private final ScheduledExecutorService scheduler;
+    private volatile boolean closed;
+
+    public ClusterManager(Map<String, Object> cluster, PacketAuth auth) {
+        this.workers = parseWorkers(cluster.get("workers"));
+        this.connections = new ConcurrentHashMap<>();
+        this.decoders = new ConcurrentHashMap<>();
+        this.loads = new ConcurrentHashMap<>();
+        this.inFlight = new ConcurrentHashMap<>();
+        this.services = new ConcurrentHashMap<>();
+        this.placement = PlacementPolicy.parse(cluster.get("placement"));
+        this.templates = new TemplateSync();
+        this.codec = codec();
+        this.auth = auth;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("fairy-cluster").daemon().factory());
+    }
+
+    public static PacketCodec codec() {
+        return Packets.registry();
+    }
+
+    public void start() {
+        this.workers.keySet().forEach(name -> reconnect(name, 0L));
+    }
+
+    // Verteilt die Starts einzeln per Platzierungsstrategie und sendet sie danach gepipelined je Worker. Was keinen Platz
+    // mehr findet, gilt als fehlgeschlagen; jeder Start wird einzeln ausgewertet, ein ausgefallener Worker kostet nur seine
+    public CompletableFuture<StartReport> startServices(IGroup group, int count, BiConsumer<IService, Throwable> onComplete) {
+        long begin = System.nanoTime();
+        long required = requiredMemory(group);
+        String path = group.getTemplate() != null ? group.getTemplate().path() : null;
+        List<IService> started = new CopyOnWriteArrayList<>();
+        Map<String, Throwable> failures = new ConcurrentHashMap<>();
+        Map<String, CompletableFuture<?>> synced = new HashMap<>();
+        List<CompletableFuture<Void>> results = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            String worker = place(group);
+            if (worker == null) {
+                IOException failure = new IOException("No worker has capacity for group '" + group.getName() + "'");
+                failures.put(group.getName() + " #" + i, failure);
+                complete(onComplete, null, failure);
+                continue;
+            }
+            String key = group.getName() + " #" + i + " on " + worker;
+            // Das Template muss vor dem Start auf dem Worker liegen; unveränderte Templates kosten keine Übertragung
+            CompletableFuture<?> ready = synced.computeIfAbsent(worker, name -> path == null
+                    ? CompletableFuture.completedFuture(null) : syncTemplate(name, path));
+            results.add(ready.thenCompose(ignored -> request(worker, new ServiceStartPacket(group.getName(), path)))
+                    .handle((response, error) -> {
+                        release(worker, 1, required);
+                        if (error == null && response.isSuccess()) {
+                            RemoteService service = new RemoteService(worker, response.getServiceName(), group.getName(), group.getDescription(),
+                                    new InetSocketAddress(this.workers.get(worker).getHostString(), response.getPort()));
+                            this.services.computeIfAbsent(worker, name -> new CopyOnWriteArrayList<>()).add(service);
+                            started.add(service);
+                            complete(onComplete, service, null);
+                        } else {
+                            Throwable failure = error != null ? unwrap(error) : new IOException(response.getMessage() != null ? response.getMessage() : "not started");
+                            failures.put(key, failure);
+                            complete(onComplete, null, failure);
+                        }
+                        return null;
+                    }));
+        }
+        return CompletableFuture.allOf(results.toArray(new CompletableFuture[0])).thenApply(done -> new StartReport(group.getName(), count,
+                List.copyOf(started), Map.copyOf(failures), Duration.ofNanos(System.nanoTime() - begin)));
+    }
+
+    // Wenigstens ein verbundener Worker mit aktuellem Heartbeat, sonst startet die Node selbst
+    public boolean isAvailable() {
+        long now = System.currentTimeMillis();
+        for (Map.Entry<String, WorkerLoad> entry : this.loads.entrySet()) {
+            PacketConnection connection = this.connections.get(entry.getKey());
+            if (connection != null && connection.isOpen() && now - entry.getValue().receivedAt() <= HEARTBEAT_TIMEOUT) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Von diesem Master auf Workern gestartete Services der Gruppe, soweit die Heartbeats sie noch melden
+    public List<RemoteService> getServices(String groupName) {
+        List<RemoteService> result = new ArrayList<>();
+        this.services.values().forEach(known -> known.forEach(service -> {
+            if (service.getGroup().equalsIgnoreCase(groupName)) {
+                result.add(service);
+            }
+        }));
+        return result;
+    }
+
+    // Wählt einen Worker und rechnet die Platzierung bis zum Abschluss des Starts in seine Last ein
+    public String place(IGroup group) {
+        long required = requiredMemory(group);
+        long now = System.currentTimeMillis();
+        synchronized (this.inFlight) {
+            List<PlacementPolicy.Candidate> candidates = new ArrayList<>();
+            this.loads.forEach((worker, load) -> {
+                PacketConnection connection = this.connections.get(worker);
+                if (connection != null && connection.isOpen() && now - load.receivedAt() <= HEARTBEAT_TIMEOUT) {
+                    InFlight pending = this.inFlight.getOrDefault(worker, InFlight.NONE);
+                    candidates.add(new PlacementPolicy.Candidate(worker, load, pending.starts(), pending.memory()));
+                }
+            });
+            PlacementPolicy.Candidate chosen = this.placement.choose(candidates, required);
+            if (chosen == null) {
+                return null;
+            }
+            this.inFlight.merge(chosen.key(), new InFlight(1, required), InFlight::plus);
+            return chosen.key();
+        }
+    }
+
+    public CompletableFuture<TemplateSync.Result> syncTemplate(String worker, String template) {
+        PacketConnection connection = this.connections.get(worker);
+        if (connection == null || !connection.isOpen()) {
+            return CompletableFuture.failedFuture(new IOException("Worker '" + worker + "' is not connected"));
+        }
+        return this.templates.push(connection, template);
+    }
+
+    // Anfragen gehen sofort raus, die Antworten werden über ihre Korrelations-IDs zugeordnet
+    private CompletableFuture<ServiceStartedPacket> request(String worker, ServiceStartPacket packet) {
+        PacketConnection connection = this.connections.get(worker);
+        if (connection == null || !connection.isOpen()) {
+            return CompletableFuture.failedFuture(new IOException("Worker '" + worker + "' is not connected"));
+        }
+        return connection.request(packet, REQUEST_TIMEOUT).thenApply(ServiceStartedPacket.class::cast);
+    }
+
+    public Set<String> getWorkers() {
+        return Collections.unmodifiableSet(this.workers.keySet());
+    }
+
+    public Map<String, PacketConnection> getConnections() {
+        return Map.copyOf(this.connections);
+    }
+
+    public Map<String, WorkerLoad> getLoads() {
+        return Map.copyOf(this.loads);
+    }
+
+    public PlacementPolicy getPlacement() {
+        return this.placement;
+    }
+
+    private CompletableFuture<? extends Packet> handle(String worker, Packet packet) {
+        if (packet instanceof WorkerHeartbeatPacket heartbeat) {
+            WorkerLoad load = this.decoders.computeIfAbsent(worker, key -> new HeartbeatDecoder()).apply(heartbeat, System.currentTimeMillis());
+            if (load != null) {
+                this.loads.put(worker, load);
+                trim(worker, load);
+            }
+        }
+        return null;
+    }
+
+    // Der Heartbeat meldet nur Anzahlen je Gruppe; sind es weniger als bekannt, fallen die ältesten Einträge weg.
+    // Frische Starts bleiben stehen, weil sie im nächsten Heartbeat noch fehlen können
+    private void trim(String worker, WorkerLoad load) {
+        List<RemoteService> known = this.services.get(worker);
+        if (known == null) {
+            return;
+        }
+        Instant settled = Instant.now().minusMillis(HEARTBEAT_TIMEOUT);
+        Map<String, Integer> seen = new HashMap<>();
+        for (int i = known.size() - 1; i >= 0; i--) {
+            RemoteService service = known.get(i);
+            String group = service.getGroup().toLowerCase(Locale.ROOT);
+            if (seen.merge(group, 1, Integer::sum) > load.services().getOrDefault(group, 0) && service.getStartedAt().isBefore(settled)) {
+                known.remove(service);
+            }
+        }
+    }
+
+    private static void complete(BiConsumer<IService, Throwable> onComplete, IService service, Throwable failure) {
+        if (onComplete != null) {
+            onComplete.accept(service, failure);
+        }
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+
+    private void release(String worker, int starts, long memory) {
+        // Bis zur Antwort doppelt gezählt (hier und in der Warteschlange des Heartbeats), lieber vorsichtig platzieren
+        synchronized (this.inFlight) {
+            this.inFlight.computeIfPresent(worker, (key, pending) -> pending.minus(starts, memory));
+        }
+    }
+
+    private static long requiredMemory(IGroup group) {
+        return group.getMaximumMemory() * OVERHEAD_PERCENT / 100L;
+    }
+
+    private void connect(String name, long backoff) {
+        if (this.closed) {
+            return;
+        }
+        try {
+            // Neue Verbindung, neuer Delta-Stand: bis zum ersten Keyframe gilt der Worker als unbekannt
+            this.decoders.put(name, new HeartbeatDecoder());
+            this.loads.remove(name);
+            PacketConnection connection = PacketConnection.connect(this.workers.get(name), CONNECT_TIMEOUT, this.codec,
+                    (ignored, packet) -> handle(name, packet), this.auth);
+            connection.setOnClose(() -> {
+                this.connections.remove(name, connection);
+                this.loads.remove(name);
+                reconnect(name, RECONNECT_MIN);
+            });
+            this.connections.put(name, connection);
+        } catch (IOException e) {
+            reconnect(name, Math.min(RECONNECT_MAX, Math.max(RECONNECT_MIN, backoff * 2)));
+        }
+    }
+
+    private void reconnect(String name, long delay) {
+        if (this.closed) {
+            return;
+        }
+        // Verbindungsaufbau blockiert, daher auf einem virtuellen Thread statt im Scheduler
+        this.scheduler.schedule(() -> Thread.ofVirtual().name("fairy-cluster-connect").start(() -> connect(name, delay)),
+                delay, TimeUnit.MILLISECONDS);
+    }
+
+    private static Map<String, InetSocketAddress> parseWorkers(Object value) {
+        Map<String, InetSocketAddress> workers = new LinkedHashMap<>();
+        if (!(value instanceof Collection<?> entries)) {
+            return workers;
+        }
+        for (Object entry : entries) {
+            if (entry instanceof Map<?, ?> map) {
+                String host = String.valueOf(map.get("host"));
+                int port = Integer.parseInt(String.valueOf(map.get("port")));
+                Object name = map.get("name");
+                workers.put(name != null ? name.toString() : host + ":" + port, new InetSocketAddress(host, port));
+            } else if (entry != null) {
+                String address = entry.toString();
+                int separator = address.lastIndexOf(':');
+                if (separator < 0) {
+                    throw new IllegalArgumentException("Worker address '" + address + "' needs host:port");
+                }
+                workers.put(address, new InetSocketAddress(address.substring(0, separator), Integer.parseInt(address.substring(separator + 1))));
+            }
+        }
+        return workers;
+    }
+
+    @Override
+    public void close() {
+        this.closed = true;
+        this.scheduler.shutdownNow();
+        this.templates.close();
+        this.connections.values().forEach(PacketConnection::close);
+        this.connections.clear();
+        this.loads.clear();
+        this.services.clear();
+    }
+
+    private record InFlight(int starts, long memory) {
+        private static final InFlight NONE = new InFlight(0, 0L);
+
+        private InFlight plus(InFlight other) {
+            return new InFlight(starts + other.starts, memory + other.memory);
+        }
+
+        private InFlight minus(int starts, long memory) {
+            return this.starts <= starts ? null : new InFlight(this.starts - starts, this.memory - memory);
+        }
+    }
+}
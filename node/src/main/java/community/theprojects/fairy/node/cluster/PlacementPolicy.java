@@ -0,0 +1,69 @@
+package community.theprojects.fairy.node.cluster;
+
+import community.theprojects.fairy.util.network.cluster.WorkerLoad;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+
+public enum PlacementPolicy {
+    LEAST_LOADED,
+    // Zwei zufällige Kandidaten, der weniger belastete gewinnt; verhindert, dass sich zwischen zwei
+    // Heartbeats alle Starts auf denselben scheinbar leersten Worker stürzen
+    POWER_OF_TWO;
+
+    private static final double QUEUE_WEIGHT = 0.25;
+
+    public static PlacementPolicy parse(Object value) {
+        if (value == null) {
+            return POWER_OF_TWO;
+        }
+        return switch (value.toString().toLowerCase(Locale.ROOT).replace('_', '-')) {
+            case "least-loaded" -> LEAST_LOADED;
+            case "power-of-two" -> POWER_OF_TWO;
+            default -> throw new IllegalArgumentException("Unknown placement policy '" + value + "'");
+        };
+    }
+
+    public Candidate choose(List<Candidate> candidates, long requiredMemory) {
+        List<Candidate> eligible = candidates.stream()
+                .filter(candidate -> candidate.freeMemory() >= requiredMemory)
+                .toList();
+        if (eligible.isEmpty()) {
+            return null;
+        }
+        if (this == LEAST_LOADED || eligible.size() <= 2) {
+            Candidate best = null;
+            for (Candidate candidate : eligible) {
+                if (best == null || candidate.score(requiredMemory) < best.score(requiredMemory)) {
+                    best = candidate;
+                }
+            }
+            return best;
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(eligible.size());
+        int second = random.nextInt(eligible.size() - 1);
+        if (second >= first) {
+            second++;
+        }
+        Candidate a = eligible.get(first);
+        Candidate b = eligible.get(second);
+        return a.score(requiredMemory) <= b.score(requiredMemory) ? a : b;
+    }
+
+    // Noch nicht im Heartbeat sichtbare Platzierungen zählen bereits als Warteschlange und belegter Speicher.
+    // key ist der Verbindungsschlüssel im ClusterManager; der im Heartbeat gemeldete Name kann davon abweichen
+    public record Candidate(String key, WorkerLoad load, int inFlight, long inFlightMemory) {
+
+        public long freeMemory() {
+            return load.freeMemory() - inFlightMemory;
+        }
+
+        public double score(long requiredMemory) {
+            return load.cpuLoad() / 1000.0
+                    + (load.startQueue() + inFlight) * QUEUE_WEIGHT
+                    + (double) requiredMemory / Math.max(1L, freeMemory());
+        }
+    }
+}
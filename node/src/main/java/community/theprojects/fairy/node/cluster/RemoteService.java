@@ -0,0 +1,86 @@
+package community.theprojects.fairy.node.cluster;
+
+import community.theprojects.fairy.api.service.IService;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.UUID;
+
+// Ein auf einem Worker gestarteter Service aus Sicht des Masters; der Prozess läuft dort, hier gibt es nur Name und Adresse
+public final class RemoteService implements IService {
+    private final UUID id;
+    private final String worker;
+    private final String name;
+    private final String group;
+    private final String description;
+    private final int number;
+    private final InetSocketAddress address;
+    private final Instant startedAt;
+
+    public RemoteService(String worker, String name, String group, String description, InetSocketAddress address) {
+        // Servicenamen wiederholen sich je Worker, die ID wird daher aus Worker und Name abgeleitet
+        this.id = UUID.nameUUIDFromBytes((worker + "/" + name).getBytes(StandardCharsets.UTF_8));
+        this.worker = worker;
+        this.name = name;
+        this.group = group;
+        this.description = description;
+        this.number = number(name);
+        this.address = address;
+        this.startedAt = Instant.now();
+    }
+
+    @Override
+    public UUID getId() {
+        return this.id;
+    }
+
+    @Override
+    public String getName() {
+        return this.name;
+    }
+
+    @Override
+    public String getDescription() {
+        return this.description;
+    }
+
+    @Override
+    public String getGroup() {
+        return this.group;
+    }
+
+    @Override
+    public Process getProcess() {
+        return null;
+    }
+
+    public String getWorker() {
+        return this.worker;
+    }
+
+    public int getNumber() {
+        return this.number;
+    }
+
+    public int getPort() {
+        return this.address.getPort();
+    }
+
+    public InetSocketAddress getAddress() {
+        return this.address;
+    }
+
+    public Instant getStartedAt() {
+        return this.startedAt;
+    }
+
+    private static int number(String name) {
+        int separator = name.lastIndexOf('-');
+        try {
+            return separator < 0 ? -1 : Integer.parseInt(name.substring(separator + 1));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package community.theprojects.fairy.node.cluster;
+
+import community.theprojects.fairy.util.network.packet.template.TemplateFile;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+// Inhaltsdefinierte Chunks (Gear-Hash): eine Änderung verschiebt nur die Grenzen in ihrer Nähe,
+// der Rest einer Datei behält seine Hashes und muss nicht erneut übertragen werden
+public final class TemplateChunker {
+    private static final int MIN_CHUNK = 16 * 1024;
+    static final int MAX_CHUNK = 256 * 1024;
+    // 16 Bit Maske ergibt im Mittel ca. 64 KB große Chunks
+    private static final long MASK = (1L << 16) - 1 << 48;
+    private static final long[] GEAR = new long[256];
+    private static final HexFormat HEX = HexFormat.of();
+
+    static {
+        // Feste Tabelle, Master und Worker müssen dieselben Grenzen finden
+        long seed = 0x9E3779B97F4A7C15L;
+        for (int i = 0; i < GEAR.length; i++) {
+            long z = (seed += 0x9E3779B97F4A7C15L);
+            z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+            z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+            GEAR[i] = z ^ (z >>> 31);
+        }
+    }
+
+    private final Map<Path, Cached> cache = new ConcurrentHashMap<>();
+
+    public List<TemplateFile> manifest(Path root) throws IOException {
+        List<Path> files;
+        try (Stream<Path> paths = Files.walk(root)) {
+            files = paths.filter(Files::isRegularFile).sorted().toList();
+        }
+        List<TemplateFile> manifest = new ArrayList<>(files.size());
+        for (Path file : files) {
+            List<Chunk> chunks = chunks(file);
+            List<String> hashes = new ArrayList<>(chunks.size());
+            long size = 0;
+            for (Chunk chunk : chunks) {
+                hashes.add(chunk.hash());
+                size += chunk.length();
+            }
+            manifest.add(new TemplateFile(root.relativize(file).toString().replace('\\', '/'), size, Files.isExecutable(file), hashes));
+        }
+        return manifest;
+    }
+
+    // Unveränderte Dateien (Größe und Änderungszeit) werden nicht erneut gelesen
+    public List<Chunk> chunks(Path file) throws IOException {
+        Path key = file.toAbsolutePath().normalize();
+        BasicFileAttributes attributes = Files.readAttributes(key, BasicFileAttributes.class);
+        long modified = attributes.lastModifiedTime().toMillis();
+        Cached cached = cache.get(key);
+        if (cached != null && cached.size() == attributes.size() && cached.modified() == modified) {
+            return cached.chunks();
+        }
+        List<Chunk> chunks = split(key);
+        cache.put(key, new Cached(attributes.size(), modified, chunks));
+        return chunks;
+    }
+
+    private static List<Chunk> split(Path file) throws IOException {
+        List<Chunk> chunks = new ArrayList<>();
+        MessageDigest digest = sha256();
+        byte[] buffer = new byte[1024 * 1024];
+        long offset = 0;
+        int length = 0;
+        long hash = 0;
+        try (InputStream in = Files.newInputStream(file)) {
+            int read;
+            while ((read = in.read(buffer)) > 0) {
+                int start = 0;
+                for (int i = 0; i < read; i++) {
+                    length++;
+                    // Der Hash hängt nur von den letzten 64 Bytes ab, davor muss nicht gerechnet werden
+                    if (length <= MIN_CHUNK - 64) {
+                        continue;
+                    }
+                    hash = (hash << 1) + GEAR[buffer[i] & 0xFF];
+                    if (length >= MAX_CHUNK || (length >= MIN_CHUNK && (hash & MASK) == 0)) {
+                        digest.update(buffer, start, i + 1 - start);
+                        chunks.add(new Chunk(HEX.formatHex(digest.digest()), offset, length));
+                        offset += length;
+                        length = 0;
+                        hash = 0;
+                        start = i + 1;
+                    }
+                }
+                digest.update(buffer, start, read - start);
+            }
+        }
+        if (length > 0) {
+            chunks.add(new Chunk(HEX.formatHex(digest.digest()), offset, length));
+        }
+        return List.copyOf(chunks);
+    }
+
+    public static byte[] read(SeekableByteChannel channel, Chunk chunk) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(chunk.length());
+        channel.position(chunk.offset());
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                throw new EOFException("File ended inside chunk " + chunk.hash());
+            }
+        }
+        return buffer.array();
+    }
+
+    static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    public record Chunk(String hash, long offset, int length) {
+    }
+
+    private record Cached(long size, long modified, List<Chunk> chunks) {
+    }
+}
@@ -0,0 +1,239 @@
+package community.theprojects.fairy.node.cluster;
+
+import community.theprojects.fairy.util.network.packet.template.TemplateChunkPacket;
+import community.theprojects.fairy.util.network.packet.template.TemplateFile;
+import community.theprojects.fairy.util.network.packet.template.TemplateManifestPacket;
+import community.theprojects.fairy.util.network.packet.template.TemplateStatePacket;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+// Worker-Seite: hält Chunks im lokalen Cache und baut Templates daraus auf
+public final class TemplateReceiver {
+    private static final HexFormat HEX = HexFormat.of();
+    private final Path base;
+    private final Path manifests;
+    private final ChunkStore store;
+    private final TemplateChunker chunker;
+    private final Map<String, List<TemplateFile>> pending;
+    private final ReentrantLock lock;
+
+    public TemplateReceiver(Path base, Path cache) {
+        this.base = base.toAbsolutePath().normalize();
+        this.manifests = cache.resolve("manifests");
+        this.store = new ChunkStore(cache.resolve("chunks"));
+        this.chunker = new TemplateChunker();
+        this.pending = new HashMap<>();
+        this.lock = new ReentrantLock();
+    }
+
+    public TemplateStatePacket handle(TemplateManifestPacket packet) {
+        lock.lock();
+        try {
+            Path target = target(packet.getTemplate());
+            validate(packet.getFiles());
+            List<String> missing = missing(packet.getFiles());
+            if (!missing.isEmpty()) {
+                // Wie rsync: vorhandene lokale Dateien liefern bereits passende Chunks
+                seed(target, packet.getFiles(), missing);
+                missing = missing(packet.getFiles());
+            }
+            if (!packet.isApply()) {
+                pending.put(packet.getTemplate(), packet.getFiles());
+                return new TemplateStatePacket(packet.getTemplate(), missing, null);
+            }
+            if (!missing.isEmpty()) {
+                return new TemplateStatePacket(packet.getTemplate(), missing, missing.size() + " chunks are still missing");
+            }
+            materialize(packet.getTemplate(), target, packet.getFiles());
+            pending.remove(packet.getTemplate());
+            store.retain(referenced());
+            return new TemplateStatePacket(packet.getTemplate(), List.of(), null);
+        } catch (IOException | RuntimeException e) {
+            return new TemplateStatePacket(packet.getTemplate(), List.of(), String.valueOf(e.getMessage()));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public TemplateStatePacket handle(TemplateChunkPacket packet) {
+        byte[] inflated = new byte[TemplateChunker.MAX_CHUNK];
+        Inflater inflater = new Inflater();
+        lock.lock();
+        try {
+            for (TemplateChunkPacket.Chunk chunk : packet.getChunks()) {
+                if (!ChunkStore.isValid(chunk.hash())) {
+                    throw new IOException("Invalid chunk hash '" + chunk.hash() + "'");
+                }
+                if (!chunk.compressed()) {
+                    store.write(chunk.hash(), chunk.data(), chunk.length());
+                    continue;
+                }
+                inflater.reset();
+                inflater.setInput(chunk.data(), 0, chunk.length());
+                int length = inflater.inflate(inflated);
+                if (!inflater.finished()) {
+                    throw new IOException("Chunk " + chunk.hash() + " exceeds " + TemplateChunker.MAX_CHUNK + " bytes");
+                }
+                store.write(chunk.hash(), inflated, length);
+            }
+            return new TemplateStatePacket(packet.getTemplate(), List.of(), null);
+        } catch (IOException | DataFormatException e) {
+            return new TemplateStatePacket(packet.getTemplate(), List.of(), String.valueOf(e.getMessage()));
+        } finally {
+            lock.unlock();
+            inflater.end();
+        }
+    }
+
+    // Ein Manifest mit ungültigem Hash wird vollständig abgelehnt, bevor irgendetwas geschrieben wird
+    private static void validate(List<TemplateFile> files) throws IOException {
+        for (TemplateFile file : files) {
+            for (String chunk : file.chunks()) {
+                if (!ChunkStore.isValid(chunk)) {
+                    throw new IOException("Invalid chunk hash '" + chunk + "' in " + file.path());
+                }
+            }
+        }
+    }
+
+    private List<String> missing(List<TemplateFile> files) {
+        Set<String> missing = new LinkedHashSet<>();
+        for (TemplateFile file : files) {
+            for (String chunk : file.chunks()) {
+                if (!missing.contains(chunk) && !store.has(chunk)) {
+                    missing.add(chunk);
+                }
+            }
+        }
+        return new ArrayList<>(missing);
+    }
+
+    private void seed(Path target, List<TemplateFile> files, List<String> missing) throws IOException {
+        Set<String> wanted = new HashSet<>(missing);
+        for (TemplateFile file : files) {
+            Path local = resolve(target, file.path());
+            if (!Files.isRegularFile(local) || Collections.disjoint(wanted, file.chunks())) {
+                continue;
+            }
+            // Zwischenzeitlich geänderte Dateien liefern falsche Hashes und werden einfach übersprungen
+            try (SeekableByteChannel channel = Files.newByteChannel(local)) {
+                for (TemplateChunker.Chunk chunk : chunker.chunks(local)) {
+                    if (wanted.remove(chunk.hash())) {
+                        store.write(chunk.hash(), TemplateChunker.read(channel, chunk), chunk.length());
+                    }
+                }
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    private void materialize(String template, Path target, List<TemplateFile> files) throws IOException {
+        Path record = record(template);
+        Map<String, TemplateFile> previous = readRecord(record);
+        Files.createDirectories(target);
+        for (TemplateFile file : files) {
+            Path destination = resolve(target, file.path());
+            // Unveränderte Dateien bleiben stehen, laufende Services behalten ihre Hardlinks
+            if (file.equals(previous.get(file.path())) && Files.isRegularFile(destination) && Files.size(destination) == file.size()) {
+                continue;
+            }
+            Files.createDirectories(destination.getParent());
+            Path tmp = Files.createTempFile(destination.getParent(), ".fairy-sync", ".tmp");
+            try {
+                try (OutputStream out = Files.newOutputStream(tmp)) {
+                    for (String chunk : file.chunks()) {
+                        store.copyTo(chunk, out);
+                    }
+                }
+                if (file.executable()) {
+                    tmp.toFile().setExecutable(true);
+                }
+                Files.move(tmp, destination, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(tmp);
+            }
+        }
+        Set<String> current = new HashSet<>();
+        files.forEach(file -> current.add(file.path()));
+        for (String path : previous.keySet()) {
+            if (!current.contains(path)) {
+                Files.deleteIfExists(resolve(target, path));
+            }
+        }
+        writeRecord(record, files);
+    }
+
+    private Set<String> referenced() throws IOException {
+        Set<String> referenced = new HashSet<>();
+        pending.values().forEach(files -> files.forEach(file -> referenced.addAll(file.chunks())));
+        if (Files.isDirectory(manifests)) {
+            try (Stream<Path> records = Files.list(manifests)) {
+                for (Path record : records.toList()) {
+                    readRecord(record).values().forEach(file -> referenced.addAll(file.chunks()));
+                }
+            }
+        }
+        return referenced;
+    }
+
+    // Template-Pfade sind relativ zum Arbeitsverzeichnis und dürfen es nicht verlassen
+    private Path target(String template) throws IOException {
+        return resolve(base, template);
+    }
+
+    private static Path resolve(Path root, String path) throws IOException {
+        Path resolved = root.resolve(path).normalize();
+        if (!resolved.startsWith(root) || resolved.equals(root)) {
+            throw new IOException("Path '" + path + "' leaves " + root);
+        }
+        return resolved;
+    }
+
+    private Path record(String template) {
+        return manifests.resolve(HEX.formatHex(TemplateChunker.sha256().digest(template.getBytes(StandardCharsets.UTF_8))));
+    }
+
+    private static Map<String, TemplateFile> readRecord(Path record) throws IOException {
+        Map<String, TemplateFile> files = new LinkedHashMap<>();
+        if (!Files.isRegularFile(record)) {
+            return files;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(record, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] parts = line.split("\t", 4);
+                if (parts.length == 4) {
+                    List<String> chunks = parts[2].isEmpty() ? List.of() : List.of(parts[2].split(","));
+                    files.put(parts[3], new TemplateFile(parts[3], Long.parseLong(parts[0]), "1".equals(parts[1]), chunks));
+                }
+            }
+        } catch (NumberFormatException e) {
+            // Beschädigter Stand: beim nächsten Sync werden alle Dateien neu geschrieben
+            return new LinkedHashMap<>();
+        }
+        return files;
+    }
+
+    private static void writeRecord(Path record, List<TemplateFile> files) throws IOException {
+        Files.createDirectories(record.getParent());
+        Path tmp = record.resolveSibling(record.getFileName() + ".tmp");
+        try (BufferedWriter writer = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+            for (TemplateFile file : files) {
+                writer.write(file.size() + "\t" + (file.executable() ? "1" : "0") + "\t" + String.join(",", file.chunks()) + "\t" + file.path());
+                writer.newLine();
+            }
+        }
+        Files.move(tmp, record, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
@@ -0,0 +1,178 @@
+package community.theprojects.fairy.node.cluster;
+
+import community.theprojects.fairy.util.network.PacketConnection;
+import community.theprojects.fairy.util.network.packet.template.TemplateChunkPacket;
+import community.theprojects.fairy.util.network.packet.template.TemplateFile;
+import community.theprojects.fairy.util.network.packet.template.TemplateManifestPacket;
+import community.theprojects.fairy.util.network.packet.template.TemplateStatePacket;
+
+import java.io.IOException;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.zip.Deflater;
+
+// Master-Seite: überträgt nur Chunks, die dem Worker fehlen, komprimiert und mit begrenztem Fenster
+public final class TemplateSync implements AutoCloseable {
+    private static final Duration REQUEST_TIMEOUT = Duration.ofMillis(Long.getLong("fairy.template.syncTimeout", 60000L));
+    private static final int BATCH_BYTES = Integer.getInteger("fairy.template.batchBytes", 1024 * 1024);
+    private static final int WINDOW = Integer.getInteger("fairy.template.window", 4);
+    private final TemplateChunker chunker;
+    private final Map<PacketConnection, Map<String, List<TemplateFile>>> synced;
+    private final Map<Transfer, CompletableFuture<Result>> running;
+    private final ExecutorService executor;
+
+    public TemplateSync() {
+        this.chunker = new TemplateChunker();
+        this.synced = new ConcurrentHashMap<>();
+        this.running = new ConcurrentHashMap<>();
+        this.executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("fairy-template-sync-", 0).factory());
+    }
+
+    // Gleichzeitige Anfragen für dasselbe Template und denselben Worker teilen sich eine Übertragung
+    public CompletableFuture<Result> push(PacketConnection connection, String template) {
+        Transfer transfer = new Transfer(connection, template);
+        CompletableFuture<Result> created = new CompletableFuture<>();
+        CompletableFuture<Result> existing = running.putIfAbsent(transfer, created);
+        if (existing != null) {
+            return existing;
+        }
+        executor.execute(() -> {
+            try {
+                created.complete(transfer(connection, template));
+            } catch (Exception e) {
+                created.completeExceptionally(e);
+            } finally {
+                running.remove(transfer, created);
+            }
+        });
+        return created;
+    }
+
+    private Result transfer(PacketConnection connection, String template) throws Exception {
+        long begin = System.nanoTime();
+        synced.keySet().removeIf(known -> !known.isOpen());
+        Path root = Path.of(template);
+        List<TemplateFile> files = chunker.manifest(root);
+        Map<String, List<TemplateFile>> known = synced.computeIfAbsent(connection, key -> new ConcurrentHashMap<>());
+        if (files.equals(known.get(template))) {
+            return new Result(template, files.size(), 0, 0L, 0L, Duration.ofNanos(System.nanoTime() - begin));
+        }
+        List<String> missing = check(connection, new TemplateManifestPacket(template, false, files)).getMissing();
+
+        Map<String, Location> locations = new HashMap<>();
+        for (TemplateFile file : files) {
+            Path path = root.resolve(file.path());
+            for (TemplateChunker.Chunk chunk : chunker.chunks(path)) {
+                locations.putIfAbsent(chunk.hash(), new Location(path, chunk));
+            }
+        }
+        long raw = 0;
+        long sent = 0;
+        Semaphore window = new Semaphore(WINDOW);
+        List<CompletableFuture<TemplateStatePacket>> batches = new ArrayList<>();
+        List<TemplateChunkPacket.Chunk> batch = new ArrayList<>();
+        int batchBytes = 0;
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        SeekableByteChannel channel = null;
+        Path open = null;
+        try {
+            for (String hash : missing) {
+                Location location = locations.get(hash);
+                if (location == null) {
+                    throw new IOException("Worker requested unknown chunk " + hash);
+                }
+                // Fehlende Chunks kommen in Dateireihenfolge, die Datei bleibt meist offen
+                if (!location.file().equals(open)) {
+                    if (channel != null) {
+                        channel.close();
+                    }
+                    channel = Files.newByteChannel(location.file());
+                    open = location.file();
+                }
+                TemplateChunkPacket.Chunk chunk = compress(deflater, hash, TemplateChunker.read(channel, location.chunk()));
+                raw += location.chunk().length();
+                sent += chunk.length();
+                batch.add(chunk);
+                batchBytes += chunk.length();
+                if (batchBytes >= BATCH_BYTES) {
+                    batches.add(send(connection, window, template, batch));
+                    batch = new ArrayList<>();
+                    batchBytes = 0;
+                }
+            }
+            if (!batch.isEmpty()) {
+                batches.add(send(connection, window, template, batch));
+            }
+        } finally {
+            deflater.end();
+            if (channel != null) {
+                channel.close();
+            }
+        }
+        for (CompletableFuture<TemplateStatePacket> result : batches) {
+            check(result.join());
+        }
+        TemplateStatePacket applied = check(connection, new TemplateManifestPacket(template, true, files));
+        if (!applied.getMissing().isEmpty()) {
+            throw new IOException("Worker is still missing " + applied.getMissing().size() + " chunks of " + template);
+        }
+        known.put(template, files);
+        return new Result(template, files.size(), missing.size(), raw, sent, Duration.ofNanos(System.nanoTime() - begin));
+    }
+
+    // Bereits komprimierte Inhalte (Jars, Bilder) werden unverändert übertragen
+    private static TemplateChunkPacket.Chunk compress(Deflater deflater, String hash, byte[] data) {
+        deflater.reset();
+        deflater.setInput(data);
+        deflater.finish();
+        byte[] output = new byte[data.length];
+        int length = deflater.deflate(output);
+        if (!deflater.finished() || length >= data.length) {
+            return new TemplateChunkPacket.Chunk(hash, false, data, data.length);
+        }
+        return new TemplateChunkPacket.Chunk(hash, true, output, length);
+    }
+
+    private static CompletableFuture<TemplateStatePacket> send(PacketConnection connection, Semaphore window, String template,
+                                                               List<TemplateChunkPacket.Chunk> batch) throws InterruptedException {
+        // Höchstens WINDOW Batches unterwegs, damit große Templates den Speicher nicht füllen
+        window.acquire();
+        return connection.request(new TemplateChunkPacket(template, batch), REQUEST_TIMEOUT)
+                .thenApply(TemplateStatePacket.class::cast)
+                .whenComplete((state, failure) -> window.release());
+    }
+
+    private static TemplateStatePacket check(PacketConnection connection, TemplateManifestPacket packet) throws Exception {
+        try {
+            return check((TemplateStatePacket) connection.request(packet, REQUEST_TIMEOUT).get());
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof Exception cause ? cause : e;
+        }
+    }
+
+    private static TemplateStatePacket check(TemplateStatePacket state) throws IOException {
+        if (state.getMessage() != null) {
+            throw new IOException("Template sync of " + state.getTemplate() + " failed: " + state.getMessage());
+        }
+        return state;
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+        synced.clear();
+    }
+
+    public record Result(String template, int files, int chunks, long rawBytes, long sentBytes, Duration duration) {
+    }
+
+    private record Transfer(PacketConnection connection, String template) {
+    }
+
+    private record Location(Path file, TemplateChunker.Chunk chunk) {
+    }
+}
@@ -0,0 +1,173 @@
+package community.theprojects.fairy.node.cluster;
+
+import com.nexoscript.nexonet.api.packet.Packet;
+import community.theprojects.fairy.api.IWorker;
+import community.theprojects.fairy.api.config.IConfig;
+import community.theprojects.fairy.node.group.GroupManager;
+import community.theprojects.fairy.node.service.MemoryAdmission;
+import community.theprojects.fairy.node.service.Service;
+import community.theprojects.fairy.node.service.StartReport;
+import community.theprojects.fairy.util.network.PacketAuth;
+import community.theprojects.fairy.util.network.PacketConnection;
+import community.theprojects.fairy.util.network.PacketServer;
+import community.theprojects.fairy.util.network.cluster.HeartbeatEncoder;
+import community.theprojects.fairy.util.network.packet.service.ServiceStartPacket;
+import community.theprojects.fairy.util.network.packet.service.ServiceStartedPacket;
+import community.theprojects.fairy.util.network.packet.template.TemplateChunkPacket;
+import community.theprojects.fairy.util.network.packet.template.TemplateManifestPacket;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.*;
+
+// Nimmt Verbindungen des Masters an, führt Startbefehle aus und meldet regelmäßig die eigene Last
+public final class WorkerAgent implements IWorker {
+    private static final long MB = 1024L * 1024L;
+    private static final long HEARTBEAT_INTERVAL = Long.getLong("fairy.cluster.heartbeatInterval", 2000L);
+    private static final int KEYFRAME_INTERVAL = Integer.getInteger("fairy.cluster.heartbeatKeyframe", 15);
+    private static final long MEMORY_STEP = Long.getLong("fairy.cluster.heartbeatMemoryStep", 64L);
+    private static final int CPU_STEP = Integer.getInteger("fairy.cluster.heartbeatCpuStep", 50);
+    private final IConfig config;
+    private final GroupManager groupManager;
+    private final UUID id;
+    private final String name;
+    private final String version;
+    private final int port;
+    private final PacketAuth auth;
+    private final Map<PacketConnection, HeartbeatEncoder> encoders;
+    private final TemplateReceiver templates;
+    private ExecutorService executor;
+    private ScheduledExecutorService scheduler;
+    private PacketServer server;
+
+    public WorkerAgent(IConfig config, GroupManager groupManager, UUID id, String name, String version, int port, PacketAuth auth) {
+        this.config = config;
+        this.groupManager = groupManager;
+        this.id = id;
+        this.name = name;
+        this.version = version;
+        this.port = port;
+        this.auth = auth;
+        this.encoders = new ConcurrentHashMap<>();
+        this.templates = new TemplateReceiver(Path.of(""), Path.of("storage", "cache", "sync"));
+    }
+
+    @Override
+    public void init() {
+        this.executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("fairy-worker-", 0).factory());
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("fairy-heartbeat").daemon().factory());
+    }
+
+    @Override
+    public void start() {
+        try {
+            this.server = new PacketServer(PacketServer.bindAddress(this.port), ClusterManager.codec(), this::handle, this.auth);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+        // Jede Verbindung hat ihren eigenen Delta-Stand und beginnt mit einem Keyframe
+        this.server.setOnConnect(connection -> this.encoders.put(connection,
+                new HeartbeatEncoder(this.name, KEYFRAME_INTERVAL, MEMORY_STEP, CPU_STEP)));
+        this.scheduler.scheduleAtFixedRate(this::heartbeat, 0L, HEARTBEAT_INTERVAL, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void stop() {
+        if (this.scheduler != null) {
+            this.scheduler.shutdownNow();
+        }
+        if (this.executor != null) {
+            this.executor.shutdownNow();
+        }
+        if (this.server != null) {
+            try {
+                this.server.close();
+            } catch (IOException ignored) {
+            }
+        }
+        this.encoders.clear();
+    }
+
+    private CompletableFuture<? extends Packet> handle(PacketConnection connection, Packet packet) {
+        if (packet instanceof TemplateManifestPacket manifest) {
+            return CompletableFuture.supplyAsync(() -> this.templates.handle(manifest), this.executor);
+        }
+        if (packet instanceof TemplateChunkPacket chunks) {
+            return CompletableFuture.supplyAsync(() -> this.templates.handle(chunks), this.executor);
+        }
+        if (!(packet instanceof ServiceStartPacket start)) {
+            return null;
+        }
+        // Der Master platziert gruppenweise, der Name im Paket ist daher die Gruppe
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                StartReport report = this.groupManager.startLocal(start.getServiceName(), 1);
+                if (report.started().isEmpty()) {
+                    Throwable failure = report.failures().values().stream().findFirst().orElse(null);
+                    return new ServiceStartedPacket(start.getServiceName(), false, failure != null ? failure.getMessage() : "not started");
+                }
+                Service service = (Service) report.started().getFirst();
+                return new ServiceStartedPacket(service.getName(), true, null, service.getPort());
+            } catch (RuntimeException e) {
+                return new ServiceStartedPacket(start.getServiceName(), false, e.getMessage());
+            }
+        }, this.executor);
+    }
+
+    private void heartbeat() {
+        this.encoders.keySet().removeIf(connection -> !connection.isOpen());
+        if (this.encoders.isEmpty()) {
+            return;
+        }
+        // Einmal messen und an alle Master senden; die Transportschicht fasst die Pakete zu Frames zusammen
+        MemoryAdmission.Headroom headroom = this.groupManager.getAdmission().headroom();
+        long freeMemory = headroom.free() / MB;
+        int cpuLoad = cpuLoad();
+        int startQueue = this.groupManager.getPendingStarts();
+        Map<String, Integer> services = this.groupManager.getServiceCounts();
+        this.encoders.forEach((connection, encoder) ->
+                connection.send(encoder.encode(freeMemory, cpuLoad, startQueue, services)));
+    }
+
+    private static int cpuLoad() {
+        OperatingSystemMXBean bean = ManagementFactory.getOperatingSystemMXBean();
+        double load = bean instanceof com.sun.management.OperatingSystemMXBean os ? os.getCpuLoad() : -1.0;
+        if (load < 0) {
+            // Ohne Messwert die Load-Average je Kern als Näherung verwenden
+            load = Math.min(1.0, Math.max(0.0, bean.getSystemLoadAverage() / bean.getAvailableProcessors()));
+        }
+        return (int) Math.round(load * 1000);
+    }
+
+    public int getPort() throws IOException {
+        return this.server.getPort();
+    }
+
+    public int getConnections() {
+        return this.encoders.size();
+    }
+
+    @Override
+    public IConfig getConfig() {
+        return this.config;
+    }
+
+    @Override
+    public UUID getId() {
+        return this.id;
+    }
+
+    @Override
+    public String getName() {
+        return this.name;
+    }
+
+    @Override
+    public String getVersion() {
+        return this.version;
+    }
+}
@@ -0,0 +1,88 @@
+package community.theprojects.fairy.node.command;
+
+import community.theprojects.fairy.api.INode;
+import community.theprojects.fairy.api.command.ICommand;
+import community.theprojects.fairy.api.console.IPrinter;
+import community.theprojects.fairy.node.FairyNode;
+import community.theprojects.fairy.node.console.HexColor;
+import community.theprojects.fairy.node.rest.NodeApi;
+import community.theprojects.fairy.restserver.SnapshotCache;
+import community.theprojects.fairy.restserver.RestServer;
+
+import java.io.IOException;
+
+public class ApiCommand implements ICommand {
+    private final INode node;
+    private final IPrinter printer;
+    private final String description;
+
+    public ApiCommand(String description) {
+        this.node = FairyNode.getInstance();
+        this.printer = node.getConsole().getPrinter();
+        this.description = description;
+    }
+
+    @Override
+    public void execute(String[] args) {
+        if (args.length < 1 || !(this.node instanceof FairyNode fairyNode)) {
+            sendUsage();
+            return;
+        }
+        NodeApi api = fairyNode.getApi();
+        switch (args[0].toLowerCase()) {
+            case "start" -> {
+                int port;
+                try {
+                    port = args.length > 1 ? Integer.parseInt(args[1]) : Integer.getInteger("fairy.api.port", 8080);
+                } catch (NumberFormatException e) {
+                    sendUsage();
+                    return;
+                }
+                fairyNode.startApi(port);
+            }
+            case "stop" -> {
+                api.close();
+                this.printer.println(HexColor.colorText("API stopped.", HexColor.Colors.YELLOW), true);
+            }
+            case "status" -> {
+                RestServer server = api.getServer();
+                if (server == null || !server.isRunning()) {
+                    this.printer.println(HexColor.colorText("API is not running.", HexColor.Colors.RED), true);
+                    return;
+                }
+                this.printer.println(HexColor.colorText(String.format("API on port %d: %d connections, %d requests, %d errors, %d unauthorized, %d rejected",
+                        server.getPort(), server.getConnections(), server.getStats().requests(), server.getStats().errors(),
+                        server.getStats().unauthorized(), server.getStats().rejected()), HexColor.Colors.YELLOW), true);
+                SnapshotCache.Stats cache = api.getCache().getStats();
+                this.printer.println(HexColor.colorText(String.format("Response cache: %d entries, %d hits, %d renders, %d not modified",
+                        api.getCache().size(), cache.hits(), cache.renders(), cache.notModified()), HexColor.Colors.YELLOW), true);
+            }
+            case "token" -> {
+                try {
+                    this.printer.println(HexColor.colorText("New API token: " + api.getAuth().regenerate(), HexColor.Colors.YELLOW), true);
+                } catch (IOException e) {
+                    this.printer.println(HexColor.colorText("Failed to store token: " + e.getMessage(), HexColor.Colors.RED), true);
+                }
+            }
+            default -> sendUsage();
+        }
+    }
+
+    private void sendUsage() {
+        this.printer.println(HexColor.colorText("========[ ", HexColor.Colors.ORANGE)
+                + HexColor.colorText("Usage", HexColor.Colors.YELLOW)
+                + HexColor.colorText(" ]========", HexColor.Colors.ORANGE), true);
+        this.printer.println(HexColor.colorText("api start [port]", HexColor.Colors.YELLOW), true);
+        this.printer.println(HexColor.colorText("api stop", HexColor.Colors.YELLOW), true);
+        this.printer.println(HexColor.colorText("api status", HexColor.Colors.YELLOW), true);
+        this.printer.println(HexColor.colorText("api token", HexColor.Colors.YELLOW), true);
+        this.printer.println(HexColor.colorText("========[ ", HexColor.Colors.ORANGE)
+                + HexColor.colorText("Usage", HexColor.Colors.YELLOW)
+                + HexColor.colorText(" ]========", HexColor.Colors.ORANGE), true);
+    }
+
+    @Override
+    public String getDescription() {
+        return this.description;
+    }
+}
@@ -4,8 +4,18 @@ import community.theprojects.fairy.api.INode;
 import community.theprojects.fairy.api.command.ICommand;
 import community.theprojects.fairy.api.console.IPrinter;
 import community.theprojects.fairy.node.FairyNode;
+import community.theprojects.fairy.node.autoscale.ScalingDecision;
 import community.theprojects.fairy.node.console.HexColor;
 import community.theprojects.fairy.node.console.Printer;
+import community.theprojects.fairy.node.database.EntityCache;
+import community.theprojects.fairy.node.database.model.ServiceModel;
+import community.theprojects.fairy.node.group.GroupManager;
+import community.theprojects.fairy.node.replication.ReplicationNode;
+import community.theprojects.fairy.node.service.MemoryAdmission;
+import community.theprojects.fairy.util.network.PacketConnection;
+import community.theprojects.fairy.util.network.cluster.WorkerLoad;
+
+import java.util.Map;
 
 public class InfoCommand implements ICommand {
     private final INode node;
@@ -21,6 +31,62 @@ public class InfoCommand implements ICommand {
     @Override
     public void execute(String[] args) {
         this.printer.println(HexColor.colorText("Fairy - Node: " + this.node.getName(), HexColor.Colors.YELLOW), true);
+        EntityCache.Stats cacheStats = ServiceModel.cacheStats();
+        this.printer.println(HexColor.colorText(String.format("Service cache: %d entries, %.1f%% hit rate, %d evictions, %d expirations",
+                cacheStats.size(), cacheStats.hitRate() * 100, cacheStats.evictions(), cacheStats.expirations()), HexColor.Colors.YELLOW), true);
+        if (this.node.getGroupManager() instanceof GroupManager groupManager) {
+            MemoryAdmission.Headroom headroom = groupManager.getAdmission().headroom();
+            this.printer.println(HexColor.colorText(String.format("Memory: %d/%d MB reserved (%.1f%%), %d MB free, %d MB available on host, %d waiting, %d rejected",
+                    headroom.reserved() >> 20, headroom.capacity() >> 20, headroom.utilization() * 100, headroom.free() >> 20,
+                    headroom.hostAvailable() >> 20, headroom.waiting(), headroom.rejected()), HexColor.Colors.YELLOW), true);
+            groupManager.getStandbyPool().getStats().forEach((group, stats) -> this.printer.println(HexColor.colorText(
+                    String.format("Standby %s: %d ready, %d provisioning, target %d%s", group, stats.ready(), stats.provisioning(),
+                            stats.target(), stats.preBoot() ? " (pre-booted)" : ""), HexColor.Colors.YELLOW), true));
+            if (groupManager.getSidecars() != null) {
+                groupManager.getSidecars().getStats().forEach(stats -> this.printer.println(HexColor.colorText(
+                        String.format("Runner %s: pid %d, %s, %d services, started in %d ms, %d MB RSS%s", stats.group(), stats.pid(),
+                                stats.connected() ? "connected" : "disconnected", stats.services(), stats.startupMillis(),
+                                stats.rssBytes() >> 20, stats.withinBudget() ? "" : " (over budget)"),
+                        stats.withinBudget() ? HexColor.Colors.YELLOW : HexColor.Colors.RED), true));
+            }
+        }
+        if (this.node instanceof FairyNode fairyNode) {
+            fairyNode.getAutoscaler().getMetrics().forEach((group, metrics) -> {
+                ScalingDecision decision = metrics.getLastDecision();
+                if (decision != null) {
+                    this.printer.println(HexColor.colorText(String.format("Autoscale %s: %d services, %.1f%% utilization, %d up / %d down, last %s (%s)",
+                            group, metrics.getLastSample().size(), decision.utilization() * 100, metrics.getScaleUps(), metrics.getScaleDowns(),
+                            decision.action(), decision.reason()), HexColor.Colors.YELLOW), true);
+                }
+            });
+            if (fairyNode.getReplication() != null) {
+                ReplicationNode.Status status = fairyNode.getReplication().getStatus();
+                this.printer.println(HexColor.colorText(String.format("Replication %s: %s in term %d, leader %s, %d/%d committed/applied, snapshot at %d, %d members%s",
+                        status.id(), status.role(), status.term(), status.leader() != null ? status.leader() : "none", status.commitIndex(),
+                        status.appliedIndex(), status.snapshotIndex(), status.members(),
+                        status.role() == ReplicationNode.Role.LEADER ? (status.lease() ? ", lease held" : ", lease expired")
+                                : String.format(", %d ms since leader contact", status.stalenessMillis())),
+                        status.leader() != null ? HexColor.Colors.YELLOW : HexColor.Colors.RED), true);
+            }
+            if (fairyNode.getClusterManager() != null) {
+                Map<String, PacketConnection> connections = fairyNode.getClusterManager().getConnections();
+                Map<String, WorkerLoad> loads = fairyNode.getClusterManager().getLoads();
+                for (String worker : fairyNode.getClusterManager().getWorkers()) {
+                    PacketConnection connection = connections.get(worker);
+                    this.printer.println(connection == null
+                            ? HexColor.colorText("Worker " + worker + ": disconnected", HexColor.Colors.RED)
+                            : HexColor.colorText(String.format("Worker %s: %d packets in %d frames (%.1f per frame), %d pending",
+                                    worker, connection.getStats().packetsSent(), connection.getStats().framesSent(),
+                                    connection.getStats().packetsPerFrame(), connection.getPendingRequests()), HexColor.Colors.YELLOW), true);
+                    WorkerLoad load = loads.get(worker);
+                    if (load != null) {
+                        this.printer.println(HexColor.colorText(String.format("  %d MB free, CPU %.1f%%, %d services, %d queued (%dms ago)",
+                                load.freeMemory(), load.cpuLoad() / 10.0, load.totalServices(), load.startQueue(),
+                                System.currentTimeMillis() - load.receivedAt()), HexColor.Colors.YELLOW), true);
+                    }
+                }
+            }
+        }
     }
 
     @Override
@@ -0,0 +1,100 @@
+package community.theprojects.fairy.node.command;
+
+import community.theprojects.fairy.api.INode;
+import community.theprojects.fairy.api.command.ICommand;
+import community.theprojects.fairy.api.console.IPrinter;
+import community.theprojects.fairy.api.group.IGroup;
+import community.theprojects.fairy.api.service.IService;
+import community.theprojects.fairy.node.FairyNode;
+import community.theprojects.fairy.node.console.Console;
+import community.theprojects.fairy.node.console.HexColor;
+import community.theprojects.fairy.node.group.GroupManager;
+import community.theprojects.fairy.node.service.Service;
+
+public class ProcessCommand implements ICommand {
+    private final INode node;
+    private final IPrinter printer;
+    private final String description;
+
+    public ProcessCommand(String description) {
+        this.node = FairyNode.getInstance();
+        this.printer = node.getConsole().getPrinter();
+        this.description = description;
+    }
+
+    @Override
+    public void execute(String[] args) {
+        if (args.length < 1) {
+            sendUsage();
+            return;
+        }
+        switch (args[0].toLowerCase()) {
+            case "list" -> listProcesses();
+            case "attach" -> {
+                if (args.length < 2) {
+                    sendUsage();
+                    return;
+                }
+                attach(args[1], args.length > 2 ? parseLines(args[2]) : 50);
+            }
+            case "detach" -> {
+                if (this.node.getConsole() instanceof Console console) {
+                    console.getScreenManager().detach();
+                }
+            }
+            default -> sendUsage();
+        }
+    }
+
+    private void sendUsage() {
+        this.printer.println(HexColor.colorText("========[ ", HexColor.Colors.ORANGE)
+                + HexColor.colorText("Usage", HexColor.Colors.YELLOW)
+                + HexColor.colorText(" ]========", HexColor.Colors.ORANGE), true);
+        this.printer.println(HexColor.colorText("process list", HexColor.Colors.YELLOW), true);
+        this.printer.println(HexColor.colorText("process attach <service> [lines]", HexColor.Colors.YELLOW), true);
+        this.printer.println(HexColor.colorText("process detach", HexColor.Colors.YELLOW), true);
+        this.printer.println(HexColor.colorText("========[ ", HexColor.Colors.ORANGE)
+                + HexColor.colorText("Usage", HexColor.Colors.YELLOW)
+                + HexColor.colorText(" ]========", HexColor.Colors.ORANGE), true);
+    }
+
+    private void listProcesses() {
+        if (!(this.node.getGroupManager() instanceof GroupManager groupManager)) {
+            return;
+        }
+        for (IGroup group : groupManager.getGroups()) {
+            for (IService service : groupManager.getServices(group.getName())) {
+                if (service instanceof Service handle) {
+                    Process process = handle.getProcess();
+                    this.printer.println(HexColor.colorText(String.format("%s - %s, port %d, pid %s, console %d KB", handle.getName(), handle.getStatus(),
+                            handle.getPort(), process != null ? String.valueOf(process.pid()) : "-", handle.getConsole().allocated() / 1024), HexColor.Colors.YELLOW), true);
+                }
+            }
+        }
+    }
+
+    private void attach(String name, int lines) {
+        if (!(this.node.getGroupManager() instanceof GroupManager groupManager) || !(this.node.getConsole() instanceof Console console)) {
+            return;
+        }
+        Service service = groupManager.findService(name);
+        if (service == null) {
+            this.printer.println(HexColor.colorText("Service '" + name + "' not existing", HexColor.Colors.YELLOW), true);
+            return;
+        }
+        console.getScreenManager().attach(service, lines);
+    }
+
+    private int parseLines(String value) {
+        try {
+            return Math.max(0, Integer.parseInt(value));
+        } catch (NumberFormatException e) {
+            return 50;
+        }
+    }
+
+    @Override
+    public String getDescription() {
+        return this.description;
+    }
+}
@@ -8,12 +8,20 @@ import community.theprojects.fairy.node.FairyNode;
 import community.theprojects.fairy.node.config.TemplatesConfig;
 import community.theprojects.fairy.node.console.HexColor;
 import community.theprojects.fairy.node.group.GroupTemplate;
+import community.theprojects.fairy.node.replication.ClusterState;
+import community.theprojects.fairy.node.replication.ReplicationNode;
+import community.theprojects.fairy.util.network.packet.replication.StateOperation;
+import org.json.JSONObject;
 
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 public class TemplateCommand implements ICommand {
     private final INode node;
@@ -69,8 +77,15 @@ public class TemplateCommand implements ICommand {
                 this.printer.println(HexColor.colorText("Template '" + name + "' already existing", HexColor.Colors.YELLOW), true);
                 return;
             }
-            ((TemplatesConfig) templatesConfig).addTemplate(new GroupTemplate(name, path, new ArrayList<>()));
             Files.createDirectories(Path.of(path));
+            ReplicationNode replication = ((FairyNode) this.node).getReplication();
+            if (replication != null) {
+                // Im Cluster übernimmt jede Node das Template erst, wenn es repliziert ist
+                JSONObject json = new JSONObject().put("path", path).put("groups", new ArrayList<>());
+                replicate(replication.propose(StateOperation.put(ClusterState.TEMPLATES, name, json.toString())), "Template '" + name + "' created");
+                return;
+            }
+            ((TemplatesConfig) templatesConfig).addTemplate(new GroupTemplate(name, path, new ArrayList<>()));
             this.printer.println(HexColor.colorText("Template '" + name + "' created", HexColor.Colors.YELLOW), true);
         } catch (IOException e) {
             throw new RuntimeException(e);
@@ -85,9 +100,25 @@ public class TemplateCommand implements ICommand {
             this.printer.println(HexColor.colorText("Template '" + name + "' not existing", HexColor.Colors.YELLOW), true);
             return;
         }
+        ReplicationNode replication = ((FairyNode) this.node).getReplication();
+        if (replication != null) {
+            replicate(replication.propose(StateOperation.delete(ClusterState.TEMPLATES, name)), "Template '" + name + "' removed");
+            return;
+        }
         ((TemplatesConfig) templatesConfig).removeTemplate(name);
     }
 
+    private void replicate(CompletableFuture<Long> proposal, String message) {
+        try {
+            proposal.get(10, TimeUnit.SECONDS);
+            this.printer.println(HexColor.colorText(message, HexColor.Colors.YELLOW), true);
+        } catch (ExecutionException | TimeoutException e) {
+            this.printer.println(HexColor.colorText("Cluster update failed: " + (e.getCause() != null ? e.getCause().getMessage() : e.getMessage()), HexColor.Colors.RED), true);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
     @Override
     public String getDescription() {
         return this.description;
@@ -0,0 +1,92 @@
+package community.theprojects.fairy.node.config;
+
+import community.theprojects.fairy.api.config.IConfig;
+import community.theprojects.fairy.api.group.IGroup;
+import community.theprojects.fairy.api.group.IGroupTemplate;
+import community.theprojects.fairy.api.group.ProxyType;
+import community.theprojects.fairy.api.group.ServerType;
+import community.theprojects.fairy.api.util.JavaVersion;
+import community.theprojects.fairy.node.group.GroupTemplate;
+import community.theprojects.fairy.node.group.LobbyGroup;
+import community.theprojects.fairy.node.group.ProxyGroup;
+import community.theprojects.fairy.node.group.ServerGroup;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+public class GroupsConfig implements IConfig {
+    private final List<JSONObject> groups;
+
+    public GroupsConfig() {
+        this.groups = new ArrayList<>();
+    }
+
+    // Gruppen aus der groups.json erzeugen, das Template wird über den Gruppennamen in der templates.json gefunden
+    public List<IGroup> createGroups(TemplatesConfig templates) {
+        List<IGroup> created = new ArrayList<>(this.groups.size());
+        for (JSONObject json : this.groups) {
+            try {
+                created.add(createGroup(json, templateOf(templates, json.getString("name"))));
+            } catch (JSONException | IllegalArgumentException e) {
+                throw new IllegalArgumentException("Invalid group " + json.optString("name", "<unnamed>") + " in storage/groups.json: " + e.getMessage(), e);
+            }
+        }
+        return created;
+    }
+
+    private static IGroup createGroup(JSONObject json, IGroupTemplate template) {
+        String name = json.getString("name");
+        String id = json.optString("id", name.toLowerCase(Locale.ROOT));
+        String description = json.optString("description", "");
+        int minimumMemory = json.getInt("minimumMemory");
+        int maximumMemory = json.getInt("maximumMemory");
+        int maxPlayers = json.optInt("maxPlayers", 100);
+        boolean staticServices = json.optBoolean("staticServices", false);
+        JavaVersion javaVersion = JavaVersion.valueOf(json.optString("javaVersion", JavaVersion.V21.name()).toUpperCase(Locale.ROOT));
+        String type = json.getString("type").toUpperCase(Locale.ROOT);
+        // Proxys ergeben sich aus dem Typ, Lobbys müssen als solche markiert sein
+        if (isProxyType(type)) {
+            return new ProxyGroup(id, name, description, minimumMemory, maximumMemory, maxPlayers, staticServices,
+                    ProxyType.valueOf(type), javaVersion, template);
+        }
+        ServerType serverType = ServerType.valueOf(type);
+        if (json.optBoolean("lobby", false)) {
+            return new LobbyGroup(id, name, description, minimumMemory, maximumMemory, maxPlayers, staticServices,
+                    serverType, javaVersion, template);
+        }
+        return new ServerGroup(id, name, description, minimumMemory, maximumMemory, maxPlayers, staticServices,
+                serverType, javaVersion, template);
+    }
+
+    private static boolean isProxyType(String type) {
+        for (ProxyType proxyType : ProxyType.values()) {
+            if (proxyType.name().equals(type)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static IGroupTemplate templateOf(TemplatesConfig templates, String groupName) {
+        for (JSONObject template : templates.getTemplates()) {
+            if (template.getJSONArray("groups").toList().contains(groupName)) {
+                List<String> groups = new ArrayList<>();
+                template.getJSONArray("groups").forEach(group -> groups.add(String.valueOf(group)));
+                return new GroupTemplate(template.getString("name"), template.getString("path"), groups);
+            }
+        }
+        return null;
+    }
+
+    public List<JSONObject> getGroups() {
+        return groups;
+    }
+
+    @Override
+    public String toString() {
+        return "GroupsConfig{groups=" + groups + "}";
+    }
+}
@@ -11,6 +11,8 @@ public class NodeConfig implements IConfig {
     private final String host;
     private final int port;
     private final HashMap<String, Object> cluster;
+    private final HashMap<String, Object> database;
+    private final HashMap<String, Object> services;
 
     public NodeConfig() {
         this.id = UUID.randomUUID().toString();
@@ -19,14 +21,49 @@ public class NodeConfig implements IConfig {
         this.cluster = new HashMap<>();
         this.cluster.put("enabled", false);
         this.cluster.put("workers", new ArrayList<>());
+        this.cluster.put("placement", "power-of-two");
+        this.cluster.put("workerPort", 0);
+        HashMap<String, Object> replication = new HashMap<>();
+        replication.put("enabled", false);
+        replication.put("address", "127.0.0.1:7100");
+        replication.put("peers", new ArrayList<>());
+        this.cluster.put("replication", replication);
+        this.database = new HashMap<>();
+        this.database.put("backend", "local");
+        this.database.put("dialect", "H2");
+        this.services = new HashMap<>();
+        this.services.put("parallelStarts", 4);
+        this.services.put("failFast", false);
+        this.services.put("firstPort", 30000);
+        this.services.put("lastPort", 30999);
+        this.services.put("hardlinks", true);
+        // Hardlinks nur für Inhalte, die der Server garantiert nie überschreibt; ohne Muster wird kopiert (Reflink, wo möglich)
+        this.services.put("linkPatterns", new ArrayList<>());
+        this.services.put("standby", new HashMap<>());
+        this.services.put("autoscale", new HashMap<>());
+        this.services.put("runtimes", new HashMap<>());
+        this.services.put("profiles", new HashMap<>());
+        this.services.put("sidecar", false);
     }
 
     public String getId() {
         return id;
     }
 
+    public HashMap<String, Object> getCluster() {
+        return cluster;
+    }
+
+    public HashMap<String, Object> getDatabase() {
+        return database;
+    }
+
+    public HashMap<String, Object> getServices() {
+        return services;
+    }
+
     @Override
     public String toString() {
-        return "NodeConfig{id=" + id + ", host=" + host + ", port=" + port + ", cluster=" + cluster + '}';
+        return "NodeConfig{id=" + id + ", host=" + host + ", port=" + port + ", cluster=" + cluster + ", database=" + database + ", services=" + services + '}';
     }
 }
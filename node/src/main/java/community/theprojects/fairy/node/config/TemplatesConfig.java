@@ -10,13 +10,17 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 
 public class TemplatesConfig implements IConfig {
     private final List<JSONObject> templates;
+    // transient: nur zur Laufzeit, landet nicht in templates.json
+    private final transient AtomicLong version;
 
     public TemplatesConfig() {
         this.templates = new ArrayList<>();
+        this.version = new AtomicLong();
     }
 
     public void addTemplate(IGroupTemplate template) {
@@ -24,6 +28,7 @@ public class TemplatesConfig implements IConfig {
             JSONObject templateJson = new JSONObject();
             templateJson.put("name", template.name()).put("path", template.path()).put("groups", template.groups());
             this.templates.add(templateJson);
+            this.version.incrementAndGet();
             JsonFileHandler.writeToFile(this, "storage/templates.json");
         } catch (IOException e) {
             throw new RuntimeException(e);
@@ -41,6 +46,7 @@ public class TemplatesConfig implements IConfig {
                 index.set(index.getAndIncrement());
             });
             this.templates.remove(removeIndex.get());
+            this.version.incrementAndGet();
             JsonFileHandler.writeToFile(this, "storage/templates.json", true);
         } catch (IOException e) {
             throw new RuntimeException(e);
@@ -65,6 +71,7 @@ public class TemplatesConfig implements IConfig {
                     template.getJSONArray("groups").remove(i);
                 }
             });
+            this.version.incrementAndGet();
             JsonFileHandler.writeToFile(this, "storage/templates.json");
         } catch (IOException e) {
             throw new RuntimeException(e);
@@ -101,6 +108,10 @@ public class TemplatesConfig implements IConfig {
         return templateName.get();
     }
 
+    public long getVersion() {
+        return this.version.get();
+    }
+
     public List<JSONObject> getTemplates() {
         return templates;
     }
@@ -23,6 +23,7 @@ public final class Console implements IConsole {
     private Completer completer;
     private LineReader reader;
     private IPrinter printer;
+    private ScreenManager screenManager;
 
     public Console() {
         try {
@@ -46,6 +47,12 @@ public final class Console implements IConsole {
                 throw new NoTerminalFoundException("Terminal is null.");
             }
             this.printer = new Printer(terminal.writer(), HexColor.colorText("Fairy » ", HexColor.Colors.CYAN));
+            this.screenManager = new ScreenManager(message -> {
+                LineReader lineReader = this.reader;
+                if (lineReader != null) {
+                    lineReader.printAbove(message);
+                }
+            });
             printer.println(HexColor.colorText("Welcome to Fairy - Type 'help' to list commands.", HexColor.Colors.GREEN), true);
             terminal.flush();
         } catch (IOException e) {
@@ -58,7 +65,9 @@ public final class Console implements IConsole {
         while (true) {
             String line;
             try {
-                line = reader.readLine(HexColor.colorText(System.getProperty("user.name") + "@" + System.getenv("HOSTNAME") + " » ", "#229DDA"));
+                line = reader.readLine(screenManager.isInServerScreen()
+                        ? HexColor.colorText(screenManager.getCurrentService().getName() + " » ", HexColor.Colors.ORANGE)
+                        : HexColor.colorText(System.getProperty("user.name") + "@" + System.getenv("HOSTNAME") + " » ", "#229DDA"));
             } catch (UserInterruptException e) {
                 continue;
             } catch (EndOfFileException e) {
@@ -69,13 +78,13 @@ public final class Console implements IConsole {
             if (line.isEmpty()) continue;
             String[] parts = line.split("\\s+");
             String cmd = parts[0];
-            /*if (screenManager.isInServerScreen()) {
+            if (screenManager.isInServerScreen()) {
                 if (!screenManager.sendInputToCurrentScreen(line)) {
-                    handleNormalCommand(cmd, parts, arg);
+                    handleCommand(cmd, parts);
                 }
                 terminal.flush();
                 continue;
-            }*/
+            }
             handleCommand(cmd, parts);
             terminal.flush();
         }
@@ -98,6 +107,7 @@ public final class Console implements IConsole {
 
     @Override
     public void stop() {
+        this.screenManager.detach();
         this.printer = null;
         this.reader = null;
         this.completer = null;
@@ -109,4 +119,8 @@ public final class Console implements IConsole {
     public IPrinter getPrinter() {
         return printer;
     }
+
+    public ScreenManager getScreenManager() {
+        return screenManager;
+    }
 }
@@ -0,0 +1,164 @@
+package community.theprojects.fairy.node.console;
+
+import community.theprojects.fairy.node.service.ConsoleBuffer;
+import community.theprojects.fairy.node.service.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+public final class ScreenManager {
+    private static final int MAX_LINE = 8192;
+
+    private final Consumer<String> output;
+    private volatile Screen current;
+
+    public ScreenManager(Consumer<String> output) {
+        this.output = output;
+    }
+
+    public void attach(Service service, int lines) {
+        detach();
+        LineSplitter splitter = new LineSplitter(output);
+        ConsoleBuffer console = service.getConsole();
+        // Erst abonnieren und Live-Chunks puffern, dann die Historie lesen: dazwischen geht so keine Ausgabe verloren
+        ReplayGate gate = new ReplayGate(splitter);
+        Runnable unsubscribe = console.subscribe(gate);
+        ConsoleBuffer.Replay replay = console.tail(lines);
+        // Chunks mit end <= replay.position() stecken schon in der Historie und werden verworfen
+        gate.open(replay.position());
+        this.current = new Screen(service, unsubscribe);
+        output.accept(HexColor.colorText("Attached to " + service.getName() + " - type 'detach' to leave", HexColor.Colors.YELLOW));
+        if (!replay.text().isEmpty()) {
+            output.accept(replay.text());
+        }
+        splitter.goLive();
+    }
+
+    public void detach() {
+        Screen screen = this.current;
+        this.current = null;
+        if (screen != null) {
+            screen.unsubscribe().run();
+        }
+    }
+
+    public boolean isInServerScreen() {
+        return this.current != null;
+    }
+
+    public Service getCurrentService() {
+        Screen screen = this.current;
+        return screen != null ? screen.service() : null;
+    }
+
+    public boolean sendInputToCurrentScreen(String line) {
+        Screen screen = this.current;
+        if (screen == null) {
+            return false;
+        }
+        if (line.equalsIgnoreCase("detach")) {
+            detach();
+            output.accept(HexColor.colorText("Detached from " + screen.service().getName(), HexColor.Colors.YELLOW));
+            return true;
+        }
+        // Nach einem Neustart durch den Supervisor gehört die Eingabe zum neuen Prozess
+        Process process = screen.service().getProcess();
+        if (process == null || !process.isAlive()) {
+            detach();
+            output.accept(HexColor.colorText(screen.service().getName() + " is not running", HexColor.Colors.RED));
+            return false;
+        }
+        try {
+            OutputStream input = process.getOutputStream();
+            input.write((line + "\n").getBytes(StandardCharsets.UTF_8));
+            input.flush();
+            return true;
+        } catch (IOException e) {
+            detach();
+            return false;
+        }
+    }
+
+    private record Screen(Service service, Runnable unsubscribe) {
+    }
+
+    private static final class ReplayGate implements ConsoleBuffer.Listener {
+        private final LineSplitter splitter;
+        private final List<Chunk> early = new ArrayList<>();
+        private long position = -1;
+
+        private ReplayGate(LineSplitter splitter) {
+            this.splitter = splitter;
+        }
+
+        @Override
+        public synchronized void onOutput(long end, byte[] data, int offset, int length) {
+            if (position < 0) {
+                early.add(new Chunk(end, Arrays.copyOfRange(data, offset, offset + length)));
+            } else if (end > position) {
+                splitter.accept(data, offset, length);
+            }
+        }
+
+        private synchronized void open(long position) {
+            this.position = position;
+            for (Chunk chunk : early) {
+                if (chunk.end() > position) {
+                    splitter.accept(chunk.data(), 0, chunk.data().length);
+                }
+            }
+            early.clear();
+        }
+    }
+
+    private record Chunk(long end, byte[] data) {
+    }
+
+    private static final class LineSplitter {
+        private final Consumer<String> output;
+        private final ByteArrayOutputStream line = new ByteArrayOutputStream();
+        private final List<String> pending = new ArrayList<>();
+        private boolean live;
+
+        private LineSplitter(Consumer<String> output) {
+            this.output = output;
+        }
+
+        private synchronized void accept(byte[] data, int offset, int length) {
+            for (int i = offset; i < offset + length; i++) {
+                byte b = data[i];
+                if (b == '\n') {
+                    emit();
+                } else if (b != '\r') {
+                    line.write(b);
+                    // Überlange Zeilen umbrechen, damit der Puffer begrenzt bleibt
+                    if (line.size() >= MAX_LINE) {
+                        emit();
+                    }
+                }
+            }
+        }
+
+        private void emit() {
+            String text = line.toString(StandardCharsets.UTF_8);
+            line.reset();
+            if (live) {
+                output.accept(text);
+            } else {
+                pending.add(text);
+            }
+        }
+
+        private synchronized void goLive() {
+            pending.forEach(output);
+            pending.clear();
+            live = true;
+        }
+    }
+}
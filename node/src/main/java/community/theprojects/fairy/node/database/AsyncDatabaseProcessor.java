@@ -0,0 +1,70 @@
+package community.theprojects.fairy.node.database;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+public final class AsyncDatabaseProcessor implements AutoCloseable {
+    private final DatabaseExecutor executor;
+    private final EntityStore[] processors;
+
+    public AsyncDatabaseProcessor(Class<?> entityClass, DatabaseExecutor executor) {
+        this.executor = executor;
+        // Eine Verbindung pro Lane, damit jede Verbindung nur von einem Thread benutzt wird
+        this.processors = new EntityStore[executor.getLaneCount()];
+        for (int i = 0; i < processors.length; i++) {
+            processors[i] = EntityStore.open(entityClass);
+        }
+    }
+
+    public CompletableFuture<Void> handleDatabaseOperation(Object entity, Method method, Object[] args) {
+        int lane = executor.laneOf(EntityMetadata.of(entity.getClass()).getId(entity));
+        return executor.submitToLane(lane, () -> {
+            processors[lane].handleDatabaseOperation(entity, method, args);
+            return null;
+        });
+    }
+
+    public CompletableFuture<Void> saveField(Object entity, String fieldName, Object value) {
+        int lane = executor.laneOf(EntityMetadata.of(entity.getClass()).getId(entity));
+        return executor.submitToLane(lane, () -> {
+            processors[lane].saveField(entity, fieldName, value);
+            return null;
+        });
+    }
+
+    public CompletableFuture<Void> save(Object entity) {
+        int lane = executor.laneOf(EntityMetadata.of(entity.getClass()).getId(entity));
+        return executor.submitToLane(lane, () -> {
+            processors[lane].save(entity);
+            return null;
+        });
+    }
+
+    public CompletableFuture<Boolean> load(Object entity) {
+        int lane = executor.laneOf(EntityMetadata.of(entity.getClass()).getId(entity));
+        return executor.submitToLane(lane, () -> processors[lane].load(entity));
+    }
+
+    public CompletableFuture<Void> loadField(Object entity, String fieldName) {
+        int lane = executor.laneOf(EntityMetadata.of(entity.getClass()).getId(entity));
+        return executor.submitToLane(lane, () -> {
+            processors[lane].loadField(entity, fieldName);
+            return null;
+        });
+    }
+
+    @Override
+    public void close() {
+        List<CompletableFuture<Void>> disconnects = new ArrayList<>();
+        for (int i = 0; i < processors.length; i++) {
+            EntityStore processor = processors[i];
+            disconnects.add(executor.submitToLane(i, () -> {
+                processor.close();
+                return null;
+            }));
+        }
+        CompletableFuture.allOf(disconnects.toArray(new CompletableFuture[0])).exceptionally(t -> null).join();
+    }
+}
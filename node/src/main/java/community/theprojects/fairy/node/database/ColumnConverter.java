@@ -0,0 +1,77 @@
+package community.theprojects.fairy.node.database;
+
+import java.nio.file.Path;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+public interface ColumnConverter {
+
+    Object toDb(Object value);
+    Object fromDb(ResultSet resultSet, int index) throws SQLException;
+
+    ColumnConverter IDENTITY = new ColumnConverter() {
+        @Override
+        public Object toDb(Object value) {
+            return value;
+        }
+
+        @Override
+        public Object fromDb(ResultSet resultSet, int index) throws SQLException {
+            return resultSet.getObject(index);
+        }
+    };
+
+    ColumnConverter PATH = new ColumnConverter() {
+        @Override
+        public Object toDb(Object value) {
+            return value == null ? null : value.toString();
+        }
+
+        @Override
+        public Object fromDb(ResultSet resultSet, int index) throws SQLException {
+            String value = resultSet.getString(index);
+            return value == null ? null : Path.of(value);
+        }
+    };
+
+    // Prozesse werden nur als PID gespeichert und können nicht rekonstruiert werden
+    ColumnConverter PROCESS = new ColumnConverter() {
+        @Override
+        public Object toDb(Object value) {
+            if (value == null) return null;
+            try {
+                return ((Process) value).pid();
+            } catch (Exception ignored) {
+                return null;
+            }
+        }
+
+        @Override
+        public Object fromDb(ResultSet resultSet, int index) {
+            return null;
+        }
+    };
+
+    static <E extends Enum<E>> ColumnConverter ofEnum(Class<E> enumClass) {
+        return new ColumnConverter() {
+            @Override
+            public Object toDb(Object value) {
+                return value == null ? null : ((Enum<?>) value).name();
+            }
+
+            @Override
+            public Object fromDb(ResultSet resultSet, int index) throws SQLException {
+                String name = resultSet.getString(index);
+                return name == null ? null : Enum.valueOf(enumClass, name);
+            }
+        };
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    static ColumnConverter forType(Class<?> type) {
+        if (type == Path.class) return PATH;
+        if (type == Process.class) return PROCESS;
+        if (type.isEnum()) return ofEnum((Class<Enum>) type);
+        return IDENTITY;
+    }
+}
@@ -0,0 +1,57 @@
+package community.theprojects.fairy.node.database;
+
+import community.theprojects.fairy.api.INode;
+import community.theprojects.fairy.node.FairyNode;
+import community.theprojects.fairy.node.config.NodeConfig;
+import community.theprojects.fairy.node.database.dialect.DialectType;
+import community.theprojects.fairy.node.database.dialect.SQLDialect;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.Locale;
+import java.util.Map;
+
+public record ConnectionSettings(DialectType dialectType, String host, int port, String database, String username, String password) {
+
+    public static ConnectionSettings resolve(Class<?> annotatedClass) {
+        if (annotatedClass == null) {
+            throw new IllegalArgumentException("annotatedClass cannot be null");
+        }
+        SQLConnection cfg = annotatedClass.getAnnotation(SQLConnection.class);
+        if (cfg == null) {
+            throw new IllegalArgumentException("Class must be annotated with @SQLConnection");
+        }
+        ConnectionSettings settings = new ConnectionSettings(cfg.dialect(), cfg.host(), cfg.port(), cfg.database(), cfg.username(), cfg.password());
+        INode node = FairyNode.getInstance();
+        if (node != null && node.getConfig() instanceof NodeConfig nodeConfig) {
+            settings = settings.override(nodeConfig.getDatabase());
+        }
+        return settings;
+    }
+
+    // Werte aus der Node-Konfiguration haben Vorrang vor der Annotation
+    public ConnectionSettings override(Map<String, Object> values) {
+        if (values == null || values.isEmpty()) {
+            return this;
+        }
+        Object dialect = values.get("dialect");
+        Object port = values.get("port");
+        return new ConnectionSettings(
+                dialect == null || dialect.toString().isBlank() ? dialectType : DialectType.valueOf(dialect.toString().toUpperCase(Locale.ROOT)),
+                values.containsKey("host") ? String.valueOf(values.get("host")) : host,
+                port instanceof Number number ? number.intValue() : port != null ? Integer.parseInt(port.toString()) : this.port,
+                values.containsKey("database") ? String.valueOf(values.get("database")) : database,
+                values.containsKey("username") ? String.valueOf(values.get("username")) : username,
+                values.containsKey("password") ? String.valueOf(values.get("password")) : password
+        );
+    }
+
+    public SQLDialect dialect() {
+        return dialectType.getDialect();
+    }
+
+    public Connection open() throws SQLException {
+        return DriverManager.getConnection(dialect().jdbcUrl(this), username, password);
+    }
+}
@@ -1,24 +1,20 @@
 package community.theprojects.fairy.node.database;
 
+import community.theprojects.fairy.node.database.dialect.SQLDialect;
+
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.sql.Statement;
 
 public final class Database implements AutoCloseable {
     private final Connection connection;
+    private final SQLDialect dialect;
 
     public Database(Class<?> annotatedClass) throws SQLException {
-        if (annotatedClass == null) {
-            throw new IllegalArgumentException("annotatedClass cannot be null");
-        }
-        SQLConnection cfg = annotatedClass.getAnnotation(SQLConnection.class);
-        if (cfg == null) {
-            throw new IllegalArgumentException("Class must be annotated with @SQLConnection");
-        }
-        String url = String.format("jdbc:mysql://%s:%d/%s", cfg.host(), cfg.port(), cfg.database());
-        this.connection = DriverManager.getConnection(url, cfg.username(), cfg.password());
+        ConnectionSettings settings = ConnectionSettings.resolve(annotatedClass);
+        this.dialect = settings.dialect();
+        this.connection = settings.open();
     }
 
     public PreparedStatement prepareStatement(String sql, Object... objects) throws SQLException {
@@ -37,6 +33,10 @@ public final class Database implements AutoCloseable {
         return connection;
     }
 
+    public SQLDialect dialect() {
+        return dialect;
+    }
+
     @Override
     public void close() throws SQLException {
         if (connection != null && !connection.isClosed()) {
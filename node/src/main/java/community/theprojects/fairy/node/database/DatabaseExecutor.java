@@ -0,0 +1,153 @@
+package community.theprojects.fairy.node.database;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+public final class DatabaseExecutor {
+    private static final Task<?> POISON = new Task<>(() -> null, new CompletableFuture<>());
+
+    private final List<BlockingQueue<Task<?>>> queues;
+    private final List<Thread> lanes;
+    private final Duration offerTimeout;
+    private volatile boolean accepting = true;
+
+    public DatabaseExecutor(int laneCount, int queueCapacity, Duration offerTimeout) {
+        if (laneCount < 1 || queueCapacity < 1) {
+            throw new IllegalArgumentException("laneCount and queueCapacity must be positive");
+        }
+        this.queues = new ArrayList<>(laneCount);
+        this.lanes = new ArrayList<>(laneCount);
+        this.offerTimeout = offerTimeout;
+        for (int i = 0; i < laneCount; i++) {
+            BlockingQueue<Task<?>> queue = new ArrayBlockingQueue<>(queueCapacity);
+            Thread lane = new Thread(() -> runLane(queue), "fairy-database-" + i);
+            lane.setDaemon(true);
+            this.queues.add(queue);
+            this.lanes.add(lane);
+            lane.start();
+        }
+    }
+
+    public int getLaneCount() {
+        return lanes.size();
+    }
+
+    public int laneOf(Object key) {
+        // Alle Aufgaben mit demselben Schlüssel landen in derselben Lane -> Reihenfolge bleibt erhalten
+        int hash = key == null ? 0 : key.hashCode();
+        return Math.floorMod(hash ^ (hash >>> 16), lanes.size());
+    }
+
+    public <T> CompletableFuture<T> submit(Object key, Callable<T> task) {
+        return submitToLane(laneOf(key), task);
+    }
+
+    public <T> CompletableFuture<T> submitToLane(int lane, Callable<T> task) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        if (!accepting) {
+            future.completeExceptionally(new RejectedExecutionException("Database executor is shutting down"));
+            return future;
+        }
+        Task<T> queued = new Task<>(task, future);
+        BlockingQueue<Task<?>> queue = queues.get(lane);
+        try {
+            // Backpressure: Aufrufer wartet höchstens offerTimeout auf einen freien Platz
+            if (!queue.offer(queued, offerTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                future.completeExceptionally(new RejectedExecutionException("Database queue is full (lane " + lane + ")"));
+            } else if (!accepting && queue.remove(queued)) {
+                // Shutdown hat zwischen Prüfung und offer begonnen; liegt die Aufgabe noch in der Queue, wird sie nie ausgeführt
+                queued.fail(new RejectedExecutionException("Database executor is shutting down"));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    public int getQueuedTasks() {
+        int queued = 0;
+        for (BlockingQueue<Task<?>> queue : queues) {
+            queued += queue.size();
+        }
+        return queued;
+    }
+
+    // Bereits eingereihte Aufgaben laufen noch bis zum Timeout; was danach in einer Queue liegt, schlägt fehl statt ewig zu hängen
+    public boolean shutdown(Duration timeout) {
+        accepting = false;
+        long deadline = System.nanoTime() + timeout.toNanos();
+        boolean[] poisoned = new boolean[queues.size()];
+        boolean interrupted = false;
+        for (int i = 0; i < queues.size() && !interrupted; i++) {
+            try {
+                poisoned[i] = queues.get(i).offer(POISON, Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        for (int i = 0; i < lanes.size() && !interrupted; i++) {
+            long remaining = deadline - System.nanoTime();
+            if (!poisoned[i] || remaining <= 0) {
+                continue;
+            }
+            try {
+                TimeUnit.NANOSECONDS.timedJoin(lanes.get(i), remaining);
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        boolean terminated = true;
+        RejectedExecutionException rejected = new RejectedExecutionException("Database executor shut down before the task ran");
+        for (int i = 0; i < queues.size(); i++) {
+            List<Task<?>> leftover = new ArrayList<>();
+            queues.get(i).drainTo(leftover);
+            for (Task<?> task : leftover) {
+                if (task != POISON) {
+                    task.fail(rejected);
+                }
+            }
+            Thread lane = lanes.get(i);
+            if (lane.isAlive()) {
+                terminated = false;
+                // Die Queue ist jetzt leer, die Lane endet nach ihrer laufenden Aufgabe
+                queues.get(i).offer(POISON);
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        return terminated;
+    }
+
+    private void runLane(BlockingQueue<Task<?>> queue) {
+        while (true) {
+            Task<?> task;
+            try {
+                task = queue.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+            if (task == POISON) return;
+            task.run();
+        }
+    }
+
+    private record Task<T>(Callable<T> callable, CompletableFuture<T> future) implements Runnable {
+
+        @Override
+        public void run() {
+            try {
+                future.complete(callable.call());
+            } catch (Throwable t) {
+                future.completeExceptionally(t);
+            }
+        }
+
+        void fail(Throwable failure) {
+            future.completeExceptionally(failure);
+        }
+    }
+}
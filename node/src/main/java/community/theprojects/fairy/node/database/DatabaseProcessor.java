@@ -1,56 +1,38 @@
 package community.theprojects.fairy.node.database;
 
-import java.lang.reflect.Field;
+import community.theprojects.fairy.node.database.dialect.SQLDialect;
+
 import java.lang.reflect.Method;
-import java.lang.reflect.Modifier;
 import java.sql.*;
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Map;
-import java.util.Set;
-
-public class DatabaseProcessor {
-    private final String host;
-    private final int port;
-    private final String database;
-    private final String username;
-    private final String password;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class DatabaseProcessor implements EntityStore {
+    // Einmal erfolgreich geprüfte Schemata je Datenbank und Entity-Klasse, gilt für alle Prozessoren
+    private static final Set<SchemaKey> VERIFIED_SCHEMAS = ConcurrentHashMap.newKeySet();
+    private final ConnectionSettings settings;
+    private final SQLDialect dialect;
     private Connection connection;
-    private final Map<String, FieldType> fieldTypes;
-    private final Class<?> entityClass;
+    private final Map<String, String> statements;
+    private final EntityMetadata metadata;
 
     public DatabaseProcessor(Class<?> entityClass) {
-        SQLConnection sqlConfig = entityClass.getAnnotation(SQLConnection.class);
-        if (sqlConfig == null) {
+        if (entityClass.getAnnotation(SQLConnection.class) == null) {
             throw new IllegalArgumentException("Entity class must be annotated with @SQLConnection");
         }
 
-        this.host = sqlConfig.host();
-        this.port = sqlConfig.port();
-        this.database = sqlConfig.database();
-        this.username = sqlConfig.username();
-        this.password = sqlConfig.password();
-        this.fieldTypes = new HashMap<>();
-        this.entityClass = entityClass;
-        processValueTypes(entityClass);
-    }
-
-    public void processValueTypes(Class<?> entityClass) {
-        for (Field field : entityClass.getDeclaredFields()) {
-            ValueType valueType = field.getAnnotation(ValueType.class);
-            if (valueType != null) {
-                fieldTypes.put(field.getName(), valueType.type());
-            }
-        }
+        this.settings = ConnectionSettings.resolve(entityClass);
+        this.dialect = settings.dialect();
+        this.statements = new ConcurrentHashMap<>();
+        this.metadata = EntityMetadata.of(entityClass);
     }
 
     public Connection connect() throws SQLException {
         boolean wasNull = (connection == null || connection.isClosed());
         if (wasNull) {
-            String url = String.format("jdbc:postgresql://%s:%d/%s", host, port, database);
-            connection = DriverManager.getConnection(url, username, password);
-            // Beim ersten Verbindungsaufbau Schema sicherstellen
-            ensureTableAndColumns(connection, entityClass);
+            connection = settings.open();
+            // Schema nur beim allerersten Verbindungsaufbau je Datenbank und Klasse sicherstellen
+            ensureSchema(connection, metadata);
         }
         return connection;
     }
@@ -61,275 +43,235 @@ public class DatabaseProcessor {
         }
     }
 
-    public Map<String, FieldType> getFieldTypes() {
-        return new HashMap<>(fieldTypes);
+    @Override
+    public void close() throws SQLException {
+        disconnect();
     }
 
+    public ConnectionSettings getSettings() {
+        return settings;
+    }
+
+    @Override
     public void handleDatabaseOperation(Object entity, Method method, Object[] args) throws SQLException {
         String methodName = method.getName();
+        EntityMetadata.Column column = EntityMetadata.of(entity.getClass()).getColumnByAccessor(methodName);
+        if (column == null) {
+            return;
+        }
         if (methodName.startsWith("set")) {
-            String fieldName = methodName.substring(3);
-            fieldName = fieldName.substring(0, 1).toLowerCase() + fieldName.substring(1);
-            saveToDatabase(entity, fieldName, args[0]);
+            saveToDatabase(entity, column, args[0]);
         } else if (methodName.startsWith("get")) {
-            String fieldName = methodName.substring(3);
-            fieldName = fieldName.substring(0, 1).toLowerCase() + fieldName.substring(1);
-            loadFromDatabase(entity, fieldName);
+            loadFromDatabase(entity, column);
         }
     }
 
-    private void saveToDatabase(Object entity, String fieldName, Object value) throws SQLException {
+    @Override
+    public void saveField(Object entity, String fieldName, Object value) throws SQLException {
+        saveToDatabase(entity, requireColumn(entity, fieldName), value);
+    }
+
+    @Override
+    public void loadField(Object entity, String fieldName) throws SQLException {
+        loadFromDatabase(entity, requireColumn(entity, fieldName));
+    }
+
+    @Override
+    public void save(Object entity) throws SQLException {
+        saveAll(List.of(entity));
+    }
+
+    @Override
+    public void saveAll(Collection<?> entities) throws SQLException {
+        if (entities.isEmpty()) return;
+        EntityMetadata metadata = EntityMetadata.of(entities.iterator().next().getClass());
         Connection conn = connect();
-        // Stelle sicher, dass Spalte existiert (falls sich die Entity zur Laufzeit geändert hat)
-        ensureTableAndColumns(conn, entity.getClass());
+        ensureSchema(conn, metadata);
 
-        String tableName = entity.getClass().getSimpleName().toLowerCase();
-        // UPSERT: Insert id + Feld, bei Konflikt auf id -> Update
-        String sql = "INSERT INTO " + tableName + " (id, " + fieldName + ") VALUES (?, ?) " +
-                     "ON CONFLICT (id) DO UPDATE SET " + fieldName + " = EXCLUDED." + fieldName;
+        List<EntityMetadata.Column> columns = metadata.getColumns();
+        String sql = statements.computeIfAbsent("upsert:" + metadata.getTableName(), key ->
+                dialect.upsert(metadata.getTableName(), metadata.getIdColumn().getColumnName(), columnNames(columns)));
 
+        // Alle Zeilen als ein Batch senden, der Treiber fasst sie zu mehrzeiligen Statements zusammen
         try (PreparedStatement stmt = conn.prepareStatement(sql)) {
-            stmt.setObject(1, getEntityId(entity));
-            Object dbVal = toDbValue(getDeclaredField(entity.getClass(), fieldName), value);
-            stmt.setObject(2, dbVal);
-            stmt.executeUpdate();
+            for (Object entity : entities) {
+                stmt.setObject(1, toDb(metadata.getIdColumn(), metadata.getId(entity)));
+                for (int i = 0; i < columns.size(); i++) {
+                    EntityMetadata.Column column = columns.get(i);
+                    stmt.setObject(i + 2, toDb(column, column.get(entity)));
+                }
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
         }
     }
 
-    private void loadFromDatabase(Object entity, String fieldName) throws SQLException {
+    @Override
+    public boolean load(Object entity) throws SQLException {
+        EntityMetadata metadata = EntityMetadata.of(entity.getClass());
         Connection conn = connect();
-        // Stelle sicher, dass Spalte existiert
-        ensureTableAndColumns(conn, entity.getClass());
+        ensureSchema(conn, metadata);
 
-        String tableName = entity.getClass().getSimpleName().toLowerCase();
-        String sql = "SELECT " + fieldName + " FROM " + tableName + " WHERE id = ?";
+        List<EntityMetadata.Column> columns = metadata.getColumns();
+        String sql = statements.computeIfAbsent("select:" + metadata.getTableName(), key ->
+                dialect.select(metadata.getTableName(), metadata.getIdColumn().getColumnName(), columnNames(columns)));
 
         try (PreparedStatement stmt = conn.prepareStatement(sql)) {
-            stmt.setObject(1, getEntityId(entity));
-            ResultSet rs = stmt.executeQuery();
-            if (rs.next()) {
-                Field f = getDeclaredField(entity.getClass(), fieldName);
-                if (f != null) {
-                    Object value = fromDbValue(f, rs, fieldName);
-                    // final-Felder oder nicht unterstützte Typen nicht setzen
+            stmt.setObject(1, toDb(metadata.getIdColumn(), metadata.getId(entity)));
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (!rs.next()) {
+                    return false;
+                }
+                for (int i = 0; i < columns.size(); i++) {
+                    EntityMetadata.Column column = columns.get(i);
+                    Object value = dialect.converter(column).fromDb(rs, i + 1);
                     if (value != null) {
-                        setEntityField(entity, f, value);
+                        column.set(entity, value);
                     }
                 }
+                return true;
             }
         }
     }
 
-    private Object getEntityId(Object entity) {
-        try {
-            Field idField = entity.getClass().getDeclaredField("id");
-            idField.setAccessible(true);
-            return idField.get(entity);
-        } catch (Exception e) {
-            throw new RuntimeException("Entity must have an 'id' field", e);
-        }
-    }
+    @Override
+    public void delete(Object entity) throws SQLException {
+        EntityMetadata metadata = EntityMetadata.of(entity.getClass());
+        Connection conn = connect();
+        ensureSchema(conn, metadata);
+
+        String sql = statements.computeIfAbsent("delete:" + metadata.getTableName(), key ->
+                "DELETE FROM " + dialect.quote(metadata.getTableName()) + " WHERE " + dialect.quote(metadata.getIdColumn().getColumnName()) + " = ?");
 
-    private Field getDeclaredField(Class<?> cls, String name) {
-        try {
-            return cls.getDeclaredField(name);
-        } catch (NoSuchFieldException e) {
-            return null;
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setObject(1, toDb(metadata.getIdColumn(), metadata.getId(entity)));
+            stmt.executeUpdate();
         }
     }
 
-    private void setEntityField(Object entity, Field field, Object value) {
-        try {
-            if (Modifier.isFinal(field.getModifiers())) {
-                // nicht setzbar -> überspringen
-                return;
-            }
-            field.setAccessible(true);
-            field.set(entity, value);
-        } catch (Exception e) {
-            throw new RuntimeException("Could not set field value", e);
+    private EntityMetadata.Column requireColumn(Object entity, String fieldName) {
+        EntityMetadata.Column column = EntityMetadata.of(entity.getClass()).getColumn(fieldName);
+        if (column == null) {
+            throw new IllegalArgumentException("Unknown persistent field '" + fieldName + "' in " + entity.getClass().getName());
         }
+        return column;
     }
 
-    // ---------- Schema-Verwaltung ----------
+    private void saveToDatabase(Object entity, EntityMetadata.Column column, Object value) throws SQLException {
+        EntityMetadata metadata = EntityMetadata.of(entity.getClass());
+        Connection conn = connect();
+        // Schema wird nur beim ersten Zugriff je Datenbank und Klasse geprüft, danach ist das ein Set-Lookup
+        ensureSchema(conn, metadata);
 
-    private void ensureTableAndColumns(Connection conn, Class<?> cls) throws SQLException {
-        String table = cls.getSimpleName().toLowerCase();
-        if (!tableExists(conn, table)) {
-            createTable(conn, cls, table);
-        } else {
-            ensureColumnsExist(conn, cls, table);
-        }
-    }
+        // UPSERT: Insert id + Feld, bei Konflikt auf id -> Update
+        String sql = statements.computeIfAbsent("upsert:" + metadata.getTableName() + "." + column.getColumnName(), key ->
+                dialect.upsert(metadata.getTableName(), metadata.getIdColumn().getColumnName(), List.of(column.getColumnName())));
 
-    private boolean tableExists(Connection conn, String table) throws SQLException {
-        String sql = "SELECT EXISTS (" +
-                "SELECT 1 FROM information_schema.tables " +
-                "WHERE table_schema = current_schema() AND table_name = ?" +
-                ")";
-        try (PreparedStatement ps = conn.prepareStatement(sql)) {
-            ps.setString(1, table);
-            try (ResultSet rs = ps.executeQuery()) {
-                return rs.next() && rs.getBoolean(1);
-            }
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setObject(1, toDb(metadata.getIdColumn(), metadata.getId(entity)));
+            stmt.setObject(2, toDb(column, value));
+            stmt.executeUpdate();
         }
     }
 
-    private void createTable(Connection conn, Class<?> cls, String table) throws SQLException {
-        // id-Spalte bestimmen
-        Field idField = findIdField(cls);
-        if (idField == null) {
-            throw new IllegalStateException("Entity must declare an 'id' field");
-        }
-        String idType = resolveSqlTypeForField(idField);
-
-        StringBuilder ddl = new StringBuilder("CREATE TABLE ").append(table)
-                .append(" (id ").append(idType).append(" PRIMARY KEY");
-
-        for (Field f : cls.getDeclaredFields()) {
-            if (isSkippableField(f) || f.getName().equals("id")) continue;
-            String col = f.getName().toLowerCase();
-            String type = resolveSqlTypeForField(f);
-            ddl.append(", ").append(col).append(" ").append(type);
-        }
-        ddl.append(")");
+    private void loadFromDatabase(Object entity, EntityMetadata.Column column) throws SQLException {
+        EntityMetadata metadata = EntityMetadata.of(entity.getClass());
+        Connection conn = connect();
+        // Stelle sicher, dass Spalte existiert
+        ensureSchema(conn, metadata);
 
-        try (Statement st = conn.createStatement()) {
-            st.execute(ddl.toString());
-        }
-    }
+        String sql = statements.computeIfAbsent("select:" + metadata.getTableName() + "." + column.getColumnName(), key ->
+                dialect.select(metadata.getTableName(), metadata.getIdColumn().getColumnName(), List.of(column.getColumnName())));
 
-    private void ensureColumnsExist(Connection conn, Class<?> cls, String table) throws SQLException {
-        Set<String> existing = readExistingColumns(conn, table);
-        for (Field f : cls.getDeclaredFields()) {
-            if (isSkippableField(f) || f.getName().equals("id")) continue;
-            String col = f.getName().toLowerCase();
-            if (!existing.contains(col)) {
-                String type = resolveSqlTypeForField(f);
-                String ddl = "ALTER TABLE " + table + " ADD COLUMN IF NOT EXISTS " + col + " " + type;
-                try (Statement st = conn.createStatement()) {
-                    st.execute(ddl);
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setObject(1, toDb(metadata.getIdColumn(), metadata.getId(entity)));
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    Object value = dialect.converter(column).fromDb(rs, 1);
+                    // final-Felder oder nicht unterstützte Typen nicht setzen
+                    if (value != null) {
+                        column.set(entity, value);
+                    }
                 }
             }
         }
     }
 
-    private Set<String> readExistingColumns(Connection conn, String table) throws SQLException {
-        String sql = "SELECT column_name FROM information_schema.columns " +
-                "WHERE table_schema = current_schema() AND table_name = ?";
-        Set<String> cols = new HashSet<>();
-        try (PreparedStatement ps = conn.prepareStatement(sql)) {
-            ps.setString(1, table);
-            try (ResultSet rs = ps.executeQuery()) {
-                while (rs.next()) cols.add(rs.getString(1).toLowerCase());
-            }
-        }
-        return cols;
+    private Object toDb(EntityMetadata.Column column, Object value) {
+        return dialect.converter(column).toDb(value);
     }
 
-    private Field findIdField(Class<?> cls) {
-        try {
-            Field f = cls.getDeclaredField("id");
-            return f;
-        } catch (NoSuchFieldException e) {
-            return null;
+    private static List<String> columnNames(List<EntityMetadata.Column> columns) {
+        List<String> names = new ArrayList<>(columns.size());
+        for (EntityMetadata.Column column : columns) {
+            names.add(column.getColumnName());
         }
+        return names;
     }
 
-    private boolean isSkippableField(Field f) {
-        int m = f.getModifiers();
-        if (Modifier.isStatic(m) || Modifier.isTransient(m) || f.isSynthetic()) return true;
-        // Nicht persistierbare Typen auslassen (z. B. Process)
-        if (f.getType() == java.lang.Process.class) return true;
-        return false;
-    }
+    // ---------- Schema-Verwaltung ----------
 
-    private String resolveSqlTypeForField(Field f) {
-        FieldType ft = fieldTypes.get(f.getName());
-        if (ft != null) {
-            return mapFieldTypeToSql(ft);
+    private void ensureSchema(Connection conn, EntityMetadata metadata) throws SQLException {
+        SchemaKey key = new SchemaKey(settings, metadata.getEntityClass());
+        if (VERIFIED_SCHEMAS.contains(key)) {
+            return;
+        }
+        // Gleichzeitige Erstzugriffe warten, bis die Tabelle wirklich angelegt ist; bei Fehlern wird erneut geprüft
+        synchronized (VERIFIED_SCHEMAS) {
+            if (!VERIFIED_SCHEMAS.contains(key)) {
+                ensureTableAndColumns(conn, metadata);
+                VERIFIED_SCHEMAS.add(key);
+            }
         }
-        return inferSqlType(f.getType());
     }
 
-    private String mapFieldTypeToSql(FieldType ft) {
-        return switch (ft) {
-            case INTEGER, INT, MEDIUMINT, SMALLINT, TINYINT -> "integer";
-            case BIGINT -> "bigint";
-            case BOOLEAN, BIT -> "boolean";
-            case FLOAT, REAL -> "real";
-            case DOUBLE -> "double precision";
-            case TIME -> "time";
-            case DATE -> "date";
-            case TIMESTAMP, YEAR -> "timestamp";
-            case DECIMAL, NUMERIC, MONEY -> "numeric";
-            case JSON -> "jsonb";
-            case BINARY, VARBINARY, BLOB, TINYBLOB, MEDIUMBLOB, LONGBLOB -> "bytea";
-            case UUID -> "uuid";
-            case ARRAY -> "text[]";
-            case GEOMETRY -> "geometry";
-            default -> "text";
-        };
+    private record SchemaKey(ConnectionSettings settings, Class<?> entityClass) {
     }
 
-    private String inferSqlType(Class<?> type) {
-        if (type == String.class) return "text";
-        if (type == Integer.class || type == int.class) return "integer";
-        if (type == Long.class || type == long.class) return "bigint";
-        if (type == Boolean.class || type == boolean.class) return "boolean";
-        if (type == Double.class || type == double.class) return "double precision";
-        if (type == Float.class || type == float.class) return "real";
-        if (type == java.util.UUID.class) return "uuid";
-        if (type == java.math.BigDecimal.class) return "numeric";
-        if (type == byte[].class) return "bytea";
-        if (type == java.time.Instant.class || type == java.time.LocalDateTime.class) return "timestamp";
-        if (type == java.time.LocalDate.class) return "date";
-        if (type == java.nio.file.Path.class) return "text"; // Pfade als Text
-        if (type.isEnum()) return "text"; // Enums als Text (NAME)
-        if (type == java.lang.Process.class) return "bigint"; // PID
-        // Fallback
-        return "text";
+    private void ensureTableAndColumns(Connection conn, EntityMetadata metadata) throws SQLException {
+        String table = metadata.getTableName();
+        Set<String> existing = readExistingColumns(conn, table);
+        if (existing.isEmpty()) {
+            createTable(conn, metadata, table);
+        } else {
+            ensureColumnsExist(conn, metadata, table, existing);
+        }
     }
 
-    // ---------- (De-)Serialisierung ----------
+    private void createTable(Connection conn, EntityMetadata metadata, String table) throws SQLException {
+        // id-Spalte bestimmen
+        EntityMetadata.Column idColumn = metadata.getIdColumn();
 
-    private Object toDbValue(Field f, Object value) {
-        if (f == null) return value;
-        if (value == null) return null;
-        Class<?> t = f.getType();
-        if (t == java.nio.file.Path.class) {
-            return value.toString();
+        List<String> types = new ArrayList<>();
+        for (EntityMetadata.Column column : metadata.getColumns()) {
+            types.add(dialect.columnType(column, false));
         }
-        if (t.isEnum()) {
-            return ((Enum<?>) value).name();
+        String ddl = dialect.createTable(table, idColumn.getColumnName(), dialect.columnType(idColumn, true),
+                columnNames(metadata.getColumns()), types);
+
+        try (Statement st = conn.createStatement()) {
+            st.execute(ddl);
         }
-        if (t == java.lang.Process.class) {
-            try {
-                return ((Process) value).pid();
-            } catch (Exception ignored) {
-                return null;
+    }
+
+    private void ensureColumnsExist(Connection conn, EntityMetadata metadata, String table, Set<String> existing) throws SQLException {
+        for (EntityMetadata.Column column : metadata.getColumns()) {
+            if (!existing.contains(column.getColumnName())) {
+                String ddl = dialect.addColumn(table, column.getColumnName(), dialect.columnType(column, false));
+                try (Statement st = conn.createStatement()) {
+                    st.execute(ddl);
+                }
             }
         }
-        return value;
     }
 
-    @SuppressWarnings("unchecked")
-    private Object fromDbValue(Field f, ResultSet rs, String column) throws SQLException {
-        Class<?> t = f.getType();
-        if (t == java.nio.file.Path.class) {
-            String s = rs.getString(column);
-            return (s == null) ? null : java.nio.file.Paths.get(s);
-        }
-        if (t.isEnum()) {
-            String name = rs.getString(column);
-            if (name == null) return null;
-            return Enum.valueOf((Class<Enum>) t, name);
-        }
-        if (t == java.lang.Process.class) {
-            // Kann nicht aus der DB rekonstruiert werden -> ignorieren
-            return null;
+    private Set<String> readExistingColumns(Connection conn, String table) throws SQLException {
+        // JDBC-Metadaten statt information_schema, damit alle Dialekte denselben Weg nutzen
+        Set<String> cols = new HashSet<>();
+        DatabaseMetaData meta = conn.getMetaData();
+        try (ResultSet rs = meta.getColumns(conn.getCatalog(), conn.getSchema(), table, null)) {
+            while (rs.next()) cols.add(rs.getString("COLUMN_NAME").toLowerCase());
         }
-        // Standard: JDBC-Mapping
-        return rs.getObject(column);
+        return cols;
     }
-}
\ No newline at end of file
+}
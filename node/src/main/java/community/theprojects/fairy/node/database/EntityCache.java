@@ -0,0 +1,225 @@
+package community.theprojects.fairy.node.database;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+public final class EntityCache<K, V> {
+    private static final int VERSION_STRIPES = 1024;
+    private final Map<K, Entry<V>> entries;
+    // Schreibversion je Key-Stripe; ein Loader speichert nur, wenn seit dem Lesen niemand geschrieben hat
+    private final AtomicLongArray versions;
+    private final ConcurrentLinkedQueue<Node<K, V>> evictionQueue;
+    private final AtomicInteger size;
+    private final AtomicInteger queued;
+    private final int maximumSize;
+    private final long ttlNanos;
+    private final long negativeTtlNanos;
+    private final Writer<K, V> writer;
+    private final UnaryOperator<V> copier;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder negativeHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+    private final LongAdder writes = new LongAdder();
+
+    public EntityCache(int maximumSize, Duration ttl, Duration negativeTtl, Writer<K, V> writer) {
+        this(maximumSize, ttl, negativeTtl, writer, UnaryOperator.identity());
+    }
+
+    // copier erzeugt Kopien für veränderliche Entities, damit Aufrufer den gecachten Stand nicht an save() vorbei ändern
+    public EntityCache(int maximumSize, Duration ttl, Duration negativeTtl, Writer<K, V> writer, UnaryOperator<V> copier) {
+        if (maximumSize < 1) {
+            throw new IllegalArgumentException("maximumSize must be positive");
+        }
+        this.entries = new ConcurrentHashMap<>();
+        this.versions = new AtomicLongArray(VERSION_STRIPES);
+        this.evictionQueue = new ConcurrentLinkedQueue<>();
+        this.size = new AtomicInteger();
+        this.queued = new AtomicInteger();
+        this.maximumSize = maximumSize;
+        this.ttlNanos = ttl.toNanos();
+        this.negativeTtlNanos = negativeTtl.toNanos();
+        this.writer = writer;
+        this.copier = copier;
+    }
+
+    public V get(K key, Function<K, V> loader) {
+        Entry<V> entry = entries.get(key);
+        long now = System.nanoTime();
+        if (entry != null) {
+            if (now - entry.expiresAt < 0) {
+                entry.accessed = true;
+                if (entry.value == null) {
+                    negativeHits.increment();
+                } else {
+                    hits.increment();
+                }
+                return copy(entry.value);
+            }
+            if (remove(key, entry)) {
+                expirations.increment();
+            }
+        }
+        misses.increment();
+        long version = versions.get(stripe(key));
+        V value = loader.apply(key);
+        storeIfUnchanged(key, value, now, version);
+        return copy(value);
+    }
+
+    public V getIfPresent(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null || System.nanoTime() - entry.expiresAt >= 0) {
+            return null;
+        }
+        entry.accessed = true;
+        return copy(entry.value);
+    }
+
+    public void update(K key, V value) throws Exception {
+        // Write-through: erst persistieren, dann den Cache aktualisieren
+        if (writer != null) {
+            writer.write(key, value);
+            writes.increment();
+        }
+        versions.incrementAndGet(stripe(key));
+        store(key, copy(value), System.nanoTime());
+    }
+
+    public void put(K key, V value) {
+        versions.incrementAndGet(stripe(key));
+        store(key, copy(value), System.nanoTime());
+    }
+
+    public void invalidate(K key) {
+        versions.incrementAndGet(stripe(key));
+        Entry<V> entry = entries.get(key);
+        if (entry != null) {
+            remove(key, entry);
+        }
+    }
+
+    public void clear() {
+        entries.clear();
+        evictionQueue.clear();
+        queued.set(0);
+        size.set(0);
+    }
+
+    public int size() {
+        return size.get();
+    }
+
+    public Stats stats() {
+        return new Stats(hits.sum(), negativeHits.sum(), misses.sum(), evictions.sum(), expirations.sum(), writes.sum(), size.get());
+    }
+
+    private void store(K key, V value, long now) {
+        Entry<V> entry = new Entry<>(value, now + (value == null ? negativeTtlNanos : ttlNanos));
+        Entry<V> previous = entries.put(key, entry);
+        if (previous == null) {
+            size.incrementAndGet();
+        }
+        enqueue(key, entry);
+    }
+
+    private void storeIfUnchanged(K key, V value, long now, long version) {
+        Entry<V> entry = new Entry<>(value, now + (value == null ? negativeTtlNanos : ttlNanos));
+        boolean[] added = new boolean[1];
+        // Versionsprüfung und Einfügen laufen atomar im Bucket des Keys, ein paralleles store() desselben Keys wartet darauf
+        Entry<V> result = entries.compute(key, (k, current) -> {
+            if (versions.get(stripe(k)) != version) {
+                return current;
+            }
+            added[0] = current == null;
+            return entry;
+        });
+        if (result != entry) {
+            return;
+        }
+        if (added[0]) {
+            size.incrementAndGet();
+        }
+        enqueue(key, entry);
+    }
+
+    private void enqueue(K key, Entry<V> entry) {
+        evictionQueue.add(new Node<>(key, entry));
+        queued.incrementAndGet();
+        evictIfNecessary();
+    }
+
+    private V copy(V value) {
+        return value == null ? null : copier.apply(value);
+    }
+
+    private static int stripe(Object key) {
+        int hash = key.hashCode();
+        return (hash ^ (hash >>> 16)) & (VERSION_STRIPES - 1);
+    }
+
+    private boolean remove(K key, Entry<V> entry) {
+        if (entries.remove(key, entry)) {
+            size.decrementAndGet();
+            return true;
+        }
+        return false;
+    }
+
+    private void evictIfNecessary() {
+        // Second-Chance: kürzlich gelesene Einträge wandern einmal ans Ende der Queue.
+        // Veraltete Knoten (überschriebene Keys) werden dabei ebenfalls abgeräumt.
+        int budget = maximumSize * 2;
+        while ((size.get() > maximumSize || queued.get() > maximumSize * 2) && budget-- > 0) {
+            Node<K, V> node = evictionQueue.poll();
+            if (node == null) return;
+            queued.decrementAndGet();
+            if (entries.get(node.key) != node.entry) continue;
+            boolean full = size.get() > maximumSize;
+            if (!full || node.entry.accessed) {
+                if (full) node.entry.accessed = false;
+                evictionQueue.add(node);
+                queued.incrementAndGet();
+                continue;
+            }
+            if (remove(node.key, node.entry)) {
+                evictions.increment();
+            }
+        }
+    }
+
+    @FunctionalInterface
+    public interface Writer<K, V> {
+        void write(K key, V value) throws Exception;
+    }
+
+    public record Stats(long hits, long negativeHits, long misses, long evictions, long expirations, long writes, int size) {
+
+        public double hitRate() {
+            long requests = hits + negativeHits + misses;
+            return requests == 0 ? 0.0 : (double) (hits + negativeHits) / requests;
+        }
+    }
+
+    private static final class Entry<V> {
+        private final V value;
+        private final long expiresAt;
+        private volatile boolean accessed;
+
+        private Entry(V value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private record Node<K, V>(K key, Entry<V> entry) {
+    }
+}
@@ -0,0 +1,170 @@
+package community.theprojects.fairy.node.database;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+public final class EntityMetadata {
+    private static final Map<Class<?>, EntityMetadata> CACHE = new ConcurrentHashMap<>();
+
+    private final Class<?> entityClass;
+    private final String tableName;
+    private final Column idColumn;
+    private final List<Column> columns;
+    private final Map<String, Column> columnsByField;
+    private final Map<String, Column> columnsByAccessor;
+
+    private EntityMetadata(Class<?> entityClass) {
+        this.entityClass = entityClass;
+        this.tableName = entityClass.getSimpleName().toLowerCase();
+        MethodHandles.Lookup lookup;
+        try {
+            lookup = MethodHandles.privateLookupIn(entityClass, MethodHandles.lookup());
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Cannot access entity class " + entityClass.getName(), e);
+        }
+        Column id = null;
+        List<Column> columns = new ArrayList<>();
+        Map<String, Column> byField = new HashMap<>();
+        Map<String, Column> byAccessor = new HashMap<>();
+        for (Field field : entityClass.getDeclaredFields()) {
+            boolean isId = field.getName().equals("id");
+            if (!isId && isSkippable(field)) continue;
+            Column column = new Column(field, lookup);
+            if (isId) {
+                id = column;
+            } else {
+                columns.add(column);
+            }
+            byField.put(field.getName(), column);
+            String accessor = field.getName().substring(0, 1).toUpperCase() + field.getName().substring(1);
+            byAccessor.put("set" + accessor, column);
+            byAccessor.put("get" + accessor, column);
+        }
+        this.idColumn = id;
+        this.columns = List.copyOf(columns);
+        this.columnsByField = Map.copyOf(byField);
+        this.columnsByAccessor = Map.copyOf(byAccessor);
+    }
+
+    public static EntityMetadata of(Class<?> entityClass) {
+        return CACHE.computeIfAbsent(entityClass, EntityMetadata::new);
+    }
+
+    public Class<?> getEntityClass() {
+        return entityClass;
+    }
+
+    public String getTableName() {
+        return tableName;
+    }
+
+    public Column getIdColumn() {
+        if (idColumn == null) {
+            throw new IllegalStateException("Entity must declare an 'id' field");
+        }
+        return idColumn;
+    }
+
+    public Object getId(Object entity) {
+        return getIdColumn().get(entity);
+    }
+
+    public List<Column> getColumns() {
+        return columns;
+    }
+
+    public Column getColumn(String fieldName) {
+        return columnsByField.get(fieldName);
+    }
+
+    public Column getColumnByAccessor(String methodName) {
+        return columnsByAccessor.get(methodName);
+    }
+
+    private static boolean isSkippable(Field field) {
+        int m = field.getModifiers();
+        if (Modifier.isStatic(m) || Modifier.isTransient(m) || field.isSynthetic()) return true;
+        if (field.isAnnotationPresent(ValueIgnore.class)) return true;
+        // Nicht persistierbare Typen auslassen (z. B. Process)
+        return field.getType() == Process.class;
+    }
+
+    public static final class Column {
+        private final String fieldName;
+        private final String columnName;
+        private final Class<?> type;
+        private final FieldType fieldType;
+        private final int size;
+        private final boolean writable;
+        private final VarHandle handle;
+        private final ColumnConverter converter;
+
+        private Column(Field field, MethodHandles.Lookup lookup) {
+            this.fieldName = field.getName();
+            this.columnName = field.getName().toLowerCase();
+            this.type = field.getType();
+            ValueType valueType = field.getAnnotation(ValueType.class);
+            this.fieldType = valueType != null ? valueType.type() : null;
+            this.size = valueType != null ? valueType.size() : -1;
+            this.writable = !Modifier.isFinal(field.getModifiers());
+            try {
+                this.handle = lookup.unreflectVarHandle(field);
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException("Cannot access field " + field.getName(), e);
+            }
+            this.converter = ColumnConverter.forType(field.getType());
+        }
+
+        public Object get(Object entity) {
+            return handle.get(entity);
+        }
+
+        public void set(Object entity, Object value) {
+            // final-Felder sind nicht setzbar -> überspringen
+            if (!writable) return;
+            handle.set(entity, value);
+        }
+
+        public Object toDb(Object value) {
+            return converter.toDb(value);
+        }
+
+        public Object fromDb(ResultSet resultSet, int index) throws SQLException {
+            return converter.fromDb(resultSet, index);
+        }
+
+        public String getFieldName() {
+            return fieldName;
+        }
+
+        public String getColumnName() {
+            return columnName;
+        }
+
+        public Class<?> getType() {
+            return type;
+        }
+
+        public FieldType getFieldType() {
+            return fieldType;
+        }
+
+        public int getSize() {
+            return size;
+        }
+
+        public boolean isWritable() {
+            return writable;
+        }
+
+        public ColumnConverter getConverter() {
+            return converter;
+        }
+    }
+}
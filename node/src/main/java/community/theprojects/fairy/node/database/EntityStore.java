@@ -0,0 +1,31 @@
+package community.theprojects.fairy.node.database;
+
+import community.theprojects.fairy.api.INode;
+import community.theprojects.fairy.node.FairyNode;
+import community.theprojects.fairy.node.config.NodeConfig;
+
+import java.lang.reflect.Method;
+import java.sql.SQLException;
+import java.util.Collection;
+
+public interface EntityStore extends AutoCloseable {
+
+    void handleDatabaseOperation(Object entity, Method method, Object[] args) throws SQLException;
+    void saveField(Object entity, String fieldName, Object value) throws SQLException;
+    void loadField(Object entity, String fieldName) throws SQLException;
+    void save(Object entity) throws SQLException;
+    void saveAll(Collection<?> entities) throws SQLException;
+    boolean load(Object entity) throws SQLException;
+    void delete(Object entity) throws SQLException;
+    @Override
+    void close() throws SQLException;
+
+    static EntityStore open(Class<?> entityClass) {
+        INode node = FairyNode.getInstance();
+        if (node != null && node.getConfig() instanceof NodeConfig nodeConfig
+                && "local".equalsIgnoreCase(String.valueOf(nodeConfig.getDatabase().get("backend")))) {
+            return LocalEntityStore.open(entityClass);
+        }
+        return new DatabaseProcessor(entityClass);
+    }
+}
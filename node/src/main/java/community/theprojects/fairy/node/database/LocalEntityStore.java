@@ -0,0 +1,449 @@
+package community.theprojects.fairy.node.database;
+
+import java.io.*;
+import java.lang.reflect.Method;
+import java.math.BigDecimal;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.CRC32C;
+
+public final class LocalEntityStore implements EntityStore {
+    private static final Map<Class<?>, LocalEntityStore> STORES = new ConcurrentHashMap<>();
+    private static final ScheduledExecutorService MAINTENANCE = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "fairy-local-store");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private static final int REGION_SIZE = Integer.getInteger("fairy.local.regionSize", 4 * 1024 * 1024);
+    private static final long SNAPSHOT_THRESHOLD = Long.getLong("fairy.local.snapshotThreshold", 64L * 1024 * 1024);
+
+    private static final byte OP_PUT = 1;
+    private static final byte OP_DELETE = 2;
+
+    private final EntityMetadata metadata;
+    private final Path logFile;
+    private final Path snapshotFile;
+    private final Map<Object, Map<String, Object>> index;
+    private final ByteArrayOutputStream scratch;
+    private final AtomicBoolean snapshotPending;
+    private FileChannel channel;
+    private MappedByteBuffer region;
+    private long regionStart;
+    private long writePosition;
+    private boolean dirty;
+
+    private LocalEntityStore(Class<?> entityClass, Path directory) throws IOException {
+        this.metadata = EntityMetadata.of(entityClass);
+        Files.createDirectories(directory);
+        this.logFile = directory.resolve(metadata.getTableName() + ".log");
+        this.snapshotFile = directory.resolve(metadata.getTableName() + ".snapshot");
+        this.index = new ConcurrentHashMap<>();
+        this.scratch = new ByteArrayOutputStream(256);
+        this.snapshotPending = new AtomicBoolean();
+        recover();
+    }
+
+    public static LocalEntityStore open(Class<?> entityClass) {
+        return STORES.computeIfAbsent(entityClass, cls -> {
+            try {
+                LocalEntityStore store = new LocalEntityStore(cls, Path.of("storage", "local"));
+                long flushInterval = Long.getLong("fairy.local.flushInterval", 1000L);
+                long snapshotInterval = Long.getLong("fairy.local.snapshotInterval", 300L);
+                MAINTENANCE.scheduleWithFixedDelay(store::flushQuietly, flushInterval, flushInterval, TimeUnit.MILLISECONDS);
+                MAINTENANCE.scheduleWithFixedDelay(store::snapshotQuietly, snapshotInterval, snapshotInterval, TimeUnit.SECONDS);
+                return store;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    public static void shutdownAll() {
+        MAINTENANCE.shutdown();
+        for (LocalEntityStore store : STORES.values()) {
+            store.shutdown();
+        }
+        STORES.clear();
+    }
+
+    // ---------- Entity-API ----------
+
+    @Override
+    public void handleDatabaseOperation(Object entity, Method method, Object[] args) {
+        String methodName = method.getName();
+        EntityMetadata.Column column = metadata.getColumnByAccessor(methodName);
+        if (column == null) {
+            return;
+        }
+        if (methodName.startsWith("set")) {
+            put(metadata.getId(entity), Map.of(column.getColumnName(), Optional.ofNullable(args[0])));
+        } else if (methodName.startsWith("get")) {
+            loadColumn(entity, column);
+        }
+    }
+
+    @Override
+    public void saveField(Object entity, String fieldName, Object value) {
+        EntityMetadata.Column column = requireColumn(fieldName);
+        Map<String, Optional<Object>> values = new HashMap<>();
+        values.put(column.getColumnName(), Optional.ofNullable(value));
+        put(metadata.getId(entity), values);
+    }
+
+    @Override
+    public void loadField(Object entity, String fieldName) {
+        loadColumn(entity, requireColumn(fieldName));
+    }
+
+    @Override
+    public void save(Object entity) {
+        put(metadata.getId(entity), rowOf(entity));
+    }
+
+    @Override
+    public void saveAll(Collection<?> entities) {
+        for (Object entity : entities) {
+            save(entity);
+        }
+    }
+
+    @Override
+    public boolean load(Object entity) {
+        Map<String, Object> row = index.get(metadata.getId(entity));
+        if (row == null) {
+            return false;
+        }
+        for (EntityMetadata.Column column : metadata.getColumns()) {
+            Object value = decode(column, row.get(column.getColumnName()));
+            if (value != null) {
+                column.set(entity, value);
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void delete(Object entity) {
+        Object id = metadata.getId(entity);
+        synchronized (this) {
+            append(OP_DELETE, id, Map.of());
+            index.remove(id);
+        }
+    }
+
+    @Override
+    public void close() {
+        // Geteilte Instanz pro Entity-Klasse: kein msync pro Schreibvorgang, das übernehmen der Flush-Timer und shutdownAll()
+    }
+
+    public int size() {
+        return index.size();
+    }
+
+    private EntityMetadata.Column requireColumn(String fieldName) {
+        EntityMetadata.Column column = metadata.getColumn(fieldName);
+        if (column == null) {
+            throw new IllegalArgumentException("Unknown persistent field '" + fieldName + "' in " + metadata.getEntityClass().getName());
+        }
+        return column;
+    }
+
+    private Map<String, Optional<Object>> rowOf(Object entity) {
+        Map<String, Optional<Object>> values = new HashMap<>();
+        for (EntityMetadata.Column column : metadata.getColumns()) {
+            values.put(column.getColumnName(), Optional.ofNullable(column.get(entity)));
+        }
+        return values;
+    }
+
+    private void loadColumn(Object entity, EntityMetadata.Column column) {
+        Map<String, Object> row = index.get(metadata.getId(entity));
+        if (row == null) return;
+        Object value = decode(column, row.get(column.getColumnName()));
+        if (value != null) {
+            column.set(entity, value);
+        }
+    }
+
+    private void put(Object id, Map<String, Optional<Object>> values) {
+        synchronized (this) {
+            append(OP_PUT, id, values);
+            apply(id, values);
+        }
+        if (writePosition > SNAPSHOT_THRESHOLD && snapshotPending.compareAndSet(false, true)) {
+            MAINTENANCE.execute(this::snapshotQuietly);
+        }
+    }
+
+    private void apply(Object id, Map<String, Optional<Object>> values) {
+        Map<String, Object> row = index.computeIfAbsent(id, key -> new ConcurrentHashMap<>());
+        values.forEach((column, value) -> {
+            if (value.isPresent()) {
+                row.put(column, value.get());
+            } else {
+                row.remove(column);
+            }
+        });
+    }
+
+    private static Object decode(EntityMetadata.Column column, Object value) {
+        if (value == null) return null;
+        // Pfade und Enums werden als Text abgelegt
+        if (value instanceof String text) {
+            if (column.getType() == Path.class) return Path.of(text);
+            if (column.getType().isEnum()) return enumValue(column.getType(), text);
+        }
+        return value;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Object enumValue(Class<?> type, String name) {
+        return Enum.valueOf((Class<Enum>) type, name);
+    }
+
+    // ---------- Log ----------
+
+    private void append(byte op, Object id, Map<String, Optional<Object>> values) {
+        try {
+            byte[] payload = encode(op, id, values);
+            CRC32C crc = new CRC32C();
+            crc.update(payload);
+            int recordSize = 8 + payload.length;
+            ensureCapacity(recordSize);
+            int offset = (int) (writePosition - regionStart);
+            region.putInt(offset, payload.length);
+            region.putInt(offset + 4, (int) crc.getValue());
+            region.put(offset + 8, payload);
+            writePosition += recordSize;
+            dirty = true;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not append to " + logFile, e);
+        }
+    }
+
+    private void ensureCapacity(int recordSize) throws IOException {
+        if (region != null && writePosition + recordSize <= regionStart + region.capacity()) {
+            return;
+        }
+        if (region != null) {
+            region.force();
+        }
+        // Neue Region ab der aktuellen Schreibposition mappen (vergrößert die Datei)
+        regionStart = writePosition;
+        region = channel.map(FileChannel.MapMode.READ_WRITE, regionStart, Math.max(REGION_SIZE, recordSize));
+    }
+
+    private byte[] encode(byte op, Object id, Map<String, Optional<Object>> values) throws IOException {
+        scratch.reset();
+        DataOutputStream out = new DataOutputStream(scratch);
+        out.writeByte(op);
+        writeValue(out, id);
+        out.writeShort(values.size());
+        for (Map.Entry<String, Optional<Object>> entry : values.entrySet()) {
+            out.writeUTF(entry.getKey());
+            writeValue(out, entry.getValue().orElse(null));
+        }
+        out.flush();
+        return scratch.toByteArray();
+    }
+
+    private void readRecord(DataInputStream in) throws IOException {
+        byte op = in.readByte();
+        Object id = readValue(in);
+        int count = in.readUnsignedShort();
+        Map<String, Optional<Object>> values = new HashMap<>();
+        for (int i = 0; i < count; i++) {
+            String column = in.readUTF();
+            values.put(column, Optional.ofNullable(readValue(in)));
+        }
+        if (op == OP_DELETE) {
+            index.remove(id);
+        } else {
+            apply(id, values);
+        }
+    }
+
+    private static void writeValue(DataOutputStream out, Object value) throws IOException {
+        switch (value) {
+            case null -> out.writeByte(0);
+            case String s -> {
+                byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+                out.writeByte(1);
+                out.writeInt(bytes.length);
+                out.write(bytes);
+            }
+            case Integer i -> {
+                out.writeByte(2);
+                out.writeInt(i);
+            }
+            case Long l -> {
+                out.writeByte(3);
+                out.writeLong(l);
+            }
+            case Boolean b -> {
+                out.writeByte(4);
+                out.writeBoolean(b);
+            }
+            case Double d -> {
+                out.writeByte(5);
+                out.writeDouble(d);
+            }
+            case Float f -> {
+                out.writeByte(6);
+                out.writeFloat(f);
+            }
+            case UUID uuid -> {
+                out.writeByte(7);
+                out.writeLong(uuid.getMostSignificantBits());
+                out.writeLong(uuid.getLeastSignificantBits());
+            }
+            case byte[] bytes -> {
+                out.writeByte(8);
+                out.writeInt(bytes.length);
+                out.write(bytes);
+            }
+            case Instant instant -> {
+                out.writeByte(9);
+                out.writeLong(instant.getEpochSecond());
+                out.writeInt(instant.getNano());
+            }
+            case BigDecimal decimal -> {
+                out.writeByte(10);
+                out.writeUTF(decimal.toString());
+            }
+            case Enum<?> e -> writeValue(out, e.name());
+            default -> writeValue(out, value.toString());
+        }
+    }
+
+    private static Object readValue(DataInputStream in) throws IOException {
+        byte tag = in.readByte();
+        return switch (tag) {
+            case 0 -> null;
+            case 1, 8 -> {
+                byte[] bytes = new byte[in.readInt()];
+                in.readFully(bytes);
+                yield tag == 1 ? new String(bytes, StandardCharsets.UTF_8) : bytes;
+            }
+            case 2 -> in.readInt();
+            case 3 -> in.readLong();
+            case 4 -> in.readBoolean();
+            case 5 -> in.readDouble();
+            case 6 -> in.readFloat();
+            case 7 -> new UUID(in.readLong(), in.readLong());
+            case 9 -> Instant.ofEpochSecond(in.readLong(), in.readInt());
+            case 10 -> new BigDecimal(in.readUTF());
+            default -> throw new IOException("Unknown value tag " + tag);
+        };
+    }
+
+    // ---------- Recovery & Snapshots ----------
+
+    private void recover() throws IOException {
+        if (Files.exists(snapshotFile)) {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(snapshotFile)))) {
+                replay(in, Files.size(snapshotFile));
+            }
+        }
+        long valid = 0;
+        if (Files.exists(logFile)) {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(logFile)))) {
+                valid = replay(in, Files.size(logFile));
+            }
+        }
+        this.channel = FileChannel.open(logFile, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        // Alles hinter dem letzten gültigen Record (abgebrochene Writes, vorallokierte Region) verwerfen
+        channel.truncate(valid);
+        this.writePosition = valid;
+        this.regionStart = valid;
+        this.region = null;
+    }
+
+    private long replay(DataInputStream in, long size) throws IOException {
+        long position = 0;
+        while (position + 8 <= size) {
+            int length = in.readInt();
+            int checksum = in.readInt();
+            if (length <= 0 || position + 8 + length > size) break;
+            byte[] payload = new byte[length];
+            in.readFully(payload);
+            CRC32C crc = new CRC32C();
+            crc.update(payload);
+            if ((int) crc.getValue() != checksum) break;
+            readRecord(new DataInputStream(new ByteArrayInputStream(payload)));
+            position += 8 + length;
+        }
+        return position;
+    }
+
+    public synchronized void snapshot() throws IOException {
+        if (writePosition == 0) return;
+        Path temp = snapshotFile.resolveSibling(snapshotFile.getFileName() + ".tmp");
+        try (FileChannel snapshotChannel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(snapshotChannel)))) {
+            for (Map.Entry<Object, Map<String, Object>> entry : index.entrySet()) {
+                Map<String, Optional<Object>> values = new HashMap<>();
+                entry.getValue().forEach((column, value) -> values.put(column, Optional.of(value)));
+                byte[] payload = encode(OP_PUT, entry.getKey(), values);
+                CRC32C crc = new CRC32C();
+                crc.update(payload);
+                out.writeInt(payload.length);
+                out.writeInt((int) crc.getValue());
+                out.write(payload);
+            }
+            out.flush();
+            snapshotChannel.force(true);
+        }
+        Files.move(temp, snapshotFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        // Das Log ist jetzt vollständig im Snapshot enthalten; ein erneutes Abspielen wäre idempotent
+        region = null;
+        channel.truncate(0);
+        channel.force(true);
+        writePosition = 0;
+        regionStart = 0;
+        dirty = false;
+    }
+
+    public synchronized void flush() {
+        if (dirty && region != null) {
+            region.force();
+            dirty = false;
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException ignored) {
+        }
+    }
+
+    private void snapshotQuietly() {
+        try {
+            snapshot();
+        } catch (IOException | RuntimeException ignored) {
+        } finally {
+            snapshotPending.set(false);
+        }
+    }
+
+    private synchronized void shutdown() {
+        try {
+            flush();
+            region = null;
+            channel.truncate(writePosition);
+            channel.close();
+        } catch (IOException ignored) {
+        }
+    }
+}
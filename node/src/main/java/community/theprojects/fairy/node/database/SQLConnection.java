@@ -1,5 +1,7 @@
 package community.theprojects.fairy.node.database;
 
+import community.theprojects.fairy.node.database.dialect.DialectType;
+
 import java.lang.annotation.ElementType;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
@@ -14,5 +16,6 @@ public @interface SQLConnection {
     String database();
     String username();
     String password();
+    DialectType dialect() default DialectType.POSTGRESQL;
 
 }
@@ -0,0 +1,22 @@
+package community.theprojects.fairy.node.database.dialect;
+
+public enum DialectType {
+    POSTGRESQL(new PostgresDialect()),
+    MYSQL(new MySQLDialect("mysql")),
+    MARIADB(new MySQLDialect("mariadb")),
+    H2(new H2Dialect());
+
+    private final SQLDialect dialect;
+
+    DialectType(SQLDialect dialect) {
+        this.dialect = dialect;
+    }
+
+    public SQLDialect getDialect() {
+        return dialect;
+    }
+
+    public boolean isEmbedded() {
+        return this == H2;
+    }
+}
@@ -0,0 +1,85 @@
+package community.theprojects.fairy.node.database.dialect;
+
+import community.theprojects.fairy.node.database.ConnectionSettings;
+import community.theprojects.fairy.node.database.EntityMetadata;
+import community.theprojects.fairy.node.database.FieldType;
+
+import java.nio.file.Path;
+import java.util.List;
+
+public final class H2Dialect implements SQLDialect {
+
+    @Override
+    public String jdbcUrl(ConnectionSettings settings) {
+        String database = settings.database();
+        if (database.startsWith("mem:")) {
+            return "jdbc:h2:" + database + ";DB_CLOSE_DELAY=-1";
+        }
+        // Eingebettete Datenbank im Node-Verzeichnis, kein externer Server nötig
+        Path file = Path.of("storage", "database", database).toAbsolutePath();
+        return "jdbc:h2:file:" + file;
+    }
+
+    @Override
+    public String quote(String identifier) {
+        return "\"" + identifier + "\"";
+    }
+
+    @Override
+    public String columnType(EntityMetadata.Column column, boolean primaryKey) {
+        FieldType fieldType = column.getFieldType();
+        int size = column.getSize();
+        if (fieldType != null) {
+            return switch (fieldType) {
+                case INTEGER, INT, MEDIUMINT -> "INTEGER";
+                case SMALLINT -> "SMALLINT";
+                case TINYINT -> "TINYINT";
+                case BIGINT -> "BIGINT";
+                case BOOLEAN, BIT -> "BOOLEAN";
+                case FLOAT, REAL -> "REAL";
+                case DOUBLE -> "DOUBLE PRECISION";
+                case TIME -> "TIME";
+                case DATE -> "DATE";
+                case TIMESTAMP, YEAR -> "TIMESTAMP";
+                case DECIMAL, NUMERIC, MONEY -> "NUMERIC";
+                case JSON -> "JSON";
+                case BINARY, VARBINARY -> "VARBINARY";
+                case BLOB, TINYBLOB, MEDIUMBLOB, LONGBLOB -> "BLOB";
+                case UUID -> "UUID";
+                case ARRAY -> "CHARACTER VARYING ARRAY";
+                case CHAR, NCHAR -> "CHAR(" + (size > 0 ? size : 1) + ")";
+                case CLOB, LONGTEXT, MEDIUMTEXT, NTEXT -> "CLOB";
+                default -> size > 0 ? "VARCHAR(" + size + ")" : "VARCHAR";
+            };
+        }
+        Class<?> type = column.getType();
+        if (type == Integer.class || type == int.class) return "INTEGER";
+        if (type == Long.class || type == long.class) return "BIGINT";
+        if (type == Boolean.class || type == boolean.class) return "BOOLEAN";
+        if (type == Double.class || type == double.class) return "DOUBLE PRECISION";
+        if (type == Float.class || type == float.class) return "REAL";
+        if (type == java.util.UUID.class) return "UUID";
+        if (type == java.math.BigDecimal.class) return "NUMERIC";
+        if (type == byte[].class) return "VARBINARY";
+        if (type == java.time.Instant.class || type == java.time.LocalDateTime.class) return "TIMESTAMP";
+        if (type == java.time.LocalDate.class) return "DATE";
+        if (type == Process.class) return "BIGINT"; // PID
+        return "VARCHAR";
+    }
+
+    @Override
+    public String upsert(String table, String idColumn, List<String> columns) {
+        StringBuilder names = new StringBuilder(quote(idColumn));
+        StringBuilder values = new StringBuilder("?");
+        for (String column : columns) {
+            names.append(", ").append(quote(column));
+            values.append(", ?");
+        }
+        return "MERGE INTO " + quote(table) + " (" + names + ") KEY (" + quote(idColumn) + ") VALUES (" + values + ")";
+    }
+
+    @Override
+    public String addColumn(String table, String column, String type) {
+        return "ALTER TABLE " + quote(table) + " ADD COLUMN IF NOT EXISTS " + quote(column) + " " + type;
+    }
+}
@@ -0,0 +1,127 @@
+package community.theprojects.fairy.node.database.dialect;
+
+import community.theprojects.fairy.node.database.ColumnConverter;
+import community.theprojects.fairy.node.database.ConnectionSettings;
+import community.theprojects.fairy.node.database.EntityMetadata;
+import community.theprojects.fairy.node.database.FieldType;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.UUID;
+
+public final class MySQLDialect implements SQLDialect {
+    // MySQL/MariaDB kennen keinen UUID-Typ -> als CHAR(36) speichern
+    private static final ColumnConverter UUID_TEXT = new ColumnConverter() {
+        @Override
+        public Object toDb(Object value) {
+            return value == null ? null : value.toString();
+        }
+
+        @Override
+        public Object fromDb(ResultSet resultSet, int index) throws SQLException {
+            String value = resultSet.getString(index);
+            return value == null ? null : UUID.fromString(value);
+        }
+    };
+
+    private final String protocol;
+
+    MySQLDialect(String protocol) {
+        this.protocol = protocol;
+    }
+
+    @Override
+    public String jdbcUrl(ConnectionSettings settings) {
+        // rewriteBatchedStatements fasst Batches zu mehrzeiligen INSERTs zusammen
+        return String.format("jdbc:%s://%s:%d/%s?rewriteBatchedStatements=true", protocol, settings.host(), settings.port(), settings.database());
+    }
+
+    @Override
+    public String quote(String identifier) {
+        return "`" + identifier + "`";
+    }
+
+    @Override
+    public String columnType(EntityMetadata.Column column, boolean primaryKey) {
+        FieldType fieldType = column.getFieldType();
+        int size = column.getSize();
+        if (fieldType != null) {
+            return switch (fieldType) {
+                case INTEGER, INT -> "INT";
+                case MEDIUMINT -> "MEDIUMINT";
+                case SMALLINT -> "SMALLINT";
+                case TINYINT -> "TINYINT";
+                case BIGINT -> "BIGINT";
+                case BOOLEAN -> "BOOLEAN";
+                case BIT -> "BIT";
+                case FLOAT, REAL -> "FLOAT";
+                case DOUBLE -> "DOUBLE";
+                case TIME -> "TIME";
+                case DATE -> "DATE";
+                case TIMESTAMP -> "DATETIME(6)";
+                case YEAR -> "YEAR";
+                case DECIMAL, NUMERIC, MONEY -> "DECIMAL(38, 10)";
+                case JSON, ARRAY -> "JSON";
+                case BINARY -> "BINARY(" + (size > 0 ? size : 16) + ")";
+                case VARBINARY -> "VARBINARY(" + (size > 0 ? size : 255) + ")";
+                case TINYBLOB -> "TINYBLOB";
+                case BLOB -> "BLOB";
+                case MEDIUMBLOB -> "MEDIUMBLOB";
+                case LONGBLOB -> "LONGBLOB";
+                case UUID -> "CHAR(36)";
+                case GEOMETRY -> "GEOMETRY";
+                case CHAR, NCHAR -> "CHAR(" + (size > 0 ? size : 1) + ")";
+                case TINYTEXT -> "TINYTEXT";
+                case MEDIUMTEXT -> "MEDIUMTEXT";
+                case LONGTEXT, CLOB, NTEXT -> "LONGTEXT";
+                default -> primaryKey || size > 0 ? "VARCHAR(" + (size > 0 ? size : 255) + ")" : "TEXT";
+            };
+        }
+        Class<?> type = column.getType();
+        if (type == Integer.class || type == int.class) return "INT";
+        if (type == Long.class || type == long.class) return "BIGINT";
+        if (type == Boolean.class || type == boolean.class) return "BOOLEAN";
+        if (type == Double.class || type == double.class) return "DOUBLE";
+        if (type == Float.class || type == float.class) return "FLOAT";
+        if (type == UUID.class) return "CHAR(36)";
+        if (type == java.math.BigDecimal.class) return "DECIMAL(38, 10)";
+        if (type == byte[].class) return "LONGBLOB";
+        if (type == java.time.Instant.class || type == java.time.LocalDateTime.class) return "DATETIME(6)";
+        if (type == java.time.LocalDate.class) return "DATE";
+        if (type == Process.class) return "BIGINT"; // PID
+        if (type.isEnum()) return "VARCHAR(64)";
+        // TEXT kann kein Primärschlüssel sein
+        return primaryKey ? "VARCHAR(255)" : "TEXT";
+    }
+
+    @Override
+    public String upsert(String table, String idColumn, List<String> columns) {
+        StringBuilder names = new StringBuilder(quote(idColumn));
+        StringBuilder values = new StringBuilder("?");
+        StringBuilder updates = new StringBuilder();
+        for (String column : columns) {
+            names.append(", ").append(quote(column));
+            values.append(", ?");
+            if (!updates.isEmpty()) updates.append(", ");
+            updates.append(quote(column)).append(" = VALUES(").append(quote(column)).append(")");
+        }
+        if (updates.isEmpty()) {
+            updates.append(quote(idColumn)).append(" = ").append(quote(idColumn));
+        }
+        return "INSERT INTO " + quote(table) + " (" + names + ") VALUES (" + values + ") ON DUPLICATE KEY UPDATE " + updates;
+    }
+
+    @Override
+    public String addColumn(String table, String column, String type) {
+        return "ALTER TABLE " + quote(table) + " ADD COLUMN " + quote(column) + " " + type;
+    }
+
+    @Override
+    public ColumnConverter converter(EntityMetadata.Column column) {
+        if (column.getType() == UUID.class) {
+            return UUID_TEXT;
+        }
+        return column.getConverter();
+    }
+}
@@ -0,0 +1,82 @@
+package community.theprojects.fairy.node.database.dialect;
+
+import community.theprojects.fairy.node.database.ConnectionSettings;
+import community.theprojects.fairy.node.database.EntityMetadata;
+import community.theprojects.fairy.node.database.FieldType;
+
+import java.util.List;
+
+public final class PostgresDialect implements SQLDialect {
+
+    @Override
+    public String jdbcUrl(ConnectionSettings settings) {
+        // reWriteBatchedInserts fasst Batches zu mehrzeiligen INSERTs zusammen
+        return String.format("jdbc:postgresql://%s:%d/%s?reWriteBatchedInserts=true", settings.host(), settings.port(), settings.database());
+    }
+
+    @Override
+    public String quote(String identifier) {
+        return "\"" + identifier + "\"";
+    }
+
+    @Override
+    public String columnType(EntityMetadata.Column column, boolean primaryKey) {
+        FieldType fieldType = column.getFieldType();
+        if (fieldType != null) {
+            return switch (fieldType) {
+                case INTEGER, INT, MEDIUMINT, SMALLINT, TINYINT -> "integer";
+                case BIGINT -> "bigint";
+                case BOOLEAN, BIT -> "boolean";
+                case FLOAT, REAL -> "real";
+                case DOUBLE -> "double precision";
+                case TIME -> "time";
+                case DATE -> "date";
+                case TIMESTAMP, YEAR -> "timestamp";
+                case DECIMAL, NUMERIC, MONEY -> "numeric";
+                case JSON -> "jsonb";
+                case BINARY, VARBINARY, BLOB, TINYBLOB, MEDIUMBLOB, LONGBLOB -> "bytea";
+                case UUID -> "uuid";
+                case ARRAY -> "text[]";
+                case GEOMETRY -> "geometry";
+                case CHAR, NCHAR -> column.getSize() > 0 ? "char(" + column.getSize() + ")" : "text";
+                case VARCHAR, NVARCHAR -> column.getSize() > 0 ? "varchar(" + column.getSize() + ")" : "text";
+                default -> "text";
+            };
+        }
+        Class<?> type = column.getType();
+        if (type == String.class) return "text";
+        if (type == Integer.class || type == int.class) return "integer";
+        if (type == Long.class || type == long.class) return "bigint";
+        if (type == Boolean.class || type == boolean.class) return "boolean";
+        if (type == Double.class || type == double.class) return "double precision";
+        if (type == Float.class || type == float.class) return "real";
+        if (type == java.util.UUID.class) return "uuid";
+        if (type == java.math.BigDecimal.class) return "numeric";
+        if (type == byte[].class) return "bytea";
+        if (type == java.time.Instant.class || type == java.time.LocalDateTime.class) return "timestamp";
+        if (type == java.time.LocalDate.class) return "date";
+        if (type == Process.class) return "bigint"; // PID
+        // Pfade, Enums (NAME) und Fallback als Text
+        return "text";
+    }
+
+    @Override
+    public String upsert(String table, String idColumn, List<String> columns) {
+        StringBuilder names = new StringBuilder(quote(idColumn));
+        StringBuilder values = new StringBuilder("?");
+        StringBuilder updates = new StringBuilder();
+        for (String column : columns) {
+            names.append(", ").append(quote(column));
+            values.append(", ?");
+            if (!updates.isEmpty()) updates.append(", ");
+            updates.append(quote(column)).append(" = EXCLUDED.").append(quote(column));
+        }
+        String sql = "INSERT INTO " + quote(table) + " (" + names + ") VALUES (" + values + ") ON CONFLICT (" + quote(idColumn) + ")";
+        return updates.isEmpty() ? sql + " DO NOTHING" : sql + " DO UPDATE SET " + updates;
+    }
+
+    @Override
+    public String addColumn(String table, String column, String type) {
+        return "ALTER TABLE " + quote(table) + " ADD COLUMN IF NOT EXISTS " + quote(column) + " " + type;
+    }
+}
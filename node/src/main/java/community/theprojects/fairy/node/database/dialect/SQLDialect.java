@@ -0,0 +1,38 @@
+package community.theprojects.fairy.node.database.dialect;
+
+import community.theprojects.fairy.node.database.ColumnConverter;
+import community.theprojects.fairy.node.database.ConnectionSettings;
+import community.theprojects.fairy.node.database.EntityMetadata;
+
+import java.util.List;
+
+public interface SQLDialect {
+
+    String jdbcUrl(ConnectionSettings settings);
+    String quote(String identifier);
+    String columnType(EntityMetadata.Column column, boolean primaryKey);
+    String upsert(String table, String idColumn, List<String> columns);
+    String addColumn(String table, String column, String type);
+
+    default String select(String table, String idColumn, List<String> columns) {
+        StringBuilder sql = new StringBuilder("SELECT ");
+        for (int i = 0; i < columns.size(); i++) {
+            if (i > 0) sql.append(", ");
+            sql.append(quote(columns.get(i)));
+        }
+        return sql.append(" FROM ").append(quote(table)).append(" WHERE ").append(quote(idColumn)).append(" = ?").toString();
+    }
+
+    default String createTable(String table, String idColumn, String idType, List<String> columns, List<String> types) {
+        StringBuilder ddl = new StringBuilder("CREATE TABLE ").append(quote(table))
+                .append(" (").append(quote(idColumn)).append(" ").append(idType).append(" PRIMARY KEY");
+        for (int i = 0; i < columns.size(); i++) {
+            ddl.append(", ").append(quote(columns.get(i))).append(" ").append(types.get(i));
+        }
+        return ddl.append(")").toString();
+    }
+
+    default ColumnConverter converter(EntityMetadata.Column column) {
+        return column.getConverter();
+    }
+}
@@ -1,14 +1,30 @@
 package community.theprojects.fairy.node.database.model;
 
 import community.theprojects.fairy.api.service.ServiceStatus;
+import community.theprojects.fairy.node.FairyNode;
 import community.theprojects.fairy.node.database.SQLConnection;
-import community.theprojects.fairy.node.database.Database;
+import community.theprojects.fairy.node.database.EntityStore;
+import community.theprojects.fairy.node.database.EntityCache;
+import community.theprojects.fairy.node.database.dialect.DialectType;
 
 import java.nio.file.Path;
+import java.time.Duration;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
-@SQLConnection(host = "localhost", port = 3306, database = "fairycloud", username = "root", password = "")
+@SQLConnection(host = "localhost", port = 3306, database = "fairycloud", username = "root", password = "", dialect = DialectType.MYSQL)
 public class ServiceModel {
+    private static final EntityCache<UUID, ServiceModel> CACHE = new EntityCache<>(
+            Integer.getInteger("fairy.cache.services.size", 10_000),
+            Duration.ofSeconds(Long.getLong("fairy.cache.services.ttl", 300L)),
+            Duration.ofSeconds(Long.getLong("fairy.cache.services.negativeTtl", 5L)),
+            (id, model) -> {
+                try (var processor = EntityStore.open(ServiceModel.class)) {
+                    processor.save(model);
+                }
+            },
+            ServiceModel::copy);
+
     private UUID id;
     private String name;
     private String description;
@@ -83,24 +99,42 @@ public class ServiceModel {
         return this.status;
     }
 
+    // Der Cache hält und liefert nur Kopien, Änderungen werden erst mit save() sichtbar
+    public ServiceModel copy() {
+        return new ServiceModel(this.id, this.name, this.description, this.group, this.path, this.process, this.status);
+    }
+
+    public void save() throws Exception {
+        CACHE.update(this.id, this);
+    }
+
+    public static CompletableFuture<ServiceModel> ofAsync(UUID id) {
+        ServiceModel cached = CACHE.getIfPresent(id);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        return ((FairyNode) FairyNode.getInstance()).getDatabaseExecutor().submit(id, () -> of(id));
+    }
+
     public static ServiceModel of(UUID id) {
-        try (var connection = new Database(ServiceModel.class)) {
-            var statement = connection.prepareStatement("SELECT * FROM ServiceModel WHERE id = ?", id);
-            var result = statement.executeQuery();
-            if (result.next()) {
-                return new ServiceModel(
-                        (UUID) result.getObject("id"),
-                        result.getString("name"),
-                        result.getString("description"),
-                        result.getString("group"),
-                        result.getString("path") != null ? Path.of(result.getString("path")) : null,
-                        null,
-                        result.getString("status") != null ? ServiceStatus.valueOf(result.getString("status")) : null
-                );
-            }
-            return null;
+        try {
+            return CACHE.get(id, ServiceModel::load);
         } catch (Exception e) {
+            // Fehler werden nicht negativ gecached
             return null;
         }
     }
+
+    public static EntityCache.Stats cacheStats() {
+        return CACHE.stats();
+    }
+
+    private static ServiceModel load(UUID id) {
+        try (var processor = EntityStore.open(ServiceModel.class)) {
+            ServiceModel model = new ServiceModel(id, null, null, null, null, null, null);
+            return processor.load(model) ? model : null;
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
 }
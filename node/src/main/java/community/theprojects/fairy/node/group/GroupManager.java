@@ -1,39 +1,473 @@
 package community.theprojects.fairy.node.group;
 
+import community.theprojects.fairy.api.console.IConsole;
+import community.theprojects.fairy.api.group.IGroup;
 import community.theprojects.fairy.api.group.IGroupManager;
 import community.theprojects.fairy.api.service.IService;
+import community.theprojects.fairy.api.service.ServiceStatus;
+import community.theprojects.fairy.node.FairyNode;
+import community.theprojects.fairy.node.cluster.ClusterManager;
+import community.theprojects.fairy.node.cluster.RemoteService;
+import community.theprojects.fairy.node.console.HexColor;
+import community.theprojects.fairy.node.replication.ClusterState;
+import community.theprojects.fairy.node.replication.ReplicationNode;
+import community.theprojects.fairy.node.service.*;
+import community.theprojects.fairy.util.network.packet.replication.StateOperation;
+import org.json.JSONObject;
 
-import java.util.List;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
 
 public class GroupManager implements IGroupManager {
+    private static final Duration SHUTDOWN_TIMEOUT = Duration.ofMillis(Long.getLong("fairy.shutdown.timeout", 60000L));
+    private final ServiceSettings settings;
+    private final Map<String, IGroup> groups;
+    private final Map<String, List<Service>> services;
+    private final Map<String, Set<Integer>> numbers;
+    private final PortAllocator portAllocator;
+    private final ServiceStartEngine startEngine;
+    private final MemoryAdmission admission;
+    private final StandbyPool standbyPool;
+    private final ShutdownCoordinator shutdownCoordinator;
+    private final AtomicLong version;
+    private final ServiceEventBus events;
+    private volatile ReplicationNode replication;
+    private volatile ClusterManager cluster;
+
+    public GroupManager() {
+        this(ServiceSettings.resolve());
+    }
+
+    public GroupManager(ServiceSettings settings) {
+        this.settings = settings;
+        this.groups = new ConcurrentHashMap<>();
+        this.services = new ConcurrentHashMap<>();
+        this.numbers = new HashMap<>();
+        this.portAllocator = new PortAllocator(settings.firstPort(), settings.lastPort());
+        this.admission = MemoryAdmission.fromHost();
+        this.startEngine = new ServiceStartEngine(settings, this.admission);
+        this.startEngine.getSupervisor().setOnGiveUp(this::release);
+        this.startEngine.getSupervisor().setOnStopped(this::release);
+        this.shutdownCoordinator = new ShutdownCoordinator();
+        this.version = new AtomicLong();
+        this.events = ServiceEventBus.withDefaultCapacity();
+        this.standbyPool = new StandbyPool(this.startEngine, settings.standby(), new StandbyPool.Allocator() {
+            @Override
+            public Service allocate(IGroup group) {
+                return GroupManager.this.allocate(group, 1, false).getFirst();
+            }
+
+            @Override
+            public void release(Service service) {
+                GroupManager.this.release(service);
+            }
+        });
+    }
+
+    public void registerGroup(IGroup group) {
+        this.groups.put(group.getName().toLowerCase(Locale.ROOT), group);
+        this.version.incrementAndGet();
+        this.standbyPool.register(group);
+        publish(node -> groupEntry(group));
+    }
+
+    public void unregisterGroup(String groupName) {
+        this.standbyPool.unregister(groupName);
+        this.groups.remove(groupName.toLowerCase(Locale.ROOT));
+        this.version.incrementAndGet();
+        publish(node -> StateOperation.delete(ClusterState.GROUPS, groupName.toLowerCase(Locale.ROOT)));
+    }
+
+    // Gruppen und laufende Services dieser Node im replizierten Cluster-Zustand veröffentlichen
+    public void setReplication(ReplicationNode replication) {
+        this.replication = replication;
+        this.groups.values().forEach(group -> publish(node -> groupEntry(group)));
+        this.services.values().forEach(groupServices -> groupServices.forEach(service -> {
+            if (service.getStatus() == ServiceStatus.STARTED) {
+                publish(node -> serviceEntry(node, service));
+            }
+        }));
+    }
+
+    // Mit Workern platziert diese Node Starts über den Cluster und startet nur noch selbst, wenn kein Worker erreichbar ist
+    public void setCluster(ClusterManager cluster) {
+        this.cluster = cluster;
+    }
+
+    public IGroup getGroup(String groupName) {
+        return this.groups.get(groupName.toLowerCase(Locale.ROOT));
+    }
+
+    public Collection<IGroup> getGroups() {
+        return Collections.unmodifiableCollection(this.groups.values());
+    }
 
     @Override
     public IService startService(String groupName) {
-        return null;
+        List<IService> started = startServices(groupName, 1);
+        return started.isEmpty() ? null : started.getFirst();
     }
 
     @Override
-    public IService startServices(String groupName, int count) {
-        return null;
+    public List<IService> startServices(String groupName, int count) {
+        return start(groupName, count).started();
+    }
+
+    public StartReport start(String groupName, int count) {
+        return start(groupName, count, null);
+    }
+
+    public StartReport start(String groupName, int count, BiConsumer<IService, Throwable> onComplete) {
+        IGroup group = group(groupName, count);
+        ClusterManager cluster = this.cluster;
+        // Statische Services haben ihr Verzeichnis auf dieser Node und bleiben daher lokal
+        if (cluster == null || group.hasStaticServices() || !cluster.isAvailable()) {
+            return startLocal(group, count, onComplete);
+        }
+        StartReport report = cluster.startServices(group, count, onComplete).join();
+        this.version.incrementAndGet();
+        printReport(report);
+        return report;
+    }
+
+    // Startet immer auf dieser Node; Worker nutzen das für Startbefehle des Masters, sonst würden sie weiterleiten
+    public StartReport startLocal(String groupName, int count) {
+        return startLocal(group(groupName, count), count, null);
+    }
+
+    private StartReport startLocal(IGroup group, int count, BiConsumer<IService, Throwable> onComplete) {
+        // Bereitgestellte Standby-Services zuerst verwenden, den Rest regulär starten
+        List<Service> reserved = new ArrayList<>(standbyPool.take(group, count));
+        if (reserved.size() < count) {
+            reserved.addAll(allocate(group, count - reserved.size(), true));
+        }
+        this.services.computeIfAbsent(group.getName().toLowerCase(Locale.ROOT), key -> new CopyOnWriteArrayList<>()).addAll(reserved);
+        this.version.incrementAndGet();
+        StartReport report = startEngine.start(group, reserved, onComplete != null ? onComplete::accept : null);
+        Set<IService> started = new HashSet<>(report.started());
+        for (Service service : reserved) {
+            if (!started.contains(service)) {
+                release(service);
+            } else {
+                publish(node -> serviceEntry(node, service));
+            }
+        }
+        printReport(report);
+        return report;
     }
 
     @Override
     public void stopService(String groupName, int number) {
-
+        Service service = findService(groupName, number);
+        if (service != null) {
+            stopAll(List.of(service), SHUTDOWN_TIMEOUT);
+        }
     }
 
     @Override
     public void stopServices(String groupName, int... number) {
-
+        List<Service> targets = new ArrayList<>();
+        for (int serviceNumber : number) {
+            Service service = findService(groupName, serviceNumber);
+            if (service != null) {
+                targets.add(service);
+            }
+        }
+        stopAll(targets, SHUTDOWN_TIMEOUT);
     }
 
     @Override
     public void shutdownGroup(String groupName) {
+        List<Service> groupServices = this.services.get(groupName.toLowerCase(Locale.ROOT));
+        if (groupServices != null) {
+            printShutdown("group '" + groupName + "'", stopAll(List.copyOf(groupServices), SHUTDOWN_TIMEOUT));
+        }
+    }
 
+    // Alle Gruppen gleichzeitig herunterfahren; Standby-Pool zuerst, damit nichts nachgestartet wird
+    public void shutdown(Duration timeout) {
+        this.standbyPool.close();
+        List<Service> all = new ArrayList<>();
+        this.services.values().forEach(all::addAll);
+        printShutdown("node", stopAll(all, timeout));
+        this.startEngine.close();
+    }
+
+    public ShutdownCoordinator.Report stopAll(Collection<Service> targets) {
+        return stopAll(targets, SHUTDOWN_TIMEOUT);
+    }
+
+    public ShutdownCoordinator.Report stopAll(Collection<Service> targets, Duration timeout) {
+        Map<Service, ServiceStatus> previous = new HashMap<>();
+        List<Service> stopping = new ArrayList<>();
+        for (Service service : targets) {
+            // STOPPING vor dem Stop-Befehl setzen, damit der Supervisor das Beenden nicht als Absturz wertet
+            synchronized (service) {
+                if (service.getStatus() == ServiceStatus.STOPPING || service.getStatus() == ServiceStatus.STOPPED) {
+                    continue;
+                }
+                previous.put(service, service.getStatus());
+                service.setStatus(ServiceStatus.STOPPING);
+            }
+            stopping.add(service);
+        }
+        ShutdownCoordinator.Report report = shutdownCoordinator.stopAll(stopping, previous, timeout);
+        for (Service service : stopping) {
+            Process process = service.getProcess();
+            if (process == null || !process.isAlive()) {
+                service.setProcess(null);
+                service.setStatus(ServiceStatus.STOPPED);
+                release(service);
+            }
+        }
+        return report;
     }
 
     @Override
     public List<IService> getServices(String groupName) {
-        return List.of();
+        List<Service> groupServices = this.services.get(groupName.toLowerCase(Locale.ROOT));
+        return groupServices == null ? List.of() : List.copyOf(groupServices);
+    }
+
+    public Service findService(String groupName, int number) {
+        List<Service> groupServices = this.services.get(groupName.toLowerCase(Locale.ROOT));
+        if (groupServices == null) {
+            return null;
+        }
+        for (Service service : groupServices) {
+            if (service.getNumber() == number) {
+                return service;
+            }
+        }
+        return null;
+    }
+
+    public Service findService(String serviceName) {
+        for (List<Service> groupServices : this.services.values()) {
+            for (Service service : groupServices) {
+                if (service.getName().equalsIgnoreCase(serviceName)) {
+                    return service;
+                }
+            }
+        }
+        return null;
+    }
+
+    // Steigt bei jeder Änderung an Gruppen, Services oder deren Status; Grundlage für ETags der REST-API
+    public long getVersion() {
+        return this.version.get();
+    }
+
+    // Auf Workern gestartete Services der Gruppe; ohne Cluster leer
+    public List<RemoteService> getRemoteServices(String groupName) {
+        ClusterManager cluster = this.cluster;
+        return cluster == null ? List.of() : cluster.getServices(groupName);
+    }
+
+    // Replizierter Stand aller Nodes zum lokalen Lesen; null ohne Replikation
+    public ClusterState getClusterState() {
+        ReplicationNode node = this.replication;
+        return node != null ? node.getState() : null;
+    }
+
+    public ServiceEventBus getEvents() {
+        return this.events;
+    }
+
+    public Map<ServiceStartEngine.Stage, StageMetrics> getStartMetrics() {
+        return this.startEngine.getMetrics();
+    }
+
+    public int getPendingStarts() {
+        return this.startEngine.getPendingStarts();
+    }
+
+    // Laufende Services je Gruppe, Gruppen ohne Services fehlen
+    public Map<String, Integer> getServiceCounts() {
+        Map<String, Integer> counts = new HashMap<>();
+        this.services.forEach((group, groupServices) -> {
+            int running = 0;
+            for (Service service : groupServices) {
+                if (service.getStatus() == ServiceStatus.STARTED) {
+                    running++;
+                }
+            }
+            if (running > 0) {
+                counts.put(group, running);
+            }
+        });
+        return counts;
+    }
+
+    public MemoryAdmission getAdmission() {
+        return this.admission;
+    }
+
+    public GroupRunners getSidecars() {
+        return this.startEngine.getSidecars();
+    }
+
+    public StandbyPool getStandbyPool() {
+        return this.standbyPool;
+    }
+
+    public void close() {
+        shutdown(SHUTDOWN_TIMEOUT);
+    }
+
+    private IGroup group(String groupName, int count) {
+        IGroup group = getGroup(groupName);
+        if (group == null) {
+            throw new IllegalArgumentException("Unknown group '" + groupName + "'");
+        }
+        if (count < 1) {
+            throw new IllegalArgumentException("count must be positive");
+        }
+        return group;
+    }
+
+    // Der Eintrag wird nur gebaut, wenn repliziert wird; ohne Replikation gibt es keine Node-ID
+    private void publish(Function<ReplicationNode, StateOperation> operation) {
+        ReplicationNode node = this.replication;
+        if (node != null) {
+            node.publish(operation.apply(node));
+        }
+    }
+
+    private static StateOperation groupEntry(IGroup group) {
+        JSONObject json = new JSONObject()
+                .put("name", group.getName())
+                .put("description", group.getDescription())
+                .put("type", group.getType() instanceof Enum<?> type ? type.name() : String.valueOf(group.getType()))
+                .put("minimumMemory", group.getMinimumMemory())
+                .put("maximumMemory", group.getMaximumMemory())
+                .put("maxPlayers", group.getMaxPlayers())
+                .put("static", group.hasStaticServices())
+                .put("template", group.getTemplate() != null ? group.getTemplate().name() : null);
+        return StateOperation.put(ClusterState.GROUPS, group.getName().toLowerCase(Locale.ROOT), json.toString());
+    }
+
+    // Servicenamen wiederholen sich auf jeder Node (Lobby-1), der Schlüssel enthält daher die Node-ID
+    private static StateOperation serviceEntry(ReplicationNode node, Service service) {
+        JSONObject json = new JSONObject()
+                .put("group", service.getGroup())
+                .put("name", service.getName())
+                .put("number", service.getNumber())
+                .put("node", node.getId())
+                .put("port", service.getPort())
+                .put("id", service.getId().toString())
+                .put("status", service.getStatus().name())
+                .put("startedAt", service.getStartedAt() != null ? service.getStartedAt().toString() : null);
+        return StateOperation.put(ClusterState.SERVICES, serviceKey(node, service), json.toString());
+    }
+
+    private static String serviceKey(ReplicationNode node, Service service) {
+        return node.getId() + "/" + service.getName();
+    }
+
+    // adopt: Services, die nach einem Neustart der Node noch im Group-Runner laufen, behalten Nummer und Port
+    // und werden übernommen. Standby-Services überspringen sie, damit ihr Verzeichnis nicht überschrieben wird
+    private synchronized List<Service> allocate(IGroup group, int count, boolean adopt) {
+        // Nummern und Ports vor dem parallelen Start vergeben, damit sich gleichzeitige Aufrufe nicht überschneiden
+        Set<Integer> used = this.numbers.computeIfAbsent(group.getName().toLowerCase(Locale.ROOT), key -> new HashSet<>());
+        Path root = Path.of(group.hasStaticServices() ? settings.staticDirectory() : settings.runningDirectory());
+        GroupRunners sidecars = this.startEngine.getSidecars();
+        List<Service> allocated = new ArrayList<>(count);
+        int number = 1;
+        try {
+            while (allocated.size() < count) {
+                if (!used.contains(number)) {
+                    Path path = root.resolve(group.getName() + "-" + number);
+                    int port = -1;
+                    boolean live = sidecars != null && sidecars.isLive(group.getName(), group.getName() + "-" + number);
+                    if (!live) {
+                        port = portAllocator.allocate();
+                    } else if (adopt && portAllocator.reserve(ServiceFiles.configuredPort(path))) {
+                        port = ServiceFiles.configuredPort(path);
+                    }
+                    if (port > 0) {
+                        Service service = new Service(group, number, path, port);
+                        service.setOnStatusChange(this::statusChanged);
+                        allocated.add(service);
+                    }
+                }
+                number++;
+            }
+        } catch (RuntimeException e) {
+            allocated.forEach(service -> portAllocator.release(service.getPort()));
+            throw e;
+        }
+        allocated.forEach(service -> used.add(service.getNumber()));
+        return allocated;
+    }
+
+    private void release(Service service) {
+        if (!service.markReleased()) {
+            return;
+        }
+        unregister(service);
+        this.admission.release(service);
+        publish(node -> StateOperation.delete(ClusterState.SERVICES, serviceKey(node, service)));
+        // Dynamische Services starten immer aus einem frischen Verzeichnis
+        if (!service.getGroupInfo().hasStaticServices()) {
+            try {
+                ServiceFiles.deleteDirectory(service.getPath());
+            } catch (IOException e) {
+                printError("Failed to delete " + service.getPath() + ": " + e.getMessage());
+            }
+        }
+    }
+
+    private void statusChanged(Service service, ServiceStatus from, ServiceStatus to) {
+        this.version.incrementAndGet();
+        this.events.publish(service, from, to);
+    }
+
+    private synchronized void unregister(Service service) {
+        List<Service> groupServices = this.services.get(service.getGroup().toLowerCase(Locale.ROOT));
+        if (groupServices != null && groupServices.remove(service)) {
+            this.version.incrementAndGet();
+        }
+        Set<Integer> used = this.numbers.get(service.getGroup().toLowerCase(Locale.ROOT));
+        if (used != null) {
+            used.remove(service.getNumber());
+        }
+        this.portAllocator.release(service.getPort());
+    }
+
+    private void printError(String message) {
+        IConsole console = FairyNode.getInstance() != null ? FairyNode.getInstance().getConsole() : null;
+        if (console != null) {
+            console.getPrinter().println(HexColor.colorText(message, HexColor.Colors.RED), true);
+        }
+    }
+
+    private void printShutdown(String scope, ShutdownCoordinator.Report report) {
+        IConsole console = FairyNode.getInstance() != null ? FairyNode.getInstance().getConsole() : null;
+        if (console == null || report.services() == 0) {
+            return;
+        }
+        int lost = report.count(ShutdownCoordinator.Outcome.LOST);
+        console.getPrinter().println(HexColor.colorText(String.format("Stopped %d services of %s in %dms (%d graceful, %d terminated, %d killed%s)",
+                report.services() - lost, scope, report.duration().toMillis(), report.count(ShutdownCoordinator.Outcome.GRACEFUL),
+                report.count(ShutdownCoordinator.Outcome.TERMINATED), report.count(ShutdownCoordinator.Outcome.KILLED),
+                lost > 0 ? ", " + lost + " still running" : ""), lost > 0 ? HexColor.Colors.RED : HexColor.Colors.YELLOW), true);
+    }
+
+    private void printReport(StartReport report) {
+        IConsole console = FairyNode.getInstance() != null ? FairyNode.getInstance().getConsole() : null;
+        if (console == null) {
+            return;
+        }
+        console.getPrinter().println(HexColor.colorText(String.format("Started %d/%d services of group '%s' in %dms",
+                report.started().size(), report.requested(), report.group(), report.duration().toMillis()), HexColor.Colors.YELLOW), true);
+        report.failures().forEach((name, cause) -> console.getPrinter().println(
+                HexColor.colorText("Failed to start " + name + ": " + cause.getMessage(), HexColor.Colors.RED), true));
     }
 }
@@ -0,0 +1,159 @@
+package community.theprojects.fairy.node.replication;
+
+import community.theprojects.fairy.util.network.packet.replication.LogEntry;
+import community.theprojects.fairy.util.network.packet.replication.StateOperation;
+
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
+
+// Replizierter Zustand als Key/Value je Namespace; Lesezugriffe sind lokal und ohne Sperre
+public final class ClusterState {
+    public static final String TEMPLATES = "templates";
+    public static final String GROUPS = "groups";
+    public static final String SERVICES = "services";
+    private final Map<String, Map<String, String>> namespaces;
+    private final List<Consumer<StateOperation>> listeners;
+    private final NavigableMap<Long, List<CompletableFuture<Long>>> waiters;
+    private final ExecutorService notifier;
+    private volatile long appliedIndex;
+
+    public ClusterState() {
+        this.namespaces = new ConcurrentHashMap<>();
+        this.listeners = new CopyOnWriteArrayList<>();
+        this.waiters = new ConcurrentSkipListMap<>();
+        // Ein Thread, damit Listener die Änderungen in Log-Reihenfolge sehen
+        this.notifier = Executors.newSingleThreadExecutor(Thread.ofPlatform().name("fairy-replication-notify").daemon().factory());
+    }
+
+    public String get(String namespace, String key) {
+        Map<String, String> entries = namespaces.get(namespace);
+        return entries == null ? null : entries.get(key);
+    }
+
+    public Map<String, String> entries(String namespace) {
+        Map<String, String> entries = namespaces.get(namespace);
+        return entries == null ? Map.of() : Collections.unmodifiableMap(entries);
+    }
+
+    public long getAppliedIndex() {
+        return appliedIndex;
+    }
+
+    public void addListener(Consumer<StateOperation> listener) {
+        listeners.add(listener);
+    }
+
+    // Für Read-your-writes: erfüllt, sobald der Eintrag lokal angewendet ist
+    public CompletableFuture<Long> awaitApplied(long index) {
+        CompletableFuture<Long> future = new CompletableFuture<>();
+        waiters.computeIfAbsent(index, key -> new CopyOnWriteArrayList<>()).add(future);
+        if (appliedIndex >= index) {
+            release();
+        }
+        return future;
+    }
+
+    void apply(LogEntry entry) {
+        StateOperation operation = entry.operation();
+        switch (operation.type()) {
+            case PUT -> namespaces.computeIfAbsent(operation.namespace(), key -> new ConcurrentHashMap<>()).put(operation.key(), operation.value());
+            case DELETE -> {
+                Map<String, String> entries = namespaces.get(operation.namespace());
+                if (entries != null) {
+                    entries.remove(operation.key());
+                }
+            }
+            case NOOP -> {
+            }
+        }
+        appliedIndex = entry.index();
+        if (operation.type() != StateOperation.Type.NOOP) {
+            notify(List.of(operation));
+        }
+        release();
+    }
+
+    byte[] snapshot() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(namespaces.size());
+            for (Map.Entry<String, Map<String, String>> namespace : namespaces.entrySet()) {
+                ReplicatedLog.writeText(out, namespace.getKey());
+                Map<String, String> entries = Map.copyOf(namespace.getValue());
+                out.writeInt(entries.size());
+                for (Map.Entry<String, String> entry : entries.entrySet()) {
+                    ReplicatedLog.writeText(out, entry.getKey());
+                    ReplicatedLog.writeText(out, entry.getValue());
+                }
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    void restore(byte[] state, long index) throws IOException {
+        Map<String, Map<String, String>> restored = new HashMap<>();
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(state))) {
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                String namespace = ReplicatedLog.readText(in);
+                int size = in.readInt();
+                Map<String, String> entries = new ConcurrentHashMap<>(size * 2);
+                for (int j = 0; j < size; j++) {
+                    entries.put(ReplicatedLog.readText(in), ReplicatedLog.readText(in));
+                }
+                restored.put(namespace, entries);
+            }
+        }
+        // Listener erhalten den Unterschied zum bisherigen Stand als einzelne Operationen
+        List<StateOperation> changes = new ArrayList<>();
+        namespaces.forEach((namespace, entries) -> entries.keySet().forEach(key -> {
+            if (!restored.getOrDefault(namespace, Map.of()).containsKey(key)) {
+                changes.add(StateOperation.delete(namespace, key));
+            }
+        }));
+        restored.forEach((namespace, entries) -> entries.forEach((key, value) -> {
+            if (!value.equals(get(namespace, key))) {
+                changes.add(StateOperation.put(namespace, key, value));
+            }
+        }));
+        namespaces.clear();
+        namespaces.putAll(restored);
+        appliedIndex = index;
+        notify(changes);
+        release();
+    }
+
+    private void notify(List<StateOperation> operations) {
+        if (operations.isEmpty() || listeners.isEmpty()) {
+            return;
+        }
+        notifier.execute(() -> {
+            for (StateOperation operation : operations) {
+                for (Consumer<StateOperation> listener : listeners) {
+                    try {
+                        listener.accept(operation);
+                    } catch (RuntimeException ignored) {
+                    }
+                }
+            }
+        });
+    }
+
+    private void release() {
+        NavigableMap<Long, List<CompletableFuture<Long>>> done = waiters.headMap(appliedIndex, true);
+        while (!done.isEmpty()) {
+            Map.Entry<Long, List<CompletableFuture<Long>>> entry = done.pollFirstEntry();
+            if (entry != null) {
+                entry.getValue().forEach(future -> future.complete(entry.getKey()));
+            }
+        }
+    }
+
+    void close() {
+        notifier.shutdownNow();
+        waiters.values().forEach(futures -> futures.forEach(future -> future.cancel(false)));
+        waiters.clear();
+    }
+}
@@ -0,0 +1,298 @@
+package community.theprojects.fairy.node.replication;
+
+import community.theprojects.fairy.util.network.packet.replication.LogEntry;
+import community.theprojects.fairy.util.network.packet.replication.StateOperation;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+// Persistentes Log: Term und Stimme in "meta", Einträge angehängt in "log", kompaktierter Zustand in "snapshot".
+// Jeder Eintrag ist [Länge][CRC32][Daten]; beim Laden endet das Log am ersten beschädigten Eintrag
+final class ReplicatedLog implements Closeable {
+    private static final boolean FSYNC = Boolean.parseBoolean(System.getProperty("fairy.replication.fsync", "true"));
+    private static final int MAX_RECORD = 64 * 1024 * 1024;
+    private final Path meta;
+    private final Path logFile;
+    private final Path snapshotFile;
+    private final List<LogEntry> entries;
+    private FileChannel channel;
+    private long term;
+    private String votedFor;
+    private long snapshotIndex;
+    private long snapshotTerm;
+
+    ReplicatedLog(Path directory) {
+        this.meta = directory.resolve("meta");
+        this.logFile = directory.resolve("log");
+        this.snapshotFile = directory.resolve("snapshot");
+        this.entries = new ArrayList<>();
+    }
+
+    void load() throws IOException {
+        Files.createDirectories(logFile.getParent());
+        if (Files.isRegularFile(meta)) {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(meta)))) {
+                term = in.readLong();
+                votedFor = readText(in);
+            }
+        }
+        if (Files.isRegularFile(snapshotFile)) {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(snapshotFile)))) {
+                snapshotIndex = in.readLong();
+                snapshotTerm = in.readLong();
+            }
+        }
+        entries.clear();
+        long valid = 0;
+        if (Files.isRegularFile(logFile)) {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(logFile)))) {
+                while (true) {
+                    LogEntry entry;
+                    int length;
+                    try {
+                        length = in.readInt();
+                        if (length <= 0 || length > MAX_RECORD) {
+                            break;
+                        }
+                        long checksum = in.readInt() & 0xFFFFFFFFL;
+                        byte[] record = in.readNBytes(length);
+                        if (record.length < length || checksum(record) != checksum) {
+                            break;
+                        }
+                        entry = decode(record);
+                    } catch (EOFException | RuntimeException e) {
+                        break;
+                    }
+                    // Einträge vor dem Snapshot können nach einem Absturz während der Kompaktierung übrig sein
+                    if (entry.index() == snapshotIndex + entries.size() + 1) {
+                        entries.add(entry);
+                    }
+                    valid += 8 + length;
+                }
+            }
+        }
+        channel = FileChannel.open(logFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        // Halb geschriebenen oder beschädigten Eintrag und alles danach abschneiden
+        channel.truncate(valid);
+        channel.position(valid);
+    }
+
+    long getTerm() {
+        return term;
+    }
+
+    String getVotedFor() {
+        return votedFor;
+    }
+
+    void setTerm(long term, String votedFor) throws IOException {
+        this.term = term;
+        this.votedFor = votedFor;
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeLong(term);
+            writeText(out, votedFor);
+        }
+        writeAtomically(meta, bytes.toByteArray());
+    }
+
+    long getSnapshotIndex() {
+        return snapshotIndex;
+    }
+
+    long getSnapshotTerm() {
+        return snapshotTerm;
+    }
+
+    long lastIndex() {
+        return snapshotIndex + entries.size();
+    }
+
+    long lastTerm() {
+        return entries.isEmpty() ? snapshotTerm : entries.getLast().term();
+    }
+
+    // -1, wenn der Index unbekannt oder bereits kompaktiert ist
+    long termAt(long index) {
+        if (index == snapshotIndex) {
+            return snapshotTerm;
+        }
+        if (index < snapshotIndex || index > lastIndex()) {
+            return -1;
+        }
+        return entries.get((int) (index - snapshotIndex - 1)).term();
+    }
+
+    LogEntry entry(long index) {
+        return entries.get((int) (index - snapshotIndex - 1));
+    }
+
+    List<LogEntry> entries(long from, int max) {
+        int start = (int) (from - snapshotIndex - 1);
+        return List.copyOf(entries.subList(start, Math.min(entries.size(), start + max)));
+    }
+
+    void append(List<LogEntry> appended) throws IOException {
+        if (appended.isEmpty()) {
+            return;
+        }
+        for (LogEntry entry : appended) {
+            ByteBuffer buffer = frame(entry);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            entries.add(entry);
+        }
+        // Einmal je Batch auf die Platte zwingen, nicht je Eintrag
+        if (FSYNC) {
+            channel.force(false);
+        }
+    }
+
+    void truncateFrom(long index) throws IOException {
+        entries.subList((int) (index - snapshotIndex - 1), entries.size()).clear();
+        rewrite();
+    }
+
+    // Übernimmt den Zustand bis index als Snapshot und verwirft die enthaltenen Einträge
+    void compact(long index, long indexTerm, byte[] state) throws IOException {
+        writeSnapshot(index, indexTerm, state);
+        entries.subList(0, (int) (index - snapshotIndex)).clear();
+        snapshotIndex = index;
+        snapshotTerm = indexTerm;
+        rewrite();
+    }
+
+    void install(long index, long indexTerm, byte[] state) throws IOException {
+        writeSnapshot(index, indexTerm, state);
+        // Passende spätere Einträge behalten, sonst das ganze Log verwerfen
+        if (termAt(index) == indexTerm && index <= lastIndex()) {
+            entries.subList(0, (int) (index - snapshotIndex)).clear();
+        } else {
+            entries.clear();
+        }
+        snapshotIndex = index;
+        snapshotTerm = indexTerm;
+        rewrite();
+    }
+
+    byte[] readSnapshot() throws IOException {
+        if (!Files.isRegularFile(snapshotFile)) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(snapshotFile)))) {
+            in.readLong();
+            in.readLong();
+            return in.readNBytes(in.readInt());
+        }
+    }
+
+    private void writeSnapshot(long index, long indexTerm, byte[] state) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(state.length + 20);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeLong(index);
+            out.writeLong(indexTerm);
+            out.writeInt(state.length);
+            out.write(state);
+        }
+        writeAtomically(snapshotFile, bytes.toByteArray());
+    }
+
+    private void rewrite() throws IOException {
+        Path tmp = logFile.resolveSibling("log.tmp");
+        try (FileChannel out = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            for (LogEntry entry : entries) {
+                ByteBuffer buffer = frame(entry);
+                while (buffer.hasRemaining()) {
+                    out.write(buffer);
+                }
+            }
+            out.force(true);
+        }
+        channel.close();
+        Files.move(tmp, logFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        channel = FileChannel.open(logFile, StandardOpenOption.WRITE);
+        channel.position(channel.size());
+    }
+
+    private static void writeAtomically(Path file, byte[] data) throws IOException {
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel out = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.wrap(data);
+            while (buffer.hasRemaining()) {
+                out.write(buffer);
+            }
+            if (FSYNC) {
+                out.force(true);
+            }
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static ByteBuffer frame(LogEntry entry) throws IOException {
+        byte[] record = encode(entry);
+        return ByteBuffer.allocate(8 + record.length).putInt(record.length).putInt((int) checksum(record)).put(record).flip();
+    }
+
+    private static long checksum(byte[] record) {
+        CRC32 crc = new CRC32();
+        crc.update(record);
+        return crc.getValue();
+    }
+
+    private static byte[] encode(LogEntry entry) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeLong(entry.term());
+            out.writeLong(entry.index());
+            StateOperation operation = entry.operation();
+            out.writeByte(operation.type().ordinal());
+            writeText(out, operation.namespace());
+            writeText(out, operation.key());
+            writeText(out, operation.value());
+        }
+        return bytes.toByteArray();
+    }
+
+    private static LogEntry decode(byte[] record) throws IOException {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(record))) {
+            long term = in.readLong();
+            long index = in.readLong();
+            StateOperation.Type type = StateOperation.Type.values()[in.readByte()];
+            return new LogEntry(term, index, new StateOperation(type, readText(in), readText(in), readText(in)));
+        }
+    }
+
+    static void writeText(DataOutput out, String text) throws IOException {
+        if (text == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    static String readText(DataInput in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+        }
+    }
+}
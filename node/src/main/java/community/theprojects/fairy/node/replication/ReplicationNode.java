@@ -0,0 +1,608 @@
+package community.theprojects.fairy.node.replication;
+
+import com.nexoscript.nexonet.api.packet.Packet;
+import community.theprojects.fairy.util.network.PacketAuth;
+import community.theprojects.fairy.util.network.PacketConnection;
+import community.theprojects.fairy.util.network.PacketServer;
+import community.theprojects.fairy.util.network.packet.Packets;
+import community.theprojects.fairy.util.network.packet.replication.*;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Raft-artige Leaderwahl mit Lease: Follower verweigern Stimmen, solange sich der Leader innerhalb der minimalen
+// Wahlzeit gemeldet hat; der Leader gilt daher bis kurz davor als alleiniger Leader und darf lokal lesen
+public final class ReplicationNode implements AutoCloseable {
+    private static final long HEARTBEAT = TimeUnit.MILLISECONDS.toNanos(Long.getLong("fairy.replication.heartbeat", 250L));
+    private static final long ELECTION_MIN = TimeUnit.MILLISECONDS.toNanos(Long.getLong("fairy.replication.electionMin", 1500L));
+    private static final long ELECTION_MAX = TimeUnit.MILLISECONDS.toNanos(Long.getLong("fairy.replication.electionMax", 3000L));
+    // Abstand zur Wahlzeit als Reserve für unterschiedlich schnell laufende Uhren
+    private static final long LEASE = ELECTION_MIN - TimeUnit.MILLISECONDS.toNanos(Long.getLong("fairy.replication.clockDrift", 200L));
+    private static final Duration REQUEST_TIMEOUT = Duration.ofMillis(Long.getLong("fairy.replication.requestTimeout", 5000L));
+    private static final Duration CONNECT_TIMEOUT = Duration.ofMillis(Long.getLong("fairy.replication.connectTimeout", 1000L));
+    private static final int MAX_BATCH = Integer.getInteger("fairy.replication.batch", 512);
+    private static final int PUBLISH_ATTEMPTS = Integer.getInteger("fairy.replication.publishAttempts", 5);
+    private static final long SNAPSHOT_EVERY = Long.getLong("fairy.replication.snapshotEvery", 10000L);
+    private final ReplicationSettings settings;
+    private final PacketAuth auth;
+    private final String id;
+    private final ReplicatedLog log;
+    private final ClusterState state;
+    private final Map<String, Peer> peers;
+    private final Map<Long, CompletableFuture<Long>> proposals;
+    private final ReentrantLock lock;
+    private final ScheduledExecutorService scheduler;
+    private final ExecutorService executor;
+    private PacketServer server;
+    private volatile Role role;
+    private volatile String leader;
+    private long commitIndex;
+    private long lastApplied;
+    private long lastContact;
+    private long electionDeadline;
+    private long lastHeartbeat;
+    private int votes;
+
+    public ReplicationNode(ReplicationSettings settings, PacketAuth auth) {
+        this.settings = settings;
+        this.auth = auth;
+        this.id = settings.address();
+        this.log = new ReplicatedLog(settings.directory());
+        this.state = new ClusterState();
+        this.peers = new LinkedHashMap<>();
+        settings.peers().forEach(peer -> this.peers.put(peer, new Peer(peer)));
+        this.proposals = new ConcurrentHashMap<>();
+        this.lock = new ReentrantLock();
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("fairy-replication").daemon().factory());
+        this.executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("fairy-replication-", 0).factory());
+        this.role = Role.FOLLOWER;
+    }
+
+    public void start() {
+        lock.lock();
+        try {
+            log.load();
+            byte[] snapshot = log.readSnapshot();
+            if (snapshot != null) {
+                state.restore(snapshot, log.getSnapshotIndex());
+            }
+            commitIndex = lastApplied = log.getSnapshotIndex();
+            resetElection(System.nanoTime());
+            // Die Adresse identifiziert die Node gegenüber den Peers, gebunden wird nach fairy.cluster.host
+            this.server = new PacketServer(PacketServer.bindAddress(ReplicationSettings.socketAddress(id).getPort()), Packets.registry(), this::handle, auth);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        } finally {
+            lock.unlock();
+        }
+        scheduler.scheduleWithFixedDelay(this::tick, 0L, 50L, TimeUnit.MILLISECONDS);
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public ClusterState getState() {
+        return state;
+    }
+
+    public boolean isLeader() {
+        return role == Role.LEADER;
+    }
+
+    public String getLeader() {
+        return leader;
+    }
+
+    // Schreibt über den Leader; das Future endet erst, wenn die Änderung auch lokal sichtbar ist
+    public CompletableFuture<Long> propose(List<StateOperation> operations) {
+        if (operations.isEmpty()) {
+            return CompletableFuture.completedFuture(state.getAppliedIndex());
+        }
+        CompletableFuture<Long> future;
+        lock.lock();
+        try {
+            if (role == Role.LEADER) {
+                future = new CompletableFuture<>();
+                List<LogEntry> entries = new ArrayList<>(operations.size());
+                long index = log.lastIndex();
+                for (StateOperation operation : operations) {
+                    entries.add(new LogEntry(log.getTerm(), ++index, operation));
+                }
+                log.append(entries);
+                proposals.put(index, future);
+                advanceCommit();
+            } else {
+                future = null;
+            }
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
+        } finally {
+            lock.unlock();
+        }
+        if (future != null) {
+            peers.values().forEach(this::replicate);
+            return future.thenCompose(state::awaitApplied);
+        }
+        String target = leader;
+        if (target == null) {
+            return CompletableFuture.failedFuture(new IOException("No replication leader elected"));
+        }
+        return CompletableFuture.supplyAsync(() -> connection(peers.get(target)), executor).thenCompose(connection -> {
+            if (connection == null) {
+                return CompletableFuture.failedFuture(new IOException("Leader " + target + " is not reachable"));
+            }
+            return connection.request(new ProposePacket(operations), REQUEST_TIMEOUT).thenCompose(response -> {
+                ProposeResultPacket result = (ProposeResultPacket) response;
+                if (result.getMessage() != null) {
+                    return CompletableFuture.failedFuture(new IOException(result.getMessage()));
+                }
+                return state.awaitApplied(result.getIndex());
+            });
+        });
+    }
+
+    public CompletableFuture<Long> propose(StateOperation... operations) {
+        return propose(List.of(operations));
+    }
+
+    // Ohne Rückmeldung schreiben; solange noch kein Leader gewählt ist, wird es einige Male erneut versucht
+    public void publish(StateOperation... operations) {
+        publish(List.of(operations), PUBLISH_ATTEMPTS);
+    }
+
+    private void publish(List<StateOperation> operations, int attempts) {
+        propose(operations).exceptionally(failure -> {
+            if (attempts > 1 && !scheduler.isShutdown()) {
+                scheduler.schedule(() -> publish(operations, attempts - 1), ELECTION_MAX, TimeUnit.NANOSECONDS);
+            }
+            return null;
+        });
+    }
+
+    // Lokales Lesen beim Leader ist linearisierbar, solange der Lease gilt
+    public boolean hasLease() {
+        lock.lock();
+        try {
+            return role == Role.LEADER && leaseValid(System.nanoTime());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Status getStatus() {
+        lock.lock();
+        try {
+            long now = System.nanoTime();
+            return new Status(id, role, log.getTerm(), leader, log.lastIndex(), commitIndex, lastApplied, log.getSnapshotIndex(),
+                    role == Role.LEADER && leaseValid(now),
+                    role == Role.LEADER ? 0L : lastContact == 0L ? -1L : TimeUnit.NANOSECONDS.toMillis(now - lastContact), peers.size() + 1);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void tick() {
+        List<Peer> targets = List.of();
+        lock.lock();
+        try {
+            long now = System.nanoTime();
+            if (role == Role.LEADER) {
+                if (!peers.isEmpty() && !leaseValid(now)) {
+                    // Ohne Bestätigung der Mehrheit könnte bereits ein anderer Leader gewählt sein
+                    becomeFollower(log.getTerm());
+                } else if (now - lastHeartbeat >= HEARTBEAT) {
+                    lastHeartbeat = now;
+                    targets = List.copyOf(peers.values());
+                }
+            } else if (now - electionDeadline > 0) {
+                startElection(now);
+            }
+            if (lastApplied - log.getSnapshotIndex() >= SNAPSHOT_EVERY) {
+                log.compact(lastApplied, log.termAt(lastApplied), state.snapshot());
+            }
+        } catch (IOException | RuntimeException ignored) {
+        } finally {
+            lock.unlock();
+        }
+        targets.forEach(this::replicate);
+    }
+
+    private void startElection(long now) throws IOException {
+        long term = log.getTerm() + 1;
+        log.setTerm(term, id);
+        role = Role.CANDIDATE;
+        leader = null;
+        votes = 1;
+        resetElection(now);
+        if (votes >= settings.quorum()) {
+            becomeLeader();
+            return;
+        }
+        VoteRequestPacket request = new VoteRequestPacket(term, id, log.lastIndex(), log.lastTerm());
+        for (Peer peer : peers.values()) {
+            peer.ackedAt = now - LEASE;
+            executor.execute(() -> {
+                PacketConnection connection = connection(peer);
+                if (connection != null) {
+                    connection.request(request, REQUEST_TIMEOUT).whenComplete((response, failure) -> {
+                        if (failure == null) {
+                            onVoteResult(peer, term, now, (VoteResultPacket) response);
+                        }
+                    });
+                }
+            });
+        }
+    }
+
+    private void onVoteResult(Peer peer, long term, long requestedAt, VoteResultPacket result) {
+        lock.lock();
+        try {
+            if (result.getTerm() > log.getTerm()) {
+                becomeFollower(result.getTerm());
+                return;
+            }
+            if (role != Role.CANDIDATE || log.getTerm() != term || !result.isGranted()) {
+                return;
+            }
+            // Wer gestimmt hat, wählt frühestens nach der minimalen Wahlzeit neu; das zählt bereits für den Lease
+            peer.ackedAt = requestedAt;
+            if (++votes >= settings.quorum()) {
+                becomeLeader();
+            }
+        } catch (IOException ignored) {
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void becomeLeader() throws IOException {
+        role = Role.LEADER;
+        leader = id;
+        for (Peer peer : peers.values()) {
+            peer.nextIndex = log.lastIndex() + 1;
+            peer.matchIndex = 0;
+        }
+        // Ein Eintrag im neuen Term macht auch übernommene Einträge älterer Terms festschreibbar
+        log.append(List.of(new LogEntry(log.getTerm(), log.lastIndex() + 1, StateOperation.noop())));
+        advanceCommit();
+        lastHeartbeat = 0L;
+    }
+
+    private void becomeFollower(long term) throws IOException {
+        if (term > log.getTerm()) {
+            log.setTerm(term, null);
+        }
+        if (role == Role.LEADER) {
+            leader = null;
+            IOException failure = new IOException("Replication leadership lost");
+            proposals.values().forEach(future -> future.completeExceptionally(failure));
+            proposals.clear();
+        }
+        role = Role.FOLLOWER;
+        resetElection(System.nanoTime());
+    }
+
+    private CompletableFuture<? extends Packet> handle(PacketConnection connection, Packet packet) throws IOException {
+        if (packet instanceof VoteRequestPacket request) {
+            return CompletableFuture.completedFuture(onVote(request));
+        }
+        if (packet instanceof AppendEntriesPacket append) {
+            return CompletableFuture.completedFuture(onAppend(append));
+        }
+        if (packet instanceof SnapshotPacket snapshot) {
+            return CompletableFuture.completedFuture(onSnapshot(snapshot));
+        }
+        if (packet instanceof ProposePacket propose) {
+            if (role != Role.LEADER) {
+                return CompletableFuture.completedFuture(new ProposeResultPacket(-1L, "Not the replication leader"));
+            }
+            return propose(propose.getOperations()).handle((index, failure) -> failure == null
+                    ? new ProposeResultPacket(index, null)
+                    : new ProposeResultPacket(-1L, String.valueOf(failure.getMessage())));
+        }
+        return null;
+    }
+
+    private VoteResultPacket onVote(VoteRequestPacket request) throws IOException {
+        lock.lock();
+        try {
+            long now = System.nanoTime();
+            if (request.getTerm() < log.getTerm()) {
+                return new VoteResultPacket(log.getTerm(), false);
+            }
+            // Lease des aktuellen Leaders schützen: keine Stimme, solange er erreichbar ist
+            if (role == Role.LEADER || (leader != null && !leader.equals(request.getCandidate()) && now - lastContact < ELECTION_MIN)) {
+                return new VoteResultPacket(log.getTerm(), false);
+            }
+            if (request.getTerm() > log.getTerm()) {
+                becomeFollower(request.getTerm());
+            }
+            boolean upToDate = request.getLastTerm() > log.lastTerm()
+                    || (request.getLastTerm() == log.lastTerm() && request.getLastIndex() >= log.lastIndex());
+            String votedFor = log.getVotedFor();
+            if (upToDate && (votedFor == null || votedFor.equals(request.getCandidate()))) {
+                log.setTerm(log.getTerm(), request.getCandidate());
+                resetElection(now);
+                return new VoteResultPacket(log.getTerm(), true);
+            }
+            return new VoteResultPacket(log.getTerm(), false);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private AppendResultPacket onAppend(AppendEntriesPacket append) throws IOException {
+        lock.lock();
+        try {
+            if (append.getTerm() < log.getTerm()) {
+                return new AppendResultPacket(log.getTerm(), false, 0L);
+            }
+            accept(append.getTerm(), append.getLeader());
+            long prevIndex = append.getPrevIndex();
+            if (prevIndex > log.lastIndex()) {
+                return new AppendResultPacket(log.getTerm(), false, log.lastIndex());
+            }
+            long prevTerm = log.termAt(prevIndex);
+            // -1: bereits im Snapshot enthalten und damit festgeschrieben
+            if (prevTerm != -1 && prevTerm != append.getPrevTerm()) {
+                return new AppendResultPacket(log.getTerm(), false, Math.max(commitIndex, prevIndex - 1));
+            }
+            List<LogEntry> missing = new ArrayList<>();
+            for (LogEntry entry : append.getEntries()) {
+                if (entry.index() <= log.getSnapshotIndex()) {
+                    continue;
+                }
+                if (!missing.isEmpty()) {
+                    missing.add(entry);
+                    continue;
+                }
+                long existing = log.termAt(entry.index());
+                if (existing == entry.term()) {
+                    continue;
+                }
+                if (existing != -1) {
+                    log.truncateFrom(entry.index());
+                }
+                missing.add(entry);
+            }
+            log.append(missing);
+            long last = prevIndex + append.getEntries().size();
+            long commit = Math.min(append.getCommitIndex(), last);
+            if (commit > commitIndex) {
+                commitIndex = commit;
+                applyCommitted();
+            }
+            return new AppendResultPacket(log.getTerm(), true, last);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private AppendResultPacket onSnapshot(SnapshotPacket snapshot) throws IOException {
+        lock.lock();
+        try {
+            if (snapshot.getTerm() < log.getTerm()) {
+                return new AppendResultPacket(log.getTerm(), false, 0L);
+            }
+            accept(snapshot.getTerm(), snapshot.getLeader());
+            if (snapshot.getLastIndex() > commitIndex) {
+                log.install(snapshot.getLastIndex(), snapshot.getLastTerm(), snapshot.getState());
+                state.restore(snapshot.getState(), snapshot.getLastIndex());
+                commitIndex = lastApplied = snapshot.getLastIndex();
+            }
+            return new AppendResultPacket(log.getTerm(), true, snapshot.getLastIndex());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void accept(long term, String from) throws IOException {
+        if (term > log.getTerm() || role != Role.FOLLOWER) {
+            becomeFollower(term);
+        }
+        leader = from;
+        lastContact = System.nanoTime();
+        resetElection(lastContact);
+    }
+
+    private void replicate(Peer peer) {
+        Packet packet;
+        long term;
+        long sentAt;
+        long nextIndex;
+        lock.lock();
+        try {
+            if (role != Role.LEADER || peer.inFlight) {
+                return;
+            }
+            term = log.getTerm();
+            sentAt = System.nanoTime();
+            // Zu weit zurückliegende Follower erhalten den Snapshot statt der kompaktierten Einträge
+            if (peer.nextIndex <= log.getSnapshotIndex()) {
+                byte[] snapshot = log.readSnapshot();
+                packet = new SnapshotPacket(term, id, log.getSnapshotIndex(), log.getSnapshotTerm(), snapshot);
+            } else {
+                long prevIndex = peer.nextIndex - 1;
+                packet = new AppendEntriesPacket(term, id, prevIndex, log.termAt(prevIndex), commitIndex,
+                        peer.nextIndex <= log.lastIndex() ? log.entries(peer.nextIndex, MAX_BATCH) : List.of());
+            }
+            peer.sentCommit = commitIndex;
+            nextIndex = peer.nextIndex;
+            peer.inFlight = true;
+        } catch (IOException e) {
+            return;
+        } finally {
+            lock.unlock();
+        }
+        executor.execute(() -> {
+            PacketConnection connection = connection(peer);
+            if (connection == null) {
+                peer.inFlight = false;
+                return;
+            }
+            connection.request(packet, REQUEST_TIMEOUT).whenComplete((response, failure) ->
+                    onAppendResult(peer, term, sentAt, nextIndex, failure == null ? (AppendResultPacket) response : null));
+        });
+    }
+
+    private void onAppendResult(Peer peer, long term, long sentAt, long sentNext, AppendResultPacket result) {
+        boolean again = false;
+        List<Peer> committed = List.of();
+        lock.lock();
+        try {
+            peer.inFlight = false;
+            if (result == null) {
+                return;
+            }
+            if (result.getTerm() > log.getTerm()) {
+                becomeFollower(result.getTerm());
+                return;
+            }
+            if (role != Role.LEADER || log.getTerm() != term) {
+                return;
+            }
+            peer.ackedAt = Math.max(peer.ackedAt, sentAt);
+            if (result.isSuccess()) {
+                peer.matchIndex = Math.max(peer.matchIndex, result.getMatchIndex());
+                peer.nextIndex = Math.max(peer.nextIndex, peer.matchIndex + 1);
+                // Neuen Commit-Stand sofort verteilen, sonst warten weitergeleitete Vorschläge auf den nächsten Heartbeat
+                if (advanceCommit()) {
+                    committed = List.copyOf(peers.values());
+                }
+            } else if (peer.nextIndex == sentNext) {
+                peer.nextIndex = Math.max(1L, Math.min(sentNext - 1, result.getMatchIndex() + 1));
+            }
+            // Peers mit offener Anfrage haben den neuen Stand verpasst und bekommen ihn direkt nach ihrer Antwort
+            again = peer.nextIndex <= log.lastIndex() || peer.sentCommit < commitIndex;
+        } catch (IOException ignored) {
+        } finally {
+            lock.unlock();
+        }
+        committed.forEach(this::replicate);
+        if (again && !committed.contains(peer)) {
+            replicate(peer);
+        }
+    }
+
+    private boolean advanceCommit() throws IOException {
+        long[] matches = new long[peers.size() + 1];
+        matches[0] = log.lastIndex();
+        int i = 1;
+        for (Peer peer : peers.values()) {
+            matches[i++] = peer.matchIndex;
+        }
+        Arrays.sort(matches);
+        long candidate = matches[matches.length - settings.quorum()];
+        // Nur Einträge des eigenen Terms direkt festschreiben, ältere folgen implizit
+        if (candidate > commitIndex && log.termAt(candidate) == log.getTerm()) {
+            commitIndex = candidate;
+            applyCommitted();
+            return true;
+        }
+        return false;
+    }
+
+    private void applyCommitted() {
+        while (lastApplied < commitIndex) {
+            LogEntry entry = log.entry(++lastApplied);
+            state.apply(entry);
+            CompletableFuture<Long> proposal = proposals.remove(entry.index());
+            if (proposal != null) {
+                proposal.complete(entry.index());
+            }
+        }
+    }
+
+    private boolean leaseValid(long now) {
+        long[] acks = new long[peers.size() + 1];
+        acks[0] = now;
+        int i = 1;
+        for (Peer peer : peers.values()) {
+            acks[i++] = peer.ackedAt;
+        }
+        Arrays.sort(acks);
+        return now - acks[acks.length - settings.quorum()] < LEASE;
+    }
+
+    private void resetElection(long now) {
+        electionDeadline = now + ThreadLocalRandom.current().nextLong(ELECTION_MIN, ELECTION_MAX);
+    }
+
+    private PacketConnection connection(Peer peer) {
+        if (peer == null) {
+            return null;
+        }
+        PacketConnection connection = peer.connection;
+        if (connection != null && connection.isOpen()) {
+            return connection;
+        }
+        // Nur ein Verbindungsversuch je Peer, fehlgeschlagene Versuche erst nach einer Pause wiederholen
+        if (!peer.connectLock.tryLock()) {
+            return null;
+        }
+        try {
+            if (System.nanoTime() - peer.retryAt < 0) {
+                return null;
+            }
+            peer.connection = PacketConnection.connect(ReplicationSettings.socketAddress(peer.address), CONNECT_TIMEOUT, Packets.registry(), null, auth);
+            return peer.connection;
+        } catch (IOException e) {
+            peer.retryAt = System.nanoTime() + CONNECT_TIMEOUT.toNanos();
+            return null;
+        } finally {
+            peer.connectLock.unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+        executor.shutdownNow();
+        lock.lock();
+        try {
+            if (server != null) {
+                server.close();
+            }
+            peers.values().forEach(peer -> {
+                if (peer.connection != null) {
+                    peer.connection.close();
+                }
+            });
+            log.close();
+        } catch (IOException ignored) {
+        } finally {
+            lock.unlock();
+        }
+        state.close();
+    }
+
+    public enum Role {
+        FOLLOWER,
+        CANDIDATE,
+        LEADER
+    }
+
+    public record Status(String id, Role role, long term, String leader, long lastIndex, long commitIndex, long appliedIndex,
+                         long snapshotIndex, boolean lease, long stalenessMillis, int members) {
+    }
+
+    private static final class Peer {
+        private final String address;
+        private final ReentrantLock connectLock = new ReentrantLock();
+        private volatile PacketConnection connection;
+        private volatile long retryAt = System.nanoTime();
+        private long nextIndex = 1;
+        private long matchIndex;
+        private long ackedAt;
+        private long sentCommit;
+        private volatile boolean inFlight;
+
+        private Peer(String address) {
+            this.address = address;
+        }
+    }
+}
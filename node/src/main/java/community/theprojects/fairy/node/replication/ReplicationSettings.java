@@ -0,0 +1,36 @@
+package community.theprojects.fairy.node.replication;
+
+import java.net.InetSocketAddress;
+import java.nio.file.Path;
+import java.util.*;
+
+// Mitglieder werden über ihre Adresse identifiziert, die eigene Adresse ist zugleich die Node-ID im Cluster
+public record ReplicationSettings(boolean enabled, String address, List<String> peers, Path directory) {
+
+    public static ReplicationSettings parse(Object value) {
+        if (!(value instanceof Map<?, ?> map)) {
+            return new ReplicationSettings(false, null, List.of(), Path.of("storage", "cluster"));
+        }
+        List<String> peers = new ArrayList<>();
+        if (map.get("peers") instanceof Collection<?> entries) {
+            entries.forEach(entry -> peers.add(String.valueOf(entry)));
+        }
+        String address = String.valueOf(map.get("address"));
+        peers.remove(address);
+        Object directory = map.get("directory");
+        return new ReplicationSettings(Boolean.parseBoolean(String.valueOf(map.get("enabled"))), address, List.copyOf(peers),
+                Path.of(directory != null ? directory.toString() : "storage/cluster"));
+    }
+
+    public static InetSocketAddress socketAddress(String address) {
+        int separator = address.lastIndexOf(':');
+        if (separator < 0) {
+            throw new IllegalArgumentException("Replication address '" + address + "' needs host:port");
+        }
+        return new InetSocketAddress(address.substring(0, separator), Integer.parseInt(address.substring(separator + 1)));
+    }
+
+    public int quorum() {
+        return (peers.size() + 1) / 2 + 1;
+    }
+}
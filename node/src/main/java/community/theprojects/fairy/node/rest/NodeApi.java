@@ -0,0 +1,539 @@
+package community.theprojects.fairy.node.rest;
+
+import community.theprojects.fairy.api.group.IGroup;
+import community.theprojects.fairy.api.service.IService;
+import community.theprojects.fairy.api.service.ServiceStatus;
+import community.theprojects.fairy.node.cluster.RemoteService;
+import community.theprojects.fairy.node.config.TemplatesConfig;
+import community.theprojects.fairy.node.group.GroupManager;
+import community.theprojects.fairy.node.replication.ClusterState;
+import community.theprojects.fairy.node.service.Service;
+import community.theprojects.fairy.node.service.ServiceEvent;
+import community.theprojects.fairy.node.service.ServiceEventBus;
+import community.theprojects.fairy.node.service.ShutdownCoordinator;
+import community.theprojects.fairy.node.service.StartReport;
+import community.theprojects.fairy.restserver.*;
+import community.theprojects.fairy.util.json.JsonSerializer;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+public final class NodeApi implements AutoCloseable {
+    private static final String HOST = System.getProperty("fairy.api.host", "0.0.0.0");
+    private static final int MAX_START_COUNT = Integer.getInteger("fairy.api.maxStartCount", 64);
+    private static final int MAX_BATCH_ITEMS = Integer.getInteger("fairy.api.maxBatchItems", 500);
+    private static final int POLL_TIMEOUT = Integer.getInteger("fairy.api.pollTimeout", 25000);
+    private static final int MAX_POLL_TIMEOUT = Integer.getInteger("fairy.api.maxPollTimeout", 55000);
+    private static final int EVENT_LIMIT = Integer.getInteger("fairy.api.eventLimit", 500);
+    private static final Duration SSE_HEARTBEAT = Duration.ofMillis(Long.getLong("fairy.api.sseHeartbeat", 15000L));
+    private final GroupManager groupManager;
+    private final TemplatesConfig templates;
+    private final TokenAuth auth;
+    private final String node;
+    private final String version;
+    private final Router router;
+    private final SnapshotCache cache;
+    private RestServer server;
+
+    public NodeApi(GroupManager groupManager, TemplatesConfig templates, TokenAuth auth, String node, String version) {
+        this.groupManager = groupManager;
+        this.templates = templates;
+        this.auth = auth;
+        this.node = node;
+        this.version = version;
+        this.cache = new SnapshotCache();
+        this.router = routes();
+    }
+
+    public synchronized void start(int port) throws IOException {
+        if (server != null) {
+            server.close();
+        }
+        server = new RestServer(new InetSocketAddress(HOST, port), router, auth);
+    }
+
+    public synchronized boolean isRunning() {
+        return server != null && server.isRunning();
+    }
+
+    public synchronized RestServer getServer() {
+        return server;
+    }
+
+    public TokenAuth getAuth() {
+        return auth;
+    }
+
+    public SnapshotCache getCache() {
+        return cache;
+    }
+
+    private Router routes() {
+        return Router.builder()
+                .get("/api/health", (request, response) -> response.json(200, Map.of("status", "ok", "node", node, "version", version)))
+                .get("/api/groups", this::listGroups)
+                .get("/api/groups/{group}", this::getGroup)
+                .get("/api/groups/{group}/services", (request, response) -> listServices(request, response, request.param("group")))
+                .post("/api/groups/{group}/services", this::startServices)
+                .get("/api/services", (request, response) -> listServices(request, response, request.query("group")))
+                .get("/api/services/{service}", (request, response) -> {
+                    Service service = service(request);
+                    cached(request, response, "service:" + service.getId(), () -> ServiceView.of(service));
+                })
+                .post("/api/services/{service}/stop", this::stopService)
+                .delete("/api/services/{service}", this::stopService)
+                .post("/api/batch/start", this::batchStart)
+                .post("/api/batch/stop", this::batchStop)
+                .post("/api/batch/status", this::batchStatus)
+                .get("/api/templates", (request, response) -> {
+                    long templateVersion = templates.getVersion();
+                    cache.json(request, response, "templates", templateVersion, this::templateViews);
+                })
+                .get("/api/events", this::pollEvents)
+                .get("/api/events/stream", this::streamEvents)
+                .post("/api/auth/regenerate", (request, response) -> response.json(200, Map.of("token", auth.regenerate())))
+                .build();
+    }
+
+    // Long-Poll: antwortet sofort, wenn nach since schon Ereignisse vorliegen, sonst spätestens nach timeout mit leerer Liste.
+    // since ist <epoch>-<sequence> oder eine Sequenz mit epoch als eigenem Parameter
+    private void pollEvents(HttpRequest request, HttpResponse response) throws Exception {
+        ServiceEventBus events = groupManager.getEvents();
+        String since = request.query("since");
+        String epoch = request.query("epoch");
+        Cursor cursor = cursor(since != null && epoch != null && since.indexOf('-') < 0 ? epoch + "-" + since : since, events);
+        int timeout = Math.clamp(request.queryInt("timeout", POLL_TIMEOUT), 0, MAX_POLL_TIMEOUT);
+        int limit = Math.clamp(request.queryInt("limit", EVENT_LIMIT), 1, EVENT_LIMIT);
+        ServiceEventBus.Batch batch = events.await(cursor.sequence(), limit, filter(request), Duration.ofMillis(cursor.reset() ? 0 : timeout));
+        response.header("Cache-Control", "no-store").header("X-Event-Epoch", Long.toString(events.getEpoch()))
+                .json(200, new EventsView(batch.events(), batch.next(), batch.truncated() || cursor.reset(), events.getEpoch()));
+    }
+
+    // Server-Sent Events; nach einem Reconnect setzt Last-Event-ID genau hinter dem zuletzt empfangenen Ereignis fort
+    private void streamEvents(HttpRequest request, HttpResponse response) throws Exception {
+        ServiceEventBus events = groupManager.getEvents();
+        String lastEventId = request.header("last-event-id");
+        Cursor start = cursor(lastEventId != null ? lastEventId : request.query("since"), events);
+        long cursor = start.sequence();
+        Predicate<ServiceEvent> filter = filter(request);
+        Writer writer = response.header("Cache-Control", "no-store").header("X-Event-Epoch", Long.toString(events.getEpoch()))
+                .stream(200, "text/event-stream");
+        if (request.getMethod().equals("HEAD")) {
+            // Ohne Body ließe sich ein getrennter Client nie bemerken
+            writer.close();
+            return;
+        }
+        // Die id legt den Startpunkt fest, damit auch ein Reconnect vor dem ersten Ereignis nichts verpasst
+        writer.write("retry: 2000\nid: " + events.getEpoch() + "-" + cursor + "\n\n");
+        if (start.reset()) {
+            // Die ID stammt aus einer früheren Laufzeit der Node, was dazwischen geschah, ist nicht mehr bekannt
+            writer.write("event: reset\ndata: {\"next\":" + cursor + ",\"epoch\":" + events.getEpoch() + "}\n\n");
+        }
+        writer.flush();
+        while (true) {
+            ServiceEventBus.Batch batch = events.await(cursor, EVENT_LIMIT, filter, SSE_HEARTBEAT);
+            if (batch.truncated()) {
+                // Ereignisse sind aus dem Ring gefallen, der Client muss seinen Zustand neu laden
+                writer.write("event: reset\ndata: {\"next\":" + batch.next() + ",\"epoch\":" + events.getEpoch() + "}\n\n");
+            }
+            for (ServiceEvent event : batch.events()) {
+                writer.write("id: " + events.getEpoch() + "-" + event.sequence() + "\nevent: status\ndata: ");
+                JsonSerializer.write(event, writer);
+                writer.write("\n\n");
+            }
+            if (batch.events().isEmpty() && !batch.truncated()) {
+                // Kommentarzeile hält Proxies offen und bemerkt getrennte Clients
+                writer.write(": ping\n\n");
+            }
+            writer.flush();
+            cursor = batch.next();
+        }
+    }
+
+    // Ohne Angabe beginnt das Abonnement bei den nächsten neuen Ereignissen. Eine fremde Epoch stammt aus einer früheren
+    // Laufzeit der Node: dann von vorn lesen und Reset melden. Reine Zahlen gelten als Sequenz der aktuellen Laufzeit
+    private static Cursor cursor(String value, ServiceEventBus events) {
+        if (value == null || value.isBlank()) {
+            return new Cursor(events.getSequence(), false);
+        }
+        try {
+            String id = value.trim();
+            int separator = id.indexOf('-');
+            if (separator > 0 && Long.parseLong(id.substring(0, separator)) != events.getEpoch()) {
+                return new Cursor(0L, true);
+            }
+            return new Cursor(Math.max(0, Long.parseLong(id.substring(separator + 1))), false);
+        } catch (NumberFormatException e) {
+            throw new HttpException(400, "Invalid event id '" + value + "'");
+        }
+    }
+
+    private static Predicate<ServiceEvent> filter(HttpRequest request) {
+        String group = request.query("group");
+        return group == null ? null : event -> event.group().equalsIgnoreCase(group);
+    }
+
+    // Mit Replikation antwortet jede Node aus dem replizierten Zustand und sieht so Gruppen und Services aller Nodes.
+    // Neue Services erscheinen erst, wenn ihr Eintrag festgeschrieben ist; Einzelabfragen und Aktionen bleiben lokal
+    private void listGroups(HttpRequest request, HttpResponse response) throws IOException {
+        ClusterState state = groupManager.getClusterState();
+        if (state != null) {
+            cache.json(request, response, "cluster:groups", state.getAppliedIndex(), () -> clusterGroups(state, null));
+            return;
+        }
+        cached(request, response, "groups", () -> groupManager.getGroups().stream().map(this::groupView).toList());
+    }
+
+    private void getGroup(HttpRequest request, HttpResponse response) throws IOException {
+        ClusterState state = groupManager.getClusterState();
+        if (state != null) {
+            String name = request.param("group");
+            List<GroupView> groups = clusterGroups(state, name);
+            if (groups.isEmpty()) {
+                throw new HttpException(404, "Unknown group '" + name + "'");
+            }
+            cache.json(request, response, "cluster:group:" + groups.getFirst().name(), state.getAppliedIndex(), groups::getFirst);
+            return;
+        }
+        IGroup group = group(request);
+        cached(request, response, "group:" + group.getName(), () -> groupView(group));
+    }
+
+    private void listServices(HttpRequest request, HttpResponse response, String group) throws IOException {
+        ClusterState state = groupManager.getClusterState();
+        if (state != null) {
+            if (group != null && clusterGroups(state, group).isEmpty()) {
+                throw new HttpException(404, "Unknown group '" + group + "'");
+            }
+            String key = group != null ? "cluster:services:" + group.toLowerCase(Locale.ROOT) : "cluster:services";
+            cache.json(request, response, key, state.getAppliedIndex(), () -> clusterServices(state, group));
+            return;
+        }
+        if (group != null) {
+            String name = group(group).getName();
+            cached(request, response, "services:" + name, () -> serviceViews(name));
+            return;
+        }
+        cached(request, response, "services", () -> groupManager.getGroups().stream()
+                .flatMap(info -> groupManager.getServices(info.getName()).stream())
+                .map(service -> ServiceView.of((Service) service)).toList());
+    }
+
+    // Antworten aus dem Cache, solange sich Gruppen und Services seit der letzten Serialisierung nicht geändert haben
+    private void cached(HttpRequest request, HttpResponse response, String key, Supplier<Object> snapshot) throws IOException {
+        long registryVersion = groupManager.getVersion();
+        cache.json(request, response, key, registryVersion, snapshot);
+    }
+
+    private List<ServiceView> serviceViews(String group) {
+        return groupManager.getServices(group).stream().map(service -> ServiceView.of((Service) service)).toList();
+    }
+
+    private static List<GroupView> clusterGroups(ClusterState state, String name) {
+        Map<String, Integer> counts = new HashMap<>();
+        for (String value : state.entries(ClusterState.SERVICES).values()) {
+            counts.merge(new JSONObject(value).getString("group").toLowerCase(Locale.ROOT), 1, Integer::sum);
+        }
+        List<GroupView> views = new ArrayList<>();
+        state.entries(ClusterState.GROUPS).forEach((key, value) -> {
+            if (name == null || key.equals(name.toLowerCase(Locale.ROOT))) {
+                views.add(GroupView.of(new JSONObject(value), counts.getOrDefault(key, 0)));
+            }
+        });
+        views.sort(Comparator.comparing(GroupView::name));
+        return views;
+    }
+
+    private static List<ServiceView> clusterServices(ClusterState state, String group) {
+        List<ServiceView> views = new ArrayList<>();
+        for (String value : state.entries(ClusterState.SERVICES).values()) {
+            JSONObject json = new JSONObject(value);
+            if (group == null || json.getString("group").equalsIgnoreCase(group)) {
+                views.add(ServiceView.of(json));
+            }
+        }
+        views.sort(Comparator.comparing(ServiceView::node).thenComparing(ServiceView::group).thenComparingInt(ServiceView::number));
+        return views;
+    }
+
+    private List<TemplateView> templateViews() {
+        // Gleiche Sperre wie die Übernahme aus dem Cluster-Zustand in FairyNode
+        synchronized (templates) {
+            return templates.getTemplates().stream().map(template -> new TemplateView(template.getString("name"),
+                    template.optString("path", null), template.getJSONArray("groups").toList().stream().map(String::valueOf).toList())).toList();
+        }
+    }
+
+    private void startServices(HttpRequest request, HttpResponse response) throws IOException {
+        IGroup group = group(request);
+        int count = request.queryInt("count", request.bodyJson().optInt("count", 1));
+        if (count < 1 || count > MAX_START_COUNT) {
+            throw new HttpException(400, "count must be between 1 and " + MAX_START_COUNT);
+        }
+        StartReport report = groupManager.start(group.getName(), count);
+        Map<String, String> failures = new LinkedHashMap<>();
+        report.failures().forEach((name, cause) -> failures.put(name, String.valueOf(cause.getMessage())));
+        response.json(report.isComplete() ? 201 : 503, new StartView(report.group(), report.requested(),
+                report.started().stream().map(ServiceView::of).toList(), failures, report.duration().toMillis()));
+    }
+
+    private void stopService(HttpRequest request, HttpResponse response) throws IOException {
+        Service service = service(request);
+        ShutdownCoordinator.Report report = groupManager.stopAll(List.of(service));
+        response.json(200, new StopView(service.getName(), report.services(), report.outcomes(), report.duration().toMillis()));
+    }
+
+    // Body {"groups": {"<group>": <count>}}; je Service eine NDJSON-Zeile, sobald sein Start abgeschlossen ist
+    private void batchStart(HttpRequest request, HttpResponse response) throws Exception {
+        JSONObject groups = request.bodyJson().optJSONObject("groups");
+        if (groups == null || groups.keySet().isEmpty()) {
+            throw new HttpException(400, "Body needs {\"groups\": {\"<group>\": <count>}}");
+        }
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        int total = 0;
+        for (String name : groups.keySet()) {
+            int count = groups.optInt(name, 0);
+            if (count < 1) {
+                throw new HttpException(400, "count for '" + name + "' must be positive");
+            }
+            counts.put(name, count);
+            total += count;
+        }
+        if (total > MAX_BATCH_ITEMS) {
+            throw new HttpException(400, "Batch of " + total + " services exceeds " + MAX_BATCH_ITEMS);
+        }
+        long begin = System.nanoTime();
+        BlockingQueue<BatchItem> results = new LinkedBlockingQueue<>();
+        int expected = 0;
+        for (Map.Entry<String, Integer> entry : counts.entrySet()) {
+            IGroup group = groupManager.getGroup(entry.getKey());
+            if (group == null) {
+                results.add(BatchItem.failed(entry.getKey(), "Unknown group '" + entry.getKey() + "'"));
+                expected++;
+                continue;
+            }
+            int count = entry.getValue();
+            expected += count;
+            Thread.ofVirtual().name("fairy-api-batch-start").start(() -> {
+                AtomicInteger reported = new AtomicInteger();
+                String error = "Not started";
+                try {
+                    groupManager.start(group.getName(), count, (service, failure) -> {
+                        reported.incrementAndGet();
+                        results.add(failure == null ? BatchItem.of(group.getName(), null, ServiceView.of(service))
+                                : new BatchItem(group.getName(), false, failure instanceof CancellationException ? "Skipped after earlier failure"
+                                : String.valueOf(failure.getMessage()), null, ServiceView.of(service)));
+                    });
+                } catch (RuntimeException e) {
+                    error = String.valueOf(e.getMessage());
+                }
+                // Services, die gar nicht erst in den Start gingen, trotzdem beantworten
+                for (int i = reported.get(); i < count; i++) {
+                    results.add(BatchItem.failed(group.getName(), error));
+                }
+            });
+        }
+        stream(response, results, expected, begin);
+    }
+
+    // Body {"services": [<id oder Name>, ...]}; alle Stopps laufen parallel, die Zeilen kommen in Abschlussreihenfolge
+    private void batchStop(HttpRequest request, HttpResponse response) throws Exception {
+        List<String> requested = requestedServices(request);
+        long begin = System.nanoTime();
+        Map<String, Service> index = index();
+        BlockingQueue<BatchItem> results = new LinkedBlockingQueue<>();
+        for (String key : requested) {
+            Service service = lookup(index, key);
+            if (service == null) {
+                results.add(BatchItem.failed(key, "Unknown service '" + key + "'"));
+                continue;
+            }
+            Thread.ofVirtual().name("fairy-api-batch-stop").start(() -> {
+                try {
+                    ShutdownCoordinator.Report report = groupManager.stopAll(List.of(service));
+                    String outcome = report.outcomes().keySet().stream().findFirst().map(Enum::name).orElse("ALREADY_STOPPED");
+                    results.add(new BatchItem(key, report.count(ShutdownCoordinator.Outcome.LOST) == 0,
+                            report.count(ShutdownCoordinator.Outcome.LOST) == 0 ? null : "Process still running", outcome, ServiceView.of(service)));
+                } catch (RuntimeException e) {
+                    results.add(new BatchItem(key, false, String.valueOf(e.getMessage()), null, ServiceView.of(service)));
+                }
+            });
+        }
+        stream(response, results, requested.size(), begin);
+    }
+
+    private void batchStatus(HttpRequest request, HttpResponse response) throws Exception {
+        List<String> requested = requestedServices(request);
+        long begin = System.nanoTime();
+        Map<String, Service> index = index();
+        BlockingQueue<BatchItem> results = new LinkedBlockingQueue<>();
+        for (String key : requested) {
+            Service service = lookup(index, key);
+            results.add(service == null ? BatchItem.failed(key, "Unknown service '" + key + "'") : BatchItem.of(key, null, ServiceView.of(service)));
+        }
+        stream(response, results, requested.size(), begin);
+    }
+
+    private List<String> requestedServices(HttpRequest request) {
+        JSONArray services = request.bodyJson().optJSONArray("services");
+        if (services == null || services.length() == 0) {
+            throw new HttpException(400, "Body needs {\"services\": [<id or name>, ...]}");
+        }
+        Set<String> requested = new LinkedHashSet<>();
+        for (int i = 0; i < services.length(); i++) {
+            requested.add(String.valueOf(services.get(i)));
+        }
+        if (requested.size() > MAX_BATCH_ITEMS) {
+            throw new HttpException(400, "Batch of " + requested.size() + " services exceeds " + MAX_BATCH_ITEMS);
+        }
+        return List.copyOf(requested);
+    }
+
+    // Einmal indizieren statt je angefragtem Service alle Gruppen zu durchsuchen
+    private Map<String, Service> index() {
+        Map<String, Service> index = new HashMap<>();
+        for (IGroup group : groupManager.getGroups()) {
+            for (IService service : groupManager.getServices(group.getName())) {
+                index.put(service.getId().toString(), (Service) service);
+                index.put(service.getName().toLowerCase(Locale.ROOT), (Service) service);
+            }
+        }
+        return index;
+    }
+
+    private static Service lookup(Map<String, Service> index, String key) {
+        Service service = index.get(key);
+        return service != null ? service : index.get(key.toLowerCase(Locale.ROOT));
+    }
+
+    // NDJSON: jede Zeile geht raus, sobald keine weitere fertig ist; die letzte Zeile fasst zusammen
+    private static void stream(HttpResponse response, BlockingQueue<BatchItem> results, int expected, long begin) throws Exception {
+        Writer writer = response.stream(200, "application/x-ndjson");
+        int succeeded = 0;
+        int written = 0;
+        while (written < expected) {
+            BatchItem item = results.take();
+            do {
+                JsonSerializer.write(item, writer);
+                writer.write('\n');
+                written++;
+                if (item.ok()) {
+                    succeeded++;
+                }
+            } while (written < expected && (item = results.poll()) != null);
+            writer.flush();
+        }
+        JsonSerializer.write(new BatchSummary(true, expected, succeeded, expected - succeeded, (System.nanoTime() - begin) / 1_000_000L), writer);
+        writer.write('\n');
+        writer.close();
+    }
+
+    private IGroup group(HttpRequest request) {
+        return group(request.param("group"));
+    }
+
+    private IGroup group(String name) {
+        IGroup group = groupManager.getGroup(name);
+        if (group == null) {
+            throw new HttpException(404, "Unknown group '" + name + "'");
+        }
+        return group;
+    }
+
+    private Service service(HttpRequest request) {
+        String name = request.param("service");
+        Service service = groupManager.findService(name);
+        if (service == null) {
+            throw new HttpException(404, "Unknown service '" + name + "'");
+        }
+        return service;
+    }
+
+    private GroupView groupView(IGroup group) {
+        return new GroupView(group.getName(), group.getDescription(), String.valueOf(group.getType()), group.getMinimumMemory(),
+                group.getMaximumMemory(), group.getMaxPlayers(), group.hasStaticServices(),
+                group.getTemplate() != null ? group.getTemplate().name() : null, groupManager.getServices(group.getName()).size());
+    }
+
+    @Override
+    public synchronized void close() {
+        if (server != null) {
+            server.close();
+            server = null;
+        }
+    }
+
+    record ServiceView(String id, String name, String group, int number, int port, ServiceStatus status, Instant startedAt, String node) {
+
+        static ServiceView of(IService service) {
+            if (service instanceof RemoteService remote) {
+                // Vom Worker kommt nur die Erfolgsmeldung, der Status dort ist hier nicht bekannt
+                return new ServiceView(remote.getId().toString(), remote.getName(), remote.getGroup(), remote.getNumber(),
+                        remote.getPort(), ServiceStatus.STARTED, remote.getStartedAt(), remote.getWorker());
+            }
+            if (!(service instanceof Service local)) {
+                return null;
+            }
+            return new ServiceView(local.getId().toString(), local.getName(), local.getGroup(), local.getNumber(),
+                    local.getPort(), local.getStatus(), local.getStartedAt(), null);
+        }
+
+        static ServiceView of(JSONObject json) {
+            String startedAt = json.optString("startedAt", null);
+            return new ServiceView(json.getString("id"), json.getString("name"), json.getString("group"), json.optInt("number"),
+                    json.optInt("port"), ServiceStatus.valueOf(json.optString("status", ServiceStatus.STARTED.name())),
+                    startedAt != null ? Instant.parse(startedAt) : null, json.optString("node", null));
+        }
+    }
+
+    record BatchItem(String request, boolean ok, String error, String outcome, ServiceView service) {
+
+        static BatchItem of(String request, String outcome, ServiceView service) {
+            return new BatchItem(request, true, null, outcome, service);
+        }
+
+        static BatchItem failed(String request, String error) {
+            return new BatchItem(request, false, error, null, null);
+        }
+    }
+
+    record BatchSummary(boolean summary, int items, int succeeded, int failed, long durationMillis) {
+    }
+
+    record GroupView(String name, String description, String type, int minimumMemory, int maximumMemory, int maxPlayers,
+                     boolean staticServices, String template, int services) {
+
+        static GroupView of(JSONObject json, int services) {
+            return new GroupView(json.getString("name"), json.optString("description", null), json.optString("type", null),
+                    json.optInt("minimumMemory"), json.optInt("maximumMemory"), json.optInt("maxPlayers"), json.optBoolean("static", false),
+                    json.optString("template", null), services);
+        }
+    }
+
+    record EventsView(List<ServiceEvent> events, long next, boolean truncated, long epoch) {
+    }
+
+    record Cursor(long sequence, boolean reset) {
+    }
+
+    record TemplateView(String name, String path, List<String> groups) {
+    }
+
+    record StartView(String group, int requested, List<ServiceView> started, Map<String, String> failures, long durationMillis) {
+    }
+
+    record StopView(String service, int services, Map<ShutdownCoordinator.Outcome, Integer> outcomes, long durationMillis) {
+    }
+}
@@ -0,0 +1,125 @@
+package community.theprojects.fairy.node.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+public final class ConsoleBuffer {
+    private static final int INITIAL_CAPACITY = 16 * 1024;
+
+    private final int capacity;
+    private final List<Listener> listeners;
+    private byte[] buffer;
+    private long written;
+
+    public ConsoleBuffer(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        this.capacity = capacity;
+        this.listeners = new CopyOnWriteArrayList<>();
+        // Ruhige Services belegen nur den Anfangspuffer, erst gesprächige wachsen bis zur Obergrenze
+        this.buffer = new byte[Math.min(capacity, INITIAL_CAPACITY)];
+    }
+
+    public void write(byte[] data, int offset, int length) {
+        long end;
+        synchronized (this) {
+            append(data, offset, length);
+            end = written;
+        }
+        for (Listener listener : listeners) {
+            listener.onOutput(end, data, offset, length);
+        }
+    }
+
+    private void append(byte[] data, int offset, int length) {
+        if (buffer.length < capacity && written + length > buffer.length) {
+            // Wachsen nur vor dem ersten Umlauf, der Inhalt liegt dann noch linear im Array
+            byte[] grown = new byte[(int) Math.min(capacity, Math.max(buffer.length * 2L, written + length))];
+            System.arraycopy(buffer, 0, grown, 0, (int) written);
+            buffer = grown;
+        }
+        // Bei Überlauf bleiben nur die letzten capacity Bytes erhalten
+        if (length >= buffer.length) {
+            offset += length - buffer.length;
+            written += length - buffer.length;
+            length = buffer.length;
+        }
+        int start = (int) (written % buffer.length);
+        int first = Math.min(length, buffer.length - start);
+        System.arraycopy(data, offset, buffer, start, first);
+        System.arraycopy(data, offset + first, buffer, 0, length - first);
+        written += length;
+    }
+
+    // Gesamtzahl geschriebener Bytes, dient als Cursor für späteres Nachlesen
+    public synchronized long position() {
+        return written;
+    }
+
+    public synchronized byte[] readFrom(long position) {
+        long from = Math.max(position, Math.max(0, written - buffer.length));
+        int length = (int) Math.max(0, written - from);
+        byte[] result = new byte[length];
+        int start = (int) (from % buffer.length);
+        int first = Math.min(length, buffer.length - start);
+        System.arraycopy(buffer, start, result, 0, first);
+        System.arraycopy(buffer, 0, result, first, length - first);
+        return result;
+    }
+
+    public byte[] snapshot() {
+        return readFrom(0);
+    }
+
+    public boolean contains(String text) {
+        return new String(snapshot(), StandardCharsets.UTF_8).contains(text);
+    }
+
+    // Letzte Zeilen samt Position, ab der ein Listener neue Ausgaben übernehmen muss
+    public synchronized Replay tail(int lines) {
+        return new Replay(lastLines(lines), written);
+    }
+
+    public synchronized String lastLines(int lines) {
+        if (lines <= 0) {
+            return "";
+        }
+        byte[] data = snapshot();
+        int end = data.length;
+        if (end > 0 && data[end - 1] == '\n') {
+            end--;
+        }
+        int start = end;
+        int found = 0;
+        while (start > 0) {
+            if (data[start - 1] == '\n' && ++found == lines) {
+                break;
+            }
+            start--;
+        }
+        return new String(data, start, end - start, StandardCharsets.UTF_8);
+    }
+
+    public Runnable subscribe(Listener listener) {
+        listeners.add(listener);
+        return () -> listeners.remove(listener);
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public synchronized int allocated() {
+        return buffer.length;
+    }
+
+    public record Replay(String text, long position) {
+    }
+
+    @FunctionalInterface
+    public interface Listener {
+        void onOutput(long end, byte[] data, int offset, int length);
+    }
+}
@@ -0,0 +1,216 @@
+package community.theprojects.fairy.node.service;
+
+import community.theprojects.fairy.grouprunner.GroupRunnerClient;
+import community.theprojects.fairy.grouprunner.GroupRunnerDaemon;
+import community.theprojects.fairy.grouprunner.RunnerProtocol;
+import community.theprojects.fairy.grouprunner.RunnerStatus;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Ein Group-Runner-Prozess pro Gruppe, laufende Runner einer abgestürzten Node werden wiederverwendet
+public final class GroupRunners implements AutoCloseable {
+    private static final Path DIRECTORY = Path.of("storage", "runners");
+    private static final Duration CONNECT_TIMEOUT = Duration.ofMillis(Long.getLong("fairy.runner.connectTimeout", 10000L));
+    private static final Duration LAUNCH_TIMEOUT = Duration.ofMillis(Long.getLong("fairy.runner.launchTimeout", 10000L));
+    private static final Duration SHUTDOWN_TIMEOUT = Duration.ofMillis(Long.getLong("fairy.runner.shutdownTimeout", 30000L));
+    public static final long STARTUP_BUDGET = Long.getLong("fairy.runner.startupBudget", 1000L);
+    public static final long RSS_BUDGET = Long.getLong("fairy.runner.rssBudget", 64L) << 20;
+    private static final String SETSID = executable("setsid");
+    private final Map<String, GroupRunnerClient> clients;
+    private final Map<String, GroupRunnerClient.Hello> hellos;
+    private final Map<String, SidecarProcess> processes;
+    private final ReentrantLock connectLock;
+
+    public GroupRunners() {
+        this.clients = new ConcurrentHashMap<>();
+        this.hellos = new ConcurrentHashMap<>();
+        this.processes = new ConcurrentHashMap<>();
+        // Lock statt synchronized: Verbinden blockiert, Starts laufen auf virtuellen Threads
+        this.connectLock = new ReentrantLock();
+    }
+
+    public Process launch(Service service, List<String> command) throws IOException {
+        GroupRunnerClient client = client(service.getGroup());
+        RunnerStatus status;
+        try {
+            status = client.launch(service.getName(), service.getPath(), command).get(LAUNCH_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException | TimeoutException e) {
+            throw new IOException("Group runner did not launch " + service.getName(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while launching " + service.getName(), e);
+        }
+        if (status.state() == RunnerStatus.State.FAILED) {
+            throw new IOException("Group runner failed to launch " + service.getName() + ": " + status.message());
+        }
+        SidecarProcess process = new SidecarProcess(client, service.getName(), status.pid(), service.getPath().resolve(RunnerProtocol.CONSOLE_FILE));
+        processes.put(service.getName(), process);
+        if (status.state() == RunnerStatus.State.EXITED) {
+            process.exited(status.exitCode());
+        }
+        return process;
+    }
+
+    // Läuft der Service noch im Runner einer früheren Node-Instanz? Ohne Socket wird kein Runner gestartet
+    public boolean isLive(String group, String service) {
+        if (!clients.containsKey(group.toLowerCase(Locale.ROOT)) && !Files.exists(RunnerProtocol.socketPath(DIRECTORY, group))) {
+            return false;
+        }
+        try {
+            return client(group).getServices().containsKey(service);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    // Übernimmt einen laufenden Service, statt ihn neu bereitzustellen; null, wenn der Runner ihn nicht kennt
+    public Process adopt(Service service) throws IOException {
+        if (!isLive(service.getGroup(), service.getName())) {
+            return null;
+        }
+        GroupRunnerClient client = client(service.getGroup());
+        RunnerStatus status = client.getServices().get(service.getName());
+        if (status == null) {
+            return null;
+        }
+        SidecarProcess process = new SidecarProcess(client, service.getName(), status.pid(), service.getPath().resolve(RunnerProtocol.CONSOLE_FILE));
+        processes.put(service.getName(), process);
+        // Exit zwischen Abfrage und Registrierung
+        if (!client.getServices().containsKey(service.getName())) {
+            process.exited(-1);
+        }
+        return process;
+    }
+
+    public List<Stats> getStats() {
+        List<Stats> stats = new ArrayList<>();
+        clients.forEach((group, client) -> {
+            GroupRunnerClient.Hello hello = hellos.get(group);
+            stats.add(new Stats(group, client.isConnected(), hello != null ? hello.pid() : -1,
+                    hello != null ? hello.startupMillis() : -1, hello != null ? hello.rssBytes() : -1, client.getServices().size(),
+                    hello != null && withinBudget(hello.startupMillis(), hello.rssBytes())));
+        });
+        return stats;
+    }
+
+    private GroupRunnerClient client(String group) throws IOException {
+        String key = group.toLowerCase(Locale.ROOT);
+        GroupRunnerClient client = clients.get(key);
+        if (client != null && client.isConnected()) {
+            return client;
+        }
+        connectLock.lock();
+        try {
+            client = clients.get(key);
+            if (client != null && client.isConnected()) {
+                return client;
+            }
+            client = connectOrSpawn(group);
+            client.addListener(this::dispatch);
+            hellos.put(key, client.getHello(CONNECT_TIMEOUT));
+            clients.put(key, client);
+            return client;
+        } finally {
+            connectLock.unlock();
+        }
+    }
+
+    private GroupRunnerClient connectOrSpawn(String group) throws IOException {
+        Path socket = RunnerProtocol.socketPath(DIRECTORY, group);
+        // Ein Runner aus einer früheren Node-Instanz läuft eventuell noch und behält seine Services
+        if (Files.exists(socket)) {
+            try {
+                return GroupRunnerClient.connect(socket, Duration.ZERO);
+            } catch (IOException ignored) {
+            }
+        }
+        spawn(group, socket);
+        return GroupRunnerClient.connect(socket, CONNECT_TIMEOUT);
+    }
+
+    public static boolean withinBudget(long startupMillis, long rssBytes) {
+        return startupMillis >= 0 && startupMillis <= STARTUP_BUDGET && rssBytes <= RSS_BUDGET;
+    }
+
+    // Kleiner Heap, C1 und CDS-Archiv halten Startzeit und RSS des Runners niedrig. setsid löst den Runner aus
+    // Sitzung und Prozessgruppe der Node, sonst beendet Strg+C in der Konsole auch ihn und alle seine Server
+    public static List<String> command(String group, Path socket, Path archive) {
+        List<String> command = new ArrayList<>();
+        if (SETSID != null) {
+            command.add(SETSID);
+        }
+        command.addAll(List.of(ProcessHandle.current().info().command().orElse("java"),
+                "-Xms8m", "-Xmx32m", "-Xss256k", "-XX:+UseSerialGC", "-XX:TieredStopAtLevel=1",
+                "-XX:+AutoCreateSharedArchive", "-XX:SharedArchiveFile=" + archive));
+        // fairy.runner.* (z.B. consoleLimit) gelten auch im Runner
+        System.getProperties().stringPropertyNames().stream()
+                .filter(name -> name.startsWith("fairy.runner.") && !name.equals("fairy.runner.spawnedAt"))
+                .forEach(name -> command.add("-D" + name + "=" + System.getProperty(name)));
+        command.add("-Dfairy.runner.spawnedAt=" + System.currentTimeMillis());
+        command.addAll(List.of("-cp", System.getProperty("java.class.path"),
+                GroupRunnerDaemon.class.getName(), group, socket.toString()));
+        return command;
+    }
+
+    private static void spawn(String group, Path socket) throws IOException {
+        Files.createDirectories(DIRECTORY);
+        Path archive = Files.createDirectories(Path.of("storage", "cache", "archives"))
+                .resolve("group-runner-" + Runtime.version().feature() + ".jsa").toAbsolutePath();
+        new ProcessBuilder(command(group, socket, archive))
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.appendTo(DIRECTORY.resolve(group.toLowerCase(Locale.ROOT) + ".log").toFile()))
+                .start();
+    }
+
+    private static String executable(String name) {
+        String path = System.getenv("PATH");
+        if (path == null) {
+            return null;
+        }
+        for (String directory : path.split(File.pathSeparator)) {
+            Path candidate = Path.of(directory, name);
+            if (Files.isExecutable(candidate)) {
+                return candidate.toString();
+            }
+        }
+        return null;
+    }
+
+    private void dispatch(RunnerStatus status) {
+        if (status.state() == RunnerStatus.State.STARTED) {
+            return;
+        }
+        SidecarProcess process = processes.get(status.service());
+        if (process != null && process.pid() == status.pid()) {
+            process.exited(status.exitCode());
+            processes.remove(status.service(), process);
+        }
+    }
+
+    @Override
+    public void close() {
+        for (GroupRunnerClient client : clients.values()) {
+            try {
+                if (client.isConnected()) {
+                    client.shutdown(SHUTDOWN_TIMEOUT);
+                }
+                client.close();
+            } catch (IOException ignored) {
+            }
+        }
+        clients.clear();
+    }
+
+    public record Stats(String group, boolean connected, long pid, long startupMillis, long rssBytes, int services, boolean withinBudget) {
+    }
+}
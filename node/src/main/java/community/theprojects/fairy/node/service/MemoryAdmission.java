@@ -0,0 +1,205 @@
+package community.theprojects.fairy.node.service;
+
+import community.theprojects.fairy.api.exception.ServiceAdmissionException;
+import community.theprojects.fairy.api.group.IGroup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+public final class MemoryAdmission {
+    private static final long MB = 1024L * 1024L;
+    private static final Path MEMINFO = Path.of("/proc/meminfo");
+    private static final Path CGROUP_V2 = Path.of("/sys/fs/cgroup/memory.max");
+    private static final Path CGROUP_V1 = Path.of("/sys/fs/cgroup/memory/memory.limit_in_bytes");
+
+    private final long capacity;
+    private final double overhead;
+    private final boolean queueing;
+    private final long queueTimeoutNanos;
+    private final long starvationNanos;
+    private final Map<Service, Long> reservations;
+    private final List<Waiter> waiting;
+    private final LongAdder admitted = new LongAdder();
+    private final LongAdder queued = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private long reserved;
+
+    public MemoryAdmission(long capacity, double overhead, boolean queueing, Duration queueTimeout, Duration starvation) {
+        this.capacity = capacity;
+        this.overhead = overhead;
+        this.queueing = queueing;
+        this.queueTimeoutNanos = queueTimeout.toNanos();
+        this.starvationNanos = starvation.toNanos();
+        this.reservations = new HashMap<>();
+        this.waiting = new ArrayList<>();
+    }
+
+    public static MemoryAdmission fromHost() {
+        long configured = Long.getLong("fairy.memory.capacity", 0L) * MB;
+        // Eigener Heap und eine feste Reserve bleiben für Node und Betriebssystem frei
+        long capacity = configured > 0 ? configured
+                : Math.max(0, detectHostLimit() - Runtime.getRuntime().maxMemory() - Long.getLong("fairy.memory.reserve", 512L) * MB);
+        return new MemoryAdmission(capacity,
+                Double.parseDouble(System.getProperty("fairy.memory.overhead", "1.15")),
+                !"reject".equalsIgnoreCase(System.getProperty("fairy.memory.admission", "queue")),
+                Duration.ofSeconds(Long.getLong("fairy.memory.queueTimeout", 60L)),
+                Duration.ofSeconds(Long.getLong("fairy.memory.starvation", 30L)));
+    }
+
+    // Kleinster Wert aus physischem Speicher und cgroup-Limit (v2, sonst v1)
+    public static long detectHostLimit() {
+        long total = ProcessStats.readKilobytes(MEMINFO, "MemTotal:") * 1024L;
+        if (total <= 0) {
+            total = Runtime.getRuntime().maxMemory() * 4;
+        }
+        long cgroup = readLimit(CGROUP_V2);
+        if (cgroup <= 0) {
+            cgroup = readLimit(CGROUP_V1);
+        }
+        return cgroup > 0 ? Math.min(total, cgroup) : total;
+    }
+
+    private static long readLimit(Path file) {
+        try {
+            String value = Files.readString(file).trim();
+            if (value.equals("max")) {
+                return 0L;
+            }
+            long limit = Long.parseLong(value);
+            // cgroup v1 meldet "unbegrenzt" als riesigen Wert
+            return limit >= Long.MAX_VALUE / 2 ? 0L : limit;
+        } catch (IOException | NumberFormatException e) {
+            return 0L;
+        }
+    }
+
+    public long requiredBytes(IGroup group) {
+        return (long) (group.getMaximumMemory() * MB * overhead);
+    }
+
+    public void acquire(Service service) throws InterruptedException {
+        long need = requiredBytes(service.getGroupInfo());
+        synchronized (this) {
+            if (reservations.containsKey(service)) {
+                return;
+            }
+            if (need > capacity) {
+                rejected.increment();
+                throw new ServiceAdmissionException(service.getName() + " needs " + need / MB + " MB, node capacity is " + capacity / MB + " MB");
+            }
+            // Neue Anfragen dürfen an der Warteschlange vorbei, solange dort niemand zu lange wartet
+            if (reserved + need <= capacity && !hasStarvingWaiter(System.nanoTime())) {
+                reserve(service, need);
+                return;
+            }
+            if (!queueing) {
+                rejected.increment();
+                throw new ServiceAdmissionException("Not enough memory for " + service.getName() + ": " + headroomText());
+            }
+            Waiter waiter = new Waiter(service, need, System.nanoTime());
+            waiting.add(waiter);
+            queued.increment();
+            try {
+                long deadline = waiter.since + queueTimeoutNanos;
+                while (!waiter.granted) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        waiting.remove(waiter);
+                        rejected.increment();
+                        throw new ServiceAdmissionException("Timed out waiting for memory for " + service.getName() + ": " + headroomText());
+                    }
+                    TimeUnit.NANOSECONDS.timedWait(this, remaining);
+                }
+            } catch (InterruptedException e) {
+                if (!waiter.granted) {
+                    waiting.remove(waiter);
+                }
+                throw e;
+            }
+        }
+    }
+
+    public synchronized void release(Service service) {
+        Long bytes = reservations.remove(service);
+        if (bytes != null) {
+            reserved -= bytes;
+            grantWaiters();
+        }
+    }
+
+    public synchronized Headroom headroom() {
+        long available = ProcessStats.readKilobytes(MEMINFO, "MemAvailable:") * 1024L;
+        return new Headroom(capacity, reserved, capacity - reserved, available, waiting.size(),
+                admitted.sum(), queued.sum(), rejected.sum());
+    }
+
+    private void reserve(Service service, long bytes) {
+        reservations.put(service, bytes);
+        reserved += bytes;
+        admitted.increment();
+    }
+
+    private void grantWaiters() {
+        long now = System.nanoTime();
+        while (!waiting.isEmpty()) {
+            long free = capacity - reserved;
+            Waiter candidate = null;
+            // Zu lange Wartende haben Vorrang, damit große Services nicht verhungern
+            Waiter oldest = waiting.getFirst();
+            if (now - oldest.since > starvationNanos) {
+                if (oldest.need > free) {
+                    break;
+                }
+                candidate = oldest;
+            } else {
+                // Best-Fit: die größte Anfrage, die noch in den freien Speicher passt
+                for (Waiter waiter : waiting) {
+                    if (waiter.need <= free && (candidate == null || waiter.need > candidate.need)) {
+                        candidate = waiter;
+                    }
+                }
+            }
+            if (candidate == null) {
+                break;
+            }
+            waiting.remove(candidate);
+            reserve(candidate.service, candidate.need);
+            candidate.granted = true;
+        }
+        notifyAll();
+    }
+
+    private boolean hasStarvingWaiter(long now) {
+        return !waiting.isEmpty() && now - waiting.getFirst().since > starvationNanos;
+    }
+
+    private String headroomText() {
+        return String.format("%d MB of %d MB reserved, %d waiting", reserved / MB, capacity / MB, waiting.size());
+    }
+
+    public record Headroom(long capacity, long reserved, long free, long hostAvailable, int waiting,
+                           long admitted, long queued, long rejected) {
+
+        public double utilization() {
+            return capacity == 0 ? 0.0 : (double) reserved / capacity;
+        }
+    }
+
+    private static final class Waiter {
+        private final Service service;
+        private final long need;
+        private final long since;
+        private boolean granted;
+
+        private Waiter(Service service, long need, long since) {
+            this.service = service;
+            this.need = need;
+            this.since = since;
+        }
+    }
+}
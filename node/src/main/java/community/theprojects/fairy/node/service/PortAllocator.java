@@ -0,0 +1,50 @@
+package community.theprojects.fairy.node.service;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+public final class PortAllocator {
+    private final int firstPort;
+    private final int lastPort;
+    private final Set<Integer> reserved;
+
+    public PortAllocator(int firstPort, int lastPort) {
+        this.firstPort = firstPort;
+        this.lastPort = lastPort;
+        this.reserved = ConcurrentHashMap.newKeySet();
+    }
+
+    public int allocate() {
+        for (int port = firstPort; port <= lastPort; port++) {
+            if (reserved.add(port)) {
+                if (isFree(port)) {
+                    return port;
+                }
+                reserved.remove(port);
+            }
+        }
+        throw new IllegalStateException("No free port between " + firstPort + " and " + lastPort);
+    }
+
+    // Port eines übernommenen Services, der bereits belegt ist und deshalb nicht auf Verfügbarkeit geprüft wird
+    public boolean reserve(int port) {
+        return port >= firstPort && port <= lastPort && reserved.add(port);
+    }
+
+    public void release(int port) {
+        reserved.remove(port);
+    }
+
+    private static boolean isFree(int port) {
+        try (ServerSocket socket = new ServerSocket()) {
+            socket.setReuseAddress(false);
+            socket.bind(new InetSocketAddress(port));
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+}
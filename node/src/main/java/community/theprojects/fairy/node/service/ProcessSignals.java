@@ -0,0 +1,42 @@
+package community.theprojects.fairy.node.service;
+
+import java.io.File;
+import java.io.IOException;
+
+public final class ProcessSignals {
+
+    private ProcessSignals() {
+    }
+
+    public static boolean isSupported() {
+        return File.separatorChar == '/';
+    }
+
+    public static void pause(Process process) throws IOException {
+        signal(process, "STOP");
+    }
+
+    public static void resume(Process process) throws IOException {
+        signal(process, "CONT");
+    }
+
+    // Java kann keine beliebigen Signale senden, daher über kill(1)
+    private static void signal(Process process, String signal) throws IOException {
+        if (!isSupported()) {
+            throw new UnsupportedOperationException("Process signals are not supported on this platform");
+        }
+        try {
+            int exit = new ProcessBuilder("kill", "-" + signal, String.valueOf(process.pid()))
+                    .redirectErrorStream(true)
+                    .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                    .start()
+                    .waitFor();
+            if (exit != 0) {
+                throw new IOException("kill -" + signal + " " + process.pid() + " exited with code " + exit);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while signalling " + process.pid(), e);
+        }
+    }
+}
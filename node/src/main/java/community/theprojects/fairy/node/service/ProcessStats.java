@@ -0,0 +1,32 @@
+package community.theprojects.fairy.node.service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+public final class ProcessStats {
+
+    private ProcessStats() {
+    }
+
+    // Resident Set Size aus /proc, auf anderen Systemen 0
+    public static long rssBytes(long pid) {
+        return readKilobytes(Path.of("/proc", String.valueOf(pid), "status"), "VmRSS:") * 1024L;
+    }
+
+    static long readKilobytes(Path file, String key) {
+        try {
+            List<String> lines = Files.readAllLines(file);
+            for (String line : lines) {
+                if (line.startsWith(key)) {
+                    String value = line.substring(key.length()).trim();
+                    int space = value.indexOf(' ');
+                    return Long.parseLong(space < 0 ? value : value.substring(0, space));
+                }
+            }
+        } catch (IOException | NumberFormatException ignored) {
+        }
+        return 0L;
+    }
+}
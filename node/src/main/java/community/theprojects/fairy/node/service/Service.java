@@ -0,0 +1,137 @@
+package community.theprojects.fairy.node.service;
+
+import community.theprojects.fairy.api.group.IGroup;
+import community.theprojects.fairy.api.service.IService;
+import community.theprojects.fairy.api.service.ServiceStatus;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public final class Service implements IService {
+    private static final int CONSOLE_BUFFER = Integer.getInteger("fairy.service.consoleBuffer", 256 * 1024);
+
+    private final UUID id;
+    private final String name;
+    private final String description;
+    private final IGroup group;
+    private final int number;
+    private final Path path;
+    private final int port;
+    private final ConsoleBuffer console;
+    private final AtomicBoolean released;
+    private volatile Process process;
+    private volatile ServiceStatus status;
+    private volatile Instant startedAt;
+    private volatile boolean provisioned;
+    private volatile StatusListener onStatusChange;
+
+    public Service(IGroup group, int number, Path path, int port) {
+        this.id = UUID.randomUUID();
+        this.name = group.getName() + "-" + number;
+        this.description = group.getDescription();
+        this.group = group;
+        this.number = number;
+        this.path = path;
+        this.port = port;
+        this.console = new ConsoleBuffer(CONSOLE_BUFFER);
+        this.released = new AtomicBoolean(false);
+        this.status = ServiceStatus.STOPPED;
+    }
+
+    @Override
+    public UUID getId() {
+        return this.id;
+    }
+
+    @Override
+    public String getName() {
+        return this.name;
+    }
+
+    @Override
+    public String getDescription() {
+        return this.description;
+    }
+
+    @Override
+    public String getGroup() {
+        return this.group.getName();
+    }
+
+    @Override
+    public Process getProcess() {
+        return this.process;
+    }
+
+    public IGroup getGroupInfo() {
+        return this.group;
+    }
+
+    public int getNumber() {
+        return this.number;
+    }
+
+    public Path getPath() {
+        return this.path;
+    }
+
+    public int getPort() {
+        return this.port;
+    }
+
+    public ConsoleBuffer getConsole() {
+        return this.console;
+    }
+
+    // Nummer und Port dürfen nur einmal freigegeben werden, auch wenn mehrere Stellen aufräumen
+    public boolean markReleased() {
+        return this.released.compareAndSet(false, true);
+    }
+
+    public ServiceStatus getStatus() {
+        return this.status;
+    }
+
+    public Instant getStartedAt() {
+        return this.startedAt;
+    }
+
+    public boolean isProvisioned() {
+        return this.provisioned;
+    }
+
+    public void setProvisioned(boolean provisioned) {
+        this.provisioned = provisioned;
+    }
+
+    public void setProcess(Process process) {
+        this.process = process;
+        this.startedAt = process != null ? Instant.now() : null;
+    }
+
+    // Wird nur bei einer tatsächlichen Änderung aufgerufen
+    public void setOnStatusChange(StatusListener onStatusChange) {
+        this.onStatusChange = onStatusChange;
+    }
+
+    public void setStatus(ServiceStatus status) {
+        ServiceStatus previous = this.status;
+        this.status = status;
+        StatusListener listener = this.onStatusChange;
+        if (listener != null && previous != status) {
+            listener.changed(this, previous, status);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "Service{name=" + name + ", id=" + id + ", port=" + port + ", status=" + status + '}';
+    }
+
+    @FunctionalInterface
+    public interface StatusListener {
+        void changed(Service service, ServiceStatus from, ServiceStatus to);
+    }
+}
@@ -0,0 +1,8 @@
+package community.theprojects.fairy.node.service;
+
+import community.theprojects.fairy.api.service.ServiceStatus;
+
+import java.time.Instant;
+
+public record ServiceEvent(long sequence, String service, String id, String group, ServiceStatus from, ServiceStatus to, Instant time) {
+}
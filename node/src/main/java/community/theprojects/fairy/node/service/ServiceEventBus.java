@@ -0,0 +1,108 @@
+package community.theprojects.fairy.node.service;
+
+import community.theprojects.fairy.api.service.ServiceStatus;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+
+// Statusübergänge in einem Ringpuffer mit fortlaufenden Sequenznummern; Leser merken sich nur die letzte Nummer
+// und die Epoch. Die Sequenz beginnt bei jedem Start der Node neu, erst die Epoch macht eine Nummer eindeutig
+public final class ServiceEventBus {
+    private final ServiceEvent[] ring;
+    private final long epoch;
+    private final ReentrantLock lock;
+    private final Condition published;
+    private long sequence;
+
+    public ServiceEventBus(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        this.ring = new ServiceEvent[capacity];
+        this.epoch = System.currentTimeMillis();
+        // Lock statt synchronized: wartende virtuelle Threads blockieren so keinen Carrier
+        this.lock = new ReentrantLock();
+        this.published = lock.newCondition();
+    }
+
+    public static ServiceEventBus withDefaultCapacity() {
+        return new ServiceEventBus(Integer.getInteger("fairy.events.capacity", 4096));
+    }
+
+    public ServiceEvent publish(Service service, ServiceStatus from, ServiceStatus to) {
+        lock.lock();
+        try {
+            ServiceEvent event = new ServiceEvent(++sequence, service.getName(), service.getId().toString(), service.getGroup(), from, to, Instant.now());
+            ring[(int) (event.sequence() % ring.length)] = event;
+            published.signalAll();
+            return event;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getEpoch() {
+        return epoch;
+    }
+
+    public long getSequence() {
+        lock.lock();
+        try {
+            return sequence;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Batch read(long after, int limit, Predicate<ServiceEvent> filter) {
+        lock.lock();
+        try {
+            return collect(after, limit, filter);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Wartet höchstens timeout auf Ereignisse nach after; bei Ablauf kommt ein leerer Batch zurück
+    public Batch await(long after, int limit, Predicate<ServiceEvent> filter, Duration timeout) throws InterruptedException {
+        long remaining = timeout.toNanos();
+        lock.lock();
+        try {
+            while (true) {
+                Batch batch = collect(after, limit, filter);
+                if (!batch.events().isEmpty() || batch.truncated() || remaining <= 0) {
+                    return batch;
+                }
+                // Gefilterte Ereignisse zählen als gelesen, damit nicht erneut über sie iteriert wird
+                after = batch.next();
+                remaining = published.awaitNanos(remaining);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Batch collect(long after, int limit, Predicate<ServiceEvent> filter) {
+        // Ein Cursor aus der Zukunft stammt aus einer früheren Laufzeit der Node, dann von vorn beginnen
+        long oldest = Math.max(1, sequence - ring.length + 1);
+        boolean truncated = after > sequence || after + 1 < oldest;
+        long cursor = truncated ? oldest - 1 : after;
+        List<ServiceEvent> events = new ArrayList<>(Math.min(limit, (int) Math.min(ring.length, sequence - cursor)));
+        while (cursor < sequence && events.size() < limit) {
+            ServiceEvent event = ring[(int) (++cursor % ring.length)];
+            if (filter == null || filter.test(event)) {
+                events.add(event);
+            }
+        }
+        return new Batch(events, cursor, truncated);
+    }
+
+    public record Batch(List<ServiceEvent> events, long next, boolean truncated) {
+    }
+}
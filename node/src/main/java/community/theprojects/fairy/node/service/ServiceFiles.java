@@ -0,0 +1,52 @@
+package community.theprojects.fairy.node.service;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Properties;
+
+public final class ServiceFiles {
+
+    private ServiceFiles() {
+    }
+
+    // Port aus der beim Konfigurieren geschriebenen fairy-service.properties, -1 wenn nicht vorhanden
+    public static int configuredPort(Path directory) {
+        Path file = directory.resolve("fairy-service.properties");
+        if (!Files.isRegularFile(file)) {
+            return -1;
+        }
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+            return Integer.parseInt(properties.getProperty("port", "-1").trim());
+        } catch (IOException | NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    // Hardlinks werden dabei nur entfernt, die Template-Dateien bleiben erhalten
+    public static void deleteDirectory(Path directory) throws IOException {
+        if (!Files.exists(directory, LinkOption.NOFOLLOW_LINKS)) {
+            return;
+        }
+        Files.walkFileTree(directory, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                Files.delete(file);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult postVisitDirectory(Path dir, IOException exc) throws IOException {
+                if (exc != null) {
+                    throw exc;
+                }
+                Files.delete(dir);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+}
@@ -0,0 +1,66 @@
+package community.theprojects.fairy.node.service;
+
+import community.theprojects.fairy.api.INode;
+import community.theprojects.fairy.node.FairyNode;
+import community.theprojects.fairy.node.config.NodeConfig;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public record ServiceSettings(int parallelStarts, boolean failFast, int firstPort, int lastPort,
+                              String runningDirectory, String staticDirectory, String jar,
+                              boolean hardlinks, List<String> linkPatterns, Map<String, StandbySettings> standby,
+                              Map<String, Object> runtimes, Map<String, Object> profiles, boolean sidecar) {
+
+    public static ServiceSettings defaults() {
+        return new ServiceSettings(Math.max(2, Runtime.getRuntime().availableProcessors()), false, 30000, 30999,
+                "running", "static", "server.jar", true, List.of(), Map.of(),
+                Map.of(), Map.of(), false);
+    }
+
+    public static ServiceSettings resolve() {
+        ServiceSettings settings = defaults();
+        INode node = FairyNode.getInstance();
+        if (node != null && node.getConfig() instanceof NodeConfig nodeConfig) {
+            settings = settings.override(nodeConfig.getServices());
+        }
+        return settings;
+    }
+
+    // Werte aus der Node-Konfiguration haben Vorrang vor den Standardwerten
+    public ServiceSettings override(Map<String, Object> values) {
+        if (values == null || values.isEmpty()) {
+            return this;
+        }
+        return new ServiceSettings(
+                intValue(values.get("parallelStarts"), parallelStarts),
+                values.containsKey("failFast") ? Boolean.parseBoolean(String.valueOf(values.get("failFast"))) : failFast,
+                intValue(values.get("firstPort"), firstPort),
+                intValue(values.get("lastPort"), lastPort),
+                values.containsKey("runningDirectory") ? String.valueOf(values.get("runningDirectory")) : runningDirectory,
+                values.containsKey("staticDirectory") ? String.valueOf(values.get("staticDirectory")) : staticDirectory,
+                values.containsKey("jar") ? String.valueOf(values.get("jar")) : jar,
+                values.containsKey("hardlinks") ? Boolean.parseBoolean(String.valueOf(values.get("hardlinks"))) : hardlinks,
+                values.get("linkPatterns") instanceof Collection<?> patterns ? patterns.stream().map(String::valueOf).toList() : linkPatterns,
+                values.containsKey("standby") ? StandbySettings.parse(values.get("standby")) : standby,
+                values.get("runtimes") instanceof Map<?, ?> map ? stringKeys(map) : runtimes,
+                values.get("profiles") instanceof Map<?, ?> map ? stringKeys(map) : profiles,
+                values.containsKey("sidecar") ? Boolean.parseBoolean(String.valueOf(values.get("sidecar"))) : sidecar
+        );
+    }
+
+    private static Map<String, Object> stringKeys(Map<?, ?> map) {
+        Map<String, Object> result = new HashMap<>();
+        map.forEach((key, value) -> result.put(String.valueOf(key), value));
+        return result;
+    }
+
+    static int intValue(Object value, int fallback) {
+        if (value instanceof Number number) {
+            return number.intValue();
+        }
+        return value != null ? Integer.parseInt(value.toString()) : fallback;
+    }
+}
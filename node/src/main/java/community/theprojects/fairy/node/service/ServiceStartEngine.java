@@ -0,0 +1,359 @@
+package community.theprojects.fairy.node.service;
+
+import community.theprojects.fairy.api.group.IGroup;
+import community.theprojects.fairy.api.group.ServerType;
+import community.theprojects.fairy.api.service.IService;
+import community.theprojects.fairy.api.service.ServiceStatus;
+import community.theprojects.fairy.grouprunner.ArchiveCache;
+import community.theprojects.fairy.grouprunner.FairyGroupRunner;
+import community.theprojects.fairy.grouprunner.JavaRuntimes;
+import community.theprojects.fairy.grouprunner.LaunchProfile;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+
+public final class ServiceStartEngine implements AutoCloseable {
+    private static final List<String> READY_MARKERS = List.of("Done (", "Listening on");
+    private final ServiceSettings settings;
+    private final ExecutorService executor;
+    private final Semaphore permits;
+    private final Map<Stage, StageMetrics> metrics;
+    private final TemplateProvisioner provisioner;
+    private final ServiceSupervisor supervisor;
+    private final MemoryAdmission admission;
+    private final JavaRuntimes runtimes;
+    private final ArchiveCache archiveCache;
+    private final Map<String, FairyGroupRunner> runners;
+    private final GroupRunners sidecars;
+    private final AtomicInteger pending;
+
+    public ServiceStartEngine(ServiceSettings settings, MemoryAdmission admission) {
+        this.settings = settings;
+        this.admission = admission;
+        this.executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("fairy-service-start-", 0).factory());
+        // Begrenzt gleichzeitige Starts, damit Kopieren und JVM-Starts die Platte/CPU nicht überlasten
+        this.permits = new Semaphore(Math.max(1, settings.parallelStarts()));
+        this.provisioner = new TemplateProvisioner(settings.hardlinks(), settings.linkPatterns());
+        this.supervisor = new ServiceSupervisor();
+        this.supervisor.setRestarter(this::launch);
+        this.runtimes = new JavaRuntimes(settings.runtimes());
+        this.archiveCache = new ArchiveCache(Path.of("storage", "cache"));
+        this.runners = new ConcurrentHashMap<>();
+        this.sidecars = settings.sidecar() ? new GroupRunners() : null;
+        this.pending = new AtomicInteger();
+        this.metrics = new EnumMap<>(Stage.class);
+        for (Stage stage : Stage.values()) {
+            metrics.put(stage, new StageMetrics());
+        }
+    }
+
+    public StartReport start(IGroup group, List<Service> services) {
+        return start(group, services, null);
+    }
+
+    // onComplete wird je Service direkt nach dessen Start oder Fehlschlag aufgerufen, noch vor dem Gesamtbericht
+    public StartReport start(IGroup group, List<Service> services, BiConsumer<Service, Throwable> onComplete) {
+        long startedAt = System.nanoTime();
+        AtomicBoolean aborted = new AtomicBoolean(false);
+        Map<Service, Future<Service>> futures = new LinkedHashMap<>();
+        pending.addAndGet(services.size());
+        for (Service service : services) {
+            futures.put(service, executor.submit(() -> {
+                Throwable failure = null;
+                try {
+                    return run(service, aborted);
+                } catch (Exception e) {
+                    failure = e;
+                    throw e;
+                } finally {
+                    pending.decrementAndGet();
+                    if (onComplete != null) {
+                        try {
+                            onComplete.accept(service, failure);
+                        } catch (RuntimeException ignored) {
+                        }
+                    }
+                }
+            }));
+        }
+
+        List<IService> started = new ArrayList<>();
+        Map<String, Throwable> failures = new LinkedHashMap<>();
+        for (Map.Entry<Service, Future<Service>> entry : futures.entrySet()) {
+            try {
+                started.add(entry.getValue().get());
+            } catch (ExecutionException e) {
+                if (!(e.getCause() instanceof CancellationException)) {
+                    failures.put(entry.getKey().getName(), e.getCause());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                aborted.set(true);
+                failures.put(entry.getKey().getName(), e);
+            }
+        }
+        return new StartReport(group.getName(), services.size(), List.copyOf(started), failures, Duration.ofNanos(System.nanoTime() - startedAt));
+    }
+
+    public ServiceSupervisor getSupervisor() {
+        return supervisor;
+    }
+
+    public GroupRunners getSidecars() {
+        return sidecars;
+    }
+
+    // Angenommene, aber noch nicht abgeschlossene Starts inklusive der auf Speicher wartenden
+    public int getPendingStarts() {
+        return pending.get();
+    }
+
+    public Map<Stage, StageMetrics> getMetrics() {
+        return Collections.unmodifiableMap(metrics);
+    }
+
+    private Service run(Service service, AtomicBoolean aborted) throws Exception {
+        // Speicher vor dem Start-Permit reservieren, wartende Starts blockieren so keine passenden
+        try {
+            admission.acquire(service);
+        } catch (RuntimeException e) {
+            service.setStatus(ServiceStatus.STOPPED);
+            throw e;
+        }
+        permits.acquire();
+        try {
+            service.setStatus(ServiceStatus.STARTING);
+            // Läuft der Service nach einem Neustart der Node noch im Group-Runner, wird er ohne Bereitstellung übernommen
+            if (!service.isProvisioned() && sidecars != null) {
+                Process adopted = sidecars.adopt(service);
+                if (adopted != null) {
+                    service.setProcess(adopted);
+                    supervisor.watch(service, adopted);
+                    service.setProvisioned(true);
+                    service.setStatus(ServiceStatus.STARTED);
+                    return service;
+                }
+            }
+            // Services aus dem Standby-Pool sind bereits bereitgestellt und laufen eventuell schon pausiert
+            if (!service.isProvisioned()) {
+                stage(Stage.PREPARE, service, aborted, () -> prepare(service));
+                stage(Stage.CONFIGURE, service, aborted, () -> configure(service));
+                service.setProvisioned(true);
+            }
+            Process standby = service.getProcess();
+            if (standby != null && standby.isAlive()) {
+                stage(Stage.LAUNCH, service, aborted, () -> ProcessSignals.resume(standby));
+            } else {
+                stage(Stage.LAUNCH, service, aborted, () -> launch(service));
+            }
+            service.setStatus(ServiceStatus.STARTED);
+            return service;
+        } catch (Exception e) {
+            // Fail-fast: noch nicht gestartete Services werden übersprungen, laufende bleiben bestehen
+            if (settings.failFast() && !(e instanceof CancellationException)) {
+                aborted.set(true);
+            }
+            discard(service);
+            throw e;
+        } finally {
+            permits.release();
+        }
+    }
+
+    public CompletableFuture<Service> provision(Service service, boolean preBoot, Duration bootTimeout) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return provisionStandby(service, preBoot, bootTimeout);
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        }, executor);
+    }
+
+    public void discard(Service service) {
+        // STOPPING vorher setzen, damit der Supervisor das Beenden nicht als Absturz wertet
+        service.setStatus(ServiceStatus.STOPPING);
+        Process process = service.getProcess();
+        if (process != null) {
+            try {
+                // Pausierte Prozesse reagieren erst nach SIGCONT auf das Beenden
+                if (process.isAlive() && ProcessSignals.isSupported()) {
+                    ProcessSignals.resume(process);
+                }
+            } catch (IOException ignored) {
+            }
+            process.destroyForcibly();
+            service.setProcess(null);
+        }
+        service.setProvisioned(false);
+        service.setStatus(ServiceStatus.STOPPED);
+    }
+
+    private Service provisionStandby(Service service, boolean preBoot, Duration bootTimeout) throws Exception {
+        AtomicBoolean aborted = new AtomicBoolean(false);
+        try {
+            // Vorgebootete Standby-Services belegen bereits Speicher
+            if (preBoot && ProcessSignals.isSupported()) {
+                admission.acquire(service);
+            }
+            permits.acquire();
+            try {
+                stage(Stage.PREPARE, service, aborted, () -> prepare(service));
+                stage(Stage.CONFIGURE, service, aborted, () -> configure(service));
+                service.setProvisioned(true);
+                if (preBoot && ProcessSignals.isSupported()) {
+                    stage(Stage.LAUNCH, service, aborted, () -> launch(service));
+                }
+            } finally {
+                permits.release();
+            }
+            // Auf den fertigen Boot ohne Permit warten, damit reguläre Starts nicht blockiert werden
+            if (service.getProcess() != null) {
+                stage(Stage.BOOT, service, aborted, () -> awaitReady(service, bootTimeout));
+                ProcessSignals.pause(service.getProcess());
+            }
+            service.setStatus(ServiceStatus.STANDBY);
+            return service;
+        } catch (Exception e) {
+            discard(service);
+            throw e;
+        }
+    }
+
+    private void awaitReady(Service service, Duration timeout) throws IOException, InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (System.nanoTime() - deadline < 0) {
+            Process process = service.getProcess();
+            if (process == null || !process.isAlive()) {
+                throw new IOException("Process of " + service.getName() + " exited during pre-boot");
+            }
+            String output = new String(service.getConsole().snapshot(), StandardCharsets.UTF_8);
+            for (String marker : READY_MARKERS) {
+                if (output.contains(marker)) {
+                    return;
+                }
+            }
+            Thread.sleep(250);
+        }
+    }
+
+    private void stage(Stage stage, Service service, AtomicBoolean aborted, StageAction action) throws Exception {
+        if (aborted.get()) {
+            throw new CancellationException("Start of " + service.getName() + " aborted");
+        }
+        long begin = System.nanoTime();
+        boolean success = false;
+        try {
+            action.run();
+            success = true;
+        } finally {
+            metrics.get(stage).record(System.nanoTime() - begin, success);
+        }
+    }
+
+    private void prepare(Service service) throws IOException {
+        Path target = service.getPath();
+        IGroup group = service.getGroupInfo();
+        Files.createDirectories(target);
+        // Bestehende Verzeichnisse (statische Services) werden anhand des Manifests nur inkrementell aktualisiert
+        if (group.getTemplate() != null) {
+            provisioner.provision(Path.of(group.getTemplate().path()), target);
+        }
+    }
+
+    private void configure(Service service) throws IOException {
+        Path path = service.getPath();
+        Properties properties = new Properties();
+        properties.setProperty("id", service.getId().toString());
+        properties.setProperty("name", service.getName());
+        properties.setProperty("group", service.getGroup());
+        properties.setProperty("port", String.valueOf(service.getPort()));
+        try (var writer = Files.newBufferedWriter(path.resolve("fairy-service.properties"), StandardCharsets.UTF_8)) {
+            properties.store(writer, null);
+        }
+        if (service.getGroupInfo().getType() instanceof ServerType) {
+            writeServerPort(path.resolve("server.properties"), service.getPort());
+        }
+    }
+
+    public FairyGroupRunner getRunner(IGroup group) {
+        // Profil pro Gruppe, Gruppen ohne eigenes Profil nutzen "default"
+        return runners.compute(group.getName().toLowerCase(), (key, runner) -> {
+            if (runner != null && runner.getGroup() == group) {
+                return runner;
+            }
+            LaunchProfile profile = LaunchProfile.defaults()
+                    .override(settings.profiles().get("default") instanceof Map<?, ?> values ? values : null)
+                    .override(settings.profiles().get(group.getName()) instanceof Map<?, ?> values ? values : null);
+            return new FairyGroupRunner(group, profile, runtimes, archiveCache);
+        });
+    }
+
+    private void launch(Service service) throws IOException {
+        Path path = service.getPath();
+        FairyGroupRunner.Command command = getRunner(service.getGroupInfo()).buildCommand(path, settings.jar());
+        Process process;
+        try {
+            // Im Sidecar-Betrieb gehören die Prozesse dem Group-Runner und überleben einen Absturz der Node
+            process = sidecars != null
+                    ? sidecars.launch(service, command.arguments())
+                    : new ProcessBuilder(command.arguments())
+                            .directory(path.toFile())
+                            .redirectErrorStream(true)
+                            .start();
+        } catch (IOException | RuntimeException e) {
+            command.failed();
+            throw e;
+        }
+        command.started(process);
+        service.setProcess(process);
+        supervisor.watch(service, process);
+        if (!process.isAlive()) {
+            throw new IOException("Process of " + service.getName() + " exited immediately with code " + process.exitValue());
+        }
+    }
+
+    private static void writeServerPort(Path file, int port) throws IOException {
+        List<String> lines = Files.exists(file) ? new ArrayList<>(Files.readAllLines(file, StandardCharsets.UTF_8)) : new ArrayList<>();
+        boolean replaced = false;
+        for (int i = 0; i < lines.size(); i++) {
+            if (lines.get(i).startsWith("server-port=")) {
+                lines.set(i, "server-port=" + port);
+                replaced = true;
+            }
+        }
+        if (!replaced) {
+            lines.add("server-port=" + port);
+        }
+        Files.write(file, lines, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void close() {
+        supervisor.close();
+        executor.shutdownNow();
+        if (sidecars != null) {
+            sidecars.close();
+        }
+    }
+
+    public enum Stage {
+        PREPARE,
+        CONFIGURE,
+        LAUNCH,
+        BOOT
+    }
+
+    @FunctionalInterface
+    private interface StageAction {
+        void run() throws Exception;
+    }
+}
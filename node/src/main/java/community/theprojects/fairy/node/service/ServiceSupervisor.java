@@ -0,0 +1,164 @@
+package community.theprojects.fairy.node.service;
+
+import community.theprojects.fairy.api.service.ServiceStatus;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
+
+public final class ServiceSupervisor implements AutoCloseable {
+    private static final boolean RESTART = Boolean.parseBoolean(System.getProperty("fairy.supervisor.restart", "true"));
+    private static final int MAX_RESTARTS = Integer.getInteger("fairy.supervisor.maxRestarts", 5);
+    private static final long RESTART_WINDOW = Duration.ofSeconds(Long.getLong("fairy.supervisor.restartWindow", 600L)).toNanos();
+    private static final long BACKOFF_MIN = Long.getLong("fairy.supervisor.backoffMin", 1000L);
+    private static final long BACKOFF_MAX = Long.getLong("fairy.supervisor.backoffMax", 60000L);
+    private static final long DRAIN_IDLE_MIN = 5L;
+    private static final long DRAIN_IDLE_MAX = 200L;
+
+    private final Map<Service, Deque<Long>> crashes;
+    private final ScheduledExecutorService scheduler;
+    private final ExecutorService drains;
+    private volatile Restarter restarter;
+    private volatile Consumer<Service> onGiveUp;
+    private volatile Consumer<Service> onStopped;
+
+    public ServiceSupervisor() {
+        this.crashes = new ConcurrentHashMap<>();
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "fairy-supervisor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.drains = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("fairy-console-", 0).factory());
+    }
+
+    public void setRestarter(Restarter restarter) {
+        this.restarter = restarter;
+    }
+
+    public void setOnGiveUp(Consumer<Service> onGiveUp) {
+        this.onGiveUp = onGiveUp;
+    }
+
+    // Exit eines gestoppten Services, der erst nach Ablauf der Stopp-Fristen endet (Outcome LOST)
+    public void setOnStopped(Consumer<Service> onStopped) {
+        this.onStopped = onStopped;
+    }
+
+    public void watch(Service service, Process process) {
+        drains.execute(() -> drain(service, process));
+        // onExit nutzt den ohnehin vorhandenen Reaper-Thread des JDK, pro Service entsteht kein zusätzlicher Thread
+        process.onExit().thenAcceptAsync(exited -> exited(service, exited), scheduler);
+    }
+
+    public void forget(Service service) {
+        crashes.remove(service);
+    }
+
+    private void exited(Service service, Process process) {
+        // Veraltete Prozesse (z. B. nach einem Neustart) ignorieren
+        if (service.getProcess() != process) {
+            return;
+        }
+        ServiceStatus status;
+        synchronized (service) {
+            status = service.getStatus();
+            service.setProcess(null);
+            service.setStatus(ServiceStatus.STOPPED);
+            boolean stopped = status == ServiceStatus.STOPPING || status == ServiceStatus.STOPPED;
+            if (!stopped && status != ServiceStatus.STANDBY && RESTART && restarter != null && recordCrash(service)) {
+                // Exponentielles Backoff je Absturz innerhalb des Fensters
+                long delay = Math.min(BACKOFF_MAX, BACKOFF_MIN << Math.min(20, crashes.get(service).size() - 1));
+                service.setStatus(ServiceStatus.STARTING);
+                scheduler.schedule(() -> drains.execute(() -> restart(service)), delay, TimeUnit.MILLISECONDS);
+                return;
+            }
+        }
+        // Späte Exits gestoppter Services laufen wie alle anderen über die Freigabe im GroupManager (Handler außerhalb des Locks)
+        if (status == ServiceStatus.STOPPING || status == ServiceStatus.STOPPED) {
+            forget(service);
+            Consumer<Service> handler = onStopped;
+            if (handler != null) {
+                handler.accept(service);
+            }
+            return;
+        }
+        giveUp(service);
+    }
+
+    private boolean recordCrash(Service service) {
+        Deque<Long> history = crashes.computeIfAbsent(service, key -> new ConcurrentLinkedDeque<>());
+        long now = System.nanoTime();
+        history.addLast(now);
+        Long oldest;
+        while ((oldest = history.peekFirst()) != null && now - oldest > RESTART_WINDOW) {
+            history.pollFirst();
+        }
+        return history.size() <= MAX_RESTARTS;
+    }
+
+    private void restart(Service service) {
+        synchronized (service) {
+            if (service.getStatus() != ServiceStatus.STARTING || service.getProcess() != null) {
+                return;
+            }
+        }
+        try {
+            restarter.restart(service);
+            service.setStatus(ServiceStatus.STARTED);
+        } catch (Exception e) {
+            service.setStatus(ServiceStatus.STOPPED);
+            giveUp(service);
+        }
+    }
+
+    private void giveUp(Service service) {
+        forget(service);
+        Consumer<Service> handler = onGiveUp;
+        if (handler != null) {
+            handler.accept(service);
+        }
+    }
+
+    // Liest nur verfügbare Bytes und schläft sonst, damit ein blockierender Pipe-Read keinen Carrier-Thread belegt
+    private void drain(Service service, Process process) {
+        ConsoleBuffer console = service.getConsole();
+        byte[] chunk = new byte[8192];
+        long idle = DRAIN_IDLE_MIN;
+        try (InputStream in = process.getInputStream()) {
+            while (true) {
+                int available = in.available();
+                if (available > 0) {
+                    int read = in.read(chunk, 0, Math.min(available, chunk.length));
+                    if (read < 0) {
+                        return;
+                    }
+                    console.write(chunk, 0, read);
+                    idle = DRAIN_IDLE_MIN;
+                    continue;
+                }
+                if (!process.isAlive() && in.available() <= 0) {
+                    return;
+                }
+                Thread.sleep(idle);
+                idle = Math.min(DRAIN_IDLE_MAX, idle * 2);
+            }
+        } catch (IOException | InterruptedException ignored) {
+        }
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+        drains.shutdownNow();
+    }
+
+    @FunctionalInterface
+    public interface Restarter {
+        void restart(Service service) throws Exception;
+    }
+}
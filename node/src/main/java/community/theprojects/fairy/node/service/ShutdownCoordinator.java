@@ -0,0 +1,116 @@
+package community.theprojects.fairy.node.service;
+
+import community.theprojects.fairy.api.group.ProxyType;
+import community.theprojects.fairy.api.service.ServiceStatus;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+// Stoppt Services über Exit-Futures statt blockierender Threads, auch hunderte Services parallel
+public final class ShutdownCoordinator {
+    private final Duration stopTimeout;
+    private final Duration termTimeout;
+    private final Duration killTimeout;
+
+    public ShutdownCoordinator() {
+        this(Duration.ofMillis(Long.getLong("fairy.shutdown.stopTimeout", 30000L)),
+                Duration.ofMillis(Long.getLong("fairy.shutdown.termTimeout", 10000L)),
+                Duration.ofMillis(Long.getLong("fairy.shutdown.killTimeout", 5000L)));
+    }
+
+    public ShutdownCoordinator(Duration stopTimeout, Duration termTimeout, Duration killTimeout) {
+        this.stopTimeout = stopTimeout;
+        this.termTimeout = termTimeout;
+        this.killTimeout = killTimeout;
+    }
+
+    // Stop-Befehl, dann SIGTERM, dann SIGKILL; jede Stufe erst nach Ablauf ihrer Frist
+    public CompletableFuture<Outcome> stop(Service service, ServiceStatus previous) {
+        Process process = service.getProcess();
+        if (process == null || !process.isAlive()) {
+            return CompletableFuture.completedFuture(Outcome.NOT_RUNNING);
+        }
+        // Pausierte Standby-Prozesse lesen keine Eingaben
+        if (previous == ServiceStatus.STANDBY && ProcessSignals.isSupported()) {
+            try {
+                ProcessSignals.resume(process);
+            } catch (IOException ignored) {
+            }
+        }
+        boolean commanded = sendStopCommand(service, process);
+        CompletableFuture<Outcome> graceful = commanded
+                ? exit(process, Outcome.GRACEFUL, stopTimeout)
+                : CompletableFuture.completedFuture(null);
+        return graceful.thenCompose(outcome -> {
+            if (outcome != null) {
+                return CompletableFuture.completedFuture(outcome);
+            }
+            process.destroy();
+            return exit(process, Outcome.TERMINATED, termTimeout);
+        }).thenCompose(outcome -> {
+            if (outcome != null) {
+                return CompletableFuture.completedFuture(outcome);
+            }
+            process.destroyForcibly();
+            return exit(process, Outcome.KILLED, killTimeout)
+                    .thenApply(killed -> killed != null ? killed : Outcome.LOST);
+        });
+    }
+
+    public Report stopAll(Collection<Service> services, Map<Service, ServiceStatus> previous, Duration timeout) {
+        long begin = System.nanoTime();
+        Map<Service, CompletableFuture<Outcome>> futures = new LinkedHashMap<>();
+        for (Service service : services) {
+            futures.put(service, stop(service, previous.get(service)));
+        }
+        try {
+            CompletableFuture.allOf(futures.values().toArray(new CompletableFuture[0])).get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException ignored) {
+        } catch (Exception e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        Map<Outcome, Integer> outcomes = new EnumMap<>(Outcome.class);
+        futures.forEach((service, future) -> outcomes.merge(future.getNow(Outcome.LOST), 1, Integer::sum));
+        return new Report(services.size(), outcomes, Duration.ofNanos(System.nanoTime() - begin));
+    }
+
+    private static boolean sendStopCommand(Service service, Process process) {
+        // Bungee und Velocity beenden sich mit "end", Minecraft-Server speichern bei "stop" ihre Welten
+        String command = service.getGroupInfo().getType() instanceof ProxyType ? "end" : "stop";
+        try {
+            OutputStream input = process.getOutputStream();
+            input.write((command + "\n").getBytes(StandardCharsets.UTF_8));
+            input.flush();
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static CompletableFuture<Outcome> exit(Process process, Outcome outcome, Duration timeout) {
+        return process.onExit().thenApply(exited -> outcome).completeOnTimeout(null, timeout.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    public enum Outcome {
+        NOT_RUNNING,
+        GRACEFUL,
+        TERMINATED,
+        KILLED,
+        LOST
+    }
+
+    public record Report(int services, Map<Outcome, Integer> outcomes, Duration duration) {
+
+        public int count(Outcome outcome) {
+            return outcomes.getOrDefault(outcome, 0);
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package community.theprojects.fairy.node.service;
+
+import community.theprojects.fairy.grouprunner.GroupRunnerClient;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+import java.util.concurrent.*;
+
+// Prozess, der im Group-Runner läuft; Ausgabe kommt aus der Konsolendatei, Eingabe geht über den Socket
+final class SidecarProcess extends Process {
+    private static final long EXIT_GRACE = Long.getLong("fairy.runner.exitGrace", 1000L);
+    private final GroupRunnerClient client;
+    private final String service;
+    private final long pid;
+    private final Path console;
+    private final CompletableFuture<Integer> exit;
+    private final OutputStream input;
+
+    SidecarProcess(GroupRunnerClient client, String service, long pid, Path console) {
+        this.client = client;
+        this.service = service;
+        this.pid = pid;
+        this.console = console;
+        this.exit = new CompletableFuture<>();
+        this.input = new Input();
+        // Fällt der Runner aus, wird das Ende über das Betriebssystem erkannt; der Exit-Code des Runners hat Vorrang
+        Optional<ProcessHandle> handle = ProcessHandle.of(pid);
+        if (handle.isPresent()) {
+            handle.get().onExit().thenRunAsync(() -> exit.complete(-1), CompletableFuture.delayedExecutor(EXIT_GRACE, TimeUnit.MILLISECONDS));
+        } else {
+            exit.complete(-1);
+        }
+    }
+
+    void exited(int code) {
+        exit.complete(code);
+    }
+
+    @Override
+    public OutputStream getOutputStream() {
+        return input;
+    }
+
+    @Override
+    public InputStream getInputStream() {
+        return new ConsoleTail();
+    }
+
+    @Override
+    public InputStream getErrorStream() {
+        return InputStream.nullInputStream();
+    }
+
+    @Override
+    public int waitFor() throws InterruptedException {
+        try {
+            return exit.get();
+        } catch (ExecutionException e) {
+            return -1;
+        }
+    }
+
+    @Override
+    public boolean waitFor(long timeout, TimeUnit unit) throws InterruptedException {
+        try {
+            exit.get(timeout, unit);
+            return true;
+        } catch (TimeoutException e) {
+            return false;
+        } catch (ExecutionException e) {
+            return true;
+        }
+    }
+
+    @Override
+    public int exitValue() {
+        if (!exit.isDone()) {
+            throw new IllegalThreadStateException("Process " + pid + " has not exited");
+        }
+        return exit.join();
+    }
+
+    @Override
+    public void destroy() {
+        signal(false);
+    }
+
+    @Override
+    public Process destroyForcibly() {
+        signal(true);
+        return this;
+    }
+
+    @Override
+    public boolean supportsNormalTermination() {
+        return true;
+    }
+
+    @Override
+    public boolean isAlive() {
+        return !exit.isDone();
+    }
+
+    @Override
+    public long pid() {
+        return pid;
+    }
+
+    @Override
+    public CompletableFuture<Process> onExit() {
+        return exit.thenApply(code -> this);
+    }
+
+    private void signal(boolean force) {
+        try {
+            if (force) {
+                client.kill(service);
+            } else {
+                client.stop(service);
+            }
+            return;
+        } catch (IOException ignored) {
+        }
+        // Ohne Runner direkt signalisieren
+        ProcessHandle.of(pid).ifPresent(handle -> {
+            if (force) {
+                handle.destroyForcibly();
+            } else {
+                handle.destroy();
+            }
+        });
+    }
+
+    private final class Input extends OutputStream {
+        private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+
+        @Override
+        public synchronized void write(int b) {
+            buffer.write(b);
+        }
+
+        @Override
+        public synchronized void write(byte[] data, int off, int len) {
+            buffer.write(data, off, len);
+        }
+
+        @Override
+        public synchronized void flush() throws IOException {
+            if (buffer.size() > 0) {
+                client.input(service, buffer.toByteArray());
+                buffer.reset();
+            }
+        }
+    }
+
+    private final class ConsoleTail extends InputStream {
+        private FileChannel channel;
+        private long position;
+
+        @Override
+        public int available() throws IOException {
+            FileChannel file = channel();
+            return file != null ? (int) Math.min(Integer.MAX_VALUE, Math.max(0, file.size() - position)) : 0;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] single = new byte[1];
+            return read(single, 0, 1) < 0 ? -1 : single[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] data, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            while (true) {
+                FileChannel file = channel();
+                if (file != null) {
+                    // Der Runner kürzt console.log beim Rotieren, danach wieder am Anfang lesen
+                    if (file.size() < position) {
+                        position = 0;
+                    }
+                    int read = file.read(ByteBuffer.wrap(data, off, len), position);
+                    if (read > 0) {
+                        position += read;
+                        return read;
+                    }
+                }
+                if (!isAlive()) {
+                    return -1;
+                }
+                try {
+                    Thread.sleep(50);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("Interrupted while reading console of " + service, e);
+                }
+            }
+        }
+
+        private FileChannel channel() throws IOException {
+            if (channel == null && console.toFile().exists()) {
+                channel = FileChannel.open(console, StandardOpenOption.READ);
+            }
+            return channel;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (channel != null) {
+                channel.close();
+            }
+        }
+    }
+}
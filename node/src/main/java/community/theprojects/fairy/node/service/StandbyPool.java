@@ -0,0 +1,215 @@
+package community.theprojects.fairy.node.service;
+
+import community.theprojects.fairy.api.console.IConsole;
+import community.theprojects.fairy.api.group.IGroup;
+import community.theprojects.fairy.api.service.ServiceStatus;
+import community.theprojects.fairy.node.FairyNode;
+import community.theprojects.fairy.node.console.HexColor;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public final class StandbyPool implements AutoCloseable {
+    private static final long WINDOW_NANOS = TimeUnit.SECONDS.toNanos(Long.getLong("fairy.standby.window", 300L));
+    private static final Duration BOOT_TIMEOUT = Duration.ofSeconds(Long.getLong("fairy.standby.bootTimeout", 120L));
+
+    private final ServiceStartEngine engine;
+    private final Allocator allocator;
+    private final Map<String, StandbySettings> settings;
+    private final Map<String, GroupPool> pools;
+    private final ScheduledExecutorService maintenance;
+
+    public StandbyPool(ServiceStartEngine engine, Map<String, StandbySettings> settings, Allocator allocator) {
+        this.engine = engine;
+        this.allocator = allocator;
+        this.settings = settings;
+        this.pools = new ConcurrentHashMap<>();
+        this.maintenance = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "fairy-standby");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = Long.getLong("fairy.standby.interval", 30L);
+        this.maintenance.scheduleWithFixedDelay(this::maintain, interval, interval, TimeUnit.SECONDS);
+    }
+
+    public void register(IGroup group) {
+        StandbySettings groupSettings = settings.get(key(group.getName()));
+        if (groupSettings == null || groupSettings.max() < 1) {
+            return;
+        }
+        GroupPool previous = pools.put(key(group.getName()), new GroupPool(group, groupSettings));
+        if (previous != null) {
+            previous.drain();
+        }
+        maintenance.execute(() -> adjustQuietly(group.getName()));
+    }
+
+    public void unregister(String groupName) {
+        GroupPool pool = pools.remove(key(groupName));
+        if (pool != null) {
+            pool.drain();
+        }
+    }
+
+    public List<Service> take(IGroup group, int count) {
+        GroupPool pool = pools.get(key(group.getName()));
+        if (pool == null) {
+            return List.of();
+        }
+        pool.recordStarts(count);
+        List<Service> taken = new ArrayList<>(count);
+        Service service;
+        while (taken.size() < count && (service = pool.ready.pollFirst()) != null) {
+            // Im Standby abgestürzte Services verwerfen
+            if (service.getStatus() == ServiceStatus.STANDBY) {
+                taken.add(service);
+            } else {
+                pool.discard(service);
+            }
+        }
+        // Nachfüllen im Hintergrund, der Aufrufer wartet nicht darauf
+        maintenance.execute(() -> adjustQuietly(group.getName()));
+        return taken;
+    }
+
+    public Map<String, Stats> getStats() {
+        Map<String, Stats> stats = new TreeMap<>();
+        pools.forEach((name, pool) -> stats.put(pool.group.getName(),
+                new Stats(pool.ready.size(), pool.inflight.get(), pool.target(), pool.settings.preBoot())));
+        return stats;
+    }
+
+    // Eine Exception im periodischen Task würde scheduleWithFixedDelay still beenden, daher je Gruppe abfangen
+    private void maintain() {
+        for (GroupPool pool : pools.values()) {
+            adjustQuietly(pool.group.getName());
+        }
+    }
+
+    private void adjustQuietly(String groupName) {
+        try {
+            adjust(groupName);
+        } catch (RuntimeException e) {
+            printError("Failed to refill standby pool of " + groupName + ": " + e.getMessage());
+        }
+    }
+
+    private void adjust(String groupName) {
+        GroupPool pool = pools.get(key(groupName));
+        if (pool == null) {
+            return;
+        }
+        int target = pool.target();
+        int missing = target - pool.ready.size() - pool.inflight.get();
+        for (int i = 0; i < missing; i++) {
+            Service service = allocator.allocate(pool.group);
+            pool.inflight.incrementAndGet();
+            CompletableFuture<Service> provisioning;
+            try {
+                provisioning = engine.provision(service, pool.settings.preBoot(), BOOT_TIMEOUT);
+            } catch (RuntimeException e) {
+                pool.inflight.decrementAndGet();
+                allocator.release(service);
+                throw e;
+            }
+            provisioning.whenComplete((ready, throwable) -> {
+                pool.inflight.decrementAndGet();
+                if (throwable == null && pools.get(key(groupName)) == pool) {
+                    pool.ready.addLast(ready);
+                } else {
+                    allocator.release(service);
+                }
+            });
+        }
+        // Überschüssige Standby-Services abbauen, wenn die Startrate gesunken ist
+        Service surplus;
+        while (pool.ready.size() > target && (surplus = pool.ready.pollLast()) != null) {
+            pool.discard(surplus);
+        }
+    }
+
+    @Override
+    public void close() {
+        maintenance.shutdownNow();
+        pools.values().forEach(GroupPool::drain);
+        pools.clear();
+    }
+
+    private static void printError(String message) {
+        IConsole console = FairyNode.getInstance() != null ? FairyNode.getInstance().getConsole() : null;
+        if (console != null) {
+            console.getPrinter().println(HexColor.colorText(message, HexColor.Colors.RED), true);
+        }
+    }
+
+    private static String key(String groupName) {
+        return groupName.toLowerCase(Locale.ROOT);
+    }
+
+    public interface Allocator {
+        Service allocate(IGroup group);
+        void release(Service service);
+    }
+
+    public record Stats(int ready, int provisioning, int target, boolean preBoot) {
+    }
+
+    private final class GroupPool {
+        private final IGroup group;
+        private final StandbySettings settings;
+        private final ConcurrentLinkedDeque<Service> ready = new ConcurrentLinkedDeque<>();
+        private final AtomicInteger inflight = new AtomicInteger();
+        private final ConcurrentLinkedDeque<Long> starts = new ConcurrentLinkedDeque<>();
+
+        private GroupPool(IGroup group, StandbySettings settings) {
+            this.group = group;
+            this.settings = settings;
+        }
+
+        private void recordStarts(int count) {
+            long now = System.nanoTime();
+            for (int i = 0; i < count; i++) {
+                starts.addLast(now);
+            }
+        }
+
+        private int target() {
+            long now = System.nanoTime();
+            Long oldest;
+            while ((oldest = starts.peekFirst()) != null && now - oldest > WINDOW_NANOS) {
+                starts.pollFirst();
+            }
+            // Pool soll die Starts abdecken, die während eines Nachfüllvorgangs erwartet werden
+            double startsPerSecond = starts.size() / (WINDOW_NANOS / 1e9);
+            double refillSeconds = refillMillis() / 1000.0;
+            int demand = (int) Math.ceil(startsPerSecond * refillSeconds);
+            return Math.min(settings.max(), Math.max(settings.min(), demand));
+        }
+
+        private double refillMillis() {
+            Map<ServiceStartEngine.Stage, StageMetrics> metrics = engine.getMetrics();
+            double millis = metrics.get(ServiceStartEngine.Stage.PREPARE).getAverageMillis()
+                    + metrics.get(ServiceStartEngine.Stage.CONFIGURE).getAverageMillis();
+            if (settings.preBoot()) {
+                millis += metrics.get(ServiceStartEngine.Stage.LAUNCH).getAverageMillis()
+                        + metrics.get(ServiceStartEngine.Stage.BOOT).getAverageMillis();
+            }
+            return millis;
+        }
+
+        private void discard(Service service) {
+            engine.discard(service);
+            allocator.release(service);
+        }
+
+        private void drain() {
+            Service service;
+            while ((service = ready.pollFirst()) != null) {
+                discard(service);
+            }
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package community.theprojects.fairy.node.service;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+public record StandbySettings(int min, int max, boolean preBoot) {
+
+    public static Map<String, StandbySettings> parse(Object value) {
+        Map<String, StandbySettings> settings = new HashMap<>();
+        if (value instanceof Map<?, ?> groups) {
+            groups.forEach((group, entry) -> {
+                if (entry instanceof Map<?, ?> values) {
+                    int min = ServiceSettings.intValue(values.get("min"), 1);
+                    int max = ServiceSettings.intValue(values.get("max"), Math.max(min, 4));
+                    boolean preBoot = Boolean.parseBoolean(String.valueOf(values.get("preBoot")));
+                    settings.put(String.valueOf(group).toLowerCase(Locale.ROOT), new StandbySettings(min, Math.max(min, max), preBoot));
+                }
+            });
+        }
+        return settings;
+    }
+}
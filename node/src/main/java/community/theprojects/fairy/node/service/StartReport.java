@@ -0,0 +1,18 @@
+package community.theprojects.fairy.node.service;
+
+import community.theprojects.fairy.api.service.IService;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+public record StartReport(String group, int requested, List<IService> started, Map<String, Throwable> failures, Duration duration) {
+
+    public boolean isComplete() {
+        return started.size() == requested;
+    }
+
+    public int getSkipped() {
+        return requested - started.size() - failures.size();
+    }
+}
@@ -0,0 +1,84 @@
+package community.theprojects.fairy.node.service;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.function.Predicate;
+
+public record TemplateManifest(Map<String, Entry> files, List<String> directories) {
+
+    public static final String FILE_NAME = ".fairy-manifest";
+
+    public static TemplateManifest empty() {
+        return new TemplateManifest(Map.of(), List.of());
+    }
+
+    public static TemplateManifest scan(Path root, Predicate<String> linkable) throws IOException {
+        Map<String, Entry> files = new LinkedHashMap<>();
+        List<String> directories = new ArrayList<>();
+        Files.walkFileTree(root, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                if (!dir.equals(root)) {
+                    directories.add(relative(root, dir));
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                String path = relative(root, file);
+                if (!path.equals(FILE_NAME)) {
+                    // Symlinks werden immer kopiert, nur reguläre Dateien können verlinkt werden
+                    boolean link = attrs.isRegularFile() && linkable.test(path);
+                    files.put(path, new Entry(attrs.size(), attrs.lastModifiedTime().toMillis(), link));
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        return new TemplateManifest(files, directories);
+    }
+
+    public static TemplateManifest read(Path file) throws IOException {
+        if (!Files.isRegularFile(file)) {
+            return empty();
+        }
+        Map<String, Entry> files = new LinkedHashMap<>();
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] parts = line.split("\t", 4);
+                if (parts.length == 4) {
+                    files.put(parts[3], new Entry(Long.parseLong(parts[0]), Long.parseLong(parts[1]), "1".equals(parts[2])));
+                }
+            }
+        } catch (NumberFormatException e) {
+            // Beschädigtes Manifest: alles neu bereitstellen
+            return empty();
+        }
+        return new TemplateManifest(files, List.of());
+    }
+
+    public void write(Path file) throws IOException {
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (BufferedWriter writer = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+            for (Map.Entry<String, Entry> entry : files.entrySet()) {
+                Entry value = entry.getValue();
+                writer.write(value.size() + "\t" + value.modified() + "\t" + (value.link() ? "1" : "0") + "\t" + entry.getKey());
+                writer.newLine();
+            }
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static String relative(Path root, Path path) {
+        return root.relativize(path).toString().replace('\\', '/');
+    }
+
+    public record Entry(long size, long modified, boolean link) {
+    }
+}
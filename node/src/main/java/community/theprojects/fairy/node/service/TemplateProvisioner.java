@@ -0,0 +1,90 @@
+package community.theprojects.fairy.node.service;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+public final class TemplateProvisioner {
+    private final boolean linking;
+    private final List<PathMatcher> linkMatchers;
+
+    public TemplateProvisioner(boolean linking, List<String> linkPatterns) {
+        this.linking = linking;
+        this.linkMatchers = new ArrayList<>(linkPatterns.size());
+        for (String pattern : linkPatterns) {
+            linkMatchers.add(FileSystems.getDefault().getPathMatcher("glob:" + pattern));
+        }
+    }
+
+    public Result provision(Path template, Path target) throws IOException {
+        if (!Files.isDirectory(template)) {
+            throw new NoSuchFileException(template.toString(), null, "Template directory does not exist");
+        }
+        TemplateManifest current = TemplateManifest.scan(template, this::isLinkable);
+        Path manifestFile = target.resolve(TemplateManifest.FILE_NAME);
+        TemplateManifest previous = TemplateManifest.read(manifestFile);
+
+        Files.createDirectories(target);
+        for (String directory : current.directories()) {
+            Files.createDirectories(target.resolve(directory));
+        }
+
+        int linked = 0, copied = 0, unchanged = 0, deleted = 0;
+        long bytes = 0;
+        for (Map.Entry<String, TemplateManifest.Entry> entry : current.files().entrySet()) {
+            TemplateManifest.Entry file = entry.getValue();
+            Path source = template.resolve(entry.getKey());
+            Path destination = target.resolve(entry.getKey());
+            // Nur geänderte Dateien anfassen: gleiche Größe und Änderungszeit gelten als unverändert
+            if (file.equals(previous.files().get(entry.getKey())) && Files.exists(destination, LinkOption.NOFOLLOW_LINKS)) {
+                unchanged++;
+                continue;
+            }
+            if (file.link() && link(source, destination)) {
+                linked++;
+            } else {
+                // Files.copy nutzt unter Linux copy_file_range: auf btrfs/XFS ein Reflink (Copy-on-Write), sonst eine Kernel-Kopie
+                Files.copy(source, destination, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.COPY_ATTRIBUTES, LinkOption.NOFOLLOW_LINKS);
+                copied++;
+                bytes += file.size();
+            }
+        }
+        for (String path : previous.files().keySet()) {
+            if (!current.files().containsKey(path) && Files.deleteIfExists(target.resolve(path))) {
+                deleted++;
+            }
+        }
+        current.write(manifestFile);
+        return new Result(linked, copied, unchanged, deleted, bytes);
+    }
+
+    // Ein Hardlink teilt die Inode mit dem Template: Schreibt der Service in die Datei, ändert er das Template mit
+    private boolean link(Path source, Path destination) throws IOException {
+        if (!linking) {
+            return false;
+        }
+        try {
+            Files.deleteIfExists(destination);
+            Files.createLink(destination, source);
+            return true;
+        } catch (UnsupportedOperationException | FileSystemException e) {
+            // Anderes Dateisystem oder keine Hardlinks: auf Kopie zurückfallen
+            return false;
+        }
+    }
+
+    private boolean isLinkable(String path) {
+        Path relative = Path.of(path);
+        for (PathMatcher matcher : linkMatchers) {
+            if (matcher.matches(relative)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public record Result(int linked, int copied, int unchanged, int deleted, long copiedBytes) {
+    }
+}
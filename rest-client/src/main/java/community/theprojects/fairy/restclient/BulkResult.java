@@ -0,0 +1,10 @@
+package community.theprojects.fairy.restclient;
+
+import java.util.Map;
+
+public record BulkResult<T>(Map<String, T> succeeded, Map<String, Throwable> failed) {
+
+    public boolean isComplete() {
+        return failed.isEmpty();
+    }
+}
@@ -0,0 +1,28 @@
+package community.theprojects.fairy.restclient;
+
+import java.net.URI;
+import java.time.Duration;
+
+public record ClientSettings(URI baseUri, String token, Duration connectTimeout, Duration requestTimeout, int maxInFlight, RetryPolicy retry) {
+
+    public static ClientSettings of(String baseUrl, String token) {
+        // Sowohl http://host:8080 als auch http://host:8080/api sind erlaubt
+        String base = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        if (!base.endsWith("/api")) {
+            base += "/api";
+        }
+        return new ClientSettings(URI.create(base), token,
+                Duration.ofMillis(Long.getLong("fairy.client.connectTimeout", 5000L)),
+                Duration.ofMillis(Long.getLong("fairy.client.requestTimeout", 60000L)),
+                Integer.getInteger("fairy.client.maxInFlight", 32),
+                RetryPolicy.defaults());
+    }
+
+    public ClientSettings withRetry(RetryPolicy retry) {
+        return new ClientSettings(baseUri, token, connectTimeout, requestTimeout, maxInFlight, retry);
+    }
+
+    public ClientSettings withMaxInFlight(int maxInFlight) {
+        return new ClientSettings(baseUri, token, connectTimeout, requestTimeout, maxInFlight, retry);
+    }
+}
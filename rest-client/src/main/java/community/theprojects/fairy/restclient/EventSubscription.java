@@ -0,0 +1,195 @@
+package community.theprojects.fairy.restclient;
+
+import community.theprojects.fairy.restclient.model.ServiceEvent;
+import community.theprojects.fairy.util.json.JsonSerializer;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+// Hält einen SSE-Stream offen und setzt nach Verbindungsabbrüchen hinter dem zuletzt empfangenen Ereignis fort
+public final class EventSubscription implements AutoCloseable {
+    private static final long MIN_RECONNECT_MILLIS = 100L;
+    private final HttpClient client;
+    private final Function<String, HttpRequest> request;
+    private final RetryPolicy retry;
+    private final Consumer<? super ServiceEvent> consumer;
+    private final Runnable onReset;
+    private final AtomicBoolean closed;
+    private final CompletableFuture<Void> done;
+    private volatile long lastSequence;
+    private volatile String lastEventId;
+    private volatile InputStream body;
+    private volatile Thread thread;
+
+    EventSubscription(HttpClient client, Function<String, HttpRequest> request, RetryPolicy retry, long since,
+                      Consumer<? super ServiceEvent> consumer, Runnable onReset) {
+        this.client = client;
+        this.request = request;
+        this.retry = retry;
+        this.consumer = consumer;
+        this.onReset = onReset;
+        this.closed = new AtomicBoolean(false);
+        this.done = new CompletableFuture<>();
+        this.lastSequence = since;
+        this.lastEventId = since >= 0 ? Long.toString(since) : null;
+    }
+
+    void start(Executor executor) {
+        executor.execute(this::run);
+    }
+
+    // Sequenz des zuletzt zugestellten Ereignisses; -1, solange der Server noch keinen Startpunkt gemeldet hat
+    public long getLastSequence() {
+        return lastSequence;
+    }
+
+    // Wird mit close() normal und bei Fehlern ohne Aussicht auf Erfolg (z.B. 401) mit RestClientException abgeschlossen
+    public CompletableFuture<Void> whenClosed() {
+        return done;
+    }
+
+    public boolean isClosed() {
+        return closed.get();
+    }
+
+    private void run() {
+        thread = Thread.currentThread();
+        int attempt = 0;
+        while (!closed.get()) {
+            try {
+                // Die ID geht unverändert zurück; mit ihrer Epoch erkennt der Server einen Neustart der Node dazwischen
+                HttpResponse<InputStream> response = client.send(request.apply(lastEventId), HttpResponse.BodyHandlers.ofInputStream());
+                int status = response.statusCode();
+                if (status != 200) {
+                    discard(response.body());
+                    if (status == 401 || status == 403 || status == 404) {
+                        fail(new RestClientException(status, "Event stream " + response.uri() + " returned " + status));
+                        return;
+                    }
+                    throw new IOException("Event stream returned " + status);
+                }
+                attempt = 0;
+                read(response.body());
+            } catch (IOException | JSONException e) {
+                if (closed.get()) {
+                    break;
+                }
+            } catch (InterruptedException e) {
+                break;
+            } catch (RuntimeException e) {
+                // Fehler im Consumer beenden das Abonnement, sonst würde dasselbe Ereignis endlos erneut zugestellt
+                fail(e);
+                return;
+            }
+            attempt++;
+            try {
+                Thread.sleep(Math.max(MIN_RECONNECT_MILLIS, retry.delay(attempt).toMillis()));
+            } catch (InterruptedException e) {
+                break;
+            }
+        }
+        close();
+    }
+
+    // SSE-Felder sammeln, eine Leerzeile stellt das Ereignis zu
+    private void read(InputStream stream) throws IOException {
+        body = stream;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8))) {
+            String event = null;
+            String id = null;
+            StringBuilder data = new StringBuilder();
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty()) {
+                    dispatch(event, data);
+                    if (id != null) {
+                        // Form <epoch>-<sequence>, ältere Nodes senden nur die Sequenz
+                        lastSequence = Long.parseLong(id.substring(id.indexOf('-') + 1));
+                        lastEventId = id;
+                    }
+                    event = null;
+                    id = null;
+                    data.setLength(0);
+                    continue;
+                }
+                if (line.startsWith(":")) {
+                    continue;
+                }
+                int colon = line.indexOf(':');
+                String field = colon < 0 ? line : line.substring(0, colon);
+                String value = colon < 0 ? "" : line.substring(line.startsWith(": ", colon) ? colon + 2 : colon + 1);
+                switch (field) {
+                    case "event" -> event = value;
+                    case "id" -> id = value;
+                    case "data" -> data.append(data.isEmpty() ? "" : "\n").append(value);
+                    default -> {
+                    }
+                }
+            }
+        } catch (NumberFormatException e) {
+            throw new IOException("Invalid event id", e);
+        } finally {
+            body = null;
+        }
+    }
+
+    private void dispatch(String event, StringBuilder data) {
+        if (data.isEmpty() || closed.get()) {
+            return;
+        }
+        if ("reset".equals(event)) {
+            if (onReset != null) {
+                onReset.run();
+            }
+            return;
+        }
+        if (event == null || "status".equals(event)) {
+            consumer.accept(JsonSerializer.deserializeFromJSONObject(new JSONObject(data.toString()), ServiceEvent.class));
+        }
+    }
+
+    private void fail(Throwable failure) {
+        closed.set(true);
+        done.completeExceptionally(failure);
+    }
+
+    private static void discard(InputStream stream) {
+        try (stream) {
+            stream.transferTo(OutputStream.nullOutputStream());
+        } catch (IOException ignored) {
+        }
+    }
+
+    @Override
+    public void close() {
+        if (!closed.compareAndSet(false, true)) {
+            return;
+        }
+        InputStream stream = body;
+        if (stream != null) {
+            try {
+                stream.close();
+            } catch (IOException ignored) {
+            }
+        }
+        Thread current = thread;
+        if (current != null && current != Thread.currentThread()) {
+            current.interrupt();
+        }
+        done.complete(null);
+    }
+}
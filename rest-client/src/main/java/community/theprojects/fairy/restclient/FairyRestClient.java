@@ -0,0 +1,388 @@
+package community.theprojects.fairy.restclient;
+
+import community.theprojects.fairy.restclient.model.BatchItem;
+import community.theprojects.fairy.restclient.model.BatchSummary;
+import community.theprojects.fairy.restclient.model.EventBatch;
+import community.theprojects.fairy.restclient.model.GroupInfo;
+import community.theprojects.fairy.restclient.model.ServiceEvent;
+import community.theprojects.fairy.restclient.model.ServiceInfo;
+import community.theprojects.fairy.restclient.model.StartResult;
+import community.theprojects.fairy.restclient.model.StopResult;
+import community.theprojects.fairy.util.json.JsonSerializer;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.json.JSONTokener;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.net.ConnectException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpConnectTimeoutException;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.*;
+
+// Ein HttpClient pro Instanz: Verbindungen werden wiederverwendet, über HTTPS werden Anfragen per HTTP/2 gemultiplext
+public final class FairyRestClient implements AutoCloseable {
+    private final ClientSettings settings;
+    private final ExecutorService executor;
+    private final HttpClient client;
+    private final String authorization;
+
+    public FairyRestClient(String baseUrl, String token) {
+        this(ClientSettings.of(baseUrl, token));
+    }
+
+    public FairyRestClient(ClientSettings settings) {
+        this.settings = settings;
+        this.executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("fairy-client-", 0).factory());
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(settings.connectTimeout())
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .executor(executor)
+                .build();
+        this.authorization = "Bearer " + settings.token();
+    }
+
+    public ClientSettings getSettings() {
+        return settings;
+    }
+
+    public CompletableFuture<Map<String, Object>> health() {
+        return object(get("/health"), true, JSONObject.class, status -> status == 200).thenApply(JSONObject::toMap);
+    }
+
+    public CompletableFuture<List<GroupInfo>> groups() {
+        return list(get("/groups"), GroupInfo.class);
+    }
+
+    public CompletableFuture<GroupInfo> group(String name) {
+        return object(get("/groups/" + encode(name)), true, GroupInfo.class, status -> status == 200);
+    }
+
+    public CompletableFuture<List<ServiceInfo>> services() {
+        return list(get("/services"), ServiceInfo.class);
+    }
+
+    public CompletableFuture<List<ServiceInfo>> services(String group) {
+        return list(get("/groups/" + encode(group) + "/services"), ServiceInfo.class);
+    }
+
+    // Elemente werden gelesen, während die Antwort noch übertragen wird; der Consumer läuft auf einem virtuellen Thread
+    public CompletableFuture<Void> streamServices(String group, Consumer<? super ServiceInfo> consumer) {
+        HttpRequest request = get(group == null ? "/services" : "/groups/" + encode(group) + "/services");
+        return send(request, true).thenAcceptAsync(response -> readList(response, ServiceInfo.class, consumer), executor);
+    }
+
+    public CompletableFuture<ServiceInfo> service(String name) {
+        return object(get("/services/" + encode(name)), true, ServiceInfo.class, status -> status == 200);
+    }
+
+    // Teilweise gescheiterte Starts liefern 503 mit Bericht, das ist ein Ergebnis und kein Fehler
+    public CompletableFuture<StartResult> start(String group, int count) {
+        return object(post("/groups/" + encode(group) + "/services?count=" + count), false, StartResult.class,
+                status -> status == 201 || status == 503);
+    }
+
+    public CompletableFuture<StopResult> stop(String service) {
+        return object(post("/services/" + encode(service) + "/stop"), true, StopResult.class, status -> status == 200);
+    }
+
+    // Höchstens maxInFlight Anfragen gleichzeitig; jede abgeschlossene schiebt sofort die nächste nach
+    public CompletableFuture<BulkResult<StartResult>> startAll(Map<String, Integer> counts) {
+        return bulk(List.copyOf(counts.keySet()), group -> start(group, counts.get(group)));
+    }
+
+    public CompletableFuture<BulkResult<StopResult>> stopAll(Collection<String> services) {
+        return bulk(List.copyOf(new LinkedHashSet<>(services)), this::stop);
+    }
+
+    // Ein Request für alle Gruppen; die Items kommen als NDJSON, sobald der jeweilige Start abgeschlossen ist
+    public CompletableFuture<BatchSummary> batchStart(Map<String, Integer> counts, Consumer<? super BatchItem> consumer) {
+        return batch("/batch/start", new JSONObject().put("groups", new JSONObject(counts)), false, consumer);
+    }
+
+    public CompletableFuture<BatchSummary> batchStop(Collection<String> services, Consumer<? super BatchItem> consumer) {
+        return batch("/batch/stop", new JSONObject().put("services", new JSONArray(services)), true, consumer);
+    }
+
+    public CompletableFuture<BatchSummary> batchStatus(Collection<String> services, Consumer<? super BatchItem> consumer) {
+        return batch("/batch/status", new JSONObject().put("services", new JSONArray(services)), true, consumer);
+    }
+
+    // Long-Poll: wartet serverseitig bis zu timeout auf Ereignisse nach since; since < 0 wartet auf die nächsten neuen
+    public CompletableFuture<EventBatch> pollEvents(long since, String group, Duration timeout) {
+        return pollEvents(since, 0L, group, timeout);
+    }
+
+    // epoch aus dem vorigen EventBatch; hat die Node seitdem neu gestartet, kommt der Batch mit truncated zurück
+    public CompletableFuture<EventBatch> pollEvents(long since, long epoch, String group, Duration timeout) {
+        String query = "?timeout=" + timeout.toMillis() + (since >= 0 ? "&since=" + since : "") + (since >= 0 && epoch > 0 ? "&epoch=" + epoch : "")
+                + (group != null ? "&group=" + encode(group) : "");
+        HttpRequest request = request("/events" + query).timeout(settings.requestTimeout().plus(timeout)).GET().build();
+        return object(request, true, EventBatch.class, status -> status == 200);
+    }
+
+    public EventSubscription subscribe(long since, String group, Consumer<? super ServiceEvent> consumer) {
+        return subscribe(since, group, consumer, null);
+    }
+
+    // Server-Sent Events auf einem virtuellen Thread; onReset läuft, wenn Ereignisse verloren gingen und der Zustand neu geladen werden sollte
+    public EventSubscription subscribe(long since, String group, Consumer<? super ServiceEvent> consumer, Runnable onReset) {
+        EventSubscription subscription = new EventSubscription(client, last -> {
+            HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(settings.baseUri() + "/events/stream"
+                            + (group != null ? "?group=" + encode(group) : "")))
+                    .header("Authorization", authorization)
+                    .header("Accept", "text/event-stream");
+            if (last != null) {
+                builder.header("Last-Event-ID", last);
+            }
+            return builder.GET().build();
+        }, settings.retry(), since, consumer, onReset);
+        subscription.start(executor);
+        return subscription;
+    }
+
+    public CompletableFuture<String> regenerateToken() {
+        return object(post("/auth/regenerate"), false, JSONObject.class, status -> status == 200).thenApply(json -> json.getString("token"));
+    }
+
+    private HttpRequest get(String path) {
+        return request(path).GET().build();
+    }
+
+    private HttpRequest post(String path) {
+        return request(path).POST(HttpRequest.BodyPublishers.noBody()).build();
+    }
+
+    private HttpRequest post(String path, JSONObject body) {
+        return request(path).header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body.toString(), StandardCharsets.UTF_8)).build();
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create(settings.baseUri() + path))
+                .timeout(settings.requestTimeout())
+                .header("Authorization", authorization)
+                .header("Accept", "application/json");
+    }
+
+    private <T> CompletableFuture<T> object(HttpRequest request, boolean idempotent, Class<T> type, IntPredicate accepted) {
+        return send(request, idempotent).thenApplyAsync(response -> {
+            try (Reader reader = reader(response)) {
+                if (!accepted.test(response.statusCode())) {
+                    throw error(response, reader);
+                }
+                return convert(new JSONTokener(reader).nextValue(), type);
+            } catch (IOException | JSONException e) {
+                throw new RestClientException("Invalid response from " + request.uri() + ": " + e.getMessage(), e);
+            }
+        }, executor);
+    }
+
+    private <T> CompletableFuture<List<T>> list(HttpRequest request, Class<T> type) {
+        return send(request, true).thenApplyAsync(response -> {
+            List<T> values = new ArrayList<>();
+            readList(response, type, values::add);
+            return values;
+        }, executor);
+    }
+
+    private <T> void readList(HttpResponse<InputStream> response, Class<T> type, Consumer<? super T> consumer) {
+        try (Reader reader = reader(response)) {
+            if (response.statusCode() != 200) {
+                throw error(response, reader);
+            }
+            JSONTokener tokener = new JSONTokener(reader);
+            if (tokener.nextClean() != '[') {
+                throw new RestClientException(response.statusCode(), "Expected a JSON array from " + response.uri());
+            }
+            if (tokener.nextClean() == ']') {
+                return;
+            }
+            tokener.back();
+            while (true) {
+                consumer.accept(convert(tokener.nextValue(), type));
+                char next = tokener.nextClean();
+                if (next == ']') {
+                    return;
+                }
+                if (next != ',') {
+                    throw new RestClientException(response.statusCode(), "Malformed JSON array from " + response.uri());
+                }
+            }
+        } catch (IOException | JSONException e) {
+            throw new RestClientException("Invalid response from " + response.uri() + ": " + e.getMessage(), e);
+        }
+    }
+
+    // Jede Zeile ist ein Item, die letzte mit "summary" schließt den Batch ab
+    private CompletableFuture<BatchSummary> batch(String path, JSONObject body, boolean idempotent, Consumer<? super BatchItem> consumer) {
+        HttpRequest request = post(path, body);
+        return send(request, idempotent).thenApplyAsync(response -> {
+            try (BufferedReader reader = new BufferedReader(reader(response))) {
+                if (response.statusCode() != 200) {
+                    throw error(response, reader);
+                }
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.isBlank()) {
+                        continue;
+                    }
+                    JSONObject json = new JSONObject(line);
+                    if (json.optBoolean("summary", false)) {
+                        return convert(json, BatchSummary.class);
+                    }
+                    consumer.accept(convert(json, BatchItem.class));
+                }
+                throw new RestClientException(response.statusCode(), "Batch response from " + request.uri() + " ended without summary");
+            } catch (IOException | JSONException e) {
+                throw new RestClientException("Invalid response from " + request.uri() + ": " + e.getMessage(), e);
+            }
+        }, executor);
+    }
+
+    private CompletableFuture<HttpResponse<InputStream>> send(HttpRequest request, boolean idempotent) {
+        return attempt(request, idempotent, 1);
+    }
+
+    private CompletableFuture<HttpResponse<InputStream>> attempt(HttpRequest request, boolean idempotent, int attempt) {
+        RetryPolicy retry = settings.retry();
+        return client.sendAsync(request, HttpResponse.BodyHandlers.ofInputStream()).handle((response, failure) -> {
+            if (failure != null) {
+                Throwable cause = failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure;
+                // Ohne Verbindung hat der Server nichts ausgeführt, dann darf auch ein Start wiederholt werden
+                boolean safe = idempotent || cause instanceof ConnectException || cause instanceof HttpConnectTimeoutException;
+                if (safe && cause instanceof IOException && retry.canRetry(attempt)) {
+                    return later(retry.delay(attempt), () -> attempt(request, idempotent, attempt + 1));
+                }
+                return CompletableFuture.<HttpResponse<InputStream>>failedFuture(
+                        new RestClientException(request.method() + " " + request.uri() + " failed: " + cause.getMessage(), cause));
+            }
+            int status = response.statusCode();
+            if ((status == 429 || idempotent && (status == 502 || status == 503 || status == 504)) && retry.canRetry(attempt)) {
+                discard(response);
+                return later(retry.delay(attempt, response.headers().firstValue("Retry-After").orElse(null)),
+                        () -> attempt(request, idempotent, attempt + 1));
+            }
+            return CompletableFuture.completedFuture(response);
+        }).thenCompose(Function.identity());
+    }
+
+    private <T> CompletableFuture<T> later(Duration delay, Supplier<CompletableFuture<T>> next) {
+        return CompletableFuture.supplyAsync(next, CompletableFuture.delayedExecutor(delay.toMillis(), TimeUnit.MILLISECONDS, executor))
+                .thenCompose(Function.identity());
+    }
+
+    private <R> CompletableFuture<BulkResult<R>> bulk(List<String> keys, Function<String, CompletableFuture<R>> call) {
+        CompletableFuture<BulkResult<R>> result = new CompletableFuture<>();
+        if (keys.isEmpty()) {
+            result.complete(new BulkResult<>(Map.of(), Map.of()));
+            return result;
+        }
+        Map<String, R> succeeded = new ConcurrentHashMap<>();
+        Map<String, Throwable> failed = new ConcurrentHashMap<>();
+        AtomicInteger cursor = new AtomicInteger();
+        AtomicInteger remaining = new AtomicInteger(keys.size());
+        Runnable[] next = new Runnable[1];
+        next[0] = () -> {
+            int index = cursor.getAndIncrement();
+            if (index >= keys.size()) {
+                return;
+            }
+            String key = keys.get(index);
+            CompletableFuture<R> future;
+            try {
+                future = call.apply(key);
+            } catch (RuntimeException e) {
+                future = CompletableFuture.failedFuture(e);
+            }
+            future.whenComplete((value, failure) -> {
+                if (failure != null) {
+                    failed.put(key, failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure);
+                } else {
+                    succeeded.put(key, value);
+                }
+                if (remaining.decrementAndGet() == 0) {
+                    // Ergebnisse in Eingabereihenfolge
+                    Map<String, R> orderedSucceeded = new LinkedHashMap<>();
+                    Map<String, Throwable> orderedFailed = new LinkedHashMap<>();
+                    for (String item : keys) {
+                        if (succeeded.containsKey(item)) {
+                            orderedSucceeded.put(item, succeeded.get(item));
+                        } else if (failed.containsKey(item)) {
+                            orderedFailed.put(item, failed.get(item));
+                        }
+                    }
+                    result.complete(new BulkResult<>(orderedSucceeded, orderedFailed));
+                } else {
+                    next[0].run();
+                }
+            });
+        };
+        for (int i = 0; i < Math.min(Math.max(1, settings.maxInFlight()), keys.size()); i++) {
+            next[0].run();
+        }
+        return result;
+    }
+
+    private static <T> T convert(Object value, Class<T> type) {
+        if (value instanceof JSONObject json && type != JSONObject.class) {
+            return JsonSerializer.deserializeFromJSONObject(json, type);
+        }
+        if (type.isInstance(value)) {
+            return type.cast(value);
+        }
+        throw new RestClientException(0, "Cannot read " + value + " as " + type.getSimpleName());
+    }
+
+    private static RestClientException error(HttpResponse<InputStream> response, Reader reader) throws IOException {
+        StringBuilder text = new StringBuilder();
+        char[] buffer = new char[1024];
+        int read;
+        while ((read = reader.read(buffer)) >= 0 && text.length() < 64 * 1024) {
+            text.append(buffer, 0, read);
+        }
+        String message = text.toString();
+        try {
+            message = new JSONObject(message).optString("error", message);
+        } catch (JSONException ignored) {
+        }
+        return new RestClientException(response.statusCode(), response.request().method() + " " + response.uri() + " returned "
+                + response.statusCode() + ": " + message);
+    }
+
+    private static Reader reader(HttpResponse<InputStream> response) {
+        return new InputStreamReader(response.body(), StandardCharsets.UTF_8);
+    }
+
+    private static void discard(HttpResponse<InputStream> response) {
+        try (InputStream body = response.body()) {
+            body.transferTo(OutputStream.nullOutputStream());
+        } catch (IOException ignored) {
+        }
+    }
+
+    private static String encode(String segment) {
+        return URLEncoder.encode(segment, StandardCharsets.UTF_8).replace("+", "%20");
+    }
+
+    @Override
+    public void close() {
+        client.shutdownNow();
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,20 @@
+package community.theprojects.fairy.restclient;
+
+public class RestClientException extends RuntimeException {
+    private final int status;
+
+    public RestClientException(int status, String message) {
+        super(message);
+        this.status = status;
+    }
+
+    public RestClientException(String message, Throwable cause) {
+        super(message, cause);
+        this.status = 0;
+    }
+
+    // 0, wenn keine Antwort vom Server kam
+    public int getStatus() {
+        return status;
+    }
+}
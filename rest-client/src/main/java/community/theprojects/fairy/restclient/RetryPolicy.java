@@ -0,0 +1,39 @@
+package community.theprojects.fairy.restclient;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Exponentielles Backoff mit vollem Jitter, damit viele Clients nach einem Ausfall nicht im Gleichschritt wiederholen
+public record RetryPolicy(int maxAttempts, Duration initialDelay, Duration maxDelay, double multiplier) {
+
+    public static RetryPolicy defaults() {
+        return new RetryPolicy(Integer.getInteger("fairy.client.maxAttempts", 4),
+                Duration.ofMillis(Long.getLong("fairy.client.retryDelay", 100L)),
+                Duration.ofMillis(Long.getLong("fairy.client.maxRetryDelay", 5000L)), 2.0);
+    }
+
+    public static RetryPolicy none() {
+        return new RetryPolicy(1, Duration.ZERO, Duration.ZERO, 1.0);
+    }
+
+    public Duration delay(int attempt) {
+        double ceiling = Math.min(maxDelay.toMillis(), initialDelay.toMillis() * Math.pow(multiplier, attempt - 1));
+        return Duration.ofMillis((long) (ThreadLocalRandom.current().nextDouble() * ceiling));
+    }
+
+    public boolean canRetry(int attempt) {
+        return attempt < maxAttempts;
+    }
+
+    // 429 und 503 tragen oft Retry-After, das hat Vorrang, ist aber durch maxDelay gedeckelt
+    public Duration delay(int attempt, String retryAfter) {
+        if (retryAfter != null) {
+            try {
+                long seconds = Long.parseLong(retryAfter.trim());
+                return Duration.ofMillis(Math.min(maxDelay.toMillis(), Math.max(0, seconds) * 1000L));
+            } catch (NumberFormatException ignored) {
+            }
+        }
+        return delay(attempt);
+    }
+}
@@ -0,0 +1,38 @@
+package community.theprojects.fairy.restclient.model;
+
+public class BatchItem {
+    private String request;
+    private boolean ok;
+    private String error;
+    private String outcome;
+    private ServiceInfo service;
+
+    public BatchItem() {
+    }
+
+    public String getRequest() {
+        return request;
+    }
+
+    public boolean isOk() {
+        return ok;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public String getOutcome() {
+        return outcome;
+    }
+
+    public ServiceInfo getService() {
+        return service;
+    }
+
+    @Override
+    public String toString() {
+        return "BatchItem{request=" + request + ", ok=" + ok + (error != null ? ", error=" + error : "")
+                + (service != null ? ", service=" + service.getName() : "") + '}';
+    }
+}
@@ -0,0 +1,36 @@
+package community.theprojects.fairy.restclient.model;
+
+public class BatchSummary {
+    private int items;
+    private int succeeded;
+    private int failed;
+    private long durationMillis;
+
+    public BatchSummary() {
+    }
+
+    public int getItems() {
+        return items;
+    }
+
+    public int getSucceeded() {
+        return succeeded;
+    }
+
+    public int getFailed() {
+        return failed;
+    }
+
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+
+    public boolean isComplete() {
+        return failed == 0;
+    }
+
+    @Override
+    public String toString() {
+        return "BatchSummary{items=" + items + ", succeeded=" + succeeded + ", failed=" + failed + ", durationMillis=" + durationMillis + '}';
+    }
+}
@@ -0,0 +1,37 @@
+package community.theprojects.fairy.restclient.model;
+
+import java.util.List;
+
+public class EventBatch {
+    private List<ServiceEvent> events;
+    private long next;
+    private boolean truncated;
+    private long epoch;
+
+    public EventBatch() {
+    }
+
+    public List<ServiceEvent> getEvents() {
+        return events != null ? events : List.of();
+    }
+
+    // Für den nächsten Aufruf als since übergeben
+    public long getNext() {
+        return next;
+    }
+
+    // Ereignisse zwischen since und dem ersten gelieferten sind verloren, der Zustand sollte neu geladen werden
+    public boolean isTruncated() {
+        return truncated;
+    }
+
+    // Kennung der Laufzeit der Node; zusammen mit next beim nächsten Aufruf übergeben
+    public long getEpoch() {
+        return epoch;
+    }
+
+    @Override
+    public String toString() {
+        return "EventBatch{events=" + getEvents().size() + ", next=" + next + ", truncated=" + truncated + ", epoch=" + epoch + '}';
+    }
+}
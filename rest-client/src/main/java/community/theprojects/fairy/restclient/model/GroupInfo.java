@@ -0,0 +1,57 @@
+package community.theprojects.fairy.restclient.model;
+
+public class GroupInfo {
+    private String name;
+    private String description;
+    private String type;
+    private int minimumMemory;
+    private int maximumMemory;
+    private int maxPlayers;
+    private boolean staticServices;
+    private String template;
+    private int services;
+
+    public GroupInfo() {
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public int getMinimumMemory() {
+        return minimumMemory;
+    }
+
+    public int getMaximumMemory() {
+        return maximumMemory;
+    }
+
+    public int getMaxPlayers() {
+        return maxPlayers;
+    }
+
+    public boolean hasStaticServices() {
+        return staticServices;
+    }
+
+    public String getTemplate() {
+        return template;
+    }
+
+    public int getServices() {
+        return services;
+    }
+
+    @Override
+    public String toString() {
+        return "GroupInfo{name=" + name + ", type=" + type + ", services=" + services + '}';
+    }
+}
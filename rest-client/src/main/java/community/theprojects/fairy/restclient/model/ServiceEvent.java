@@ -0,0 +1,51 @@
+package community.theprojects.fairy.restclient.model;
+
+import community.theprojects.fairy.api.service.ServiceStatus;
+
+import java.time.Instant;
+
+public class ServiceEvent {
+    private long sequence;
+    private String service;
+    private String id;
+    private String group;
+    private ServiceStatus from;
+    private ServiceStatus to;
+    private Instant time;
+
+    public ServiceEvent() {
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public String getService() {
+        return service;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getGroup() {
+        return group;
+    }
+
+    public ServiceStatus getFrom() {
+        return from;
+    }
+
+    public ServiceStatus getTo() {
+        return to;
+    }
+
+    public Instant getTime() {
+        return time;
+    }
+
+    @Override
+    public String toString() {
+        return "ServiceEvent{sequence=" + sequence + ", service=" + service + ", " + from + " -> " + to + '}';
+    }
+}
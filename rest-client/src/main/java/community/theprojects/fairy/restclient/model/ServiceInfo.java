@@ -0,0 +1,58 @@
+package community.theprojects.fairy.restclient.model;
+
+import community.theprojects.fairy.api.service.ServiceStatus;
+
+import java.time.Instant;
+import java.util.UUID;
+
+public class ServiceInfo {
+    private String id;
+    private String name;
+    private String group;
+    private int number;
+    private int port;
+    private ServiceStatus status;
+    private Instant startedAt;
+    // Mit Replikation die Node, sonst der Worker bei Starts über den Cluster; lokal null
+    private String node;
+
+    public ServiceInfo() {
+    }
+
+    public UUID getId() {
+        return id != null ? UUID.fromString(id) : null;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getGroup() {
+        return group;
+    }
+
+    public int getNumber() {
+        return number;
+    }
+
+    public int getPort() {
+        return port;
+    }
+
+    public ServiceStatus getStatus() {
+        return status;
+    }
+
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    public String getNode() {
+        return node;
+    }
+
+    @Override
+    public String toString() {
+        return "ServiceInfo{name=" + name + ", group=" + group + ", port=" + port + ", status=" + status + '}';
+    }
+}
@@ -0,0 +1,44 @@
+package community.theprojects.fairy.restclient.model;
+
+import java.util.List;
+import java.util.Map;
+
+public class StartResult {
+    private String group;
+    private int requested;
+    private List<ServiceInfo> started;
+    private Map<String, Object> failures;
+    private long durationMillis;
+
+    public StartResult() {
+    }
+
+    public String getGroup() {
+        return group;
+    }
+
+    public int getRequested() {
+        return requested;
+    }
+
+    public List<ServiceInfo> getStarted() {
+        return started != null ? started : List.of();
+    }
+
+    public Map<String, Object> getFailures() {
+        return failures != null ? failures : Map.of();
+    }
+
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+
+    public boolean isComplete() {
+        return getStarted().size() == requested;
+    }
+
+    @Override
+    public String toString() {
+        return "StartResult{group=" + group + ", started=" + getStarted().size() + "/" + requested + ", failures=" + getFailures().keySet() + '}';
+    }
+}
@@ -0,0 +1,34 @@
+package community.theprojects.fairy.restclient.model;
+
+import java.util.Map;
+
+public class StopResult {
+    private String service;
+    private int services;
+    private Map<String, Object> outcomes;
+    private long durationMillis;
+
+    public StopResult() {
+    }
+
+    public String getService() {
+        return service;
+    }
+
+    public int getServices() {
+        return services;
+    }
+
+    public Map<String, Object> getOutcomes() {
+        return outcomes != null ? outcomes : Map.of();
+    }
+
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "StopResult{service=" + service + ", outcomes=" + getOutcomes() + '}';
+    }
+}
@@ -0,0 +1,14 @@
+package community.theprojects.fairy.restserver;
+
+public class HttpException extends RuntimeException {
+    private final int status;
+
+    public HttpException(int status, String message) {
+        super(message);
+        this.status = status;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+}
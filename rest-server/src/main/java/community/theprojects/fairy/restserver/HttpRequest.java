@@ -0,0 +1,106 @@
+package community.theprojects.fairy.restserver;
+
+import org.json.JSONObject;
+
+import java.net.InetAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+public final class HttpRequest {
+    private final String method;
+    private final String path;
+    private final String query;
+    private final Map<String, String> headers;
+    private final byte[] body;
+    private final InetAddress remoteAddress;
+    private Map<String, String> params;
+    private Map<String, String> queryParams;
+
+    HttpRequest(String method, String target, Map<String, String> headers, byte[] body, InetAddress remoteAddress) {
+        int separator = target.indexOf('?');
+        this.method = method;
+        this.path = separator < 0 ? target : target.substring(0, separator);
+        this.query = separator < 0 ? null : target.substring(separator + 1);
+        this.headers = headers;
+        this.body = body;
+        this.remoteAddress = remoteAddress;
+        this.params = Map.of();
+    }
+
+    void setParams(Map<String, String> params) {
+        this.params = params;
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public InetAddress getRemoteAddress() {
+        return remoteAddress;
+    }
+
+    public String header(String name) {
+        return headers.get(name.toLowerCase(Locale.ROOT));
+    }
+
+    public String param(String name) {
+        return params.get(name);
+    }
+
+    public String query(String name) {
+        // Query wird erst bei Bedarf zerlegt
+        if (queryParams == null) {
+            queryParams = new HashMap<>();
+            if (query != null) {
+                for (String pair : query.split("&")) {
+                    if (pair.isEmpty()) {
+                        continue;
+                    }
+                    int equals = pair.indexOf('=');
+                    String key = URLDecoder.decode(equals < 0 ? pair : pair.substring(0, equals), StandardCharsets.UTF_8);
+                    String value = equals < 0 ? "" : URLDecoder.decode(pair.substring(equals + 1), StandardCharsets.UTF_8);
+                    queryParams.putIfAbsent(key, value);
+                }
+            }
+        }
+        return queryParams.get(name);
+    }
+
+    public int queryInt(String name, int defaultValue) {
+        String value = query(name);
+        if (value == null || value.isEmpty()) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new HttpException(400, "Query parameter '" + name + "' must be a number");
+        }
+    }
+
+    public byte[] body() {
+        return body;
+    }
+
+    public String bodyText() {
+        return new String(body, StandardCharsets.UTF_8);
+    }
+
+    public JSONObject bodyJson() {
+        if (body.length == 0) {
+            return new JSONObject();
+        }
+        try {
+            return new JSONObject(bodyText());
+        } catch (RuntimeException e) {
+            throw new HttpException(400, "Invalid JSON body: " + e.getMessage());
+        }
+    }
+}
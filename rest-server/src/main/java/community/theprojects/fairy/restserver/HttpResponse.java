@@ -0,0 +1,301 @@
+package community.theprojects.fairy.restserver;
+
+import community.theprojects.fairy.util.json.JsonSerializer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public final class HttpResponse {
+    private static final int BUFFER_BYTES = Integer.getInteger("fairy.api.responseBuffer", 8192);
+    private static final byte[] CRLF = {'\r', '\n'};
+    private static final byte[] LAST_CHUNK = {'0', '\r', '\n', '\r', '\n'};
+    private final OutputStream out;
+    private final boolean head;
+    private final Map<String, String> headers;
+    private boolean keepAlive;
+    private int status;
+    private boolean committed;
+    private BodyStream body;
+
+    HttpResponse(OutputStream out, boolean head, boolean keepAlive) {
+        this.out = out;
+        this.head = head;
+        this.keepAlive = keepAlive;
+        this.headers = new LinkedHashMap<>();
+        this.status = 200;
+    }
+
+    public HttpResponse header(String name, String value) {
+        if (committed) {
+            throw new IllegalStateException("Response already committed");
+        }
+        headers.put(name, value);
+        return this;
+    }
+
+    public boolean isCommitted() {
+        return committed;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    boolean isKeepAlive() {
+        return keepAlive;
+    }
+
+    public void send(int status, String contentType, byte[] content) throws IOException {
+        this.status = status;
+        headers.put("Content-Type", contentType);
+        writeHead(content.length);
+        if (!head) {
+            out.write(content);
+        }
+    }
+
+    public void text(int status, String text) throws IOException {
+        send(status, "text/plain; charset=utf-8", text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public void empty(int status) throws IOException {
+        this.status = status;
+        writeHead(status == 204 || status == 304 ? -2 : 0);
+    }
+
+    // Serialisiert direkt in den Socket-Puffer; kleine Antworten erhalten eine Content-Length, große werden gechunkt
+    public void json(int status, Object value) throws IOException {
+        // Kein try-with-resources: bei einem Fehler soll die halbe Antwort verworfen und nicht abgeschlossen werden
+        Writer writer = stream(status, "application/json");
+        JsonSerializer.write(value, writer);
+        writer.close();
+    }
+
+    public void error(int status, String message) throws IOException {
+        json(status, Map.of("error", message == null ? "" : message));
+    }
+
+    // Der Writer puffert bis BUFFER_BYTES, flush() schickt das Bisherige sofort als Chunk
+    public Writer stream(int status, String contentType) {
+        if (committed || body != null) {
+            throw new IllegalStateException("Response already committed");
+        }
+        this.status = status;
+        headers.put("Content-Type", contentType.contains("charset") ? contentType : contentType + "; charset=utf-8");
+        this.body = new BodyStream();
+        return new BodyWriter(body);
+    }
+
+    void finish() throws IOException {
+        if (body != null) {
+            body.close();
+        } else if (!committed) {
+            empty(204);
+        }
+    }
+
+    // contentLength: -1 für Chunked, -2 ganz ohne Body-Header
+    private void writeHead(long contentLength) throws IOException {
+        if (committed) {
+            throw new IllegalStateException("Response already committed");
+        }
+        committed = true;
+        StringBuilder builder = new StringBuilder(128);
+        builder.append("HTTP/1.1 ").append(status).append(' ').append(reason(status)).append("\r\n");
+        headers.forEach((name, value) -> builder.append(name).append(": ").append(value).append("\r\n"));
+        if (contentLength >= 0) {
+            builder.append("Content-Length: ").append(contentLength).append("\r\n");
+        } else if (contentLength == -1) {
+            builder.append("Transfer-Encoding: chunked\r\n");
+        }
+        builder.append(keepAlive ? "Connection: keep-alive\r\n" : "Connection: close\r\n");
+        builder.append("\r\n");
+        out.write(builder.toString().getBytes(StandardCharsets.ISO_8859_1));
+    }
+
+    // Verwirft eine noch gepufferte Antwort, damit stattdessen ein Fehler gesendet werden kann
+    boolean reset() {
+        if (committed) {
+            return false;
+        }
+        body = null;
+        headers.clear();
+        status = 200;
+        return true;
+    }
+
+    void closeConnection() {
+        keepAlive = false;
+    }
+
+    static String reason(int status) {
+        return switch (status) {
+            case 100 -> "Continue";
+            case 200 -> "OK";
+            case 201 -> "Created";
+            case 202 -> "Accepted";
+            case 204 -> "No Content";
+            case 304 -> "Not Modified";
+            case 400 -> "Bad Request";
+            case 401 -> "Unauthorized";
+            case 403 -> "Forbidden";
+            case 404 -> "Not Found";
+            case 405 -> "Method Not Allowed";
+            case 409 -> "Conflict";
+            case 411 -> "Length Required";
+            case 413 -> "Payload Too Large";
+            case 429 -> "Too Many Requests";
+            case 431 -> "Request Header Fields Too Large";
+            case 500 -> "Internal Server Error";
+            case 501 -> "Not Implemented";
+            case 503 -> "Service Unavailable";
+            default -> "Status " + status;
+        };
+    }
+
+    private final class BodyStream extends OutputStream {
+        private final byte[] buffer = new byte[BUFFER_BYTES];
+        private int count;
+        private boolean closed;
+
+        @Override
+        public void write(int b) throws IOException {
+            if (count == buffer.length) {
+                writeChunk();
+            }
+            buffer[count++] = (byte) b;
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            while (length > 0) {
+                if (count == buffer.length) {
+                    writeChunk();
+                }
+                int copy = Math.min(length, buffer.length - count);
+                System.arraycopy(bytes, offset, buffer, count, copy);
+                count += copy;
+                offset += copy;
+                length -= copy;
+            }
+        }
+
+        private void writeChunk() throws IOException {
+            if (!committed) {
+                writeHead(-1);
+            }
+            if (count > 0 && !head) {
+                out.write(Integer.toHexString(count).getBytes(StandardCharsets.ISO_8859_1));
+                out.write(CRLF);
+                out.write(buffer, 0, count);
+                out.write(CRLF);
+            }
+            count = 0;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (closed) {
+                return;
+            }
+            writeChunk();
+            out.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            if (!committed) {
+                writeHead(count);
+                if (!head) {
+                    out.write(buffer, 0, count);
+                }
+                return;
+            }
+            writeChunk();
+            if (!head) {
+                out.write(LAST_CHUNK);
+            }
+        }
+    }
+
+    // UTF-8 ohne CharsetEncoder, close() schließt nur den Body und flusht den Socket nicht
+    private static final class BodyWriter extends Writer {
+        private final BodyStream body;
+        private char highSurrogate;
+
+        private BodyWriter(BodyStream body) {
+            this.body = body;
+        }
+
+        @Override
+        public void write(int c) throws IOException {
+            encode((char) c);
+        }
+
+        @Override
+        public void write(String value, int offset, int length) throws IOException {
+            for (int i = offset; i < offset + length; i++) {
+                encode(value.charAt(i));
+            }
+        }
+
+        @Override
+        public void write(char[] chars, int offset, int length) throws IOException {
+            for (int i = offset; i < offset + length; i++) {
+                encode(chars[i]);
+            }
+        }
+
+        private void encode(char c) throws IOException {
+            if (highSurrogate != 0) {
+                char high = highSurrogate;
+                highSurrogate = 0;
+                if (Character.isLowSurrogate(c)) {
+                    int codePoint = Character.toCodePoint(high, c);
+                    body.write(0xF0 | (codePoint >> 18));
+                    body.write(0x80 | ((codePoint >> 12) & 0x3F));
+                    body.write(0x80 | ((codePoint >> 6) & 0x3F));
+                    body.write(0x80 | (codePoint & 0x3F));
+                    return;
+                }
+                body.write('?');
+            }
+            if (c < 0x80) {
+                body.write(c);
+            } else if (c < 0x800) {
+                body.write(0xC0 | (c >> 6));
+                body.write(0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c)) {
+                highSurrogate = c;
+            } else if (Character.isLowSurrogate(c)) {
+                body.write('?');
+            } else {
+                body.write(0xE0 | (c >> 12));
+                body.write(0x80 | ((c >> 6) & 0x3F));
+                body.write(0x80 | (c & 0x3F));
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            body.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (highSurrogate != 0) {
+                highSurrogate = 0;
+                body.write('?');
+            }
+            body.close();
+        }
+    }
+}
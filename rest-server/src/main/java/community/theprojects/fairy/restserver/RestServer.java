@@ -0,0 +1,310 @@
+package community.theprojects.fairy.restserver;
+
+import java.io.*;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+
+// HTTP/1.1 mit Keep-Alive, ein virtueller Thread pro Verbindung; geflusht wird erst, wenn keine weitere Anfrage ansteht
+public final class RestServer implements AutoCloseable {
+    private static final int MAX_HEADER_BYTES = Integer.getInteger("fairy.api.maxHeaderBytes", 16 * 1024);
+    private static final int MAX_BODY_BYTES = Integer.getInteger("fairy.api.maxBodyBytes", 1024 * 1024);
+    private static final int IDLE_TIMEOUT = Integer.getInteger("fairy.api.idleTimeout", 30000);
+    private static final int MAX_CONNECTIONS = Integer.getInteger("fairy.api.maxConnections", 4096);
+    private final ServerSocket serverSocket;
+    private final Router router;
+    private final TokenAuth auth;
+    private final ExecutorService executor;
+    private final Set<Socket> connections;
+    private final Stats stats;
+
+    public RestServer(InetSocketAddress address, Router router, TokenAuth auth) throws IOException {
+        this.serverSocket = new ServerSocket();
+        this.serverSocket.setReuseAddress(true);
+        this.serverSocket.bind(address, 1024);
+        this.router = router;
+        this.auth = auth;
+        this.executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("fairy-api-", 0).factory());
+        this.connections = ConcurrentHashMap.newKeySet();
+        this.stats = new Stats();
+        Thread.ofVirtual().name("fairy-api-acceptor").start(this::accept);
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    public boolean isRunning() {
+        return !serverSocket.isClosed();
+    }
+
+    public TokenAuth getAuth() {
+        return auth;
+    }
+
+    public Stats getStats() {
+        return stats;
+    }
+
+    public int getConnections() {
+        return connections.size();
+    }
+
+    private void accept() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                if (connections.size() >= MAX_CONNECTIONS) {
+                    stats.rejected.increment();
+                    socket.close();
+                    continue;
+                }
+                connections.add(socket);
+                executor.execute(() -> serve(socket));
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        try (socket) {
+            socket.setTcpNoDelay(true);
+            socket.setSoTimeout(IDLE_TIMEOUT);
+            InputStream in = new BufferedInputStream(socket.getInputStream(), 8192);
+            OutputStream out = new BufferedOutputStream(socket.getOutputStream(), 8192);
+            while (!serverSocket.isClosed()) {
+                boolean keepAlive;
+                try {
+                    keepAlive = handle(socket, in, out);
+                } catch (HttpException e) {
+                    // Fehler beim Lesen der Anfrage, der Rest des Streams ist nicht mehr verwertbar
+                    reject(out, e.getStatus(), e.getMessage());
+                    keepAlive = false;
+                }
+                if (!keepAlive) {
+                    out.flush();
+                    return;
+                }
+                // Pipelinierte Anfragen gemeinsam zurückschreiben
+                if (in.available() == 0) {
+                    out.flush();
+                }
+            }
+        } catch (SocketTimeoutException | EOFException ignored) {
+        } catch (IOException ignored) {
+        } finally {
+            connections.remove(socket);
+        }
+    }
+
+    private boolean handle(Socket socket, InputStream in, OutputStream out) throws IOException {
+        int[] budget = {MAX_HEADER_BYTES};
+        String requestLine = readLine(in, budget);
+        if (requestLine == null) {
+            return false;
+        }
+        if (requestLine.isEmpty()) {
+            return true;
+        }
+        String[] parts = requestLine.split(" ");
+        if (parts.length != 3 || !parts[2].startsWith("HTTP/1.")) {
+            throw new HttpException(400, "Malformed request line");
+        }
+        Map<String, String> headers = new HashMap<>();
+        String line;
+        while ((line = readLine(in, budget)) != null && !line.isEmpty()) {
+            int colon = line.indexOf(':');
+            if (colon > 0) {
+                headers.merge(line.substring(0, colon).trim().toLowerCase(Locale.ROOT), line.substring(colon + 1).trim(), (a, b) -> a + "," + b);
+            }
+        }
+        if (line == null) {
+            return false;
+        }
+        String method = parts[0].toUpperCase(Locale.ROOT);
+        String connection = headers.getOrDefault("connection", "");
+        boolean keepAlive = parts[2].equals("HTTP/1.1") ? !connection.equalsIgnoreCase("close") : connection.equalsIgnoreCase("keep-alive");
+        if ("100-continue".equalsIgnoreCase(headers.get("expect"))) {
+            out.write("HTTP/1.1 100 Continue\r\n\r\n".getBytes(StandardCharsets.ISO_8859_1));
+            out.flush();
+        }
+        byte[] body = readBody(in, headers);
+        HttpRequest request = new HttpRequest(method, parts[1], headers, body, socket.getInetAddress());
+        HttpResponse response = new HttpResponse(out, method.equals("HEAD"), keepAlive);
+        dispatch(request, response);
+        response.finish();
+        return response.isKeepAlive();
+    }
+
+    private void dispatch(HttpRequest request, HttpResponse response) throws IOException {
+        stats.requests.increment();
+        try {
+            if (auth != null && !auth.verify(request)) {
+                stats.unauthorized.increment();
+                response.header("WWW-Authenticate", "Bearer").error(401, "Missing or invalid token");
+                return;
+            }
+            Router.Match match = router.match(request.getMethod(), request.getPath());
+            if (!match.isFound()) {
+                if (match.isPathKnown()) {
+                    response.header("Allow", String.join(", ", match.allowed())).error(405, "Method " + request.getMethod() + " not allowed");
+                } else {
+                    response.error(404, "No route for " + request.getPath());
+                }
+                return;
+            }
+            request.setParams(match.params());
+            match.handler().handle(request, response);
+        } catch (HttpException e) {
+            fail(response, e.getStatus(), e.getMessage());
+        } catch (IllegalArgumentException e) {
+            fail(response, 400, e.getMessage());
+        } catch (IOException e) {
+            throw e;
+        } catch (Exception e) {
+            stats.errors.increment();
+            fail(response, 500, e.getClass().getSimpleName() + ": " + e.getMessage());
+        }
+    }
+
+    private void fail(HttpResponse response, int status, String message) throws IOException {
+        // Nach begonnener Antwort lässt sich kein Status mehr senden, die Verbindung wird abgebrochen
+        if (!response.reset()) {
+            response.closeConnection();
+            throw new IOException("Handler failed after response was committed: " + message);
+        }
+        response.error(status, message);
+    }
+
+    private void reject(OutputStream out, int status, String message) throws IOException {
+        HttpResponse response = new HttpResponse(out, false, false);
+        response.error(status, message);
+        response.finish();
+    }
+
+    private static byte[] readBody(InputStream in, Map<String, String> headers) throws IOException {
+        String encoding = headers.get("transfer-encoding");
+        if (encoding != null && encoding.toLowerCase(Locale.ROOT).contains("chunked")) {
+            return readChunked(in);
+        }
+        String length = headers.get("content-length");
+        if (length == null) {
+            return new byte[0];
+        }
+        long size;
+        try {
+            size = Long.parseLong(length.trim());
+        } catch (NumberFormatException e) {
+            throw new HttpException(400, "Invalid Content-Length");
+        }
+        if (size < 0 || size > MAX_BODY_BYTES) {
+            throw new HttpException(413, "Body exceeds " + MAX_BODY_BYTES + " bytes");
+        }
+        byte[] body = in.readNBytes((int) size);
+        if (body.length < size) {
+            throw new EOFException("Body truncated");
+        }
+        return body;
+    }
+
+    private static byte[] readChunked(InputStream in) throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        int[] budget = {MAX_HEADER_BYTES};
+        while (true) {
+            String line = readLine(in, budget);
+            if (line == null) {
+                throw new EOFException("Chunked body truncated");
+            }
+            int extension = line.indexOf(';');
+            int size;
+            try {
+                size = Integer.parseInt((extension < 0 ? line : line.substring(0, extension)).trim(), 16);
+            } catch (NumberFormatException e) {
+                throw new HttpException(400, "Invalid chunk size");
+            }
+            if (size == 0) {
+                // Trailer überspringen
+                while ((line = readLine(in, budget)) != null && !line.isEmpty()) {
+                }
+                return body.toByteArray();
+            }
+            if (size < 0 || body.size() + (long) size > MAX_BODY_BYTES) {
+                throw new HttpException(413, "Body exceeds " + MAX_BODY_BYTES + " bytes");
+            }
+            byte[] chunk = in.readNBytes(size);
+            if (chunk.length < size) {
+                throw new EOFException("Chunked body truncated");
+            }
+            body.write(chunk);
+            readLine(in, budget);
+        }
+    }
+
+    // Zeilen als ISO-8859-1, das Budget begrenzt Request-Zeile und Header gemeinsam
+    private static String readLine(InputStream in, int[] budget) throws IOException {
+        StringBuilder line = new StringBuilder(64);
+        int b;
+        while ((b = in.read()) >= 0) {
+            if (--budget[0] < 0) {
+                throw new HttpException(431, "Headers exceed " + MAX_HEADER_BYTES + " bytes");
+            }
+            if (b == '\n') {
+                int length = line.length();
+                if (length > 0 && line.charAt(length - 1) == '\r') {
+                    line.setLength(length - 1);
+                }
+                return line.toString();
+            }
+            line.append((char) b);
+        }
+        return line.isEmpty() ? null : line.toString();
+    }
+
+    @Override
+    public void close() {
+        try {
+            serverSocket.close();
+        } catch (IOException ignored) {
+        }
+        for (Socket socket : connections) {
+            try {
+                socket.close();
+            } catch (IOException ignored) {
+            }
+        }
+        executor.shutdownNow();
+    }
+
+    public static final class Stats {
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder unauthorized = new LongAdder();
+        private final LongAdder rejected = new LongAdder();
+
+        public long requests() {
+            return requests.sum();
+        }
+
+        public long errors() {
+            return errors.sum();
+        }
+
+        public long unauthorized() {
+            return unauthorized.sum();
+        }
+
+        public long rejected() {
+            return rejected.sum();
+        }
+    }
+}
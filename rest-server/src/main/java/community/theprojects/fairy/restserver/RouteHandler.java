@@ -0,0 +1,8 @@
+package community.theprojects.fairy.restserver;
+
+@FunctionalInterface
+public interface RouteHandler {
+
+    void handle(HttpRequest request, HttpResponse response) throws Exception;
+
+}
@@ -0,0 +1,147 @@
+package community.theprojects.fairy.restserver;
+
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+// Routen werden beim Bauen in einen Trie pro Pfadsegment übersetzt, die Suche kommt ohne Regex und Split aus
+public final class Router {
+    private final Node root;
+
+    private Router(Node root) {
+        this.root = root;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public Match match(String method, String path) {
+        Map<String, String> params = new HashMap<>(4);
+        Node node = find(root, path, 0, params);
+        if (node == null) {
+            return new Match(null, Map.of(), Set.of());
+        }
+        RouteHandler handler = node.handlers.get(method);
+        if (handler == null && "HEAD".equals(method)) {
+            handler = node.handlers.get("GET");
+        }
+        return new Match(handler, params, node.handlers.keySet());
+    }
+
+    private static Node find(Node node, String path, int start, Map<String, String> params) {
+        while (start < path.length() && path.charAt(start) == '/') {
+            start++;
+        }
+        if (start >= path.length()) {
+            return node.handlers.isEmpty() ? null : node;
+        }
+        int end = path.indexOf('/', start);
+        if (end < 0) {
+            end = path.length();
+        }
+        // Statische Segmente haben Vorrang, Parameter nur als Rückfall
+        if (!node.statics.isEmpty()) {
+            Node child = node.statics.get(path.substring(start, end));
+            if (child != null) {
+                Node found = find(child, path, end, params);
+                if (found != null) {
+                    return found;
+                }
+            }
+        }
+        if (node.param != null) {
+            Node found = find(node.param, path, end, params);
+            if (found != null) {
+                params.put(node.param.paramName, decode(path.substring(start, end)));
+                return found;
+            }
+        }
+        return null;
+    }
+
+    private static String decode(String segment) {
+        return segment.indexOf('%') < 0 ? segment : URLDecoder.decode(segment.replace("+", "%2B"), StandardCharsets.UTF_8);
+    }
+
+    public record Match(RouteHandler handler, Map<String, String> params, Set<String> allowed) {
+
+        public boolean isFound() {
+            return handler != null;
+        }
+
+        public boolean isPathKnown() {
+            return !allowed.isEmpty();
+        }
+    }
+
+    private static final class Node {
+        private Map<String, Node> statics = new HashMap<>();
+        private Map<String, RouteHandler> handlers = new HashMap<>();
+        private Node param;
+        private String paramName;
+
+        private Node freeze() {
+            Map<String, Node> frozen = new HashMap<>();
+            statics.forEach((segment, child) -> frozen.put(segment, child.freeze()));
+            statics = Map.copyOf(frozen);
+            handlers = Map.copyOf(handlers);
+            if (param != null) {
+                param.freeze();
+            }
+            return this;
+        }
+    }
+
+    public static final class Builder {
+        private final Node root = new Node();
+
+        private Builder() {
+        }
+
+        public Builder get(String pattern, RouteHandler handler) {
+            return route("GET", pattern, handler);
+        }
+
+        public Builder post(String pattern, RouteHandler handler) {
+            return route("POST", pattern, handler);
+        }
+
+        public Builder put(String pattern, RouteHandler handler) {
+            return route("PUT", pattern, handler);
+        }
+
+        public Builder delete(String pattern, RouteHandler handler) {
+            return route("DELETE", pattern, handler);
+        }
+
+        public Builder route(String method, String pattern, RouteHandler handler) {
+            Node node = root;
+            for (String segment : pattern.split("/")) {
+                if (segment.isEmpty()) {
+                    continue;
+                }
+                if (segment.startsWith("{") && segment.endsWith("}")) {
+                    String name = segment.substring(1, segment.length() - 1);
+                    if (node.param == null) {
+                        node.param = new Node();
+                        node.param.paramName = name;
+                    } else if (!node.param.paramName.equals(name)) {
+                        throw new IllegalStateException("Conflicting parameter {" + name + "} and {" + node.param.paramName + "} in " + pattern);
+                    }
+                    node = node.param;
+                } else {
+                    node = node.statics.computeIfAbsent(segment, key -> new Node());
+                }
+            }
+            if (node.handlers.putIfAbsent(method.toUpperCase(Locale.ROOT), handler) != null) {
+                throw new IllegalStateException("Duplicate route " + method + " " + pattern);
+            }
+            return this;
+        }
+
+        public Router build() {
+            return new Router(root.freeze());
+        }
+    }
+}
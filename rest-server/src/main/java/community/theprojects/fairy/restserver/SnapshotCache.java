@@ -0,0 +1,117 @@
+package community.theprojects.fairy.restserver;
+
+import community.theprojects.fairy.util.json.JsonSerializer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+// Serialisierte JSON-Antworten je Schlüssel und Registry-Version; neu serialisiert wird erst, wenn sich die Version ändert
+public final class SnapshotCache {
+    private static final int MAX_ENTRIES = Integer.getInteger("fairy.api.cacheEntries", 1024);
+    private final Map<String, Entry> entries;
+    private final Stats stats;
+
+    public SnapshotCache() {
+        this.entries = new ConcurrentHashMap<>();
+        this.stats = new Stats();
+    }
+
+    public Stats getStats() {
+        return stats;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    // Die Version muss vor dem Snapshot gelesen werden: ändert sich der Zustand währenddessen, wird beim nächsten Abruf neu erzeugt
+    public void json(HttpRequest request, HttpResponse response, String key, long version, Supplier<Object> snapshot) throws IOException {
+        Entry entry = entries.get(key);
+        if (entry == null || entry.version() != version) {
+            entry = render(version, snapshot.get());
+            if (entries.size() >= MAX_ENTRIES && !entries.containsKey(key)) {
+                entries.clear();
+            }
+            entries.merge(key, entry, (current, rendered) -> current.version() >= rendered.version() ? current : rendered);
+            stats.renders.increment();
+        } else {
+            stats.hits.increment();
+        }
+        response.header("ETag", entry.etag()).header("Cache-Control", "no-cache");
+        if (matches(request.header("if-none-match"), entry.etag())) {
+            stats.notModified.increment();
+            response.empty(304);
+            return;
+        }
+        response.send(200, "application/json; charset=utf-8", entry.body());
+    }
+
+    private static Entry render(long version, Object value) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(1024);
+        try (Writer writer = new OutputStreamWriter(bytes, StandardCharsets.UTF_8)) {
+            JsonSerializer.write(value, writer);
+        }
+        byte[] body = bytes.toByteArray();
+        // ETag aus dem Inhalt: übersteht Neustarts und bleibt gleich, wenn eine Änderung wieder rückgängig gemacht wurde
+        return new Entry(version, "\"" + HexFormat.of().formatHex(sha256(body), 0, 12) + "\"", body);
+    }
+
+    private static boolean matches(String header, String etag) {
+        if (header == null) {
+            return false;
+        }
+        for (String candidate : header.split(",")) {
+            candidate = candidate.trim();
+            if (candidate.startsWith("W/")) {
+                candidate = candidate.substring(2);
+            }
+            if (candidate.equals("*") || candidate.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static byte[] sha256(byte[] value) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(value);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record Entry(long version, String etag, byte[] body) {
+    }
+
+    public static final class Stats {
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder renders = new LongAdder();
+        private final LongAdder notModified = new LongAdder();
+
+        public long hits() {
+            return hits.sum();
+        }
+
+        public long renders() {
+            return renders.sum();
+        }
+
+        public long notModified() {
+            return notModified.sum();
+        }
+    }
+}
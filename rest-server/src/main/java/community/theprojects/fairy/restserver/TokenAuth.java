@@ -0,0 +1,93 @@
+package community.theprojects.fairy.restserver;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+// Token liegt in der .secret-Datei; verglichen werden SHA-256-Digests in konstanter Zeit
+public final class TokenAuth {
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private final Path file;
+    private volatile String token;
+    private volatile byte[] digest;
+
+    private TokenAuth(Path file, String token) {
+        this.file = file;
+        setToken(token);
+    }
+
+    public static TokenAuth load(Path file) throws IOException {
+        if (Files.exists(file)) {
+            String token = Files.readString(file, StandardCharsets.UTF_8).trim();
+            if (!token.isEmpty()) {
+                return new TokenAuth(file, token);
+            }
+        }
+        TokenAuth auth = new TokenAuth(file, generate());
+        auth.store();
+        return auth;
+    }
+
+    public String getToken() {
+        return token;
+    }
+
+    public synchronized String regenerate() throws IOException {
+        setToken(generate());
+        store();
+        return token;
+    }
+
+    public boolean verify(HttpRequest request) {
+        String header = request.header("authorization");
+        if (header == null) {
+            header = request.header("authentication");
+        }
+        if (header == null) {
+            return false;
+        }
+        if (header.regionMatches(true, 0, "Bearer ", 0, 7)) {
+            header = header.substring(7);
+        }
+        return verify(header.trim());
+    }
+
+    // Der Digest gleicht die Länge an, isEqual bricht nicht beim ersten abweichenden Byte ab
+    public boolean verify(String presented) {
+        return presented != null && MessageDigest.isEqual(digest, sha256(presented));
+    }
+
+    private void setToken(String token) {
+        this.digest = sha256(token);
+        this.token = token;
+    }
+
+    private void store() throws IOException {
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        Files.writeString(temp, token, StandardCharsets.UTF_8);
+        try {
+            Files.setPosixFilePermissions(temp, PosixFilePermissions.fromString("rw-------"));
+        } catch (UnsupportedOperationException ignored) {
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static String generate() {
+        byte[] bytes = new byte[32];
+        RANDOM.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    private static byte[] sha256(String value) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
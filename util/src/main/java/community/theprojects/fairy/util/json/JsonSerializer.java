@@ -3,6 +3,7 @@ package community.theprojects.fairy.util.json;
 import org.json.JSONArray;
 import org.json.JSONObject;
 
+import java.io.IOException;
 import java.lang.annotation.ElementType;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
@@ -116,6 +117,126 @@ public class JsonSerializer {
         return jsonValue.toString();
     }
 
+    // Schreibt direkt in den Ausgabestrom, ohne JSONObject-Bäume aufzubauen
+    public static void write(Object obj, Appendable out) throws IOException {
+        if (obj == null) {
+            out.append("null");
+            return;
+        }
+        Class<?> clazz = obj.getClass();
+        switch (obj) {
+            case String string -> writeString(string, out);
+            case Character character -> writeString(character.toString(), out);
+            case Boolean bool -> out.append(bool.toString());
+            case Double number when number.isNaN() || number.isInfinite() -> out.append("null");
+            case Float number when number.isNaN() || number.isInfinite() -> out.append("null");
+            case Number number -> out.append(number.toString());
+            case JSONObject jsonObject -> out.append(jsonObject.toString());
+            case JSONArray jsonArray -> out.append(jsonArray.toString());
+            case Enum<?> anEnum -> writeString(anEnum.name(), out);
+            case Iterable<?> iterable -> {
+                out.append('[');
+                boolean first = true;
+                for (Object element : iterable) {
+                    if (!first) {
+                        out.append(',');
+                    }
+                    first = false;
+                    write(element, out);
+                }
+                out.append(']');
+            }
+            case Map<?, ?> map -> {
+                out.append('{');
+                boolean first = true;
+                for (Map.Entry<?, ?> entry : map.entrySet()) {
+                    if (!first) {
+                        out.append(',');
+                    }
+                    first = false;
+                    writeString(String.valueOf(entry.getKey()), out);
+                    out.append(':');
+                    write(entry.getValue(), out);
+                }
+                out.append('}');
+            }
+            case Date ignored -> write(serializeToJsonValue(obj), out);
+            case LocalDateTime ignored -> write(serializeToJsonValue(obj), out);
+            case LocalDate ignored -> writeString(obj.toString(), out);
+            case LocalTime ignored -> writeString(obj.toString(), out);
+            case Instant ignored -> writeString(obj.toString(), out);
+            default -> {
+                if (config.getExcludedTypes().contains(clazz)) {
+                    out.append("null");
+                } else if (clazz.isArray()) {
+                    out.append('[');
+                    int length = Array.getLength(obj);
+                    for (int i = 0; i < length; i++) {
+                        if (i > 0) {
+                            out.append(',');
+                        }
+                        write(Array.get(obj, i), out);
+                    }
+                    out.append(']');
+                } else {
+                    writeObject(obj, out);
+                }
+            }
+        }
+    }
+
+    private static void writeObject(Object obj, Appendable out) throws IOException {
+        out.append('{');
+        boolean first = true;
+        try {
+            for (Field field : getFields(obj.getClass())) {
+                if (shouldSkipField(field)) {
+                    continue;
+                }
+                field.setAccessible(true);
+                Object value = field.get(obj);
+                if (value == null && !config.isIncludeNullValues()) {
+                    continue;
+                }
+                if (!first) {
+                    out.append(',');
+                }
+                first = false;
+                writeString(getFieldName(field), out);
+                out.append(':');
+                write(value, out);
+            }
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException("Serialization failed for class: " + obj.getClass().getName(), e);
+        }
+        out.append('}');
+    }
+
+    private static void writeString(String value, Appendable out) throws IOException {
+        out.append('"');
+        int length = value.length();
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> out.append("\\\"");
+                case '\\' -> out.append("\\\\");
+                case '\n' -> out.append("\\n");
+                case '\r' -> out.append("\\r");
+                case '\t' -> out.append("\\t");
+                case '\b' -> out.append("\\b");
+                case '\f' -> out.append("\\f");
+                default -> {
+                    if (c < 0x20 || c == '\u2028' || c == '\u2029') {
+                        out.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.append(c);
+                    }
+                }
+            }
+        }
+        out.append('"');
+    }
+
     public static JSONObject serializeToJSONObject(Object obj) {
         if (obj == null) {
             return null;
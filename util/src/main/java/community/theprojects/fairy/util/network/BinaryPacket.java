@@ -0,0 +1,8 @@
+package community.theprojects.fairy.util.network;
+
+public interface BinaryPacket {
+
+    void write(PacketBuffer buffer);
+    void read(PacketBuffer buffer);
+
+}
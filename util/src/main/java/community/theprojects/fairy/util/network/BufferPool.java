@@ -0,0 +1,80 @@
+package community.theprojects.fairy.util.network;
+
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+// Direkte Buffer in Zweierpotenz-Größenklassen; Allokation und Freigabe direkter Buffer ist teuer
+public final class BufferPool {
+    private static final int MIN_SHIFT = 12;
+    private static final int MAX_SHIFT = 24;
+    private static final BufferPool SHARED = new BufferPool(Integer.getInteger("fairy.network.pooledPerClass", 64));
+    private final Queue<ByteBuffer>[] classes;
+    private final AtomicInteger[] sizes;
+    private final int maxPerClass;
+    private final LongAdder hits;
+    private final LongAdder allocations;
+
+    @SuppressWarnings("unchecked")
+    public BufferPool(int maxPerClass) {
+        this.maxPerClass = maxPerClass;
+        this.classes = new Queue[MAX_SHIFT - MIN_SHIFT + 1];
+        this.sizes = new AtomicInteger[classes.length];
+        for (int i = 0; i < classes.length; i++) {
+            this.classes[i] = new ConcurrentLinkedQueue<>();
+            this.sizes[i] = new AtomicInteger();
+        }
+        this.hits = new LongAdder();
+        this.allocations = new LongAdder();
+    }
+
+    public static BufferPool shared() {
+        return SHARED;
+    }
+
+    public ByteBuffer acquire(int capacity) {
+        int index = index(capacity);
+        if (index < 0) {
+            allocations.increment();
+            return ByteBuffer.allocateDirect(capacity);
+        }
+        ByteBuffer buffer = classes[index].poll();
+        if (buffer != null) {
+            sizes[index].decrementAndGet();
+            hits.increment();
+            return buffer.clear();
+        }
+        allocations.increment();
+        return ByteBuffer.allocateDirect(1 << (index + MIN_SHIFT));
+    }
+
+    public void release(ByteBuffer buffer) {
+        if (buffer == null || !buffer.isDirect()) {
+            return;
+        }
+        int index = index(buffer.capacity());
+        if (index < 0 || buffer.capacity() != 1 << (index + MIN_SHIFT)) {
+            return;
+        }
+        if (sizes[index].incrementAndGet() <= maxPerClass) {
+            classes[index].offer(buffer);
+        } else {
+            sizes[index].decrementAndGet();
+        }
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getAllocations() {
+        return allocations.sum();
+    }
+
+    private static int index(int capacity) {
+        int shift = Math.max(MIN_SHIFT, 32 - Integer.numberOfLeadingZeros(Math.max(1, capacity - 1)));
+        return shift > MAX_SHIFT ? -1 : shift - MIN_SHIFT;
+    }
+}
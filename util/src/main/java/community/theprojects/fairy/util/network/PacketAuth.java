@@ -0,0 +1,172 @@
+package community.theprojects.fairy.util.network;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Gemeinsames Geheimnis aller Cluster-Mitglieder. Beim Verbinden beweisen beide Seiten per HMAC-SHA256 über
+// zwei frische Nonces, dass sie es kennen; das Geheimnis selbst geht nie über die Leitung
+public final class PacketAuth {
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static final int MAGIC = 0x46414952;
+    private static final int NONCE_BYTES = 32;
+    private static final int MAC_BYTES = 32;
+    private static final byte CLIENT = 'C';
+    private static final byte SERVER = 'S';
+    private final SecretKeySpec key;
+
+    private PacketAuth(byte[] secret) {
+        if (secret.length == 0) {
+            throw new IllegalArgumentException("Cluster secret must not be empty");
+        }
+        this.key = new SecretKeySpec(secret, "HmacSHA256");
+    }
+
+    public static PacketAuth of(String secret) {
+        return new PacketAuth(secret.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // fairy.cluster.secret hat Vorrang, sonst die Datei; fehlt sie, wird ein Geheimnis erzeugt, das auf alle
+    // Mitglieder kopiert werden muss
+    public static PacketAuth load(Path file) throws IOException {
+        String configured = System.getProperty("fairy.cluster.secret");
+        if (configured != null && !configured.isBlank()) {
+            return of(configured.trim());
+        }
+        if (Files.exists(file)) {
+            String secret = Files.readString(file, StandardCharsets.UTF_8).trim();
+            if (!secret.isEmpty()) {
+                return of(secret);
+            }
+        }
+        byte[] random = new byte[32];
+        RANDOM.nextBytes(random);
+        String secret = Base64.getUrlEncoder().withoutPadding().encodeToString(random);
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        Files.writeString(temp, secret, StandardCharsets.UTF_8);
+        try {
+            Files.setPosixFilePermissions(temp, PosixFilePermissions.fromString("rw-------"));
+        } catch (UnsupportedOperationException ignored) {
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return of(secret);
+    }
+
+    // Server: Challenge senden, Antwort des Clients prüfen, danach selbst beweisen
+    public void accept(SocketChannel channel, Duration timeout) throws IOException {
+        handshake(channel, timeout, () -> {
+            byte[] serverNonce = nonce();
+            write(channel, ByteBuffer.allocate(4 + NONCE_BYTES).putInt(MAGIC).put(serverNonce).flip());
+            ByteBuffer answer = read(channel, NONCE_BYTES + MAC_BYTES);
+            byte[] clientNonce = new byte[NONCE_BYTES];
+            byte[] clientMac = new byte[MAC_BYTES];
+            answer.get(clientNonce).get(clientMac);
+            if (!MessageDigest.isEqual(clientMac, mac(CLIENT, serverNonce, clientNonce))) {
+                throw new IOException("Cluster handshake from " + channel.getRemoteAddress() + " failed");
+            }
+            write(channel, ByteBuffer.wrap(mac(SERVER, clientNonce, serverNonce)));
+        });
+    }
+
+    // Client: Challenge beantworten und die Gegenseite prüfen, damit auch kein fremder Server Befehle annimmt
+    public void connect(SocketChannel channel, Duration timeout) throws IOException {
+        handshake(channel, timeout, () -> {
+            ByteBuffer challenge = read(channel, 4 + NONCE_BYTES);
+            if (challenge.getInt() != MAGIC) {
+                throw new IOException(channel.getRemoteAddress() + " is not a cluster endpoint");
+            }
+            byte[] serverNonce = new byte[NONCE_BYTES];
+            challenge.get(serverNonce);
+            byte[] clientNonce = nonce();
+            write(channel, ByteBuffer.allocate(NONCE_BYTES + MAC_BYTES).put(clientNonce).put(mac(CLIENT, serverNonce, clientNonce)).flip());
+            byte[] serverMac = new byte[MAC_BYTES];
+            read(channel, MAC_BYTES).get(serverMac);
+            if (!MessageDigest.isEqual(serverMac, mac(SERVER, clientNonce, serverNonce))) {
+                throw new IOException("Cluster handshake with " + channel.getRemoteAddress() + " failed");
+            }
+        });
+    }
+
+    // Blockierende Kanäle kennen kein Lese-Timeout, daher schließt ein Timer den Kanal bei Überschreitung
+    private static void handshake(SocketChannel channel, Duration timeout, Step step) throws IOException {
+        AtomicBoolean done = new AtomicBoolean();
+        CompletableFuture.delayedExecutor(timeout.toMillis(), TimeUnit.MILLISECONDS).execute(() -> {
+            if (done.compareAndSet(false, true)) {
+                try {
+                    channel.close();
+                } catch (IOException ignored) {
+                }
+            }
+        });
+        try {
+            step.run();
+        } catch (IOException e) {
+            if (done.get()) {
+                throw new IOException("Cluster handshake timed out after " + timeout.toMillis() + " ms", e);
+            }
+            throw e;
+        }
+        if (!done.compareAndSet(false, true)) {
+            throw new IOException("Cluster handshake timed out after " + timeout.toMillis() + " ms");
+        }
+    }
+
+    private byte[] mac(byte role, byte[] first, byte[] second) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(key);
+            mac.update(role);
+            mac.update(first);
+            mac.update(second);
+            return mac.doFinal();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static byte[] nonce() {
+        byte[] nonce = new byte[NONCE_BYTES];
+        RANDOM.nextBytes(nonce);
+        return nonce;
+    }
+
+    private static void write(SocketChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private static ByteBuffer read(SocketChannel channel, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                throw new EOFException("Connection closed during cluster handshake");
+            }
+        }
+        return buffer.flip();
+    }
+
+    @FunctionalInterface
+    private interface Step {
+        void run() throws IOException;
+    }
+}
@@ -0,0 +1,12 @@
+package community.theprojects.fairy.util.network;
+
+import com.nexoscript.nexonet.api.packet.Packet;
+
+import java.io.IOException;
+
+public interface PacketCodec {
+
+    void encode(Packet packet, PacketBuffer buffer) throws IOException;
+    Packet decode(PacketBuffer buffer) throws IOException;
+
+}
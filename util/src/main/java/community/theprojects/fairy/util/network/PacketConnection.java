@@ -0,0 +1,377 @@
+package community.theprojects.fairy.util.network;
+
+import com.nexoscript.nexonet.api.packet.Packet;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+// Persistente Verbindung: Pakete werden ohne Warten auf Antworten gesendet und pro Flush zu einem Frame gebündelt
+public final class PacketConnection implements AutoCloseable {
+    private static final int MAX_BATCH_PACKETS = Integer.getInteger("fairy.cluster.batchPackets", 256);
+    private static final int MAX_BATCH_BYTES = Integer.getInteger("fairy.cluster.batchBytes", 64 * 1024);
+    private static final int MAX_FRAME_BYTES = Integer.getInteger("fairy.cluster.maxFrame", 16 * 1024 * 1024);
+    private static final long LINGER_MICROS = Long.getLong("fairy.cluster.lingerMicros", 0L);
+    private static final byte ONEWAY = 0;
+    private static final byte REQUEST = 1;
+    private static final byte RESPONSE = 2;
+    private static final byte ERROR = 3;
+    private final SocketChannel channel;
+    private final BufferPool pool;
+    private final PacketCodec codec;
+    private final PacketHandler handler;
+    private final BlockingQueue<Outgoing> outgoing;
+    private final Map<Long, CompletableFuture<Packet>> pending;
+    private final AtomicLong correlation;
+    private final AtomicBoolean closed;
+    private final ExecutorService requests;
+    private final Stats stats;
+    private volatile Runnable onClose;
+
+    private PacketConnection(SocketChannel channel, PacketCodec codec, PacketHandler handler) throws IOException {
+        this.channel = channel;
+        this.pool = BufferPool.shared();
+        this.codec = codec;
+        this.handler = handler;
+        this.outgoing = new LinkedBlockingQueue<>();
+        this.pending = new ConcurrentHashMap<>();
+        this.correlation = new AtomicLong();
+        this.closed = new AtomicBoolean(false);
+        this.requests = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("fairy-packet-handler-", 0).factory());
+        this.stats = new Stats();
+        // Bündelung übernimmt der Writer, Nagle würde nur zusätzlich verzögern
+        channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+        channel.setOption(StandardSocketOptions.SO_KEEPALIVE, true);
+        Thread.ofVirtual().name("fairy-packet-writer").start(this::write);
+        Thread.ofVirtual().name("fairy-packet-reader").start(this::read);
+    }
+
+    public static PacketConnection connect(InetSocketAddress address, Duration timeout, PacketCodec codec, PacketHandler handler,
+                                           PacketAuth auth) throws IOException {
+        // Verbindungsaufbau mit Timeout über einen Socket, danach blockierender Kanal
+        SocketChannel channel = SocketChannel.open();
+        try {
+            channel.socket().connect(address, (int) timeout.toMillis());
+            auth.connect(channel, timeout);
+            return new PacketConnection(channel, codec, handler);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    static PacketConnection accept(SocketChannel channel, PacketCodec codec, PacketHandler handler) throws IOException {
+        return new PacketConnection(channel, codec, handler);
+    }
+
+    public void send(Packet packet) {
+        if (!enqueue(new Outgoing(0L, ONEWAY, packet))) {
+            throw new IllegalStateException("Connection to " + getRemoteAddress() + " is closed");
+        }
+    }
+
+    public CompletableFuture<Packet> request(Packet packet, Duration timeout) {
+        long id = correlation.incrementAndGet();
+        CompletableFuture<Packet> future = new CompletableFuture<>();
+        pending.put(id, future);
+        future.orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS).whenComplete((response, failure) -> pending.remove(id));
+        if (!enqueue(new Outgoing(id, REQUEST, packet))) {
+            future.completeExceptionally(new IOException("Connection to " + getRemoteAddress() + " is closed"));
+        }
+        return future;
+    }
+
+    public void setOnClose(Runnable onClose) {
+        this.onClose = onClose;
+    }
+
+    public boolean isOpen() {
+        return !closed.get();
+    }
+
+    public SocketAddress getRemoteAddress() {
+        try {
+            return channel.getRemoteAddress();
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    public Stats getStats() {
+        return stats;
+    }
+
+    public int getPendingRequests() {
+        return pending.size();
+    }
+
+    private boolean enqueue(Outgoing packet) {
+        if (closed.get()) {
+            return false;
+        }
+        outgoing.add(packet);
+        return true;
+    }
+
+    private void write() {
+        try {
+            while (!closed.get()) {
+                Outgoing first = outgoing.take();
+                if (closed.get()) {
+                    return;
+                }
+                if (LINGER_MICROS > 0 && outgoing.isEmpty()) {
+                    LockSupport.parkNanos(LINGER_MICROS * 1000L);
+                }
+                writeFrame(first);
+            }
+        } catch (IOException e) {
+            close();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            close();
+        }
+    }
+
+    // Frame: [Länge][Anzahl] und je Paket [Länge][Korrelation][Art][ID][Body], direkt im gepoolten Buffer
+    private void writeFrame(Outgoing first) throws IOException {
+        PacketBuffer frame = new PacketBuffer(pool, MAX_BATCH_BYTES);
+        try {
+            frame.writeInt(0);
+            frame.writeInt(0);
+            int count = 0;
+            Outgoing packet = first;
+            // Alles, was während des letzten Schreibens angefallen ist, geht in denselben Frame
+            int polled = 0;
+            while (packet != null) {
+                if (encode(frame, packet)) {
+                    count++;
+                }
+                polled++;
+                packet = polled < MAX_BATCH_PACKETS && frame.buffer().position() < MAX_BATCH_BYTES ? outgoing.poll() : null;
+            }
+            if (count == 0) {
+                return;
+            }
+            ByteBuffer buffer = frame.buffer();
+            int length = buffer.position();
+            buffer.putInt(0, length - 4);
+            buffer.putInt(4, count);
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            stats.framesSent.increment();
+            stats.packetsSent.add(count);
+            stats.bytesSent.add(length);
+        } finally {
+            frame.release();
+        }
+    }
+
+    // Ein nicht kodierbares Paket wird auf seinen Anfang zurückgerollt; nur sein Auftrag schlägt fehl, die Verbindung bleibt
+    private boolean encode(PacketBuffer frame, Outgoing packet) {
+        int start = frame.buffer().position();
+        try {
+            frame.writeInt(0);
+            frame.writeLong(packet.correlation());
+            frame.writeByte(packet.kind());
+            if (packet.kind() == ERROR) {
+                frame.writeString(packet.error());
+            } else {
+                codec.encode(packet.packet(), frame);
+            }
+            if (frame.buffer().position() - 4 > MAX_FRAME_BYTES) {
+                throw new IOException("Packet exceeds frame limit of " + MAX_FRAME_BYTES + " bytes");
+            }
+            frame.buffer().putInt(start, frame.buffer().position() - start - 4);
+            return true;
+        } catch (IOException | RuntimeException e) {
+            frame.buffer().position(start);
+            String message = "Failed to encode " + (packet.packet() != null ? packet.packet().getType() : "error") + ": " + e.getMessage();
+            if (packet.kind() == REQUEST) {
+                fail(packet.correlation(), message);
+            } else if (packet.kind() == RESPONSE) {
+                // Die Gegenseite wartet auf die Antwort und erhält stattdessen den Fehler
+                return encode(frame, new Outgoing(packet.correlation(), ERROR, null, message));
+            }
+            return false;
+        }
+    }
+
+    private void read() {
+        ByteBuffer header = ByteBuffer.allocateDirect(4);
+        try {
+            while (!closed.get()) {
+                header.clear();
+                readFully(header);
+                int length = header.getInt(0);
+                if (length < 4 || length > MAX_FRAME_BYTES) {
+                    throw new IOException("Invalid frame length " + length);
+                }
+                ByteBuffer buffer = pool.acquire(length);
+                PacketBuffer frame = new PacketBuffer(pool, buffer);
+                try {
+                    buffer.limit(length);
+                    readFully(buffer);
+                    buffer.flip();
+                    int count = frame.readInt();
+                    for (int i = 0; i < count; i++) {
+                        int size = frame.readInt();
+                        int end = buffer.position() + size;
+                        long id = frame.readLong();
+                        byte kind = frame.readByte();
+                        if (kind == ERROR) {
+                            fail(id, frame.readString());
+                        } else {
+                            dispatch(id, kind, codec.decode(frame));
+                        }
+                        // Unbekannte Restbytes eines Pakets überspringen
+                        buffer.position(end);
+                    }
+                    stats.framesReceived.increment();
+                    stats.packetsReceived.add(count);
+                    stats.bytesReceived.add(length + 4L);
+                } finally {
+                    frame.release();
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            close();
+        }
+    }
+
+    private void readFully(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                throw new EOFException("Connection closed by " + getRemoteAddress());
+            }
+        }
+    }
+
+    private void dispatch(long id, byte kind, Packet packet) {
+        if (kind == RESPONSE) {
+            CompletableFuture<Packet> future = pending.remove(id);
+            if (future != null) {
+                future.complete(packet);
+            }
+            return;
+        }
+        if (handler == null) {
+            return;
+        }
+        if (kind == ONEWAY) {
+            // Einseitige Pakete in Empfangsreihenfolge verarbeiten
+            try {
+                handler.handle(this, packet);
+            } catch (Exception ignored) {
+            }
+            return;
+        }
+        requests.execute(() -> {
+            try {
+                CompletableFuture<? extends Packet> response = handler.handle(this, packet);
+                if (response == null) {
+                    reply(new Outgoing(id, ERROR, null, "No response for " + packet.getType()));
+                    return;
+                }
+                response.whenComplete((result, failure) -> reply(failure == null
+                        ? new Outgoing(id, RESPONSE, result)
+                        : new Outgoing(id, ERROR, null, String.valueOf(failure.getMessage()))));
+            } catch (Exception e) {
+                reply(new Outgoing(id, ERROR, null, String.valueOf(e.getMessage())));
+            }
+        });
+    }
+
+    private void reply(Outgoing response) {
+        if (!closed.get()) {
+            outgoing.add(response);
+        }
+    }
+
+    private void fail(long id, String message) {
+        CompletableFuture<Packet> future = pending.remove(id);
+        if (future != null) {
+            future.completeExceptionally(new IOException(message));
+        }
+    }
+
+    @Override
+    public void close() {
+        if (!closed.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            channel.close();
+        } catch (IOException ignored) {
+        }
+        requests.shutdownNow();
+        IOException failure = new IOException("Connection to " + getRemoteAddress() + " closed");
+        pending.values().forEach(future -> future.completeExceptionally(failure));
+        pending.clear();
+        // Wartenden Writer aufwecken
+        outgoing.clear();
+        outgoing.add(new Outgoing(0L, ONEWAY, null));
+        Runnable callback = onClose;
+        if (callback != null) {
+            callback.run();
+        }
+    }
+
+    private record Outgoing(long correlation, byte kind, Packet packet, String error) {
+
+        private Outgoing(long correlation, byte kind, Packet packet) {
+            this(correlation, kind, packet, null);
+        }
+    }
+
+    public static final class Stats {
+        private final LongAdder framesSent = new LongAdder();
+        private final LongAdder packetsSent = new LongAdder();
+        private final LongAdder bytesSent = new LongAdder();
+        private final LongAdder framesReceived = new LongAdder();
+        private final LongAdder packetsReceived = new LongAdder();
+        private final LongAdder bytesReceived = new LongAdder();
+
+        public long framesSent() {
+            return framesSent.sum();
+        }
+
+        public long packetsSent() {
+            return packetsSent.sum();
+        }
+
+        public long bytesSent() {
+            return bytesSent.sum();
+        }
+
+        public long framesReceived() {
+            return framesReceived.sum();
+        }
+
+        public long packetsReceived() {
+            return packetsReceived.sum();
+        }
+
+        public long bytesReceived() {
+            return bytesReceived.sum();
+        }
+
+        public double packetsPerFrame() {
+            long frames = framesSent();
+            return frames == 0 ? 0 : (double) packetsSent() / frames;
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package community.theprojects.fairy.util.network;
+
+import com.nexoscript.nexonet.api.packet.Packet;
+
+import java.util.concurrent.CompletableFuture;
+
+@FunctionalInterface
+public interface PacketHandler {
+
+    // Anfragen liefern die Antwort, einseitige Pakete null
+    CompletableFuture<? extends Packet> handle(PacketConnection connection, Packet packet) throws Exception;
+
+}
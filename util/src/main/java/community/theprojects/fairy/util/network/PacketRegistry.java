@@ -0,0 +1,62 @@
+package community.theprojects.fairy.util.network;
+
+import com.nexoscript.nexonet.api.packet.Packet;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+// Numerische Paket-IDs statt Typ-Strings auf der Leitung
+public final class PacketRegistry implements PacketCodec {
+    private final Map<Class<?>, Integer> ids;
+    private volatile Supplier<?>[] factories;
+
+    public PacketRegistry() {
+        this.ids = new ConcurrentHashMap<>();
+        this.factories = new Supplier<?>[16];
+    }
+
+    public synchronized <T extends Packet & BinaryPacket> PacketRegistry register(int id, Class<T> type, Supplier<T> factory) {
+        if (id < 0) {
+            throw new IllegalArgumentException("Packet id must not be negative");
+        }
+        Supplier<?>[] current = factories;
+        if (id < current.length && current[id] != null) {
+            throw new IllegalArgumentException("Packet id " + id + " is already registered");
+        }
+        Supplier<?>[] updated = Arrays.copyOf(current, Math.max(current.length, id + 1));
+        updated[id] = factory;
+        this.ids.put(type, id);
+        this.factories = updated;
+        return this;
+    }
+
+    public int idOf(Class<?> type) {
+        Integer id = this.ids.get(type);
+        return id != null ? id : -1;
+    }
+
+    @Override
+    public void encode(Packet packet, PacketBuffer buffer) throws IOException {
+        Integer id = this.ids.get(packet.getClass());
+        if (id == null) {
+            throw new IOException("Unregistered packet " + packet.getClass().getName());
+        }
+        buffer.writeVarInt(id);
+        ((BinaryPacket) packet).write(buffer);
+    }
+
+    @Override
+    public Packet decode(PacketBuffer buffer) throws IOException {
+        int id = buffer.readVarInt();
+        Supplier<?>[] current = factories;
+        if (id < 0 || id >= current.length || current[id] == null) {
+            throw new IOException("Unknown packet id " + id);
+        }
+        BinaryPacket packet = (BinaryPacket) current[id].get();
+        packet.read(buffer);
+        return (Packet) packet;
+    }
+}
@@ -0,0 +1,89 @@
+package community.theprojects.fairy.util.network;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+public final class PacketServer implements AutoCloseable {
+    private static final String HOST = System.getProperty("fairy.cluster.host", "127.0.0.1");
+    private static final Duration HANDSHAKE_TIMEOUT = Duration.ofMillis(Long.getLong("fairy.cluster.handshakeTimeout", 5000L));
+    private final ServerSocketChannel serverChannel;
+    private final PacketCodec codec;
+    private final PacketHandler handler;
+    private final PacketAuth auth;
+    private final Set<PacketConnection> connections;
+    private volatile Consumer<PacketConnection> onConnect;
+
+    public PacketServer(InetSocketAddress address, PacketCodec codec, PacketHandler handler, PacketAuth auth) throws IOException {
+        this.serverChannel = ServerSocketChannel.open();
+        this.serverChannel.setOption(StandardSocketOptions.SO_REUSEADDR, true);
+        this.serverChannel.bind(address);
+        this.codec = codec;
+        this.handler = handler;
+        this.auth = auth;
+        this.connections = ConcurrentHashMap.newKeySet();
+        Thread.ofVirtual().name("fairy-packet-server").start(this::accept);
+    }
+
+    // Ohne fairy.cluster.host nur lokal erreichbar; für mehrere Hosts muss die Adresse bewusst freigegeben werden
+    public static InetSocketAddress bindAddress(int port) {
+        return new InetSocketAddress(HOST, port);
+    }
+
+    public void setOnConnect(Consumer<PacketConnection> onConnect) {
+        this.onConnect = onConnect;
+    }
+
+    public Set<PacketConnection> getConnections() {
+        return Set.copyOf(connections);
+    }
+
+    public int getPort() throws IOException {
+        return ((InetSocketAddress) serverChannel.getLocalAddress()).getPort();
+    }
+
+    private void accept() {
+        while (serverChannel.isOpen()) {
+            try {
+                SocketChannel channel = serverChannel.accept();
+                // Handshake je Verbindung auf eigenem Thread, ein langsamer Client hält die Annahme nicht auf
+                Thread.ofVirtual().name("fairy-packet-handshake").start(() -> open(channel));
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    private void open(SocketChannel channel) {
+        try {
+            auth.accept(channel, HANDSHAKE_TIMEOUT);
+            PacketConnection connection = PacketConnection.accept(channel, codec, handler);
+            connections.add(connection);
+            connection.setOnClose(() -> connections.remove(connection));
+            if (!serverChannel.isOpen()) {
+                connection.close();
+                return;
+            }
+            Consumer<PacketConnection> callback = onConnect;
+            if (callback != null) {
+                callback.accept(connection);
+            }
+        } catch (IOException e) {
+            try {
+                channel.close();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverChannel.close();
+        connections.forEach(PacketConnection::close);
+    }
+}
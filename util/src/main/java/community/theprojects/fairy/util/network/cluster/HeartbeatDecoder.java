@@ -0,0 +1,43 @@
+package community.theprojects.fairy.util.network.cluster;
+
+import community.theprojects.fairy.util.network.packet.cluster.WorkerHeartbeatPacket;
+
+import java.util.HashMap;
+import java.util.Map;
+
+public final class HeartbeatDecoder {
+    private long sequence;
+    private boolean synced;
+    private long freeMemory;
+    private int cpuLoad;
+    private int startQueue;
+    private final Map<String, Integer> services = new HashMap<>();
+
+    // Liefert den neuen Stand oder null, solange nach einer Lücke kein Keyframe angekommen ist
+    public synchronized WorkerLoad apply(WorkerHeartbeatPacket packet, long now) {
+        if (packet.has(WorkerHeartbeatPacket.FULL)) {
+            this.freeMemory = packet.getFreeMemory();
+            this.cpuLoad = packet.getCpuLoad();
+            this.startQueue = packet.getStartQueue();
+            this.services.clear();
+            this.synced = true;
+        } else if (!this.synced || packet.getSequence() != this.sequence + 1) {
+            this.synced = false;
+            this.sequence = packet.getSequence();
+            return null;
+        } else {
+            this.freeMemory += packet.getFreeMemory();
+            this.cpuLoad += packet.getCpuLoad();
+            this.startQueue += packet.getStartQueue();
+        }
+        this.sequence = packet.getSequence();
+        packet.getServices().forEach((group, count) -> {
+            if (count == 0) {
+                this.services.remove(group);
+            } else {
+                this.services.put(group, count);
+            }
+        });
+        return new WorkerLoad(packet.getWorker(), this.freeMemory, this.cpuLoad, this.startQueue, Map.copyOf(this.services), now);
+    }
+}
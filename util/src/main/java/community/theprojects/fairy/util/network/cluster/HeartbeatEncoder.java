@@ -0,0 +1,80 @@
+package community.theprojects.fairy.util.network.cluster;
+
+import community.theprojects.fairy.util.network.packet.cluster.WorkerHeartbeatPacket;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Sendet nur geänderte Werte; kleine Schwankungen unterhalb der Schwellen werden unterdrückt
+public final class HeartbeatEncoder {
+    private final String worker;
+    private final int keyframeInterval;
+    private final long memoryStep;
+    private final int cpuStep;
+    private long sequence;
+    private int sinceKeyframe;
+    private long freeMemory;
+    private int cpuLoad;
+    private int startQueue;
+    private Map<String, Integer> services;
+
+    public HeartbeatEncoder(String worker, int keyframeInterval, long memoryStep, int cpuStep) {
+        this.worker = worker;
+        this.keyframeInterval = keyframeInterval;
+        this.memoryStep = memoryStep;
+        this.cpuStep = cpuStep;
+    }
+
+    public WorkerHeartbeatPacket encode(long freeMemory, int cpuLoad, int startQueue, Map<String, Integer> services) {
+        this.sequence++;
+        if (this.services == null || ++this.sinceKeyframe >= this.keyframeInterval) {
+            this.sinceKeyframe = 0;
+            this.freeMemory = freeMemory;
+            this.cpuLoad = cpuLoad;
+            this.startQueue = startQueue;
+            this.services = new HashMap<>(services);
+            return new WorkerHeartbeatPacket(this.worker, this.sequence,
+                    WorkerHeartbeatPacket.FULL | WorkerHeartbeatPacket.MEMORY | WorkerHeartbeatPacket.CPU | WorkerHeartbeatPacket.QUEUE,
+                    freeMemory, cpuLoad, startQueue, new LinkedHashMap<>(services));
+        }
+        int flags = 0;
+        long memoryDelta = 0;
+        int cpuDelta = 0;
+        int queueDelta = 0;
+        // Der Vergleichswert bleibt der zuletzt gesendete, damit sich kleine Änderungen aufsummieren
+        if (Math.abs(freeMemory - this.freeMemory) >= this.memoryStep) {
+            flags |= WorkerHeartbeatPacket.MEMORY;
+            memoryDelta = freeMemory - this.freeMemory;
+            this.freeMemory = freeMemory;
+        }
+        if (Math.abs(cpuLoad - this.cpuLoad) >= this.cpuStep) {
+            flags |= WorkerHeartbeatPacket.CPU;
+            cpuDelta = cpuLoad - this.cpuLoad;
+            this.cpuLoad = cpuLoad;
+        }
+        if (startQueue != this.startQueue) {
+            flags |= WorkerHeartbeatPacket.QUEUE;
+            queueDelta = startQueue - this.startQueue;
+            this.startQueue = startQueue;
+        }
+        Map<String, Integer> changed = new LinkedHashMap<>();
+        services.forEach((group, count) -> {
+            if (!count.equals(this.services.get(group))) {
+                changed.put(group, count);
+            }
+        });
+        this.services.forEach((group, count) -> {
+            if (!services.containsKey(group) && count != 0) {
+                changed.put(group, 0);
+            }
+        });
+        changed.forEach(this.services::put);
+        return new WorkerHeartbeatPacket(this.worker, this.sequence, flags, memoryDelta, cpuDelta, queueDelta, changed);
+    }
+
+    // Nach einem Neuaufbau der Verbindung beginnt der Empfänger ohne Stand
+    public void reset() {
+        this.services = null;
+    }
+}
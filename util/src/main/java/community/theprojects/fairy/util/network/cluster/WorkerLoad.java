@@ -0,0 +1,15 @@
+package community.theprojects.fairy.util.network.cluster;
+
+import java.util.Map;
+
+// Speicher in MB, CPU-Last in Promille
+public record WorkerLoad(String worker, long freeMemory, int cpuLoad, int startQueue, Map<String, Integer> services, long receivedAt) {
+
+    public int totalServices() {
+        int total = 0;
+        for (int count : services.values()) {
+            total += count;
+        }
+        return total;
+    }
+}
@@ -0,0 +1,34 @@
+package community.theprojects.fairy.util.network.packet;
+
+import community.theprojects.fairy.util.network.PacketRegistry;
+import community.theprojects.fairy.util.network.packet.cluster.WorkerHeartbeatPacket;
+import community.theprojects.fairy.util.network.packet.replication.*;
+import community.theprojects.fairy.util.network.packet.service.ServiceStartPacket;
+import community.theprojects.fairy.util.network.packet.service.ServiceStartedPacket;
+import community.theprojects.fairy.util.network.packet.template.TemplateChunkPacket;
+import community.theprojects.fairy.util.network.packet.template.TemplateManifestPacket;
+import community.theprojects.fairy.util.network.packet.template.TemplateStatePacket;
+
+// Gemeinsame ID-Zuordnung für Node und Worker, IDs nie neu vergeben
+public final class Packets {
+
+    private Packets() {
+    }
+
+    public static PacketRegistry registry() {
+        return new PacketRegistry()
+                .register(1, ServiceStartPacket.class, ServiceStartPacket::new)
+                .register(2, ServiceStartedPacket.class, ServiceStartedPacket::new)
+                .register(3, WorkerHeartbeatPacket.class, WorkerHeartbeatPacket::new)
+                .register(4, TemplateManifestPacket.class, TemplateManifestPacket::new)
+                .register(5, TemplateChunkPacket.class, TemplateChunkPacket::new)
+                .register(6, TemplateStatePacket.class, TemplateStatePacket::new)
+                .register(7, VoteRequestPacket.class, VoteRequestPacket::new)
+                .register(8, VoteResultPacket.class, VoteResultPacket::new)
+                .register(9, AppendEntriesPacket.class, AppendEntriesPacket::new)
+                .register(10, AppendResultPacket.class, AppendResultPacket::new)
+                .register(11, SnapshotPacket.class, SnapshotPacket::new)
+                .register(12, ProposePacket.class, ProposePacket::new)
+                .register(13, ProposeResultPacket.class, ProposeResultPacket::new);
+    }
+}
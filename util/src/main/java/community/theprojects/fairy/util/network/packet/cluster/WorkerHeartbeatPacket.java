@@ -0,0 +1,112 @@
+package community.theprojects.fairy.util.network.packet.cluster;
+
+import com.nexoscript.nexonet.api.packet.Packet;
+import community.theprojects.fairy.util.network.BinaryPacket;
+import community.theprojects.fairy.util.network.PacketBuffer;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class WorkerHeartbeatPacket extends Packet implements BinaryPacket {
+    public static final int FULL = 1;
+    public static final int MEMORY = 2;
+    public static final int CPU = 4;
+    public static final int QUEUE = 8;
+    private String worker;
+    private long sequence;
+    private int flags;
+    private long freeMemory;
+    private int cpuLoad;
+    private int startQueue;
+    private Map<String, Integer> services;
+
+    public WorkerHeartbeatPacket() {
+        super("WORKER_HEARTBEAT");
+        this.services = new LinkedHashMap<>();
+    }
+
+    public WorkerHeartbeatPacket(String worker, long sequence, int flags, long freeMemory, int cpuLoad, int startQueue, Map<String, Integer> services) {
+        super("WORKER_HEARTBEAT");
+        this.worker = worker;
+        this.sequence = sequence;
+        this.flags = flags;
+        this.freeMemory = freeMemory;
+        this.cpuLoad = cpuLoad;
+        this.startQueue = startQueue;
+        this.services = services;
+    }
+
+    public String getWorker() {
+        return this.worker;
+    }
+
+    public long getSequence() {
+        return this.sequence;
+    }
+
+    public int getFlags() {
+        return this.flags;
+    }
+
+    public boolean has(int flag) {
+        return (this.flags & flag) != 0;
+    }
+
+    // Im Keyframe absolute Werte, sonst Differenzen zum vorherigen Heartbeat
+    public long getFreeMemory() {
+        return this.freeMemory;
+    }
+
+    public int getCpuLoad() {
+        return this.cpuLoad;
+    }
+
+    public int getStartQueue() {
+        return this.startQueue;
+    }
+
+    public Map<String, Integer> getServices() {
+        return this.services;
+    }
+
+    @Override
+    public void write(PacketBuffer buffer) {
+        buffer.writeString(this.worker);
+        buffer.writeVarLong(this.sequence);
+        buffer.writeByte(this.flags);
+        if (has(MEMORY)) {
+            buffer.writeSignedVarLong(this.freeMemory);
+        }
+        if (has(CPU)) {
+            buffer.writeSignedVarLong(this.cpuLoad);
+        }
+        if (has(QUEUE)) {
+            buffer.writeSignedVarLong(this.startQueue);
+        }
+        buffer.writeVarInt(this.services.size());
+        this.services.forEach((group, count) -> {
+            buffer.writeString(group);
+            buffer.writeVarInt(count);
+        });
+    }
+
+    @Override
+    public void read(PacketBuffer buffer) {
+        this.worker = buffer.readString();
+        this.sequence = buffer.readVarLong();
+        this.flags = buffer.readByte();
+        this.freeMemory = has(MEMORY) ? buffer.readSignedVarLong() : 0L;
+        this.cpuLoad = has(CPU) ? (int) buffer.readSignedVarLong() : 0;
+        this.startQueue = has(QUEUE) ? (int) buffer.readSignedVarLong() : 0;
+        int count = buffer.readVarInt();
+        this.services = new LinkedHashMap<>(count * 2);
+        for (int i = 0; i < count; i++) {
+            this.services.put(buffer.readString(), buffer.readVarInt());
+        }
+    }
+
+    public String toString() {
+        return "WorkerHeartbeatPacket{worker='" + this.worker + "', sequence=" + this.sequence + ", flags=" + this.flags + ", freeMemory=" + this.freeMemory
+                + ", cpuLoad=" + this.cpuLoad + ", startQueue=" + this.startQueue + ", services=" + this.services + "}";
+    }
+}
@@ -0,0 +1,88 @@
+package community.theprojects.fairy.util.network.packet.replication;
+
+import com.nexoscript.nexonet.api.packet.Packet;
+import community.theprojects.fairy.util.network.BinaryPacket;
+import community.theprojects.fairy.util.network.PacketBuffer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class AppendEntriesPacket extends Packet implements BinaryPacket {
+    private long term;
+    private String leader;
+    private long prevIndex;
+    private long prevTerm;
+    private long commitIndex;
+    private List<LogEntry> entries;
+
+    public AppendEntriesPacket() {
+        super("APPEND_ENTRIES");
+    }
+
+    public AppendEntriesPacket(long term, String leader, long prevIndex, long prevTerm, long commitIndex, List<LogEntry> entries) {
+        super("APPEND_ENTRIES");
+        this.term = term;
+        this.leader = leader;
+        this.prevIndex = prevIndex;
+        this.prevTerm = prevTerm;
+        this.commitIndex = commitIndex;
+        this.entries = entries;
+    }
+
+    public long getTerm() {
+        return this.term;
+    }
+
+    public String getLeader() {
+        return this.leader;
+    }
+
+    public long getPrevIndex() {
+        return this.prevIndex;
+    }
+
+    public long getPrevTerm() {
+        return this.prevTerm;
+    }
+
+    public long getCommitIndex() {
+        return this.commitIndex;
+    }
+
+    public List<LogEntry> getEntries() {
+        return this.entries;
+    }
+
+    @Override
+    public void write(PacketBuffer buffer) {
+        buffer.writeVarLong(this.term);
+        buffer.writeString(this.leader);
+        buffer.writeVarLong(this.prevIndex);
+        buffer.writeVarLong(this.prevTerm);
+        buffer.writeVarLong(this.commitIndex);
+        buffer.writeVarInt(this.entries.size());
+        for (LogEntry entry : this.entries) {
+            buffer.writeVarLong(entry.term());
+            entry.operation().write(buffer);
+        }
+    }
+
+    @Override
+    public void read(PacketBuffer buffer) {
+        this.term = buffer.readVarLong();
+        this.leader = buffer.readString();
+        this.prevIndex = buffer.readVarLong();
+        this.prevTerm = buffer.readVarLong();
+        this.commitIndex = buffer.readVarLong();
+        // Indizes folgen lückenlos auf prevIndex und werden nicht übertragen
+        int count = buffer.readVarInt();
+        this.entries = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            this.entries.add(new LogEntry(buffer.readVarLong(), this.prevIndex + i + 1, StateOperation.read(buffer)));
+        }
+    }
+
+    public String toString() {
+        return "AppendEntriesPacket{term=" + this.term + ", leader='" + this.leader + "', prevIndex=" + this.prevIndex + ", prevTerm=" + this.prevTerm + ", commitIndex=" + this.commitIndex + ", entries=" + this.entries.size() + "}";
+    }
+}
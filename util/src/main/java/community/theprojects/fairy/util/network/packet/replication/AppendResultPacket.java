@@ -0,0 +1,52 @@
+package community.theprojects.fairy.util.network.packet.replication;
+
+import com.nexoscript.nexonet.api.packet.Packet;
+import community.theprojects.fairy.util.network.BinaryPacket;
+import community.theprojects.fairy.util.network.PacketBuffer;
+
+public class AppendResultPacket extends Packet implements BinaryPacket {
+    private long term;
+    private boolean success;
+    private long matchIndex;
+
+    public AppendResultPacket() {
+        super("APPEND_RESULT");
+    }
+
+    public AppendResultPacket(long term, boolean success, long matchIndex) {
+        super("APPEND_RESULT");
+        this.term = term;
+        this.success = success;
+        this.matchIndex = matchIndex;
+    }
+
+    public long getTerm() {
+        return this.term;
+    }
+
+    public boolean isSuccess() {
+        return this.success;
+    }
+
+    public long getMatchIndex() {
+        return this.matchIndex;
+    }
+
+    @Override
+    public void write(PacketBuffer buffer) {
+        buffer.writeVarLong(this.term);
+        buffer.writeBoolean(this.success);
+        buffer.writeVarLong(this.matchIndex);
+    }
+
+    @Override
+    public void read(PacketBuffer buffer) {
+        this.term = buffer.readVarLong();
+        this.success = buffer.readBoolean();
+        this.matchIndex = buffer.readVarLong();
+    }
+
+    public String toString() {
+        return "AppendResultPacket{term=" + this.term + ", success=" + this.success + ", matchIndex=" + this.matchIndex + "}";
+    }
+}
@@ -0,0 +1,4 @@
+package community.theprojects.fairy.util.network.packet.replication;
+
+public record LogEntry(long term, long index, StateOperation operation) {
+}
@@ -0,0 +1,46 @@
+package community.theprojects.fairy.util.network.packet.replication;
+
+import com.nexoscript.nexonet.api.packet.Packet;
+import community.theprojects.fairy.util.network.BinaryPacket;
+import community.theprojects.fairy.util.network.PacketBuffer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ProposePacket extends Packet implements BinaryPacket {
+    private List<StateOperation> operations;
+
+    public ProposePacket() {
+        super("PROPOSE");
+    }
+
+    public ProposePacket(List<StateOperation> operations) {
+        super("PROPOSE");
+        this.operations = operations;
+    }
+
+    public List<StateOperation> getOperations() {
+        return this.operations;
+    }
+
+    @Override
+    public void write(PacketBuffer buffer) {
+        buffer.writeVarInt(this.operations.size());
+        for (StateOperation operation : this.operations) {
+            operation.write(buffer);
+        }
+    }
+
+    @Override
+    public void read(PacketBuffer buffer) {
+        int count = buffer.readVarInt();
+        this.operations = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            this.operations.add(StateOperation.read(buffer));
+        }
+    }
+
+    public String toString() {
+        return "ProposePacket{operations=" + this.operations.size() + "}";
+    }
+}
@@ -0,0 +1,44 @@
+package community.theprojects.fairy.util.network.packet.replication;
+
+import com.nexoscript.nexonet.api.packet.Packet;
+import community.theprojects.fairy.util.network.BinaryPacket;
+import community.theprojects.fairy.util.network.PacketBuffer;
+
+public class ProposeResultPacket extends Packet implements BinaryPacket {
+    private long index;
+    private String message;
+
+    public ProposeResultPacket() {
+        super("PROPOSE_RESULT");
+    }
+
+    public ProposeResultPacket(long index, String message) {
+        super("PROPOSE_RESULT");
+        this.index = index;
+        this.message = message;
+    }
+
+    public long getIndex() {
+        return this.index;
+    }
+
+    public String getMessage() {
+        return this.message;
+    }
+
+    @Override
+    public void write(PacketBuffer buffer) {
+        buffer.writeVarLong(this.index);
+        buffer.writeString(this.message);
+    }
+
+    @Override
+    public void read(PacketBuffer buffer) {
+        this.index = buffer.readVarLong();
+        this.message = buffer.readString();
+    }
+
+    public String toString() {
+        return "ProposeResultPacket{index=" + this.index + ", message='" + this.message + "'}";
+    }
+}
@@ -0,0 +1,68 @@
+package community.theprojects.fairy.util.network.packet.replication;
+
+import com.nexoscript.nexonet.api.packet.Packet;
+import community.theprojects.fairy.util.network.BinaryPacket;
+import community.theprojects.fairy.util.network.PacketBuffer;
+
+public class SnapshotPacket extends Packet implements BinaryPacket {
+    private long term;
+    private String leader;
+    private long lastIndex;
+    private long lastTerm;
+    private byte[] state;
+
+    public SnapshotPacket() {
+        super("SNAPSHOT");
+    }
+
+    public SnapshotPacket(long term, String leader, long lastIndex, long lastTerm, byte[] state) {
+        super("SNAPSHOT");
+        this.term = term;
+        this.leader = leader;
+        this.lastIndex = lastIndex;
+        this.lastTerm = lastTerm;
+        this.state = state;
+    }
+
+    public long getTerm() {
+        return this.term;
+    }
+
+    public String getLeader() {
+        return this.leader;
+    }
+
+    public long getLastIndex() {
+        return this.lastIndex;
+    }
+
+    public long getLastTerm() {
+        return this.lastTerm;
+    }
+
+    public byte[] getState() {
+        return this.state;
+    }
+
+    @Override
+    public void write(PacketBuffer buffer) {
+        buffer.writeVarLong(this.term);
+        buffer.writeString(this.leader);
+        buffer.writeVarLong(this.lastIndex);
+        buffer.writeVarLong(this.lastTerm);
+        buffer.writeBytes(this.state, 0, this.state.length);
+    }
+
+    @Override
+    public void read(PacketBuffer buffer) {
+        this.term = buffer.readVarLong();
+        this.leader = buffer.readString();
+        this.lastIndex = buffer.readVarLong();
+        this.lastTerm = buffer.readVarLong();
+        this.state = buffer.readBytes();
+    }
+
+    public String toString() {
+        return "SnapshotPacket{term=" + this.term + ", leader='" + this.leader + "', lastIndex=" + this.lastIndex + ", lastTerm=" + this.lastTerm + ", state=" + this.state.length + "}";
+    }
+}
@@ -0,0 +1,36 @@
+package community.theprojects.fairy.util.network.packet.replication;
+
+import community.theprojects.fairy.util.network.PacketBuffer;
+
+// Schreiboperation auf den replizierten Zustand; value ist bei DELETE und NOOP null
+public record StateOperation(Type type, String namespace, String key, String value) {
+
+    public static StateOperation put(String namespace, String key, String value) {
+        return new StateOperation(Type.PUT, namespace, key, value);
+    }
+
+    public static StateOperation delete(String namespace, String key) {
+        return new StateOperation(Type.DELETE, namespace, key, null);
+    }
+
+    public static StateOperation noop() {
+        return new StateOperation(Type.NOOP, null, null, null);
+    }
+
+    public void write(PacketBuffer buffer) {
+        buffer.writeByte(type.ordinal());
+        buffer.writeString(namespace);
+        buffer.writeString(key);
+        buffer.writeString(value);
+    }
+
+    public static StateOperation read(PacketBuffer buffer) {
+        return new StateOperation(Type.values()[buffer.readByte()], buffer.readString(), buffer.readString(), buffer.readString());
+    }
+
+    public enum Type {
+        NOOP,
+        PUT,
+        DELETE
+    }
+}
@@ -0,0 +1,60 @@
+package community.theprojects.fairy.util.network.packet.replication;
+
+import com.nexoscript.nexonet.api.packet.Packet;
+import community.theprojects.fairy.util.network.BinaryPacket;
+import community.theprojects.fairy.util.network.PacketBuffer;
+
+public class VoteRequestPacket extends Packet implements BinaryPacket {
+    private long term;
+    private String candidate;
+    private long lastIndex;
+    private long lastTerm;
+
+    public VoteRequestPacket() {
+        super("VOTE_REQUEST");
+    }
+
+    public VoteRequestPacket(long term, String candidate, long lastIndex, long lastTerm) {
+        super("VOTE_REQUEST");
+        this.term = term;
+        this.candidate = candidate;
+        this.lastIndex = lastIndex;
+        this.lastTerm = lastTerm;
+    }
+
+    public long getTerm() {
+        return this.term;
+    }
+
+    public String getCandidate() {
+        return this.candidate;
+    }
+
+    public long getLastIndex() {
+        return this.lastIndex;
+    }
+
+    public long getLastTerm() {
+        return this.lastTerm;
+    }
+
+    @Override
+    public void write(PacketBuffer buffer) {
+        buffer.writeVarLong(this.term);
+        buffer.writeString(this.candidate);
+        buffer.writeVarLong(this.lastIndex);
+        buffer.writeVarLong(this.lastTerm);
+    }
+
+    @Override
+    public void read(PacketBuffer buffer) {
+        this.term = buffer.readVarLong();
+        this.candidate = buffer.readString();
+        this.lastIndex = buffer.readVarLong();
+        this.lastTerm = buffer.readVarLong();
+    }
+
+    public String toString() {
+        return "VoteRequestPacket{term=" + this.term + ", candidate='" + this.candidate + "', lastIndex=" + this.lastIndex + ", lastTerm=" + this.lastTerm + "}";
+    }
+}
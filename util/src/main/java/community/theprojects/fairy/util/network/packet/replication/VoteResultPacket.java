@@ -0,0 +1,44 @@
+package community.theprojects.fairy.util.network.packet.replication;
+
+import com.nexoscript.nexonet.api.packet.Packet;
+import community.theprojects.fairy.util.network.BinaryPacket;
+import community.theprojects.fairy.util.network.PacketBuffer;
+
+public class VoteResultPacket extends Packet implements BinaryPacket {
+    private long term;
+    private boolean granted;
+
+    public VoteResultPacket() {
+        super("VOTE_RESULT");
+    }
+
+    public VoteResultPacket(long term, boolean granted) {
+        super("VOTE_RESULT");
+        this.term = term;
+        this.granted = granted;
+    }
+
+    public long getTerm() {
+        return this.term;
+    }
+
+    public boolean isGranted() {
+        return this.granted;
+    }
+
+    @Override
+    public void write(PacketBuffer buffer) {
+        buffer.writeVarLong(this.term);
+        buffer.writeBoolean(this.granted);
+    }
+
+    @Override
+    public void read(PacketBuffer buffer) {
+        this.term = buffer.readVarLong();
+        this.granted = buffer.readBoolean();
+    }
+
+    public String toString() {
+        return "VoteResultPacket{term=" + this.term + ", granted=" + this.granted + "}";
+    }
+}
@@ -1,8 +1,10 @@
 package community.theprojects.fairy.util.network.packet.service;
 
 import com.nexoscript.nexonet.api.packet.Packet;
+import community.theprojects.fairy.util.network.BinaryPacket;
+import community.theprojects.fairy.util.network.PacketBuffer;
 
-public class ServiceStartPacket extends Packet {
+public class ServiceStartPacket extends Packet implements BinaryPacket {
     private String serviceName;
     private String path;
 
@@ -32,6 +34,18 @@ public class ServiceStartPacket extends Packet {
         this.path = path;
     }
 
+    @Override
+    public void write(PacketBuffer buffer) {
+        buffer.writeString(this.serviceName);
+        buffer.writeString(this.path);
+    }
+
+    @Override
+    public void read(PacketBuffer buffer) {
+        this.serviceName = buffer.readString();
+        this.path = buffer.readString();
+    }
+
     public String toString() {
         return "ServiceStartPacket{serviceName='" + this.serviceName + "', path='" + this.path + "'}";
     }
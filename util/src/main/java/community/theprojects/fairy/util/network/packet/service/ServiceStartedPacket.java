@@ -0,0 +1,80 @@
+package community.theprojects.fairy.util.network.packet.service;
+
+import com.nexoscript.nexonet.api.packet.Packet;
+import community.theprojects.fairy.util.network.BinaryPacket;
+import community.theprojects.fairy.util.network.PacketBuffer;
+
+public class ServiceStartedPacket extends Packet implements BinaryPacket {
+    private String serviceName;
+    private boolean success;
+    private String message;
+    private int port;
+
+    public ServiceStartedPacket() {
+        super("SERVICE_STARTED");
+    }
+
+    public ServiceStartedPacket(String serviceName, boolean success, String message) {
+        super("SERVICE_STARTED");
+        this.serviceName = serviceName;
+        this.success = success;
+        this.message = message;
+    }
+
+    public ServiceStartedPacket(String serviceName, boolean success, String message, int port) {
+        this(serviceName, success, message);
+        this.port = port;
+    }
+
+    public String getServiceName() {
+        return this.serviceName;
+    }
+
+    public void setServiceName(String serviceName) {
+        this.serviceName = serviceName;
+    }
+
+    public boolean isSuccess() {
+        return this.success;
+    }
+
+    public void setSuccess(boolean success) {
+        this.success = success;
+    }
+
+    public String getMessage() {
+        return this.message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    public int getPort() {
+        return this.port;
+    }
+
+    public void setPort(int port) {
+        this.port = port;
+    }
+
+    @Override
+    public void write(PacketBuffer buffer) {
+        buffer.writeString(this.serviceName);
+        buffer.writeBoolean(this.success);
+        buffer.writeString(this.message);
+        buffer.writeVarInt(this.port);
+    }
+
+    @Override
+    public void read(PacketBuffer buffer) {
+        this.serviceName = buffer.readString();
+        this.success = buffer.readBoolean();
+        this.message = buffer.readString();
+        this.port = buffer.readVarInt();
+    }
+
+    public String toString() {
+        return "ServiceStartedPacket{serviceName='" + this.serviceName + "', success=" + this.success + ", message='" + this.message + "', port=" + this.port + "}";
+    }
+}
@@ -0,0 +1,66 @@
+package community.theprojects.fairy.util.network.packet.template;
+
+import com.nexoscript.nexonet.api.packet.Packet;
+import community.theprojects.fairy.util.network.BinaryPacket;
+import community.theprojects.fairy.util.network.PacketBuffer;
+
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+
+public class TemplateChunkPacket extends Packet implements BinaryPacket {
+    private static final HexFormat HEX = HexFormat.of();
+    private String template;
+    private List<Chunk> chunks;
+
+    public TemplateChunkPacket() {
+        super("TEMPLATE_CHUNK");
+    }
+
+    public TemplateChunkPacket(String template, List<Chunk> chunks) {
+        super("TEMPLATE_CHUNK");
+        this.template = template;
+        this.chunks = chunks;
+    }
+
+    public String getTemplate() {
+        return this.template;
+    }
+
+    public List<Chunk> getChunks() {
+        return this.chunks;
+    }
+
+    @Override
+    public void write(PacketBuffer buffer) {
+        buffer.writeString(this.template);
+        buffer.writeVarInt(this.chunks.size());
+        for (Chunk chunk : this.chunks) {
+            byte[] hash = HEX.parseHex(chunk.hash());
+            buffer.writeBytes(hash, 0, hash.length);
+            buffer.writeBoolean(chunk.compressed());
+            buffer.writeBytes(chunk.data(), 0, chunk.length());
+        }
+    }
+
+    @Override
+    public void read(PacketBuffer buffer) {
+        this.template = buffer.readString();
+        int count = buffer.readVarInt();
+        this.chunks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String hash = HEX.formatHex(buffer.readBytes());
+            boolean compressed = buffer.readBoolean();
+            byte[] data = buffer.readBytes();
+            this.chunks.add(new Chunk(hash, compressed, data, data.length));
+        }
+    }
+
+    public String toString() {
+        return "TemplateChunkPacket{template='" + this.template + "', chunks=" + this.chunks.size() + "}";
+    }
+
+    // data kann größer als length sein, damit Kompressionspuffer ohne Kopie übergeben werden können
+    public record Chunk(String hash, boolean compressed, byte[] data, int length) {
+    }
+}
@@ -0,0 +1,7 @@
+package community.theprojects.fairy.util.network.packet.template;
+
+import java.util.List;
+
+// Chunks sind SHA-256-Hashes in Hex, in Dateireihenfolge
+public record TemplateFile(String path, long size, boolean executable, List<String> chunks) {
+}
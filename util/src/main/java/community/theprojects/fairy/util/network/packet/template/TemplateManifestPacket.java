@@ -0,0 +1,80 @@
+package community.theprojects.fairy.util.network.packet.template;
+
+import com.nexoscript.nexonet.api.packet.Packet;
+import community.theprojects.fairy.util.network.BinaryPacket;
+import community.theprojects.fairy.util.network.PacketBuffer;
+
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+
+public class TemplateManifestPacket extends Packet implements BinaryPacket {
+    private static final HexFormat HEX = HexFormat.of();
+    private String template;
+    private boolean apply;
+    private List<TemplateFile> files;
+
+    public TemplateManifestPacket() {
+        super("TEMPLATE_MANIFEST");
+    }
+
+    public TemplateManifestPacket(String template, boolean apply, List<TemplateFile> files) {
+        super("TEMPLATE_MANIFEST");
+        this.template = template;
+        this.apply = apply;
+        this.files = files;
+    }
+
+    public String getTemplate() {
+        return this.template;
+    }
+
+    // Ohne apply nur fehlende Chunks melden, mit apply das Template aus den Chunks aufbauen
+    public boolean isApply() {
+        return this.apply;
+    }
+
+    public List<TemplateFile> getFiles() {
+        return this.files;
+    }
+
+    @Override
+    public void write(PacketBuffer buffer) {
+        buffer.writeString(this.template);
+        buffer.writeBoolean(this.apply);
+        buffer.writeVarInt(this.files.size());
+        for (TemplateFile file : this.files) {
+            buffer.writeString(file.path());
+            buffer.writeVarLong(file.size());
+            buffer.writeBoolean(file.executable());
+            buffer.writeVarInt(file.chunks().size());
+            for (String chunk : file.chunks()) {
+                byte[] hash = HEX.parseHex(chunk);
+                buffer.writeBytes(hash, 0, hash.length);
+            }
+        }
+    }
+
+    @Override
+    public void read(PacketBuffer buffer) {
+        this.template = buffer.readString();
+        this.apply = buffer.readBoolean();
+        int count = buffer.readVarInt();
+        this.files = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String path = buffer.readString();
+            long size = buffer.readVarLong();
+            boolean executable = buffer.readBoolean();
+            int chunkCount = buffer.readVarInt();
+            List<String> chunks = new ArrayList<>(chunkCount);
+            for (int j = 0; j < chunkCount; j++) {
+                chunks.add(HEX.formatHex(buffer.readBytes()));
+            }
+            this.files.add(new TemplateFile(path, size, executable, chunks));
+        }
+    }
+
+    public String toString() {
+        return "TemplateManifestPacket{template='" + this.template + "', apply=" + this.apply + ", files=" + this.files.size() + "}";
+    }
+}
@@ -0,0 +1,66 @@
+package community.theprojects.fairy.util.network.packet.template;
+
+import com.nexoscript.nexonet.api.packet.Packet;
+import community.theprojects.fairy.util.network.BinaryPacket;
+import community.theprojects.fairy.util.network.PacketBuffer;
+
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+
+public class TemplateStatePacket extends Packet implements BinaryPacket {
+    private static final HexFormat HEX = HexFormat.of();
+    private String template;
+    private List<String> missing;
+    private String message;
+
+    public TemplateStatePacket() {
+        super("TEMPLATE_STATE");
+    }
+
+    public TemplateStatePacket(String template, List<String> missing, String message) {
+        super("TEMPLATE_STATE");
+        this.template = template;
+        this.missing = missing;
+        this.message = message;
+    }
+
+    public String getTemplate() {
+        return this.template;
+    }
+
+    public List<String> getMissing() {
+        return this.missing;
+    }
+
+    // null bei Erfolg
+    public String getMessage() {
+        return this.message;
+    }
+
+    @Override
+    public void write(PacketBuffer buffer) {
+        buffer.writeString(this.template);
+        buffer.writeVarInt(this.missing.size());
+        for (String chunk : this.missing) {
+            byte[] hash = HEX.parseHex(chunk);
+            buffer.writeBytes(hash, 0, hash.length);
+        }
+        buffer.writeString(this.message);
+    }
+
+    @Override
+    public void read(PacketBuffer buffer) {
+        this.template = buffer.readString();
+        int count = buffer.readVarInt();
+        this.missing = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            this.missing.add(HEX.formatHex(buffer.readBytes()));
+        }
+        this.message = buffer.readString();
+    }
+
+    public String toString() {
+        return "TemplateStatePacket{template='" + this.template + "', missing=" + this.missing.size() + ", message='" + this.message + "'}";
+    }
+}